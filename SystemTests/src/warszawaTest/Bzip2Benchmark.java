@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package warszawaTest;
+
+import edu.gvsu.kurmasz.warszawa.io.InputHelper;
+import org.apache.tools.bzip2.CBZip2InputStream;
+import org.apache.tools.bzip2.CBZip2OutputStream;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compares the throughput of the bzip2 {@code FilterFactory}s (including the {@code CBZip2InputStream} from the
+ * bundled bzip2.jar that {@code BZIP2_FACTORY} used to use) and of reading ahead on a background thread.  This is
+ * not part of the regular system tests.
+ * Run it from the SystemTests directory:
+ * <pre>
+ *    java -cp out:../dist/warszawa-1.7.jar warszawaTest.Bzip2Benchmark [megabytes] [repetitions]
+ * </pre>
+ * The input is {@code input/hamlet.txt} repeated until it is {@code megabytes} long (64 by default) and compressed
+ * with a 900k block size.  The compressed file is cached in the temp directory between runs.  The decoders are also
+ * timed on {@code input/hamlet.txt.bz2} itself.
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class Bzip2Benchmark {
+
+   // The decoder BZIP2_FACTORY used before Warszawa had its own.
+   private static final InputHelper.FilterFactory BUNDLED_BZIP2_FACTORY = new InputHelper.FilterFactory() {
+      public InputStream makeFilter(InputStream in) {
+         try {
+            if (in.read() != 'B' || in.read() != 'Z') {
+               throw new FilterFactoryException("BZip2 stream does not begin with \"BZ\".");
+            }
+         } catch (IOException e) {
+            throw new FilterFactoryException("Problem reading from underlying stream.", e);
+         }
+         return new CBZip2InputStream(new BufferedInputStream(in));
+      }
+   };
+
+   private static byte[] readAll(InputStream in) throws IOException {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] buffer = new byte[64 * 1024];
+      for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+         out.write(buffer, 0, n);
+      }
+      in.close();
+      return out.toByteArray();
+   }
+
+   private static File makeInput(int megabytes) throws IOException {
+      File file = new File(System.getProperty("java.io.tmpdir"), "warszawa_bzip2_benchmark_" + megabytes + ".txt.bz2");
+      if (file.exists()) {
+         return file;
+      }
+      byte[] hamlet = readAll(InputHelper.openFilteredInputStream(SystemTest.input("hamlet.txt.bz2")));
+      System.out.println("Building " + file + " ...");
+      OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+      out.write('B');
+      out.write('Z');
+      CBZip2OutputStream bz = new CBZip2OutputStream(out, 9);
+      for (long written = 0; written < megabytes * 1024L * 1024; written += hamlet.length) {
+         bz.write(hamlet);
+      }
+      bz.close();
+      return file;
+   }
+
+   // Returns the time (in seconds) to read the entire file and count its words.  (Counting words stands in for
+   // the parsing a real program would do.)
+   private static double time(File file, Map<String, InputHelper.FilterFactory> filterMap, boolean readAhead)
+         throws IOException {
+      byte[] buffer = new byte[64 * 1024];
+      long start = System.nanoTime();
+      InputStream in = readAhead ? InputHelper.openReadAheadInputStream(file, filterMap) :
+            InputHelper.openInputStream(file, filterMap);
+      long total = 0;
+      long words = 0;
+      boolean inWord = false;
+      for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+         total += n;
+         for (int i = 0; i < n; i++) {
+            boolean letter = Character.isLetterOrDigit(buffer[i]);
+            if (letter && !inWord) {
+               words++;
+            }
+            inWord = letter;
+         }
+      }
+      in.close();
+      double seconds = (System.nanoTime() - start) / 1e9;
+      System.out.printf("   %,d bytes (%,d words) in %.2f s (%.1f MB/s)%n", total, words, seconds,
+            total / seconds / (1024 * 1024));
+      return seconds;
+   }
+
+   // Returns the time (in seconds) to decompress the in-memory data "count" times.
+   private static double timeInMemory(byte[] compressed, InputHelper.FilterFactory factory, int count)
+         throws IOException {
+      byte[] buffer = new byte[64 * 1024];
+      long start = System.nanoTime();
+      long total = 0;
+      for (int i = 0; i < count; i++) {
+         InputStream in = factory.makeFilter(new ByteArrayInputStream(compressed));
+         for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+            total += n;
+         }
+      }
+      double seconds = (System.nanoTime() - start) / 1e9;
+      System.out.printf("   %,d bytes in %.2f s (%.1f MB/s)%n", total, seconds, total / seconds / (1024 * 1024));
+      return seconds;
+   }
+
+   public static void main(String[] args) throws Exception {
+      int megabytes = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+      int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+      File file = makeInput(megabytes);
+
+      Map<String, InputHelper.FilterFactory> bundled = new HashMap<String, InputHelper.FilterFactory>();
+      bundled.put("bz2", BUNDLED_BZIP2_FACTORY);
+      Map<String, InputHelper.FilterFactory> sequential = InputHelper.makeDefaultFilterFactoryMap();
+      Map<String, InputHelper.FilterFactory> parallel = new HashMap<String, InputHelper.FilterFactory>();
+      parallel.put("bz2", InputHelper.PARALLEL_BZIP2_FACTORY);
+
+      byte[] hamlet = readAll(new FileInputStream(SystemTest.input("hamlet.txt.bz2")));
+
+      System.out.println(Runtime.getRuntime().availableProcessors() + " processors available.");
+      double bestBundledHamlet = Double.MAX_VALUE;
+      double bestHamlet = Double.MAX_VALUE;
+      double bestBundled = Double.MAX_VALUE;
+      double bestSequential = Double.MAX_VALUE;
+      double bestParallel = Double.MAX_VALUE;
+      double bestReadAhead = Double.MAX_VALUE;
+      for (int i = 0; i < repetitions; i++) {
+         System.out.println("hamlet.txt.bz2 x 50, bundled CBZip2InputStream:");
+         bestBundledHamlet = Math.min(bestBundledHamlet, timeInMemory(hamlet, BUNDLED_BZIP2_FACTORY, 50));
+         System.out.println("hamlet.txt.bz2 x 50, BZIP2_FACTORY:");
+         bestHamlet = Math.min(bestHamlet, timeInMemory(hamlet, InputHelper.BZIP2_FACTORY, 50));
+         System.out.println("Bundled CBZip2InputStream:");
+         bestBundled = Math.min(bestBundled, time(file, bundled, false));
+         System.out.println("BZIP2_FACTORY:");
+         bestSequential = Math.min(bestSequential, time(file, sequential, false));
+         System.out.println("PARALLEL_BZIP2_FACTORY:");
+         bestParallel = Math.min(bestParallel, time(file, parallel, false));
+         System.out.println("BZIP2_FACTORY with read-ahead:");
+         bestReadAhead = Math.min(bestReadAhead, time(file, sequential, true));
+      }
+      System.out.printf("Decoder speedup over bundled jar, hamlet (best of %d): %.2fx%n", repetitions,
+            bestBundledHamlet / bestHamlet);
+      System.out.printf("Decoder speedup over bundled jar, %d MB (best of %d): %.2fx%n", megabytes, repetitions,
+            bestBundled / bestSequential);
+      System.out.printf("Parallel speedup (best of %d): %.2fx%n", repetitions, bestSequential / bestParallel);
+      System.out.printf("Read-ahead speedup (best of %d): %.2fx%n", repetitions, bestSequential / bestReadAhead);
+   }
+}
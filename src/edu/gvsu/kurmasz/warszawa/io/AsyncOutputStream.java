@@ -0,0 +1,439 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An {@code OutputStream} that writes to another {@code OutputStream} on a background thread ("write-behind").  The
+ * caller fills a bounded ring of buffers while the background thread writes full buffers to the underlying stream.
+ * This keeps slow writes (e.g., to network file systems, or through a compressing filter) off the caller's thread.
+ * (This is the output counterpart of {@link ReadAheadInputStream}.)
+ *
+ * <p>When every buffer is waiting to be written, the {@link Backpressure} policy decides what {@code write} does:
+ * {@link Backpressure#BLOCK} waits for a buffer; {@link Backpressure#FAIL} throws a {@link BufferFullException}
+ * without writing any of the data passed to that call.  (Note that {@code PrintWriter} does not throw exceptions;
+ * instead, {@code checkError()} returns {@code true}.)</p>
+ *
+ * <p>{@link #flush()} and {@link #close()} block until the background thread has written (and flushed or closed)
+ * everything written before them; so, when they return, the data has been handed to the operating system.  If the
+ * underlying stream throws an exception, the same exception is thrown by the next call to {@code write}, {@code
+ * flush}, or {@code close}.  Data written but not flushed is lost if the program exits without closing this
+ * stream.</p>
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class AsyncOutputStream extends OutputStream {
+
+   /**
+    * What {@code write} does when every buffer is waiting to be written.
+    */
+   public enum Backpressure {
+      /**
+       * Wait until the background thread frees a buffer.
+       */
+      BLOCK,
+      /**
+       * Throw a {@link BufferFullException}.
+       */
+      FAIL
+   }
+
+   /**
+    * Thrown by {@code write} when the policy is {@link Backpressure#FAIL} and there isn't room for the data.
+    */
+   public static class BufferFullException extends IOException {
+      public BufferFullException(String message) {
+         super(message);
+      }
+   }
+
+   /**
+    * The default number of buffers.
+    */
+   public static final int DEFAULT_DEPTH = 16;
+
+   /**
+    * The default size of each buffer (64KB).
+    */
+   public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+   private static int threadCount = 0;
+
+   // A buffer full of data, or a request to flush or close the underlying stream.
+   private static class Chunk {
+      final byte[] data;
+      final int length;
+      final CountDownLatch done;
+      final boolean close;
+
+      Chunk(byte[] data, int length, CountDownLatch done, boolean close) {
+         this.data = data;
+         this.length = length;
+         this.done = done;
+         this.close = close;
+      }
+   }
+
+   private final OutputStream out;
+   private final Backpressure policy;
+   private final int bufferSize;
+   private final BlockingQueue<Chunk> full;
+   private final BlockingQueue<byte[]> empty;
+   private final Thread writer;
+   private volatile Throwable error = null;
+
+   // Accessed only by the caller
+   private byte[] current = null;
+   private int count = 0;
+   private boolean closed = false;
+
+   // Statistics
+   private volatile int maxQueueDepth = 0;
+   private final AtomicLong blockedCount = new AtomicLong();
+   private final AtomicLong blockedNanos = new AtomicLong();
+   private final AtomicLong rejectedCount = new AtomicLong();
+   private final AtomicLong bytesWritten = new AtomicLong();
+
+   /**
+    * Constructor.  Uses {@link #DEFAULT_DEPTH} buffers of {@link #DEFAULT_BUFFER_SIZE} bytes and blocks when they
+    * are all full.
+    *
+    * @param out the underlying stream.
+    */
+   public AsyncOutputStream(OutputStream out) {
+      this(out, DEFAULT_DEPTH, DEFAULT_BUFFER_SIZE, Backpressure.BLOCK);
+   }
+
+   /**
+    * Constructor
+    *
+    * @param out        the underlying stream.
+    * @param depth      the number of buffers (i.e., the number of buffers that may wait to be written, including
+    *                   the one being written).
+    * @param bufferSize the size of each buffer.
+    * @param policy     what to do when all the buffers are full.
+    */
+   public AsyncOutputStream(OutputStream out, int depth, int bufferSize, Backpressure policy) {
+      if (out == null) {
+         throw new NullPointerException("parameter \"out\" cannot be null.");
+      }
+      if (policy == null) {
+         throw new NullPointerException("parameter \"policy\" cannot be null.");
+      }
+      if (depth < 1) {
+         throw new IllegalArgumentException("depth must be positive.");
+      }
+      if (bufferSize < 1) {
+         throw new IllegalArgumentException("bufferSize must be positive.");
+      }
+      this.out = out;
+      this.policy = policy;
+      this.bufferSize = bufferSize;
+
+      // The extra slot in "full" guarantees there is always room for a flush or close request.
+      this.empty = new ArrayBlockingQueue<byte[]>(depth);
+      this.full = new ArrayBlockingQueue<Chunk>(depth + 1);
+      for (int i = 0; i < depth; i++) {
+         empty.add(new byte[bufferSize]);
+      }
+
+      writer = new Thread(new Runnable() {
+         public void run() {
+            writeBehind();
+         }
+      }, nextThreadName());
+      writer.setDaemon(true);
+      writer.start();
+   }
+
+   private static synchronized String nextThreadName() {
+      return "AsyncOutputStream-" + (threadCount++);
+   }
+
+   // Runs on the background thread.
+   private void writeBehind() {
+      while (true) {
+         Chunk chunk;
+         try {
+            chunk = full.take();
+         } catch (InterruptedException e) {
+            // Nothing else interrupts this thread.  Keep serving requests so the caller doesn't wait forever.
+            if (error == null) {
+               error = new InterruptedIOException("Write-behind thread interrupted.");
+            }
+            continue;
+         }
+         try {
+            if (chunk.data != null) {
+               if (error == null) {
+                  out.write(chunk.data, 0, chunk.length);
+                  bytesWritten.addAndGet(chunk.length);
+               }
+               empty.add(chunk.data);
+            } else if (chunk.close) {
+               out.close();
+            } else if (error == null) {
+               out.flush();
+            }
+         } catch (Throwable t) {
+            if (error == null) {
+               error = t;
+            }
+            if (chunk.data != null) {
+               empty.add(chunk.data);
+            }
+         }
+         if (chunk.done != null) {
+            chunk.done.countDown();
+         }
+         if (chunk.close) {
+            return;
+         }
+      }
+   }
+
+   private void checkError() throws IOException {
+      Throwable t = error;
+      if (t == null) {
+         return;
+      }
+      if (t instanceof IOException) {
+         throw (IOException) t;
+      } else if (t instanceof RuntimeException) {
+         throw (RuntimeException) t;
+      } else if (t instanceof Error) {
+         throw (Error) t;
+      }
+      throw new IOException(t);
+   }
+
+   private void ensureOpen() throws IOException {
+      if (closed) {
+         throw new IOException("Stream closed.");
+      }
+      checkError();
+   }
+
+   // Hands the current buffer (if any) to the background thread.
+   private void submitCurrent() throws IOException {
+      if (current == null || count == 0) {
+         return;
+      }
+      put(new Chunk(current, count, null, false));
+      current = null;
+      count = 0;
+      int depth = full.size();
+      if (depth > maxQueueDepth) {
+         maxQueueDepth = depth;
+      }
+   }
+
+   private void put(Chunk chunk) throws IOException {
+      try {
+         full.put(chunk);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new InterruptedIOException("Interrupted while waiting for the write-behind thread.");
+      }
+   }
+
+   // Makes sure "current" has room for at least one more byte.
+   private void ensureRoom() throws IOException {
+      if (current != null && count < current.length) {
+         return;
+      }
+      submitCurrent();
+      byte[] next = empty.poll();
+      if (next == null) {
+         // Reached only with the BLOCK policy (FAIL checks for room before writing).
+         blockedCount.incrementAndGet();
+         long start = System.nanoTime();
+         try {
+            next = empty.take();
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the write-behind thread.");
+         } finally {
+            blockedNanos.addAndGet(System.nanoTime() - start);
+         }
+      }
+      current = next;
+      count = 0;
+   }
+
+   // With the FAIL policy, throws an exception unless "len" bytes fit in the current buffer and the free buffers.
+   private void checkRoom(int len) throws IOException {
+      if (policy != Backpressure.FAIL) {
+         return;
+      }
+      long room = (current == null ? 0 : current.length - count) + (long) empty.size() * bufferSize;
+      if (len > room) {
+         rejectedCount.incrementAndGet();
+         throw new BufferFullException("Write-behind buffers are full.");
+      }
+   }
+
+   @Override
+   public synchronized void write(int b) throws IOException {
+      ensureOpen();
+      checkRoom(1);
+      ensureRoom();
+      current[count++] = (byte) b;
+   }
+
+   @Override
+   public synchronized void write(byte[] b, int off, int len) throws IOException {
+      if (off < 0 || len < 0 || len > b.length - off) {
+         throw new IndexOutOfBoundsException();
+      }
+      ensureOpen();
+      checkRoom(len);
+      while (len > 0) {
+         ensureRoom();
+         int amount = Math.min(len, current.length - count);
+         System.arraycopy(b, off, current, count, amount);
+         count += amount;
+         off += amount;
+         len -= amount;
+      }
+   }
+
+   // Sends a flush or close request and waits for the background thread to finish it.
+   private void request(boolean close) throws IOException {
+      CountDownLatch done = new CountDownLatch(1);
+      put(new Chunk(null, 0, done, close));
+      try {
+         done.await();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new InterruptedIOException("Interrupted while waiting for the write-behind thread.");
+      }
+   }
+
+   /**
+    * Waits until everything written so far has been written to, and flushed by, the underlying stream.
+    *
+    * @throws IOException if writing to the underlying stream threw an exception.
+    */
+   @Override
+   public synchronized void flush() throws IOException {
+      ensureOpen();
+      submitCurrent();
+      request(false);
+      checkError();
+   }
+
+   /**
+    * Waits until everything written so far has been written to the underlying stream, then closes it and stops the
+    * background thread.
+    *
+    * @throws IOException if writing to (or closing) the underlying stream threw an exception.
+    */
+   @Override
+   public synchronized void close() throws IOException {
+      if (closed) {
+         return;
+      }
+      closed = true;
+      submitCurrent();
+      request(true);
+      checkError();
+   }
+
+   ////////////////////////////////////////////////////////
+   //
+   // Statistics
+   //
+   ///////////////////////////////////////////////////////
+
+   /**
+    * Returns the number of full buffers currently waiting to be written.
+    *
+    * @return the number of full buffers currently waiting to be written.
+    */
+   public int getQueueDepth() {
+      int depth = 0;
+      for (Chunk chunk : full) {
+         if (chunk.data != null) {
+            depth++;
+         }
+      }
+      return depth;
+   }
+
+   /**
+    * Returns the largest number of buffers that have been waiting to be written at once.  If this is close to the
+    * depth, the caller is producing data faster than the underlying stream can accept it.
+    *
+    * @return the largest number of buffers that have been waiting to be written at once.
+    */
+   public int getMaxQueueDepth() {
+      return maxQueueDepth;
+   }
+
+   /**
+    * Returns the number of times {@code write} had to wait for a free buffer.
+    *
+    * @return the number of times {@code write} had to wait for a free buffer.
+    */
+   public long getBlockedCount() {
+      return blockedCount.get();
+   }
+
+   /**
+    * Returns the total time (in nanoseconds) {@code write} has spent waiting for free buffers.
+    *
+    * @return the total time (in nanoseconds) {@code write} has spent waiting for free buffers.
+    */
+   public long getBlockedNanos() {
+      return blockedNanos.get();
+   }
+
+   /**
+    * Returns the number of writes rejected (with the {@link Backpressure#FAIL} policy) because the buffers were full.
+    *
+    * @return the number of writes rejected because the buffers were full.
+    */
+   public long getRejectedCount() {
+      return rejectedCount.get();
+   }
+
+   /**
+    * Returns the number of bytes written to the underlying stream so far.
+    *
+    * @return the number of bytes written to the underlying stream so far.
+    */
+   public long getBytesWritten() {
+      return bytesWritten.get();
+   }
+
+   @Override
+   public String toString() {
+      return String.format("AsyncOutputStream[queueDepth=%d, maxQueueDepth=%d, blocked=%d (%.1f ms), rejected=%d, " +
+            "bytesWritten=%d]", getQueueDepth(), getMaxQueueDepth(), getBlockedCount(), getBlockedNanos() / 1e6,
+            getRejectedCount(), getBytesWritten());
+   }
+}
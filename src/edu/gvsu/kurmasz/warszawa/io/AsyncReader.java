@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.ReadPendingException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reads an input sequentially without blocking the caller.  Each call to {@link #read(java.nio.ByteBuffer, Object,
+ * java.nio.channels.CompletionHandler)} returns immediately; the {@code CompletionHandler} is called (on another
+ * thread) when the data has arrived.  This allows a few threads to service many inputs.
+ *
+ * <p>Plain files are read using an {@code AsynchronousFileChannel}.  Other inputs (e.g., filtered files or streams
+ * from a stream map) are adapted by performing blocking reads on a pool of threads.  (See {@link
+ * InputHelper#openAsyncReader(String, java.util.Map, java.util.Map, java.util.concurrent.ExecutorService)}.)</p>
+ *
+ * <p>Only one read may be pending at a time.</p>
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public abstract class AsyncReader implements Closeable {
+
+   private static ExecutorService defaultExecutor = null;
+
+   // Used to adapt blocking channels when the caller doesn't provide an executor.
+   static synchronized ExecutorService getDefaultExecutor() {
+      if (defaultExecutor == null) {
+         defaultExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+               new ThreadFactory() {
+                  public Thread newThread(Runnable r) {
+                     Thread t = new Thread(r, "AsyncReader worker");
+                     t.setDaemon(true);
+                     return t;
+                  }
+               });
+      }
+      return defaultExecutor;
+   }
+
+   private final AtomicBoolean pending = new AtomicBoolean(false);
+
+   AsyncReader() {
+   }
+
+   /**
+    * Begins reading a sequence of bytes into {@code dst}.  When the read completes, {@code handler.completed} is
+    * passed the number of bytes read (or -1 at the end of the input).  If the read fails, {@code handler.failed} is
+    * passed the exception.
+    *
+    * @param dst        the buffer into which bytes are to be transferred
+    * @param attachment the object to pass to the handler
+    * @param handler    the handler for consuming the result
+    * @param <A>        the type of the attachment
+    * @throws ReadPendingException if a previous read has not yet completed.
+    */
+   public <A> void read(ByteBuffer dst, A attachment, CompletionHandler<Integer, ? super A> handler) {
+      if (dst == null || handler == null) {
+         throw new NullPointerException("parameters \"dst\" and \"handler\" cannot be null.");
+      }
+      if (!pending.compareAndSet(false, true)) {
+         throw new ReadPendingException();
+      }
+      startRead(dst, attachment, handler);
+   }
+
+   // Called (on any thread) once the pending read is finished, but before the handler is called, so that the
+   // handler may begin the next read.
+   void readFinished() {
+      pending.set(false);
+   }
+
+   abstract <A> void startRead(ByteBuffer dst, A attachment, CompletionHandler<Integer, ? super A> handler);
+
+   /**
+    * Returns {@code true} if this reader is open.
+    *
+    * @return {@code true} if this reader is open.
+    */
+   public abstract boolean isOpen();
+
+   // Reads a plain file using an AsynchronousFileChannel.
+   static class FileReader extends AsyncReader {
+      private final AsynchronousFileChannel channel;
+      private volatile long position = 0;
+
+      FileReader(AsynchronousFileChannel channel) {
+         this.channel = channel;
+      }
+
+      <A> void startRead(ByteBuffer dst, A attachment, final CompletionHandler<Integer, ? super A> handler) {
+         try {
+            channel.read(dst, position, attachment, new CompletionHandler<Integer, A>() {
+               public void completed(Integer result, A attachment) {
+                  if (result > 0) {
+                     position += result;
+                  }
+                  readFinished();
+                  handler.completed(result, attachment);
+               }
+
+               public void failed(Throwable exc, A attachment) {
+                  readFinished();
+                  handler.failed(exc, attachment);
+               }
+            });
+         } catch (RuntimeException e) {
+            readFinished();
+            throw e;
+         }
+      }
+
+      public boolean isOpen() {
+         return channel.isOpen();
+      }
+
+      public void close() throws IOException {
+         channel.close();
+      }
+   }
+
+   // Adapts a blocking channel by reading from it on an executor.
+   static class ChannelReader extends AsyncReader {
+      private final ReadableByteChannel channel;
+      private final ExecutorService executor;
+
+      ChannelReader(ReadableByteChannel channel, ExecutorService executor) {
+         this.channel = channel;
+         this.executor = executor;
+      }
+
+      <A> void startRead(final ByteBuffer dst, final A attachment,
+                         final CompletionHandler<Integer, ? super A> handler) {
+         if (!channel.isOpen()) {
+            readFinished();
+            handler.failed(new ClosedChannelException(), attachment);
+            return;
+         }
+         try {
+            executor.execute(new Runnable() {
+               public void run() {
+                  int n;
+                  try {
+                     n = channel.read(dst);
+                  } catch (Throwable t) {
+                     readFinished();
+                     handler.failed(t, attachment);
+                     return;
+                  }
+                  readFinished();
+                  handler.completed(n, attachment);
+               }
+            });
+         } catch (RuntimeException e) {
+            readFinished();
+            throw e;
+         }
+      }
+
+      public boolean isOpen() {
+         return channel.isOpen();
+      }
+
+      public void close() throws IOException {
+         channel.close();
+      }
+   }
+}
@@ -0,0 +1,577 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+
+/**
+ * Writes and reads {@code long[]} and {@code int[]} arrays as binary files.  Large arrays (e.g., those produced by
+ * {@link edu.gvsu.kurmasz.warszawa.listgen.Range} and {@link edu.gvsu.kurmasz.warszawa.listgen.RandomWithoutDuplicates})
+ * can be saved and reloaded much faster this way than by printing and parsing text.  The data is copied in bulk
+ * through {@code LongBuffer} and {@code IntBuffer} views of a {@code ByteBuffer}:
+ * <pre>
+ *    long[] values = new RandomWithoutDuplicates().generateLongArray(0, 1000000000, 10000000);
+ *    BinaryArrayHelper.write("values.bin.lz4", values);
+ *    long[] copy = BinaryArrayHelper.readLongArray("values.bin.lz4");
+ * </pre>
+ *
+ * <p>Files begin with a {@value #HEADER_SIZE}-byte header:  the magic number "WZAR", a version number, the
+ * element type ('I' for {@code int}, 'J' for {@code long}), the byte order ('B' for big-endian, 'L' for
+ * little-endian), a reserved byte, and the number of elements (as a big-endian {@code long}).  The elements follow
+ * in the byte order given in the header.  By default, arrays are written in the platform's native byte order,
+ * which makes the bulk copies simple memory copies; but, either byte order can be read on any platform.</p>
+ *
+ * <p>Named files are compressed and decompressed by suffix using the filter maps in {@link OutputHelper} and
+ * {@link InputHelper}.  Plain (i.e., unfiltered) files are read by memory-mapping them instead of reading them
+ * through a stream.  {@link #mapLongs(java.io.File)} and {@link #mapInts(java.io.File)} return a view of the mapped
+ * data without copying it at all.</p>
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class BinaryArrayHelper {
+
+   /**
+    * The length of the header, in bytes.
+    */
+   public static final int HEADER_SIZE = 16;
+
+   /**
+    * The first four bytes of every file.
+    */
+   public static final byte[] MAGIC = {'W', 'Z', 'A', 'R'};
+
+   /**
+    * The version of the file format written by this class.
+    */
+   public static final byte VERSION = 1;
+
+   static final byte INT_TYPE = 'I';
+   static final byte LONG_TYPE = 'J';
+
+   // The size of the buffer used to copy data to and from streams.
+   private static final int BUFFER_SIZE = 64 * 1024;
+
+   // The largest region of a file mapped at once.  (A multiple of 8.)
+   private static final int MAP_WINDOW = 1 << 30;
+
+   // The largest array the JVM can reliably allocate.
+   private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+   private BinaryArrayHelper() {
+   }
+
+   // The type and length of an array, as described by a file's header.
+   private static class Header {
+      final byte type;
+      final ByteOrder order;
+      final int count;
+
+      Header(byte type, ByteOrder order, int count) {
+         this.type = type;
+         this.order = order;
+         this.count = count;
+      }
+
+      int elementSize() {
+         return type == LONG_TYPE ? 8 : 4;
+      }
+   }
+
+   private static byte[] makeHeader(byte type, ByteOrder order, long count) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      header.put(MAGIC);
+      header.put(VERSION);
+      header.put(type);
+      header.put(order == ByteOrder.BIG_ENDIAN ? (byte) 'B' : (byte) 'L');
+      header.put((byte) 0);
+      header.putLong(count);
+      return header.array();
+   }
+
+   private static Header parseHeader(ByteBuffer header, byte expectedType) throws IOException {
+      for (byte b : MAGIC) {
+         if (header.get() != b) {
+            throw new IOException("Not a binary array file.");
+         }
+      }
+      byte version = header.get();
+      if (version != VERSION) {
+         throw new IOException("Unsupported binary array version " + version + ".");
+      }
+      byte type = header.get();
+      if (type != INT_TYPE && type != LONG_TYPE) {
+         throw new IOException("Unknown element type '" + (char) type + "'.");
+      }
+      if (type != expectedType) {
+         throw new IOException("File contains " + (type == LONG_TYPE ? "long" : "int") + "s, not " +
+               (expectedType == LONG_TYPE ? "long" : "int") + "s.");
+      }
+      byte orderCode = header.get();
+      if (orderCode != 'B' && orderCode != 'L') {
+         throw new IOException("Unknown byte order '" + (char) orderCode + "'.");
+      }
+      header.get();
+      long count = header.getLong();
+      if (count < 0 || count > MAX_ARRAY_LENGTH) {
+         throw new IOException("Invalid element count " + count + ".");
+      }
+      return new Header(type, orderCode == 'B' ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN, (int) count);
+   }
+
+   // Copies elements [off, off + n) of "array" into "buffer" (beginning at position 0).
+   private static void copyOut(Object array, int off, int n, ByteBuffer buffer) {
+      if (array instanceof long[]) {
+         buffer.asLongBuffer().put((long[]) array, off, n);
+      } else {
+         buffer.asIntBuffer().put((int[]) array, off, n);
+      }
+   }
+
+   // Copies elements from "buffer" (beginning at its position) into [off, off + n) of "array".
+   private static void copyIn(ByteBuffer buffer, Object array, int off, int n) {
+      if (array instanceof long[]) {
+         buffer.asLongBuffer().get((long[]) array, off, n);
+      } else {
+         buffer.asIntBuffer().get((int[]) array, off, n);
+      }
+   }
+
+   ////////////////////////////////////////////////////////
+   //
+   // Write
+   //
+   ///////////////////////////////////////////////////////
+
+   private static void writeArray(OutputStream out, Object array, byte type, int length, ByteOrder order)
+         throws IOException {
+      if (out == null) {
+         throw new NullPointerException("parameter \"out\" cannot be null.");
+      }
+      if (order == null) {
+         throw new NullPointerException("parameter \"order\" cannot be null.");
+      }
+      out.write(makeHeader(type, order, length));
+      int elementSize = type == LONG_TYPE ? 8 : 4;
+      int perBuffer = BUFFER_SIZE / elementSize;
+      ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(order);
+      for (int off = 0; off < length; off += perBuffer) {
+         int n = Math.min(perBuffer, length - off);
+         copyOut(array, off, n, buffer);
+         out.write(buffer.array(), 0, n * elementSize);
+      }
+      out.flush();
+   }
+
+   /**
+    * Writes {@code data} to {@code out} in the given byte order.  The stream is flushed, but not closed.
+    *
+    * @param out   the stream to which to write
+    * @param data  the array to write
+    * @param order the byte order of the elements
+    * @throws IOException if writing to {@code out} fails
+    */
+   public static void write(OutputStream out, long[] data, ByteOrder order) throws IOException {
+      writeArray(out, data, LONG_TYPE, data.length, order);
+   }
+
+   /**
+    * Writes {@code data} to {@code out} in the given byte order.  The stream is flushed, but not closed.
+    *
+    * @param out   the stream to which to write
+    * @param data  the array to write
+    * @param order the byte order of the elements
+    * @throws IOException if writing to {@code out} fails
+    */
+   public static void write(OutputStream out, int[] data, ByteOrder order) throws IOException {
+      writeArray(out, data, INT_TYPE, data.length, order);
+   }
+
+   private static void writeArray(String filename, Map<String, OutputStream> map,
+                                  Map<String, OutputHelper.FilterFactory> filterMap, Object array, byte type,
+                                  int length, ByteOrder order) throws IOException {
+      OutputStream out = OutputHelper.getOutputStream(filename, map, filterMap);
+      try {
+         writeArray(out, array, type, length, order);
+      } finally {
+         if (map == null || !map.containsKey(filename)) {
+            out.close();
+         }
+      }
+   }
+
+   /**
+    * Writes {@code data} to either the {@code OutputStream} specified in {@code map}, or the named (and possibly
+    * filtered) file.  (See {@link OutputHelper#getOutputStream(String, java.util.Map, java.util.Map)}.)  Files are
+    * closed; streams from {@code map} are flushed.
+    *
+    * @param filename  the file to which to write
+    * @param map       a map of filenames to exisiting {@code OutputStreams}.
+    * @param filterMap a map of file suffixes to filters that will post-process the data written.
+    * @param data      the array to write
+    * @param order     the byte order of the elements
+    * @throws FileNotFoundException if {@code file} cannot be opened for writing.
+    * @throws IOException           if writing fails.
+    * @throws OutputHelper.FilterFactory.FilterFactoryException
+    *                               if the filter cannot be created.
+    */
+   public static void write(String filename, Map<String, OutputStream> map,
+                            Map<String, OutputHelper.FilterFactory> filterMap, long[] data, ByteOrder order)
+         throws IOException {
+      writeArray(filename, map, filterMap, data, LONG_TYPE, data.length, order);
+   }
+
+   /**
+    * Writes {@code data} to either the {@code OutputStream} specified in {@code map}, or the named (and possibly
+    * filtered) file.  (See {@link OutputHelper#getOutputStream(String, java.util.Map, java.util.Map)}.)  Files are
+    * closed; streams from {@code map} are flushed.
+    *
+    * @param filename  the file to which to write
+    * @param map       a map of filenames to exisiting {@code OutputStreams}.
+    * @param filterMap a map of file suffixes to filters that will post-process the data written.
+    * @param data      the array to write
+    * @param order     the byte order of the elements
+    * @throws FileNotFoundException if {@code file} cannot be opened for writing.
+    * @throws IOException           if writing fails.
+    * @throws OutputHelper.FilterFactory.FilterFactoryException
+    *                               if the filter cannot be created.
+    */
+   public static void write(String filename, Map<String, OutputStream> map,
+                            Map<String, OutputHelper.FilterFactory> filterMap, int[] data, ByteOrder order)
+         throws IOException {
+      writeArray(filename, map, filterMap, data, INT_TYPE, data.length, order);
+   }
+
+   /**
+    * Calls {@link #write(String, java.util.Map, java.util.Map, long[], java.nio.ByteOrder)} using {@link
+    * OutputHelper#DEFAULT_OUTPUT_STREAM_MAP}, {@link OutputHelper#DEFAULT_FILTER_FACTORY_MAP}, and the native byte
+    * order.
+    *
+    * @param filename the file to which to write
+    * @param data     the array to write
+    * @throws FileNotFoundException if {@code file} cannot be opened for writing.
+    * @throws IOException           if writing fails.
+    * @throws OutputHelper.FilterFactory.FilterFactoryException
+    *                               if the filter cannot be created.
+    */
+   public static void write(String filename, long[] data) throws IOException {
+      write(filename, OutputHelper.DEFAULT_OUTPUT_STREAM_MAP, OutputHelper.DEFAULT_FILTER_FACTORY_MAP, data,
+            ByteOrder.nativeOrder());
+   }
+
+   /**
+    * Calls {@link #write(String, java.util.Map, java.util.Map, int[], java.nio.ByteOrder)} using {@link
+    * OutputHelper#DEFAULT_OUTPUT_STREAM_MAP}, {@link OutputHelper#DEFAULT_FILTER_FACTORY_MAP}, and the native byte
+    * order.
+    *
+    * @param filename the file to which to write
+    * @param data     the array to write
+    * @throws FileNotFoundException if {@code file} cannot be opened for writing.
+    * @throws IOException           if writing fails.
+    * @throws OutputHelper.FilterFactory.FilterFactoryException
+    *                               if the filter cannot be created.
+    */
+   public static void write(String filename, int[] data) throws IOException {
+      write(filename, OutputHelper.DEFAULT_OUTPUT_STREAM_MAP, OutputHelper.DEFAULT_FILTER_FACTORY_MAP, data,
+            ByteOrder.nativeOrder());
+   }
+
+   ////////////////////////////////////////////////////////
+   //
+   // Read from a stream
+   //
+   ///////////////////////////////////////////////////////
+
+   private static void readFully(InputStream in, byte[] b, int length) throws IOException {
+      int total = 0;
+      while (total < length) {
+         int n = in.read(b, total, length - total);
+         if (n < 0) {
+            throw new EOFException("Binary array file ends after " + total + " of " + length + " bytes.");
+         }
+         total += n;
+      }
+   }
+
+   private static Object readArray(InputStream in, byte type) throws IOException {
+      if (in == null) {
+         throw new NullPointerException("parameter \"in\" cannot be null.");
+      }
+      byte[] headerBytes = new byte[HEADER_SIZE];
+      readFully(in, headerBytes, HEADER_SIZE);
+      Header header = parseHeader(ByteBuffer.wrap(headerBytes), type);
+      Object array = type == LONG_TYPE ? new long[header.count] : new int[header.count];
+      int perBuffer = BUFFER_SIZE / header.elementSize();
+      ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(header.order);
+      for (int off = 0; off < header.count; off += perBuffer) {
+         int n = Math.min(perBuffer, header.count - off);
+         readFully(in, buffer.array(), n * header.elementSize());
+         copyIn(buffer, array, off, n);
+      }
+      return array;
+   }
+
+   /**
+    * Reads a {@code long[]} written by {@link #write(java.io.OutputStream, long[], java.nio.ByteOrder)}.  The
+    * stream is not closed.
+    *
+    * @param in the stream from which to read
+    * @return the array
+    * @throws IOException  if reading fails, the header is not valid, or the file contains {@code int}s.
+    * @throws EOFException if the stream ends before the entire array has been read.
+    */
+   public static long[] readLongArray(InputStream in) throws IOException {
+      return (long[]) readArray(in, LONG_TYPE);
+   }
+
+   /**
+    * Reads an {@code int[]} written by {@link #write(java.io.OutputStream, int[], java.nio.ByteOrder)}.  The stream
+    * is not closed.
+    *
+    * @param in the stream from which to read
+    * @return the array
+    * @throws IOException  if reading fails, the header is not valid, or the file contains {@code long}s.
+    * @throws EOFException if the stream ends before the entire array has been read.
+    */
+   public static int[] readIntArray(InputStream in) throws IOException {
+      return (int[]) readArray(in, INT_TYPE);
+   }
+
+   ////////////////////////////////////////////////////////
+   //
+   // Read from a memory-mapped file
+   //
+   ///////////////////////////////////////////////////////
+
+   private static Header readHeader(FileChannel channel, byte type, File file) throws IOException {
+      ByteBuffer headerBytes = ByteBuffer.allocate(HEADER_SIZE);
+      while (headerBytes.hasRemaining()) {
+         if (channel.read(headerBytes, headerBytes.position()) < 0) {
+            throw new EOFException(file.getPath() + " is too short to be a binary array file.");
+         }
+      }
+      ((Buffer) headerBytes).flip();    // (cast so the class also runs on Java 8)
+      Header header = parseHeader(headerBytes, type);
+      long expected = HEADER_SIZE + (long) header.count * header.elementSize();
+      if (channel.size() < expected) {
+         throw new EOFException(file.getPath() + " is " + channel.size() + " bytes long; but, its header requires "
+               + expected + ".");
+      }
+      return header;
+   }
+
+   private static Object readArray(File file, byte type) throws IOException {
+      RandomAccessFile raf = new RandomAccessFile(file, "r");
+      try {
+         FileChannel channel = raf.getChannel();
+         Header header = readHeader(channel, type, file);
+         Object array = type == LONG_TYPE ? new long[header.count] : new int[header.count];
+         int perWindow = MAP_WINDOW / header.elementSize();
+         for (int off = 0; off < header.count; off += perWindow) {
+            int n = Math.min(perWindow, header.count - off);
+            ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY,
+                  HEADER_SIZE + (long) off * header.elementSize(), (long) n * header.elementSize());
+            copyIn(window.order(header.order), array, off, n);
+         }
+         return array;
+      } finally {
+         raf.close();
+      }
+   }
+
+   /**
+    * Reads a {@code long[]} from an unfiltered file by memory-mapping it.
+    *
+    * @param file the file to read
+    * @return the array
+    * @throws FileNotFoundException if the file cannot be opened.
+    * @throws IOException           if the file cannot be mapped, the header is not valid, or the file contains
+    *                               {@code int}s.
+    * @throws EOFException          if the file is shorter than its header says.
+    */
+   public static long[] readLongArray(File file) throws IOException {
+      return (long[]) readArray(file, LONG_TYPE);
+   }
+
+   /**
+    * Reads an {@code int[]} from an unfiltered file by memory-mapping it.
+    *
+    * @param file the file to read
+    * @return the array
+    * @throws FileNotFoundException if the file cannot be opened.
+    * @throws IOException           if the file cannot be mapped, the header is not valid, or the file contains
+    *                               {@code long}s.
+    * @throws EOFException          if the file is shorter than its header says.
+    */
+   public static int[] readIntArray(File file) throws IOException {
+      return (int[]) readArray(file, INT_TYPE);
+   }
+
+   private static ByteBuffer mapData(File file, byte type) throws IOException {
+      RandomAccessFile raf = new RandomAccessFile(file, "r");
+      try {
+         FileChannel channel = raf.getChannel();
+         Header header = readHeader(channel, type, file);
+         long length = (long) header.count * header.elementSize();
+         if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(file.getPath() + " is too large to map into a single buffer.");
+         }
+         return channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, length).order(header.order);
+      } finally {
+         raf.close();
+      }
+   }
+
+   /**
+    * Maps the {@code long}s in an unfiltered file into memory without copying them.  The returned buffer is
+    * read-only, remains valid after the file is closed, and uses the byte order given in the file's header.
+    *
+    * @param file the file to map
+    * @return a read-only {@code LongBuffer} containing the file's elements
+    * @throws FileNotFoundException    if the file cannot be opened.
+    * @throws IOException              if the file cannot be mapped, the header is not valid, or the file contains
+    *                                  {@code int}s.
+    * @throws IllegalArgumentException if the data is larger than 2GB (the largest size a single {@code ByteBuffer}
+    *                                  can describe).  Use {@link #readLongArray(java.io.File)} to read larger files.
+    */
+   public static LongBuffer mapLongs(File file) throws IOException {
+      return mapData(file, LONG_TYPE).asLongBuffer();
+   }
+
+   /**
+    * Maps the {@code int}s in an unfiltered file into memory without copying them.  The returned buffer is
+    * read-only, remains valid after the file is closed, and uses the byte order given in the file's header.
+    *
+    * @param file the file to map
+    * @return a read-only {@code IntBuffer} containing the file's elements
+    * @throws FileNotFoundException    if the file cannot be opened.
+    * @throws IOException              if the file cannot be mapped, the header is not valid, or the file contains
+    *                                  {@code long}s.
+    * @throws IllegalArgumentException if the data is larger than 2GB (the largest size a single {@code ByteBuffer}
+    *                                  can describe).  Use {@link #readIntArray(java.io.File)} to read larger files.
+    */
+   public static IntBuffer mapInts(File file) throws IOException {
+      return mapData(file, INT_TYPE).asIntBuffer();
+   }
+
+   ////////////////////////////////////////////////////////
+   //
+   // Read from a named file
+   //
+   ///////////////////////////////////////////////////////
+
+   private static Object readArray(String filename, Map<String, InputStream> streamMap,
+                                   Map<String, InputHelper.FilterFactory> filterMap, byte type) throws IOException {
+      if (streamMap != null && streamMap.containsKey(filename)) {
+         return readArray(streamMap.get(filename), type);
+      }
+      File file = new File(filename);
+      if (filterMap == null || !filterMap.containsKey(FileHelper.getSuffix(file.getName()))) {
+         return readArray(file, type);
+      }
+      InputStream in = InputHelper.openInputStream(file, filterMap);
+      try {
+         return readArray(in, type);
+      } finally {
+         in.close();
+      }
+   }
+
+   /**
+    * Reads a {@code long[]} from either the {@code InputStream} specified in {@code streamMap}, or the named file.
+    * If {@code filename}'s suffix appears in {@code filterMap}, the file is read through that filter (see {@link
+    * InputHelper#openInputStream(String, java.util.Map, java.util.Map)}); otherwise, it is memory-mapped.  Files are
+    * closed; streams from {@code streamMap} are not.
+    *
+    * @param filename  the name of the file to read (or one of the keys in {@code streamMap}).
+    * @param streamMap a map of file names to existing {@code InputStream}s
+    * @param filterMap a map of file suffixes to filters that will pre-process the file.
+    * @return the array
+    * @throws FileNotFoundException if the requested file does not exist.
+    * @throws IOException           if reading fails, the header is not valid, or the file contains {@code int}s.
+    * @throws InputHelper.FilterFactory.FilterFactoryException
+    *                               if the specified filter cannot handle the given file.
+    */
+   public static long[] readLongArray(String filename, Map<String, InputStream> streamMap,
+                                      Map<String, InputHelper.FilterFactory> filterMap) throws IOException {
+      return (long[]) readArray(filename, streamMap, filterMap, LONG_TYPE);
+   }
+
+   /**
+    * Reads an {@code int[]} from either the {@code InputStream} specified in {@code streamMap}, or the named file.
+    * If {@code filename}'s suffix appears in {@code filterMap}, the file is read through that filter (see {@link
+    * InputHelper#openInputStream(String, java.util.Map, java.util.Map)}); otherwise, it is memory-mapped.  Files are
+    * closed; streams from {@code streamMap} are not.
+    *
+    * @param filename  the name of the file to read (or one of the keys in {@code streamMap}).
+    * @param streamMap a map of file names to existing {@code InputStream}s
+    * @param filterMap a map of file suffixes to filters that will pre-process the file.
+    * @return the array
+    * @throws FileNotFoundException if the requested file does not exist.
+    * @throws IOException           if reading fails, the header is not valid, or the file contains {@code long}s.
+    * @throws InputHelper.FilterFactory.FilterFactoryException
+    *                               if the specified filter cannot handle the given file.
+    */
+   public static int[] readIntArray(String filename, Map<String, InputStream> streamMap,
+                                    Map<String, InputHelper.FilterFactory> filterMap) throws IOException {
+      return (int[]) readArray(filename, streamMap, filterMap, INT_TYPE);
+   }
+
+   /**
+    * Calls {@link #readLongArray(String, java.util.Map, java.util.Map)} using {@link
+    * InputHelper#DEFAULT_INPUT_STREAM_MAP} and {@link InputHelper#DEFAULT_FILTER_FACTORY_MAP}.
+    *
+    * @param filename the name of the file to read
+    * @return the array
+    * @throws FileNotFoundException if the requested file does not exist.
+    * @throws IOException           if reading fails, the header is not valid, or the file contains {@code int}s.
+    * @throws InputHelper.FilterFactory.FilterFactoryException
+    *                               if the specified filter cannot handle the given file.
+    */
+   public static long[] readLongArray(String filename) throws IOException {
+      return readLongArray(filename, InputHelper.DEFAULT_INPUT_STREAM_MAP, InputHelper.DEFAULT_FILTER_FACTORY_MAP);
+   }
+
+   /**
+    * Calls {@link #readIntArray(String, java.util.Map, java.util.Map)} using {@link
+    * InputHelper#DEFAULT_INPUT_STREAM_MAP} and {@link InputHelper#DEFAULT_FILTER_FACTORY_MAP}.
+    *
+    * @param filename the name of the file to read
+    * @return the array
+    * @throws FileNotFoundException if the requested file does not exist.
+    * @throws IOException           if reading fails, the header is not valid, or the file contains {@code long}s.
+    * @throws InputHelper.FilterFactory.FilterFactoryException
+    *                               if the specified filter cannot handle the given file.
+    */
+   public static int[] readIntArray(String filename) throws IOException {
+      return readIntArray(filename, InputHelper.DEFAULT_INPUT_STREAM_MAP, InputHelper.DEFAULT_FILTER_FACTORY_MAP);
+   }
+}
@@ -0,0 +1,275 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, thread-safe pool of {@code byte}, {@code char}, and {@code int} arrays.  Programs that open many
+ * short-lived streams (e.g., tens of thousands of small files) can use a pool to re-use the streams' buffers
+ * instead of allocating new ones for every file.  (See {@link PooledInputStream}, {@link PooledWriter}, and {@link
+ * InputHelper#makePooledFilterFactoryMap(BufferPool)}.)
+ *
+ * <p>Requests are rounded up to a size class (a power of two between {@link #MIN_SIZE} and {@link #MAX_SIZE}), so
+ * the array returned may be longer than requested.  Each size class holds at most {@code maxPerClass} idle arrays;
+ * arrays released to a full class are dropped and left to the garbage collector.  Requests larger than {@link
+ * #MAX_SIZE} are always allocated and never pooled.</p>
+ *
+ * <p>{@link #getHits()}, {@link #getMisses()}, and {@link #getDiscards()} report how well the pool is working: Many
+ * misses mean the pool is too small or buffers aren't being released; many discards mean {@code maxPerClass} is
+ * larger than necessary.</p>
+ *
+ * <p>An array must not be used after it is released, and must be released at most once.</p>
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class BufferPool {
+
+   /**
+    * The smallest size class (256 elements).
+    */
+   public static final int MIN_SIZE = 1 << 8;
+
+   /**
+    * The largest size class (16M elements).
+    */
+   public static final int MAX_SIZE = 1 << 24;
+
+   /**
+    * The default maximum number of idle arrays in each size class.
+    */
+   public static final int DEFAULT_MAX_PER_CLASS = 16;
+
+   private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_SIZE);
+   private static final int NUM_CLASSES = Integer.numberOfTrailingZeros(MAX_SIZE) - MIN_SHIFT + 1;
+
+   /**
+    * A pool shared by the {@code InputHelper} and {@code OutputHelper} methods that don't take a pool as a
+    * parameter.  (Declared after the constants above, which the constructor uses.)
+    */
+   public static final BufferPool SHARED = new BufferPool();
+
+   private final int maxPerClass;
+   private final BlockingQueue<byte[]>[] bytes;
+   private final BlockingQueue<char[]>[] chars;
+   private final BlockingQueue<int[]>[] ints;
+
+   private final AtomicLong hits = new AtomicLong();
+   private final AtomicLong misses = new AtomicLong();
+   private final AtomicLong discards = new AtomicLong();
+
+   /**
+    * Constructor.  Each size class holds at most {@link #DEFAULT_MAX_PER_CLASS} idle arrays.
+    */
+   public BufferPool() {
+      this(DEFAULT_MAX_PER_CLASS);
+   }
+
+   /**
+    * Constructor
+    *
+    * @param maxPerClass the maximum number of idle arrays of each type in each size class.
+    */
+   public BufferPool(int maxPerClass) {
+      if (maxPerClass < 1) {
+         throw new IllegalArgumentException("maxPerClass must be positive.");
+      }
+      this.maxPerClass = maxPerClass;
+      this.bytes = makeQueues();
+      this.chars = makeQueues();
+      this.ints = makeQueues();
+   }
+
+   @SuppressWarnings("unchecked")
+   private <T> BlockingQueue<T>[] makeQueues() {
+      BlockingQueue<T>[] answer = new BlockingQueue[NUM_CLASSES];
+      for (int i = 0; i < NUM_CLASSES; i++) {
+         answer[i] = new ArrayBlockingQueue<T>(maxPerClass);
+      }
+      return answer;
+   }
+
+   // Returns the size class for a request of the given length, or -1 if the request is too large to pool.
+   static int sizeClass(int length) {
+      if (length < 0) {
+         throw new IllegalArgumentException("length must not be negative.");
+      }
+      if (length <= MIN_SIZE) {
+         return 0;
+      }
+      if (length > MAX_SIZE) {
+         return -1;
+      }
+      return 32 - Integer.numberOfLeadingZeros(length - 1) - MIN_SHIFT;
+   }
+
+   // Returns the size class of a released array, or -1 if its length is not exactly a class size.
+   private static int releaseClass(int length) {
+      if (length < MIN_SIZE || length > MAX_SIZE || Integer.bitCount(length) != 1) {
+         return -1;
+      }
+      return Integer.numberOfTrailingZeros(length) - MIN_SHIFT;
+   }
+
+   private static int classSize(int sizeClass) {
+      return MIN_SIZE << sizeClass;
+   }
+
+   private <T> T take(BlockingQueue<T>[] queues, int sizeClass) {
+      T answer = sizeClass < 0 ? null : queues[sizeClass].poll();
+      (answer == null ? misses : hits).incrementAndGet();
+      return answer;
+   }
+
+   private <T> void give(BlockingQueue<T>[] queues, T array, int length) {
+      if (array == null) {
+         throw new NullPointerException("parameter \"array\" cannot be null.");
+      }
+      int sizeClass = releaseClass(length);
+      if (sizeClass < 0 || !queues[sizeClass].offer(array)) {
+         discards.incrementAndGet();
+      }
+   }
+
+   /**
+    * Returns a {@code byte} array at least {@code minLength} long.  The contents of the array are undefined.
+    *
+    * @param minLength the minimum length of the array.
+    * @return a {@code byte} array at least {@code minLength} long.
+    */
+   public byte[] getBytes(int minLength) {
+      int sizeClass = sizeClass(minLength);
+      byte[] answer = take(bytes, sizeClass);
+      return answer != null ? answer : new byte[sizeClass < 0 ? minLength : classSize(sizeClass)];
+   }
+
+   /**
+    * Returns a {@code char} array at least {@code minLength} long.  The contents of the array are undefined.
+    *
+    * @param minLength the minimum length of the array.
+    * @return a {@code char} array at least {@code minLength} long.
+    */
+   public char[] getChars(int minLength) {
+      int sizeClass = sizeClass(minLength);
+      char[] answer = take(chars, sizeClass);
+      return answer != null ? answer : new char[sizeClass < 0 ? minLength : classSize(sizeClass)];
+   }
+
+   /**
+    * Returns an {@code int} array at least {@code minLength} long.  The contents of the array are undefined.
+    *
+    * @param minLength the minimum length of the array.
+    * @return an {@code int} array at least {@code minLength} long.
+    */
+   public int[] getInts(int minLength) {
+      int sizeClass = sizeClass(minLength);
+      int[] answer = take(ints, sizeClass);
+      return answer != null ? answer : new int[sizeClass < 0 ? minLength : classSize(sizeClass)];
+   }
+
+   /**
+    * Returns an array to the pool.  Arrays whose length is not a size class (e.g., arrays not obtained from a
+    * pool) are dropped.
+    *
+    * @param array the array to return.
+    */
+   public void release(byte[] array) {
+      give(bytes, array, array == null ? 0 : array.length);
+   }
+
+   /**
+    * Returns an array to the pool.  Arrays whose length is not a size class (e.g., arrays not obtained from a
+    * pool) are dropped.
+    *
+    * @param array the array to return.
+    */
+   public void release(char[] array) {
+      give(chars, array, array == null ? 0 : array.length);
+   }
+
+   /**
+    * Returns an array to the pool.  Arrays whose length is not a size class (e.g., arrays not obtained from a
+    * pool) are dropped.
+    *
+    * @param array the array to return.
+    */
+   public void release(int[] array) {
+      give(ints, array, array == null ? 0 : array.length);
+   }
+
+   /**
+    * Returns the number of requests satisfied by an idle array.
+    *
+    * @return the number of requests satisfied by an idle array.
+    */
+   public long getHits() {
+      return hits.get();
+   }
+
+   /**
+    * Returns the number of requests that required allocating a new array.
+    *
+    * @return the number of requests that required allocating a new array.
+    */
+   public long getMisses() {
+      return misses.get();
+   }
+
+   /**
+    * Returns the number of released arrays that were dropped because their size class was full (or their length
+    * was not a size class).
+    *
+    * @return the number of released arrays that were dropped.
+    */
+   public long getDiscards() {
+      return discards.get();
+   }
+
+   /**
+    * Returns the number of idle arrays currently in the pool.
+    *
+    * @return the number of idle arrays currently in the pool.
+    */
+   public int getIdleCount() {
+      int answer = 0;
+      for (int i = 0; i < NUM_CLASSES; i++) {
+         answer += bytes[i].size() + chars[i].size() + ints[i].size();
+      }
+      return answer;
+   }
+
+   /**
+    * Drops all idle arrays.  (The counters are not reset.)
+    */
+   public void clear() {
+      for (int i = 0; i < NUM_CLASSES; i++) {
+         bytes[i].clear();
+         chars[i].clear();
+         ints[i].clear();
+      }
+   }
+
+   @Override
+   public String toString() {
+      return "BufferPool[hits=" + getHits() + ", misses=" + getMisses() + ", discards=" + getDiscards() +
+            ", idle=" + getIdleCount() + "]";
+   }
+}
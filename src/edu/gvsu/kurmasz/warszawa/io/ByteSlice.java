@@ -0,0 +1,370 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * A view of a range of a {@code byte} array.  {@code ByteSlice} implements {@code CharSequence} by treating each
+ * byte as one character (i.e., ISO-8859-1).  This is correct for ASCII data and allows {@code ByteSlice}s to be
+ * passed to methods like {@code Pattern.matcher} and {@code StringBuilder.append} without first decoding the bytes
+ * into a {@code String}.  Use {@link #toString(Charset)} to decode other encodings.
+ *
+ * <p>{@code ByteSlice}s are views, not copies.  In particular, the {@code ByteSlice}s returned by {@link
+ * LineReader#nextLine()} are re-used, and their contents change each time a line is read.  Use {@link #copy()} or
+ * {@link #toString()} to keep a line.</p>
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class ByteSlice implements CharSequence {
+
+   private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+
+   private byte[] array;
+   private int offset;
+   private int length;
+
+   /**
+    * Constructor
+    *
+    * @param array  the underlying array (not copied).
+    * @param offset the index of the first byte in the slice.
+    * @param length the number of bytes in the slice.
+    * @throws IndexOutOfBoundsException if the range is not inside {@code array}.
+    */
+   public ByteSlice(byte[] array, int offset, int length) {
+      set(array, offset, length);
+   }
+
+   /**
+    * Constructor.  Views the entire array.
+    *
+    * @param array the underlying array (not copied).
+    */
+   public ByteSlice(byte[] array) {
+      this(array, 0, array.length);
+   }
+
+   // package scope:  Used by LineReader to re-use slices.
+   void set(byte[] array, int offset, int length) {
+      if (offset < 0 || length < 0 || length > array.length - offset) {
+         throw new IndexOutOfBoundsException("Range [" + offset + ", " + (offset + length) + ") is not inside an " +
+               "array of length " + array.length);
+      }
+      this.array = array;
+      this.offset = offset;
+      this.length = length;
+   }
+
+   /**
+    * Returns the underlying array.  Changes to the array are visible through this slice.
+    *
+    * @return the underlying array.
+    */
+   public byte[] array() {
+      return array;
+   }
+
+   /**
+    * Returns the index in {@link #array()} of the first byte in this slice.
+    *
+    * @return the index in {@link #array()} of the first byte in this slice.
+    */
+   public int offset() {
+      return offset;
+   }
+
+   public int length() {
+      return length;
+   }
+
+   /**
+    * Returns the byte at the given index.
+    *
+    * @param index the index of the byte relative to the start of this slice.
+    * @return the byte at the given index.
+    * @throws IndexOutOfBoundsException if {@code index} is not in {@code [0, length())}
+    */
+   public byte byteAt(int index) {
+      if (index < 0 || index >= length) {
+         throw new IndexOutOfBoundsException("Index " + index + " is not in [0, " + length + ")");
+      }
+      return array[offset + index];
+   }
+
+   public char charAt(int index) {
+      return (char) (byteAt(index) & 0xff);
+   }
+
+   /**
+    * Returns a new {@code ByteSlice} that shares this slice's array.
+    *
+    * @param start the first index (inclusive)
+    * @param end   the last index (exclusive)
+    * @return a new {@code ByteSlice} that shares this slice's array.
+    */
+   public ByteSlice subSequence(int start, int end) {
+      if (start < 0 || end > length || start > end) {
+         throw new IndexOutOfBoundsException("Range [" + start + ", " + end + ") is not in [0, " + length + ")");
+      }
+      return new ByteSlice(array, offset + start, end - start);
+   }
+
+   /**
+    * Returns the index of the first occurrence of {@code b} at or after {@code fromIndex}, or -1.
+    *
+    * @param b         the byte to find
+    * @param fromIndex the index at which to start searching
+    * @return the index (relative to the start of this slice) of the first occurrence of {@code b}, or -1.
+    */
+   public int indexOf(byte b, int fromIndex) {
+      for (int i = offset + Math.max(0, fromIndex); i < offset + length; i++) {
+         if (array[i] == b) {
+            return i - offset;
+         }
+      }
+      return -1;
+   }
+
+   /**
+    * Returns {@code true} if this slice contains exactly the bytes in {@code other}.
+    *
+    * @param other the bytes to compare
+    * @return {@code true} if this slice contains exactly the bytes in {@code other}.
+    */
+   public boolean contentEquals(byte[] other) {
+      if (other.length != length) {
+         return false;
+      }
+      for (int i = 0; i < length; i++) {
+         if (array[offset + i] != other[i]) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Parses this slice as a decimal {@code long}, like {@code Long.parseLong}, but without creating a {@code
+    * String}.
+    *
+    * @return the value of this slice.
+    * @throws NumberFormatException if this slice is not a valid {@code long}.
+    */
+   public long parseLong() {
+      return parseLong(array, offset, length);
+   }
+
+   /**
+    * Parses this slice as a decimal {@code int}, like {@code Integer.parseInt}, but without creating a {@code
+    * String}.
+    *
+    * @return the value of this slice.
+    * @throws NumberFormatException if this slice is not a valid {@code int}.
+    */
+   public int parseInt() {
+      return parseInt(array, offset, length);
+   }
+
+   /**
+    * Parses this slice as a {@code double}, like {@code Double.parseDouble}.  Plain decimal numbers with at most 15
+    * significant digits (the common case) are parsed without creating a {@code String}; other numbers (including
+    * "NaN", "Infinity", and hexadecimal) are passed to {@code Double.parseDouble}.  Unlike {@code
+    * Double.parseDouble}, leading and trailing whitespace is not allowed.
+    *
+    * @return the value of this slice.
+    * @throws NumberFormatException if this slice is not a valid {@code double}.
+    */
+   public double parseDouble() {
+      return parseDouble(array, offset, length);
+   }
+
+   private static NumberFormatException numberFormatException(byte[] array, int offset, int length) {
+      return new NumberFormatException("For input string: \"" + new String(array, offset, length, ISO_8859_1) +
+            "\"");
+   }
+
+   // package scope:  Used by DelimitedTokenizer.
+   static long parseLong(byte[] array, int offset, int length) {
+      int i = offset;
+      int end = offset + length;
+      boolean negative = false;
+      if (i < end && (array[i] == '-' || array[i] == '+')) {
+         negative = array[i] == '-';
+         i++;
+      }
+      if (i == end) {
+         throw numberFormatException(array, offset, length);
+      }
+      // Accumulate negatively (like Long.parseLong) so that Long.MIN_VALUE can be represented.
+      long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+      long multiplyLimit = limit / 10;
+      long answer = 0;
+      for (; i < end; i++) {
+         int digit = array[i] - '0';
+         if (digit < 0 || digit > 9 || answer < multiplyLimit) {
+            throw numberFormatException(array, offset, length);
+         }
+         answer *= 10;
+         if (answer < limit + digit) {
+            throw numberFormatException(array, offset, length);
+         }
+         answer -= digit;
+      }
+      return negative ? answer : -answer;
+   }
+
+   // package scope:  Used by DelimitedTokenizer.
+   static int parseInt(byte[] array, int offset, int length) {
+      // parseLong detects overflow, so zero-padded input of any length (which Integer.parseInt accepts) is fine.
+      long answer = parseLong(array, offset, length);
+      if (answer < Integer.MIN_VALUE || answer > Integer.MAX_VALUE) {
+         throw numberFormatException(array, offset, length);
+      }
+      return (int) answer;
+   }
+
+   // Powers of ten that are exactly representable as doubles.
+   private static final double[] POWERS_OF_TEN = {
+         1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18,
+         1e19, 1e20, 1e21, 1e22};
+
+   // package scope:  Used by DelimitedTokenizer.
+   static double parseDouble(byte[] array, int offset, int length) {
+      // If the significand has at most 15 digits (so it is exact as a double) and the power of ten is exact, a single
+      // multiplication or division is correctly rounded.  Otherwise, let Double.parseDouble do the hard work.
+      int i = offset;
+      int end = offset + length;
+      boolean negative = false;
+      if (i < end && (array[i] == '-' || array[i] == '+')) {
+         negative = array[i] == '-';
+         i++;
+      }
+      long significand = 0;
+      int digits = 0;         // significant digits accumulated (leading zeros don't count)
+      int scale = 0;          // power of ten by which to multiply significand
+      boolean sawDigit = false;
+      boolean sawPoint = false;
+      for (; i < end; i++) {
+         byte b = array[i];
+         if (b >= '0' && b <= '9') {
+            sawDigit = true;
+            if (digits < 15) {
+               significand = significand * 10 + (b - '0');
+               if (significand != 0) {
+                  digits++;
+               }
+               if (sawPoint) {
+                  scale--;
+               }
+            } else {
+               return slowParseDouble(array, offset, length);
+            }
+         } else if (b == '.' && !sawPoint) {
+            sawPoint = true;
+         } else {
+            break;
+         }
+      }
+      if (!sawDigit) {
+         return slowParseDouble(array, offset, length);
+      }
+      if (i < end) {
+         if (array[i] != 'e' && array[i] != 'E') {
+            return slowParseDouble(array, offset, length);
+         }
+         i++;
+         boolean negativeExponent = false;
+         if (i < end && (array[i] == '-' || array[i] == '+')) {
+            negativeExponent = array[i] == '-';
+            i++;
+         }
+         if (i == end || end - i > 3) {
+            return slowParseDouble(array, offset, length);
+         }
+         int exponent = 0;
+         for (; i < end; i++) {
+            int digit = array[i] - '0';
+            if (digit < 0 || digit > 9) {
+               return slowParseDouble(array, offset, length);
+            }
+            exponent = exponent * 10 + digit;
+         }
+         scale += negativeExponent ? -exponent : exponent;
+      }
+      double answer;
+      if (significand == 0) {
+         answer = 0.0;
+      } else if (scale >= 0 && scale < POWERS_OF_TEN.length) {
+         answer = significand * POWERS_OF_TEN[scale];
+      } else if (scale < 0 && -scale < POWERS_OF_TEN.length) {
+         answer = significand / POWERS_OF_TEN[-scale];
+      } else {
+         return slowParseDouble(array, offset, length);
+      }
+      return negative ? -answer : answer;
+   }
+
+   private static double slowParseDouble(byte[] array, int offset, int length) {
+      // Double.parseDouble ignores surrounding whitespace; be consistent with the fast path, which doesn't.
+      if (length == 0 || array[offset] <= ' ' || array[offset + length - 1] <= ' ') {
+         throw numberFormatException(array, offset, length);
+      }
+      return Double.parseDouble(new String(array, offset, length, ISO_8859_1));
+   }
+
+   /**
+    * Returns a copy of the bytes in this slice.
+    *
+    * @return a copy of the bytes in this slice.
+    */
+   public byte[] toByteArray() {
+      return Arrays.copyOfRange(array, offset, offset + length);
+   }
+
+   /**
+    * Returns a new {@code ByteSlice} backed by a copy of this slice's bytes.
+    *
+    * @return a new {@code ByteSlice} backed by a copy of this slice's bytes.
+    */
+   public ByteSlice copy() {
+      return new ByteSlice(toByteArray());
+   }
+
+   /**
+    * Decodes this slice using the given {@code Charset}.
+    *
+    * @param charset the encoding of the bytes.
+    * @return the decoded {@code String}.
+    */
+   public String toString(Charset charset) {
+      return new String(array, offset, length, charset);
+   }
+
+   /**
+    * Returns the characters in this sequence (one character per byte).
+    *
+    * @return the characters in this sequence (one character per byte).
+    */
+   @Override
+   public String toString() {
+      return toString(ISO_8859_1);
+   }
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * One compressed bzip2 block, as found by {@link Bzip2BlockScanner}.  The block's bits (beginning with the 48-bit
+ * block magic number) have been shifted so that they begin at the most significant bit of {@code bits[0]}.
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+class Bzip2Block {
+
+   private final byte[] bits;
+   private final long bitLength;
+   private final int level;
+   private final long bitOffset;
+
+   Bzip2Block(byte[] bits, long bitLength, int level, long bitOffset) {
+      this.bits = bits;
+      this.bitLength = bitLength;
+      this.level = level;
+      this.bitOffset = bitOffset;
+   }
+
+   /**
+    * @return the block's bits, beginning with the block magic number.
+    */
+   byte[] getBits() {
+      return bits;
+   }
+
+   /**
+    * @return the number of valid bits in {@link #getBits()}.
+    */
+   long getBitLength() {
+      return bitLength;
+   }
+
+   /**
+    * @return the block size (1 through 9) declared by the header of the stream containing this block.
+    */
+   int getLevel() {
+      return level;
+   }
+
+   /**
+    * @return the position of the block's first bit, relative to the beginning of the scanned data.
+    */
+   long getBitOffset() {
+      return bitOffset;
+   }
+
+   /**
+    * @return the CRC of the uncompressed block, as recorded in the block header.
+    */
+   int getCrc() {
+      // The CRC is the 32 bits following the 48-bit magic number, which is to say bytes 6 through 9.
+      return ((bits[6] & 0xff) << 24) | ((bits[7] & 0xff) << 16) | ((bits[8] & 0xff) << 8) | (bits[9] & 0xff);
+   }
+
+   /**
+    * Builds a complete, single-block bzip2 stream containing this block.  Because the stream contains only one
+    * block, the stream's combined CRC is the same as the block's CRC.
+    *
+    * @return a complete bzip2 stream, beginning with {@code "BZh"}.
+    */
+   byte[] toStream() {
+      int blockBytes = (int) (bitLength / 8);
+      int tailBits = (int) (bitLength % 8);
+      // header + whole bytes + partial byte + 48-bit EOS magic + 32-bit CRC + padding
+      byte[] stream = new byte[4 + blockBytes + 1 + 6 + 4 + 1];
+      stream[0] = 'B';
+      stream[1] = 'Z';
+      stream[2] = 'h';
+      stream[3] = (byte) ('0' + level);
+      System.arraycopy(bits, 0, stream, 4, blockBytes);
+
+      int pos = 4 + blockBytes;
+      long accumulator = (tailBits == 0) ? 0 : ((bits[blockBytes] & 0xff) >>> (8 - tailBits));
+      int accumulated = tailBits;
+
+      // Write the 48-bit magic, then the 32-bit CRC, 8 bits at a time.
+      long[] fields = {Bzip2BlockScanner.EOS_MAGIC, getCrc() & 0xffffffffL};
+      int[] widths = {48, 32};
+      for (int f = 0; f < fields.length; f++) {
+         for (int shift = widths[f] - 8; shift >= 0; shift -= 8) {
+            accumulator = (accumulator << 8) | ((fields[f] >>> shift) & 0xff);
+            accumulated += 8;
+            while (accumulated >= 8) {
+               stream[pos++] = (byte) (accumulator >>> (accumulated - 8));
+               accumulated -= 8;
+            }
+         }
+      }
+      if (accumulated > 0) {
+         stream[pos++] = (byte) (accumulator << (8 - accumulated));
+      }
+
+      byte[] answer = new byte[pos];
+      System.arraycopy(stream, 0, answer, 0, pos);
+      return answer;
+   }
+
+   /**
+    * Decompresses this block.
+    *
+    * @return the uncompressed contents of this block
+    * @throws IOException if the block cannot be decompressed.
+    */
+   byte[] decompress() throws IOException {
+      Bzip2InputStream decoder = new Bzip2InputStream(new ByteArrayInputStream(toStream()));
+      byte[] answer = new byte[level * 100000];
+      int length = 0;
+      for (int n = decoder.read(answer, 0, answer.length); n >= 0;
+           n = decoder.read(answer, length, answer.length - length)) {
+         length += n;
+         if (length == answer.length) {
+            // The initial run-length encoding can make a block expand to more than its nominal size.
+            answer = Arrays.copyOf(answer, answer.length * 2);
+         }
+      }
+      return length == answer.length ? answer : Arrays.copyOf(answer, length);
+   }
+}
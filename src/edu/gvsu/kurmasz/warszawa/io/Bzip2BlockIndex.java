@@ -0,0 +1,357 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.io.*;
+import java.util.Arrays;
+
+/**
+ * An index of the blocks in a bzip2 file that allows decompression to begin near an arbitrary uncompressed offset.
+ * For each block, the index records the position (in bits) of the block in the compressed file and the position
+ * (in bytes) of the block's first byte in the uncompressed data.  To read from uncompressed offset <i>x</i>, {@link
+ * #open(java.io.File, long)} begins decompressing at the last block that starts at or before <i>x</i>, then
+ * discards the (at most 900k) bytes preceding <i>x</i>.
+ *
+ * <p>Building an index requires decompressing the entire file once, so indexes are typically saved in a "sidecar"
+ * file next to the compressed file (see {@link #loadOrBuild(java.io.File)}).  The sidecar records the compressed
+ * file's length and modification time so that stale indexes are detected and rebuilt.</p>
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class Bzip2BlockIndex {
+
+   /**
+    * The suffix appended to the name of a bzip2 file to form the name of its sidecar index.
+    */
+   public static final String SIDECAR_SUFFIX = ".bzidx";
+
+   private static final int MAGIC = 0x57425a49;   // "WBZI"
+   private static final int VERSION = 1;
+
+   private final long compressedLength;
+   private final long lastModified;
+   private final long uncompressedLength;
+   private final long[] bitOffsets;
+   private final long[] uncompressedOffsets;
+   private final byte[] levels;
+
+   private Bzip2BlockIndex(long compressedLength, long lastModified, long uncompressedLength, long[] bitOffsets,
+                           long[] uncompressedOffsets, byte[] levels) {
+      this.compressedLength = compressedLength;
+      this.lastModified = lastModified;
+      this.uncompressedLength = uncompressedLength;
+      this.bitOffsets = bitOffsets;
+      this.uncompressedOffsets = uncompressedOffsets;
+      this.levels = levels;
+   }
+
+   /**
+    * Builds an index by scanning and decompressing the given bzip2 file.
+    *
+    * @param file the compressed file
+    * @return the new index
+    * @throws IOException if the file can't be read or is not a valid bzip2 file.
+    */
+   public static Bzip2BlockIndex build(File file) throws IOException {
+      long lastModified = file.lastModified();
+      InputStream in = new FileInputStream(file);
+      try {
+         return build(in, file.length(), lastModified);
+      } finally {
+         in.close();
+      }
+   }
+
+   /**
+    * Builds an index of the bzip2 data in the given stream.  The resulting index can't be validated against a file;
+    * so, {@link #isValidFor(java.io.File)} will return {@code true} for any file with the same length.
+    *
+    * @param in the compressed data (beginning with {@code "BZh"})
+    * @return the new index
+    * @throws IOException if the stream can't be read or is not valid bzip2 data.
+    */
+   public static Bzip2BlockIndex build(InputStream in) throws IOException {
+      CountingInputStream counter = new CountingInputStream(in);
+      Bzip2BlockIndex partial = build(counter, -1, 0);
+      return new Bzip2BlockIndex(counter.count, 0, partial.uncompressedLength, partial.bitOffsets,
+            partial.uncompressedOffsets, partial.levels);
+   }
+
+   private static Bzip2BlockIndex build(InputStream in, long compressedLength, long lastModified)
+         throws IOException {
+      Bzip2BlockScanner scanner = new Bzip2BlockScanner(in);
+      int count = 0;
+      long[] bitOffsets = new long[16];
+      long[] uncompressedOffsets = new long[16];
+      byte[] levels = new byte[16];
+      long uncompressed = 0;
+      for (Bzip2Block block = scanner.next(); block != null; block = scanner.next()) {
+         if (count == bitOffsets.length) {
+            bitOffsets = Arrays.copyOf(bitOffsets, 2 * count);
+            uncompressedOffsets = Arrays.copyOf(uncompressedOffsets, 2 * count);
+            levels = Arrays.copyOf(levels, 2 * count);
+         }
+         bitOffsets[count] = block.getBitOffset();
+         uncompressedOffsets[count] = uncompressed;
+         levels[count] = (byte) block.getLevel();
+         uncompressed += block.decompress().length;
+         count++;
+      }
+      return new Bzip2BlockIndex(compressedLength, lastModified, uncompressed, Arrays.copyOf(bitOffsets, count),
+            Arrays.copyOf(uncompressedOffsets, count), Arrays.copyOf(levels, count));
+   }
+
+   // Counts the bytes read so build(InputStream) can record the compressed length.
+   private static class CountingInputStream extends FilterInputStream {
+      long count = 0;
+
+      CountingInputStream(InputStream in) {
+         super(in);
+      }
+
+      @Override
+      public int read() throws IOException {
+         int answer = in.read();
+         if (answer >= 0) {
+            count++;
+         }
+         return answer;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+         int answer = in.read(b, off, len);
+         if (answer > 0) {
+            count += answer;
+         }
+         return answer;
+      }
+   }
+
+   /**
+    * Returns the name of the sidecar index for the given bzip2 file.
+    *
+    * @param file the compressed file
+    * @return the sidecar file (which may not exist).
+    */
+   public static File sidecarFor(File file) {
+      return new File(file.getPath() + SIDECAR_SUFFIX);
+   }
+
+   /**
+    * Loads the sidecar index for {@code file} if it exists and is up to date; otherwise, builds a new index and
+    * attempts to save it.  (Failure to save the sidecar, e.g. because the directory is read-only, is not an error.)
+    *
+    * @param file the compressed file
+    * @return an index for {@code file}
+    * @throws IOException if the file can't be read or is not a valid bzip2 file.
+    */
+   public static Bzip2BlockIndex loadOrBuild(File file) throws IOException {
+      File sidecar = sidecarFor(file);
+      if (sidecar.exists()) {
+         try {
+            Bzip2BlockIndex index = read(sidecar);
+            if (index.isValidFor(file)) {
+               return index;
+            }
+         } catch (IOException e) {
+            // The sidecar is unreadable.  Rebuild it.
+         }
+      }
+      Bzip2BlockIndex index = build(file);
+      try {
+         index.write(sidecar);
+      } catch (IOException e) {
+         // Saving the index is just an optimization.
+      }
+      return index;
+   }
+
+   /**
+    * Reads an index previously saved with {@link #write(java.io.File)}.
+    *
+    * @param indexFile the saved index
+    * @return the index
+    * @throws IOException if the file can't be read or is not an index.
+    */
+   public static Bzip2BlockIndex read(File indexFile) throws IOException {
+      DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+      try {
+         if (in.readInt() != MAGIC) {
+            throw new IOException(indexFile + " is not a bzip2 block index.");
+         }
+         int version = in.readInt();
+         if (version != VERSION) {
+            throw new IOException(indexFile + " has unsupported version " + version);
+         }
+         long compressedLength = in.readLong();
+         long lastModified = in.readLong();
+         long uncompressedLength = in.readLong();
+         int count = in.readInt();
+         if (count < 0) {
+            throw new IOException(indexFile + " is corrupt.");
+         }
+         long[] bitOffsets = new long[count];
+         long[] uncompressedOffsets = new long[count];
+         byte[] levels = new byte[count];
+         for (int i = 0; i < count; i++) {
+            bitOffsets[i] = in.readLong();
+            uncompressedOffsets[i] = in.readLong();
+            levels[i] = in.readByte();
+         }
+         return new Bzip2BlockIndex(compressedLength, lastModified, uncompressedLength, bitOffsets,
+               uncompressedOffsets, levels);
+      } finally {
+         in.close();
+      }
+   }
+
+   /**
+    * Saves this index.
+    *
+    * @param indexFile the file to which to write the index
+    * @throws IOException if the file can't be written.
+    */
+   public void write(File indexFile) throws IOException {
+      DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile)));
+      try {
+         out.writeInt(MAGIC);
+         out.writeInt(VERSION);
+         out.writeLong(compressedLength);
+         out.writeLong(lastModified);
+         out.writeLong(uncompressedLength);
+         out.writeInt(bitOffsets.length);
+         for (int i = 0; i < bitOffsets.length; i++) {
+            out.writeLong(bitOffsets[i]);
+            out.writeLong(uncompressedOffsets[i]);
+            out.writeByte(levels[i]);
+         }
+      } finally {
+         out.close();
+      }
+   }
+
+   /**
+    * Returns {@code true} if this index appears to describe {@code file} (i.e., the length and modification time
+    * match).
+    *
+    * @param file the compressed file
+    * @return {@code true} if this index appears to describe {@code file}
+    */
+   public boolean isValidFor(File file) {
+      return file.length() == compressedLength && (lastModified == 0 || file.lastModified() == lastModified);
+   }
+
+   /**
+    * Returns the number of blocks in the file.
+    *
+    * @return the number of blocks in the file.
+    */
+   public int getNumBlocks() {
+      return bitOffsets.length;
+   }
+
+   /**
+    * Returns the length of the uncompressed data.
+    *
+    * @return the length of the uncompressed data.
+    */
+   public long getUncompressedLength() {
+      return uncompressedLength;
+   }
+
+   /**
+    * Returns the position (in bits) of the given block in the compressed file.
+    *
+    * @param block the block number
+    * @return the position (in bits) of the given block in the compressed file.
+    */
+   public long getBitOffset(int block) {
+      return bitOffsets[block];
+   }
+
+   /**
+    * Returns the position in the uncompressed data of the given block's first byte.
+    *
+    * @param block the block number
+    * @return the position in the uncompressed data of the given block's first byte.
+    */
+   public long getUncompressedOffset(int block) {
+      return uncompressedOffsets[block];
+   }
+
+   /**
+    * Returns the number of the block containing the given uncompressed offset.
+    *
+    * @param uncompressedOffset a position in the uncompressed data
+    * @return the number of the last block that begins at or before {@code uncompressedOffset}, or -1 if there are
+    *         no blocks.
+    */
+   public int findBlock(long uncompressedOffset) {
+      int index = Arrays.binarySearch(uncompressedOffsets, uncompressedOffset);
+      if (index < 0) {
+         return -index - 2;
+      }
+      // Empty blocks can share an offset.  Use the last one.
+      while (index + 1 < uncompressedOffsets.length && uncompressedOffsets[index + 1] == uncompressedOffset) {
+         index++;
+      }
+      return index;
+   }
+
+   /**
+    * Opens {@code file} and returns a stream of the uncompressed data beginning at {@code uncompressedOffset}.
+    *
+    * @param file               the compressed file described by this index
+    * @param uncompressedOffset the position in the uncompressed data of the first byte to return
+    * @return a stream of the uncompressed data beginning at {@code uncompressedOffset}
+    * @throws IOException if the file can't be read or is not a valid bzip2 file.
+    */
+   public InputStream open(File file, long uncompressedOffset) throws IOException {
+      if (uncompressedOffset < 0 || uncompressedOffset > uncompressedLength) {
+         throw new IllegalArgumentException("Offset " + uncompressedOffset + " is not in [0, " +
+               uncompressedLength + "]");
+      }
+      int block = findBlock(uncompressedOffset);
+      if (block < 0 || uncompressedOffset == uncompressedLength) {
+         return new ByteArrayInputStream(new byte[0]);
+      }
+      FileInputStream in = new FileInputStream(file);
+      InputStream answer;
+      try {
+         long bitOffset = bitOffsets[block];
+         in.getChannel().position(bitOffset / 8);
+         Bzip2BlockScanner scanner = new Bzip2BlockScanner(in, bitOffset, levels[block]);
+         answer = new ParallelBzip2InputStream(in, scanner, Runtime.getRuntime().availableProcessors());
+      } catch (IOException e) {
+         in.close();
+         throw e;
+      }
+      long toSkip = uncompressedOffset - uncompressedOffsets[block];
+      while (toSkip > 0) {
+         long skipped = answer.skip(toSkip);
+         if (skipped <= 0) {
+            answer.close();
+            throw new IOException("Index does not match " + file + " (unexpected end of data).");
+         }
+         toSkip -= skipped;
+      }
+      return answer;
+   }
+}
@@ -0,0 +1,275 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Splits a bzip2 stream into its individual compressed blocks without decompressing them.
+ *
+ * <p>bzip2 blocks are not byte-aligned.  Each block begins with the 48-bit magic number {@code 0x314159265359}
+ * and each stream ends with the 48-bit magic number {@code 0x177245385090}, followed by a 32-bit CRC and enough
+ * padding to reach a byte boundary.  This class watches for these magic numbers one bit at a time and returns
+ * each block as a {@link Bzip2Block} whose bits have been shifted so that the block magic begins at bit 0.
+ * Files containing several concatenated streams (such as those written by {@code pbzip2}) are handled by
+ * looking for another {@code "BZh"} header after each end-of-stream marker.</p>
+ *
+ * <p>Note:  Like {@code pbzip2}, this scanner assumes that the block magic number never appears by chance inside
+ * the compressed data.  The probability of this happening is roughly one in 2<sup>48</sup> per bit.</p>
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+class Bzip2BlockScanner {
+
+   static final long BLOCK_MAGIC = 0x314159265359L;
+   static final long EOS_MAGIC = 0x177245385090L;
+   private static final long MASK_48 = 0xFFFFFFFFFFFFL;
+   private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+   private final InputStream in;
+   private final byte[] readBuffer = new byte[READ_BUFFER_SIZE];
+   private int readPos = 0;
+   private int readLimit = 0;
+
+   // The bytes containing the block currently being scanned.  blockBytes[0] is byte number blockBytesStart
+   // of the input.
+   private byte[] blockBytes = new byte[READ_BUFFER_SIZE];
+   private int blockLength = 0;
+   private long blockBytesStart;
+
+   private int currentByte;
+   private int bitsLeftInByte = 0;
+   private long bitPosition;    // number of bits consumed so far
+   private long window = 0;
+
+   private int level = -1;               // block size (in 100k units) of the current stream
+   private long currentBlockStart = -1;  // bit offset of the current block's magic number, or -1
+   private boolean needStreamHeader;
+   private int bitsToSkip = 0;
+   private boolean done = false;
+
+   /**
+    * Constructor for a scanner positioned at the beginning of a bzip2 file.
+    *
+    * @param in the compressed data, beginning with the {@code "BZh"} header.
+    */
+   Bzip2BlockScanner(InputStream in) {
+      this(in, 0L, -1);
+   }
+
+   /**
+    * Constructor for a scanner positioned at the beginning of a block in the middle of a bzip2 stream.
+    *
+    * @param in          the compressed data.  The first byte read from {@code in} is byte
+    *                    {@code startBitOffset / 8} of the original file.
+    * @param startBitOffset the position of the first bit of a block magic number, relative to the beginning of the
+    *                    original file
+    * @param level       the block size (1 through 9) from the header of the enclosing stream.
+    */
+   Bzip2BlockScanner(InputStream in, long startBitOffset, int level) {
+      this.in = in;
+      this.blockBytesStart = startBitOffset / 8;
+      this.bitPosition = blockBytesStart * 8;
+      this.level = level;
+      this.needStreamHeader = (level < 0);
+      if (!needStreamHeader) {
+         // the bits in the first byte that precede the block
+         bitsToSkip = (int) (startBitOffset % 8);
+      }
+   }
+
+   /**
+    * Returns the block size (in units of 100k) declared by the stream currently being scanned.
+    *
+    * @return the block size, or -1 if no stream header has been read.
+    */
+   int getLevel() {
+      return level;
+   }
+
+   /**
+    * Returns the next block, or {@code null} if there are no more blocks.
+    *
+    * @return the next block, or {@code null} if there are no more blocks.
+    * @throws IOException if the underlying stream throws an exception or the data is not in bzip2 format
+    */
+   Bzip2Block next() throws IOException {
+      for (; bitsToSkip > 0; bitsToSkip--) {
+         if (nextBit() < 0) {
+            throw new IOException("Unexpected end of bzip2 data.");
+         }
+      }
+      while (!done) {
+         if (needStreamHeader) {
+            if (!readStreamHeader()) {
+               done = true;
+               return null;
+            }
+            needStreamHeader = false;
+         }
+
+         int bit = nextBit();
+         if (bit < 0) {
+            throw new IOException("Unexpected end of bzip2 data (no end-of-stream marker).");
+         }
+         window = (window << 1) | bit;
+         long lastBits = window & MASK_48;
+         if (lastBits == BLOCK_MAGIC) {
+            Bzip2Block finished = finishBlock(bitPosition - 48);
+            currentBlockStart = bitPosition - 48;
+            if (finished != null) {
+               return finished;
+            }
+         } else if (lastBits == EOS_MAGIC) {
+            Bzip2Block finished = finishBlock(bitPosition - 48);
+            currentBlockStart = -1;
+            skipStreamTrailer();
+            if (finished != null) {
+               return finished;
+            }
+         }
+      }
+      return null;
+   }
+
+   // No compressed block can be this large, even if the data is incompressible.
+   private int maxBlockBytes() {
+      return level * 250000 + READ_BUFFER_SIZE;
+   }
+
+   private Bzip2Block finishBlock(long endBit) {
+      if (currentBlockStart < 0) {
+         return null;
+      }
+      long numBits = endBit - currentBlockStart;
+      byte[] aligned = copyBits(blockBytes, currentBlockStart - blockBytesStart * 8, numBits);
+
+      // Discard the bytes that precede the byte containing endBit.
+      int keepFrom = (int) (endBit / 8 - blockBytesStart);
+      System.arraycopy(blockBytes, keepFrom, blockBytes, 0, blockLength - keepFrom);
+      blockLength -= keepFrom;
+      blockBytesStart += keepFrom;
+
+      return new Bzip2Block(aligned, numBits, level, currentBlockStart);
+   }
+
+   /**
+    * Copies {@code numBits} bits beginning at bit {@code srcBit} of {@code src} into a new array so that the first
+    * bit copied is the most significant bit of element 0.
+    */
+   static byte[] copyBits(byte[] src, long srcBit, long numBits) {
+      int numBytes = (int) ((numBits + 7) / 8);
+      byte[] answer = new byte[numBytes];
+      int srcByte = (int) (srcBit / 8);
+      int shift = (int) (srcBit % 8);
+      if (shift == 0) {
+         System.arraycopy(src, srcByte, answer, 0, numBytes);
+      } else {
+         int last = src.length - 1;
+         for (int i = 0; i < numBytes; i++) {
+            int hi = (src[srcByte + i] << shift) & 0xff;
+            int lo = (srcByte + i < last) ? (src[srcByte + i + 1] & 0xff) >>> (8 - shift) : 0;
+            answer[i] = (byte) (hi | lo);
+         }
+      }
+      int extra = (int) (numBytes * 8L - numBits);
+      if (extra > 0) {
+         answer[numBytes - 1] &= (byte) (0xff << extra);
+      }
+      return answer;
+   }
+
+   // After the end-of-stream magic comes a 32-bit combined CRC and padding to the next byte boundary.
+   private void skipStreamTrailer() throws IOException {
+      for (int i = 0; i < 32; i++) {
+         if (nextBit() < 0) {
+            throw new IOException("Unexpected end of bzip2 data (truncated stream CRC).");
+         }
+      }
+      bitsLeftInByte = 0;
+      bitPosition = (bitPosition + 7) / 8 * 8;
+      needStreamHeader = true;
+   }
+
+   // Returns false if there is no further stream.  Like the bzip2 command-line tool, any trailing data that does not
+   // begin with a bzip2 header is ignored.
+   private boolean readStreamHeader() throws IOException {
+      int b = nextByte();
+      if (b < 0) {
+         return false;
+      }
+      int z = nextByte();
+      int h = nextByte();
+      int blockSize = nextByte();
+      if (b != 'B' || z != 'Z' || h != 'h' || blockSize < '1' || blockSize > '9') {
+         if (level < 0) {
+            throw new IOException("Data does not begin with a bzip2 header.");
+         }
+         return false;
+      }
+      level = blockSize - '0';
+      window = 0;
+      blockLength = 0;
+      blockBytesStart = bitPosition / 8;
+      return true;
+   }
+
+   private int nextByte() throws IOException {
+      if (readPos == readLimit) {
+         readLimit = in.read(readBuffer, 0, readBuffer.length);
+         readPos = 0;
+         if (readLimit <= 0) {
+            readLimit = 0;
+            return -1;
+         }
+      }
+      int b = readBuffer[readPos++] & 0xff;
+      bitPosition += 8;
+      return b;
+   }
+
+   private int nextBit() throws IOException {
+      if (bitsLeftInByte == 0) {
+         if (readPos == readLimit) {
+            readLimit = in.read(readBuffer, 0, readBuffer.length);
+            readPos = 0;
+            if (readLimit <= 0) {
+               readLimit = 0;
+               return -1;
+            }
+         }
+         currentByte = readBuffer[readPos++] & 0xff;
+         bitsLeftInByte = 8;
+         if (blockLength == blockBytes.length) {
+            if (currentBlockStart >= 0 && blockLength > maxBlockBytes()) {
+               throw new IOException("bzip2 block starting at bit " + currentBlockStart + " is too large.  " +
+                     "The data is probably corrupt.");
+            }
+            byte[] bigger = new byte[blockBytes.length * 2];
+            System.arraycopy(blockBytes, 0, bigger, 0, blockLength);
+            blockBytes = bigger;
+         }
+         blockBytes[blockLength++] = (byte) currentByte;
+      }
+      bitsLeftInByte--;
+      bitPosition++;
+      return (currentByte >>> bitsLeftInByte) & 1;
+   }
+}
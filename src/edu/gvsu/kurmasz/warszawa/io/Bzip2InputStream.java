@@ -0,0 +1,704 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An {@code InputStream} that decompresses bzip2 data.  Compared to the {@code CBZip2InputStream} bundled with
+ * earlier versions of Warszawa, this decoder
+ * <ul>
+ * <li>decodes Huffman symbols using lookup tables instead of one bit at a time,</li>
+ * <li>inverts the Burrows-Wheeler transform using a single linked {@code int} array,</li>
+ * <li>implements a real bulk {@code read(byte[], int, int)},</li>
+ * <li>decodes files containing several concatenated bzip2 streams (such as those written by {@code pbzip2}),
+ * and</li>
+ * <li>throws an {@code IOException} (instead of printing a message) when a CRC does not match.</li>
+ * </ul>
+ *
+ * <p>Like the {@code bzip2} command-line tool, this stream ignores any data following the last bzip2 stream.</p>
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class Bzip2InputStream extends InputStream {
+
+   private static final long BLOCK_MAGIC = 0x314159265359L;
+   private static final long EOS_MAGIC = 0x177245385090L;
+   private static final int MAX_GROUPS = 6;
+   private static final int MAX_ALPHA_SIZE = 258;
+   private static final int MAX_CODE_LENGTH = 20;
+   private static final int MAX_SELECTORS = 18002;
+   private static final int GROUP_SIZE = 50;
+   private static final int RUNA = 0;
+   private static final int RUNB = 1;
+
+   // Huffman codes up to this length are decoded with a single table lookup.
+   private static final int LOOKUP_BITS = 10;
+   private static final int LOOKUP_MASK = (1 << LOOKUP_BITS) - 1;
+
+   private static final int INPUT_BUFFER_SIZE = 64 * 1024;
+
+   // Used to "de-randomize" blocks written by very old versions of bzip2 (and by CBZip2OutputStream, which falls
+   // back to randomizing highly repetitive blocks).
+   private static final int[] R_NUMS = {
+         619, 720, 127, 481, 931, 816, 813, 233, 566, 247, 985, 724, 205, 454, 863, 491,
+         741, 242, 949, 214, 733, 859, 335, 708, 621, 574, 73, 654, 730, 472, 419, 436,
+         278, 496, 867, 210, 399, 680, 480, 51, 878, 465, 811, 169, 869, 675, 611, 697,
+         867, 561, 862, 687, 507, 283, 482, 129, 807, 591, 733, 623, 150, 238, 59, 379,
+         684, 877, 625, 169, 643, 105, 170, 607, 520, 932, 727, 476, 693, 425, 174, 647,
+         73, 122, 335, 530, 442, 853, 695, 249, 445, 515, 909, 545, 703, 919, 874, 474,
+         882, 500, 594, 612, 641, 801, 220, 162, 819, 984, 589, 513, 495, 799, 161, 604,
+         958, 533, 221, 400, 386, 867, 600, 782, 382, 596, 414, 171, 516, 375, 682, 485,
+         911, 276, 98, 553, 163, 354, 666, 933, 424, 341, 533, 870, 227, 730, 475, 186,
+         263, 647, 537, 686, 600, 224, 469, 68, 770, 919, 190, 373, 294, 822, 808, 206,
+         184, 943, 795, 384, 383, 461, 404, 758, 839, 887, 715, 67, 618, 276, 204, 918,
+         873, 777, 604, 560, 951, 160, 578, 722, 79, 804, 96, 409, 713, 940, 652, 934,
+         970, 447, 318, 353, 859, 672, 112, 785, 645, 863, 803, 350, 139, 93, 354, 99,
+         820, 908, 609, 772, 154, 274, 580, 184, 79, 626, 630, 742, 653, 282, 762, 623,
+         680, 81, 927, 626, 789, 125, 411, 521, 938, 300, 821, 78, 343, 175, 128, 250,
+         170, 774, 972, 275, 999, 639, 495, 78, 352, 126, 857, 956, 358, 619, 580, 124,
+         737, 594, 701, 612, 669, 112, 134, 694, 363, 992, 809, 743, 168, 974, 944, 375,
+         748, 52, 600, 747, 642, 182, 862, 81, 344, 805, 988, 739, 511, 655, 814, 334,
+         249, 515, 897, 955, 664, 981, 649, 113, 974, 459, 893, 228, 433, 837, 553, 268,
+         926, 240, 102, 654, 459, 51, 686, 754, 806, 760, 493, 403, 415, 394, 687, 700,
+         946, 670, 656, 610, 738, 392, 760, 799, 887, 653, 978, 321, 576, 617, 626, 502,
+         894, 679, 243, 440, 680, 879, 194, 572, 640, 724, 926, 56, 204, 700, 707, 151,
+         457, 449, 797, 195, 791, 558, 945, 679, 297, 59, 87, 824, 713, 663, 412, 693,
+         342, 606, 134, 108, 571, 364, 631, 212, 174, 643, 304, 329, 343, 97, 430, 751,
+         497, 314, 983, 374, 822, 928, 140, 206, 73, 263, 980, 736, 876, 478, 430, 305,
+         170, 514, 364, 692, 829, 82, 855, 953, 676, 246, 369, 970, 294, 750, 807, 827,
+         150, 790, 288, 923, 804, 378, 215, 828, 592, 281, 565, 555, 710, 82, 896, 831,
+         547, 261, 524, 462, 293, 465, 502, 56, 661, 821, 976, 991, 658, 869, 905, 758,
+         745, 193, 768, 550, 608, 933, 378, 286, 215, 979, 792, 961, 61, 688, 793, 644,
+         986, 403, 106, 366, 905, 644, 372, 567, 466, 434, 645, 210, 389, 550, 919, 135,
+         780, 773, 635, 389, 707, 100, 626, 958, 165, 504, 920, 176, 193, 713, 857, 265,
+         203, 50, 668, 108, 645, 990, 626, 197, 510, 357, 358, 850, 858, 364, 936, 638
+   };
+
+   private static final int[] CRC_TABLE = new int[256];
+
+   static {
+      for (int i = 0; i < 256; i++) {
+         int c = i << 24;
+         for (int j = 0; j < 8; j++) {
+            c = (c & 0x80000000) != 0 ? (c << 1) ^ 0x04c11db7 : c << 1;
+         }
+         CRC_TABLE[i] = c;
+      }
+   }
+
+   private final InputStream in;
+   private final BufferPool pool;   // null if buffers are not pooled
+   private byte[] inBuffer;
+   private int inPos = 0;
+   private int inLimit = 0;
+
+   // Bit buffer.  The next bit to be read is bit (bitCount - 1) of bitBuffer.
+   private long bitBuffer = 0;
+   private int bitCount = 0;
+   private int padBits = 0;   // zero bits added at the bottom of bitBuffer after the input ended
+
+   private int level;
+   private boolean endOfData = false;
+   private boolean closed = false;
+   private int combinedCrc;
+
+   // Block decoding tables (re-used from block to block)
+   private final byte[] seqToUnseq = new byte[256];
+   private final byte[] selectorMtf = new byte[MAX_SELECTORS];
+   private final byte[] selectors = new byte[MAX_SELECTORS];
+   private final int[][] codeLengths = new int[MAX_GROUPS][MAX_ALPHA_SIZE];
+   private final int[][] lookup = new int[MAX_GROUPS][1 << LOOKUP_BITS];
+   private final int[][] firstCode = new int[MAX_GROUPS][MAX_CODE_LENGTH + 1];
+   private final int[][] firstIndex = new int[MAX_GROUPS][MAX_CODE_LENGTH + 1];
+   private final int[][] lengthCount = new int[MAX_GROUPS][MAX_CODE_LENGTH + 1];
+   private final int[][] sortedSymbols = new int[MAX_GROUPS][MAX_ALPHA_SIZE];
+   private final int[] maxLength = new int[MAX_GROUPS];
+   private final int[] byteCount = new int[256];
+   private int[] tt = new int[0];
+
+   // State of the block currently being output
+   private int storedBlockCrc;
+   private int blockCrc;
+   private int tPos;
+   private int bwtRemaining = 0;   // number of symbols of the inverse BWT not yet consumed
+   private int lastByte = -1;
+   private int runLength = 0;      // number of consecutive copies of lastByte output
+   private int repeatRemaining = 0;
+   private boolean inBlock = false;
+   private boolean randomized;
+   private int randomCountdown;
+   private int randomIndex;
+
+   private final byte[] single = new byte[1];
+
+   /**
+    * Constructor
+    *
+    * @param in the compressed data, beginning with {@code "BZh"}.
+    * @throws IOException if {@code in} does not begin with a bzip2 header.
+    */
+   public Bzip2InputStream(InputStream in) throws IOException {
+      this(in, false);
+   }
+
+   /**
+    * Constructor
+    *
+    * @param in            the compressed data
+    * @param magicConsumed {@code true} if the leading {@code "BZ"} has already been read from {@code in}.
+    *                      (This is how {@code CBZip2InputStream} expected its input.)
+    * @throws IOException if {@code in} does not contain a bzip2 header.
+    */
+   public Bzip2InputStream(InputStream in, boolean magicConsumed) throws IOException {
+      this(in, magicConsumed, null);
+   }
+
+   /**
+    * Constructor.  Takes the input buffer and the (up to 3.6MB) block buffer from {@code pool} and returns them
+    * when the stream is closed.  Because another stream may receive the buffers as soon as they are returned, {@code
+    * close()} must not be called while another thread is in {@code read}.  ({@link ReadAheadInputStream} closes the
+    * streams it reads on its own thread for this reason.)
+    *
+    * @param in            the compressed data
+    * @param magicConsumed {@code true} if the leading {@code "BZ"} has already been read from {@code in}.
+    * @param pool          the pool from which to take buffers ({@code null} to allocate them).
+    * @throws IOException if {@code in} does not contain a bzip2 header.
+    */
+   public Bzip2InputStream(InputStream in, boolean magicConsumed, BufferPool pool) throws IOException {
+      if (in == null) {
+         throw new NullPointerException("parameter \"in\" cannot be null.");
+      }
+      this.in = in;
+      this.pool = pool;
+      this.inBuffer = pool == null ? new byte[INPUT_BUFFER_SIZE] : pool.getBytes(INPUT_BUFFER_SIZE);
+      try {
+         if (!magicConsumed && (readBits(8) != 'B' || readBits(8) != 'Z')) {
+            throw new IOException("Data does not begin with \"BZ\".");
+         }
+         int h = readBits(8);
+         int blockSize = readBits(8);
+         if (h != 'h' || blockSize < '1' || blockSize > '9') {
+            throw new IOException("Data does not contain a bzip2 header.");
+         }
+         startStream(blockSize - '0');
+      } catch (IOException e) {
+         releaseBuffers();
+         throw e;
+      }
+   }
+
+   private void startStream(int level) {
+      this.level = level;
+      this.combinedCrc = 0;
+      if (tt.length < level * 100000) {
+         if (pool == null) {
+            tt = new int[level * 100000];
+         } else {
+            if (tt.length > 0) {
+               pool.release(tt);
+            }
+            tt = pool.getInts(level * 100000);
+         }
+      }
+   }
+
+   private void releaseBuffers() {
+      if (pool != null) {
+         pool.release(inBuffer);
+         if (tt.length > 0) {
+            pool.release(tt);
+         }
+      }
+      inBuffer = null;
+      tt = null;
+   }
+
+   //
+   // Bit input
+   //
+
+   private void refill() throws IOException {
+      while (bitCount <= 56) {
+         int b;
+         if (inPos < inLimit) {
+            b = inBuffer[inPos++] & 0xff;
+         } else if (padBits == 0 && (inLimit = in.read(inBuffer, 0, inBuffer.length)) > 0) {
+            inPos = 1;
+            b = inBuffer[0] & 0xff;
+         } else {
+            inLimit = 0;
+            inPos = 0;
+            b = 0;
+            padBits += 8;
+         }
+         bitBuffer = (bitBuffer << 8) | b;
+         bitCount += 8;
+      }
+   }
+
+   private void consume(int n) throws IOException {
+      bitCount -= n;
+      if (bitCount < padBits) {
+         throw new IOException("Unexpected end of bzip2 data.");
+      }
+   }
+
+   // n must be no more than 32
+   private int readBits(int n) throws IOException {
+      if (bitCount < n) {
+         refill();
+      }
+      int answer = (int) (bitBuffer >>> (bitCount - n)) & (int) ((1L << n) - 1);
+      consume(n);
+      return answer;
+   }
+
+   private boolean readBit() throws IOException {
+      return readBits(1) != 0;
+   }
+
+   private long readLong48() throws IOException {
+      return ((long) readBits(24) << 24) | readBits(24);
+   }
+
+   // Returns the number of bits (not counting padding) that remain, up to 64.
+   private int availableBits() throws IOException {
+      refill();
+      return bitCount - padBits;
+   }
+
+   //
+   // Block decoding
+   //
+
+   // Decodes the next block.  Returns false at the end of the data.
+   private boolean nextBlock() throws IOException {
+      while (true) {
+         long magic = readLong48();
+         if (magic == BLOCK_MAGIC) {
+            decodeBlock();
+            return true;
+         } else if (magic != EOS_MAGIC) {
+            throw new IOException("Invalid bzip2 block header.");
+         }
+
+         int storedCombinedCrc = readBits(32);
+         if (storedCombinedCrc != combinedCrc) {
+            throw new IOException("bzip2 stream CRC error.");
+         }
+
+         // Each stream ends on a byte boundary.  Look for another stream.
+         bitCount -= bitCount & 7;
+         if (availableBits() < 32) {
+            return false;
+         }
+         int header = (int) (bitBuffer >>> (bitCount - 32));
+         int blockSize = (header & 0xff) - '0';
+         if ((header >>> 8) != 0x425a68 || blockSize < 1 || blockSize > 9) {
+            // Like the bzip2 command-line tool, ignore trailing garbage.
+            return false;
+         }
+         consume(32);
+         startStream(blockSize);
+      }
+   }
+
+   private void decodeBlock() throws IOException {
+      storedBlockCrc = readBits(32);
+      randomized = readBit();
+      int origPtr = readBits(24);
+
+      // Which byte values appear in the block
+      int inUse16 = readBits(16);
+      int numInUse = 0;
+      for (int i = 0; i < 16; i++) {
+         if ((inUse16 & (0x8000 >>> i)) != 0) {
+            int inUse = readBits(16);
+            for (int j = 0; j < 16; j++) {
+               if ((inUse & (0x8000 >>> j)) != 0) {
+                  seqToUnseq[numInUse++] = (byte) (i * 16 + j);
+               }
+            }
+         }
+      }
+      if (numInUse == 0) {
+         throw new IOException("Invalid bzip2 block (no symbols).");
+      }
+      int alphaSize = numInUse + 2;
+
+      // Selectors (which Huffman table to use for each group of 50 symbols)
+      int numGroups = readBits(3);
+      if (numGroups < 2 || numGroups > MAX_GROUPS) {
+         throw new IOException("Invalid bzip2 block (bad number of Huffman tables).");
+      }
+      int numSelectors = readBits(15);
+      if (numSelectors < 1) {
+         throw new IOException("Invalid bzip2 block (no selectors).");
+      }
+      for (int i = 0; i < numSelectors; i++) {
+         int j = 0;
+         while (readBit()) {
+            j++;
+            if (j >= numGroups) {
+               throw new IOException("Invalid bzip2 block (bad selector).");
+            }
+         }
+         if (i < MAX_SELECTORS) {
+            selectorMtf[i] = (byte) j;
+         }
+      }
+      numSelectors = Math.min(numSelectors, MAX_SELECTORS);
+      byte[] position = {0, 1, 2, 3, 4, 5};
+      for (int i = 0; i < numSelectors; i++) {
+         int v = selectorMtf[i];
+         byte tmp = position[v];
+         for (; v > 0; v--) {
+            position[v] = position[v - 1];
+         }
+         position[0] = tmp;
+         selectors[i] = tmp;
+      }
+
+      // Huffman code lengths (delta coded)
+      for (int t = 0; t < numGroups; t++) {
+         int length = readBits(5);
+         int[] lengths = codeLengths[t];
+         for (int s = 0; s < alphaSize; s++) {
+            while (true) {
+               if (length < 1 || length > MAX_CODE_LENGTH) {
+                  throw new IOException("Invalid bzip2 block (bad Huffman code length).");
+               }
+               if (!readBit()) {
+                  break;
+               }
+               length += readBit() ? -1 : 1;
+            }
+            lengths[s] = length;
+         }
+         makeTables(t, alphaSize);
+      }
+
+      decodeSymbols(alphaSize, numInUse, numSelectors, origPtr);
+   }
+
+   // Builds the canonical Huffman decoding tables for group t.
+   private void makeTables(int t, int alphaSize) throws IOException {
+      int[] lengths = codeLengths[t];
+      int[] count = lengthCount[t];
+      int[] first = firstCode[t];
+      int[] index = firstIndex[t];
+      int[] sorted = sortedSymbols[t];
+      int[] table = lookup[t];
+
+      java.util.Arrays.fill(count, 0);
+      int max = 0;
+      for (int s = 0; s < alphaSize; s++) {
+         count[lengths[s]]++;
+         max = Math.max(max, lengths[s]);
+      }
+      maxLength[t] = max;
+
+      int code = 0;
+      int idx = 0;
+      for (int len = 1; len <= MAX_CODE_LENGTH; len++) {
+         first[len] = code;
+         index[len] = idx;
+         code += count[len];
+         idx += count[len];
+         if (code > (1 << len)) {
+            throw new IOException("Invalid bzip2 block (over-subscribed Huffman code).");
+         }
+         code <<= 1;
+      }
+
+      // Symbols sorted by code length (and by value within a length), which is the order of their codes.
+      int[] next = new int[MAX_CODE_LENGTH + 1];
+      System.arraycopy(index, 0, next, 0, next.length);
+      for (int s = 0; s < alphaSize; s++) {
+         sorted[next[lengths[s]]++] = s;
+      }
+
+      // Lookup table for short codes.  An entry of 0 means "code longer than LOOKUP_BITS".
+      java.util.Arrays.fill(table, 0);
+      for (int len = 1; len <= Math.min(max, LOOKUP_BITS); len++) {
+         for (int k = 0; k < count[len]; k++) {
+            int symbol = sorted[index[len] + k];
+            int shift = LOOKUP_BITS - len;
+            int start = (first[len] + k) << shift;
+            java.util.Arrays.fill(table, start, start + (1 << shift), (len << 16) | symbol);
+         }
+      }
+   }
+
+   // Decodes a symbol whose code is longer than LOOKUP_BITS.  (The caller has ensured that at least
+   // MAX_CODE_LENGTH bits are available.)
+   private int decodeLongSymbol(int t) throws IOException {
+      int[] first = firstCode[t];
+      int[] count = lengthCount[t];
+      for (int len = LOOKUP_BITS + 1; len <= maxLength[t]; len++) {
+         int code = (int) (bitBuffer >>> (bitCount - len)) & ((1 << len) - 1);
+         int offset = code - first[len];
+         if (offset >= 0 && offset < count[len]) {
+            consume(len);
+            return sortedSymbols[t][firstIndex[t][len] + offset];
+         }
+      }
+      throw new IOException("Invalid bzip2 data (bad Huffman code).");
+   }
+
+   // Undoes the Huffman, run-length, and move-to-front coding, then prepares the inverse BWT.
+   private void decodeSymbols(int alphaSize, int numInUse, int numSelectors, int origPtr) throws IOException {
+      int endOfBlock = numInUse + 1;
+      int maxBlockSize = level * 100000;
+      int[] tt = this.tt;
+      int[] byteCount = this.byteCount;
+      java.util.Arrays.fill(byteCount, 0);
+
+      byte[] mtf = new byte[256];
+      for (int i = 0; i < 256; i++) {
+         mtf[i] = (byte) i;
+      }
+
+      int blockSize = 0;
+      int groupNumber = -1;
+      int groupRemaining = 0;
+      int table = 0;
+      int[] lookupTable = lookup[0];
+      int run = 0;
+      int runBit = 1;
+      while (true) {
+         if (groupRemaining == 0) {
+            groupNumber++;
+            if (groupNumber >= numSelectors) {
+               throw new IOException("Invalid bzip2 block (too few selectors).");
+            }
+            groupRemaining = GROUP_SIZE;
+            table = selectors[groupNumber];
+            lookupTable = lookup[table];
+         }
+         groupRemaining--;
+
+         if (bitCount < MAX_CODE_LENGTH) {
+            refill();
+         }
+         int symbol;
+         int entry = lookupTable[(int) (bitBuffer >>> (bitCount - LOOKUP_BITS)) & LOOKUP_MASK];
+         if (entry != 0) {
+            consume(entry >>> 16);
+            symbol = entry & 0xffff;
+         } else {
+            symbol = decodeLongSymbol(table);
+         }
+
+         if (symbol <= RUNB) {
+            // Run lengths are written in bijective base 2 using RUNA (1) and RUNB (2)
+            run += (symbol + 1) * runBit;
+            runBit <<= 1;
+            if (run > maxBlockSize) {
+               throw new IOException("Invalid bzip2 block (run too long).");
+            }
+            continue;
+         }
+
+         if (run > 0) {
+            if (blockSize + run > maxBlockSize) {
+               throw new IOException("Invalid bzip2 block (block too large).");
+            }
+            int b = seqToUnseq[mtf[0] & 0xff] & 0xff;
+            byteCount[b] += run;
+            java.util.Arrays.fill(tt, blockSize, blockSize + run, b);
+            blockSize += run;
+            run = 0;
+            runBit = 1;
+         }
+
+         if (symbol == endOfBlock) {
+            break;
+         }
+         if (symbol > endOfBlock || blockSize >= maxBlockSize) {
+            throw new IOException("Invalid bzip2 block.");
+         }
+
+         // Move to front
+         int i = symbol - 1;
+         byte v = mtf[i];
+         for (; i > 0; i--) {
+            mtf[i] = mtf[i - 1];
+         }
+         mtf[0] = v;
+         int b = seqToUnseq[v & 0xff] & 0xff;
+         byteCount[b]++;
+         tt[blockSize++] = b;
+      }
+
+      if (origPtr >= blockSize) {
+         throw new IOException("Invalid bzip2 block (bad origin pointer).");
+      }
+
+      // Inverse BWT:  Link each position to the next in the original order.  tt[i] holds the byte in its low 8 bits
+      // and the index of the following position in its upper 24 bits.
+      int sum = 0;
+      for (int i = 0; i < 256; i++) {
+         int c = byteCount[i];
+         byteCount[i] = sum;
+         sum += c;
+      }
+      for (int i = 0; i < blockSize; i++) {
+         int b = tt[i] & 0xff;
+         tt[byteCount[b]++] |= i << 8;
+      }
+
+      tPos = tt[origPtr] >>> 8;
+      bwtRemaining = blockSize;
+      lastByte = -1;
+      runLength = 0;
+      repeatRemaining = 0;
+      blockCrc = -1;
+      randomCountdown = 0;
+      randomIndex = 0;
+      inBlock = true;
+   }
+
+   private void finishBlock() throws IOException {
+      inBlock = false;
+      int crc = ~blockCrc;
+      if (crc != storedBlockCrc) {
+         throw new IOException("bzip2 block CRC error.");
+      }
+      combinedCrc = ((combinedCrc << 1) | (combinedCrc >>> 31)) ^ crc;
+   }
+
+   // Copies up to len bytes of the current block into b.  Returns the number of bytes copied.
+   private int drain(byte[] b, int off, int len) {
+      final int[] tt = this.tt;
+      int pos = off;
+      int end = off + len;
+      int crc = blockCrc;
+      int tPos = this.tPos;
+      int remaining = bwtRemaining;
+      int last = lastByte;
+      int count = runLength;
+
+      while (pos < end) {
+         if (repeatRemaining > 0) {
+            int n = Math.min(repeatRemaining, end - pos);
+            byte value = (byte) last;
+            for (int i = 0; i < n; i++) {
+               b[pos++] = value;
+               crc = (crc << 8) ^ CRC_TABLE[((crc >>> 24) ^ last) & 0xff];
+            }
+            repeatRemaining -= n;
+            continue;
+         }
+         if (remaining == 0) {
+            break;
+         }
+         tPos = tt[tPos];
+         int c = tPos & 0xff;
+         tPos >>>= 8;
+         remaining--;
+         if (randomized) {
+            if (randomCountdown == 0) {
+               randomCountdown = R_NUMS[randomIndex];
+               randomIndex = (randomIndex + 1) & 511;
+            }
+            randomCountdown--;
+            if (randomCountdown == 1) {
+               c ^= 1;
+            }
+         }
+
+         // Undo the initial run-length encoding:  four identical bytes are followed by a count of extra copies.
+         if (count == 4) {
+            repeatRemaining = c;
+            count = 0;
+            continue;
+         }
+         if (c == last) {
+            count++;
+         } else {
+            count = 1;
+            last = c;
+         }
+         b[pos++] = (byte) c;
+         crc = (crc << 8) ^ CRC_TABLE[((crc >>> 24) ^ c) & 0xff];
+      }
+
+      blockCrc = crc;
+      this.tPos = tPos;
+      bwtRemaining = remaining;
+      lastByte = last;
+      runLength = count;
+      return pos - off;
+   }
+
+   //
+   // InputStream
+   //
+
+   @Override
+   public int read() throws IOException {
+      return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+   }
+
+   @Override
+   public int read(byte[] b, int off, int len) throws IOException {
+      if (closed) {
+         throw new IOException("Stream closed.");
+      }
+      if (off < 0 || len < 0 || len > b.length - off) {
+         throw new IndexOutOfBoundsException();
+      }
+      if (len == 0) {
+         return 0;
+      }
+      while (!endOfData) {
+         if (inBlock) {
+            int n = drain(b, off, len);
+            if (n > 0) {
+               return n;
+            }
+            finishBlock();
+         }
+         if (!nextBlock()) {
+            endOfData = true;
+         }
+      }
+      return -1;
+   }
+
+   @Override
+   public int available() throws IOException {
+      if (closed) {
+         throw new IOException("Stream closed.");
+      }
+      return repeatRemaining;
+   }
+
+   @Override
+   public void close() throws IOException {
+      if (!closed) {
+         closed = true;
+         releaseBuffers();
+         in.close();
+      }
+   }
+}
@@ -0,0 +1,272 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * An {@code InputStream} that reads several files (e.g., a directory of compressed shards) one after another as if
+ * they were a single file.  While the caller reads one file, the next few files are opened on background threads,
+ * and each is read (and decompressed) ahead into a {@link ReadAheadInputStream}.  Thus, the caller doesn't wait
+ * for each file to be opened, or for each decompressor to start, in turn.
+ *
+ * <p>In <em>ordered</em> mode, the files' contents appear in the order given.  In <em>unordered</em> mode, each
+ * file appears (in its entirety) as soon as it has been opened; so, a file that is slow to open doesn't delay the
+ * files after it.</p>
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class ConcatenatedInputStream extends InputStream {
+
+   /**
+    * The default number of files opened ahead of the one being read.
+    */
+   public static final int DEFAULT_PREFETCH = 2;
+
+   private final Iterator<String> names;
+   private final Map<String, InputStream> streamMap;
+   private final Map<String, InputHelper.FilterFactory> filterMap;
+   private final int prefetch;
+   private final boolean ordered;
+   private final boolean terminateLines;
+   private final ExecutorService executor;
+   private final CompletionService<InputStream> completionService;
+   private final ArrayDeque<Future<InputStream>> queue = new ArrayDeque<Future<InputStream>>();
+   private final List<Future<InputStream>> outstanding = new ArrayList<Future<InputStream>>();
+   private volatile boolean closed = false;
+
+   private InputStream current = null;
+   private int lastByte = '\n';
+
+   /**
+    * Constructor.  Each name is opened as described in {@link InputHelper#openInputStream(String, java.util.Map,
+    * java.util.Map)}.
+    *
+    * @param filenames the files to read (or keys in {@code streamMap})
+    * @param streamMap a map of file names to existing {@code InputStream}s (may be {@code null})
+    * @param filterMap a map of file suffixes to filters that will pre-process the files (may be {@code null})
+    * @param prefetch  the number of files to open ahead of the one being read.  Must be at least 1.
+    * @param ordered   {@code true} if the files must appear in the order given.
+    * @throws FileNotFoundException if any of the files does not exist.  (All files are checked before any are
+    *                               opened.)
+    */
+   public ConcatenatedInputStream(List<String> filenames, Map<String, InputStream> streamMap,
+                                  Map<String, InputHelper.FilterFactory> filterMap, int prefetch,
+                                  boolean ordered) throws FileNotFoundException {
+      this(filenames, streamMap, filterMap, prefetch, ordered, false);
+   }
+
+   // If terminateLines is true, a newline is added to the end of any file that doesn't end with one, so that the
+   // last line of one file is not joined to the first line of the next.
+   ConcatenatedInputStream(List<String> filenames, Map<String, InputStream> streamMap,
+                           Map<String, InputHelper.FilterFactory> filterMap, int prefetch, boolean ordered,
+                           boolean terminateLines) throws FileNotFoundException {
+      if (filenames == null) {
+         throw new NullPointerException("parameter \"filenames\" cannot be null.");
+      }
+      if (prefetch < 1) {
+         throw new IllegalArgumentException("prefetch must be at least 1.");
+      }
+      for (String name : filenames) {
+         if ((streamMap == null || !streamMap.containsKey(name)) && !new File(name).isFile()) {
+            throw new FileNotFoundException(name + " (No such file)");
+         }
+      }
+      this.names = new ArrayList<String>(filenames).iterator();
+      this.streamMap = streamMap;
+      this.filterMap = filterMap;
+      this.prefetch = prefetch;
+      this.ordered = ordered;
+      this.terminateLines = terminateLines;
+      this.executor = Executors.newFixedThreadPool(prefetch, new ThreadFactory() {
+         public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "ConcatenatedInputStream opener");
+            t.setDaemon(true);
+            return t;
+         }
+      });
+      this.completionService = new ExecutorCompletionService<InputStream>(executor);
+      submitMore();
+   }
+
+   // Begin opening files until "prefetch" files are open or opening.
+   private void submitMore() {
+      while (outstanding.size() < prefetch && names.hasNext()) {
+         final String name = names.next();
+         Callable<InputStream> task = new Callable<InputStream>() {
+            public InputStream call() throws IOException {
+               InputStream in = new ReadAheadInputStream(InputHelper.openInputStream(name, streamMap, filterMap));
+               if (closed) {
+                  in.close();
+               }
+               return in;
+            }
+         };
+         Future<InputStream> future = ordered ? executor.submit(task) : completionService.submit(task);
+         queue.add(future);
+         outstanding.add(future);
+      }
+      if (!names.hasNext() && outstanding.isEmpty()) {
+         executor.shutdown();
+      }
+   }
+
+   // Returns the next file, or null if there are no more.
+   private InputStream nextFile() throws IOException {
+      if (outstanding.isEmpty()) {
+         return null;
+      }
+      Future<InputStream> future;
+      try {
+         future = ordered ? queue.poll() : completionService.take();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new InterruptedIOException("Interrupted while waiting for a file to open.");
+      }
+      queue.remove(future);
+      outstanding.remove(future);
+      InputStream in;
+      try {
+         in = future.get();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new InterruptedIOException("Interrupted while waiting for a file to open.");
+      } catch (ExecutionException e) {
+         Throwable cause = e.getCause();
+         if (cause instanceof IOException) {
+            throw (IOException) cause;
+         } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+         }
+         throw new IOException("Unable to open file.", cause);
+      }
+      submitMore();
+      return in;
+   }
+
+   // Returns false at the end of the last file.
+   private boolean ensureFile() throws IOException {
+      if (closed) {
+         throw new IOException("Stream closed.");
+      }
+      if (current == null) {
+         current = nextFile();
+      }
+      return current != null;
+   }
+
+   // Closes the current file; returns true if a newline should be inserted.
+   private boolean endFile() throws IOException {
+      current.close();
+      current = null;
+      if (terminateLines && lastByte != '\n') {
+         lastByte = '\n';
+         return true;
+      }
+      return false;
+   }
+
+   @Override
+   public int read() throws IOException {
+      while (ensureFile()) {
+         int b = current.read();
+         if (b >= 0) {
+            lastByte = b;
+            return b;
+         }
+         if (endFile()) {
+            return '\n';
+         }
+      }
+      return -1;
+   }
+
+   @Override
+   public int read(byte[] b, int off, int len) throws IOException {
+      if (off < 0 || len < 0 || len > b.length - off) {
+         throw new IndexOutOfBoundsException();
+      }
+      if (len == 0) {
+         return 0;
+      }
+      while (ensureFile()) {
+         int n = current.read(b, off, len);
+         if (n > 0) {
+            lastByte = b[off + n - 1];
+            return n;
+         }
+         if (n < 0 && endFile()) {
+            b[off] = '\n';
+            return 1;
+         }
+      }
+      return -1;
+   }
+
+   @Override
+   public int available() throws IOException {
+      if (closed) {
+         throw new IOException("Stream closed.");
+      }
+      return current == null ? 0 : current.available();
+   }
+
+   /**
+    * Closes the file being read and any files that have been opened ahead.  (A file whose background thread is in
+    * the middle of a {@code read} is closed by that thread when the {@code read} returns.  See {@link
+    * ReadAheadInputStream#close()}.)
+    *
+    * @throws IOException if closing the current file throws an exception.
+    */
+   @Override
+   public void close() throws IOException {
+      if (closed) {
+         return;
+      }
+      closed = true;
+      executor.shutdown();
+      for (Future<InputStream> future : outstanding) {
+         if (!future.cancel(false)) {
+            // The file is already open, or is being opened.  (Waiting avoids a race with the task's check of
+            // "closed".)
+            try {
+               future.get().close();
+            } catch (Exception e) {
+               // We are discarding this file anyway.
+            }
+         }
+      }
+      outstanding.clear();
+      queue.clear();
+      if (current != null) {
+         current.close();
+         current = null;
+      }
+   }
+}
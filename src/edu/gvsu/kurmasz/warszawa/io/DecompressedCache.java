@@ -0,0 +1,539 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A read-through cache of decompressed files.  Programs that open the same compressed files repeatedly can open
+ * them through a cache so that only the first open pays for decompression.  Later opens of an unchanged file read
+ * the decompressed data from memory and skip the {@link InputHelper.FilterFactory} entirely.
+ *
+ * <p>Entries are keyed by the file's canonical path, length, and modification time; so, modifying a file (or
+ * replacing it) causes it to be decompressed again.  (A file that is rewritten with the same length within the
+ * file system's timestamp granularity will not be noticed.)  Files whose suffix does not appear in the filter map
+ * are not cached.</p>
+ *
+ * <p>Decompressed data is stored in a bounded, least-recently-used in-memory map.  No single file may use more than a
+ * quarter of the memory limit.  (Otherwise, each stream reading a large file could buffer up to the entire limit before
+ * discovering that the file doesn't fit.)  If a spill directory is given, entries evicted from memory (and files too
+ * large to keep in memory) are written there, compressed using LZ4, which is much faster to read than bzip2.  Without a
+ * spill directory, files too large to keep in memory are not cached.  Spill files are named after the files they hold,
+ * so each file has at most one spill file; and, each spill file records its key, so stale spill files are ignored.  The
+ * spill directory may be shared by several programs.</p>
+ *
+ * <p>Data is added to the cache as it is read:  A file that is not read to the end is not cached.</p>
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class DecompressedCache {
+
+   /**
+    * The default memory limit (256MB).
+    */
+   public static final long DEFAULT_MAX_MEMORY = 256L * 1024 * 1024;
+
+   /**
+    * A cache (without a spill directory) shared by the {@code InputHelper} methods that don't take a cache as a
+    * parameter.
+    */
+   public static final DecompressedCache SHARED = new DecompressedCache(DEFAULT_MAX_MEMORY);
+
+   /**
+    * The suffix of spill files.
+    */
+   public static final String SPILL_SUFFIX = ".lz4cache";
+
+   private static final int MAGIC = 0x57444343;   // "WDCC"
+   private static final int VERSION = 1;
+
+   // Recorded in the spill file's header when the length wasn't known when the file was started.
+   private static final long UNKNOWN_LENGTH = -1;
+   private static final long NO_MATCH = Long.MIN_VALUE;
+
+   // An entry in memory may use at most 1/MAX_ENTRY_FRACTION of maxMemory.
+   private static final int MAX_ENTRY_FRACTION = 4;
+
+   // Identifies one version of one file.
+   private static class Key {
+      final String path;
+      final long length;
+      final long lastModified;
+
+      Key(String path, long length, long lastModified) {
+         this.path = path;
+         this.length = length;
+         this.lastModified = lastModified;
+      }
+
+      @Override
+      public boolean equals(Object o) {
+         if (!(o instanceof Key)) {
+            return false;
+         }
+         Key other = (Key) o;
+         return path.equals(other.path) && length == other.length && lastModified == other.lastModified;
+      }
+
+      @Override
+      public int hashCode() {
+         return path.hashCode() * 31 + (int) (length ^ (length >>> 32)) * 17 + (int) lastModified;
+      }
+   }
+
+   private final long maxMemory;
+   private final int maxEntry;      // the largest entry held in memory
+   private final File spillDirectory;
+
+   // In access order, so the first entry is the least recently used.
+   private final LinkedHashMap<Key, byte[]> entries = new LinkedHashMap<Key, byte[]>(16, 0.75f, true);
+   private long memoryUsed = 0;
+   private long hits = 0;
+   private long spillHits = 0;
+   private long misses = 0;
+
+   /**
+    * Constructor.  The cache has no spill directory.
+    *
+    * @param maxMemory the maximum number of bytes of decompressed data held in memory.
+    */
+   public DecompressedCache(long maxMemory) {
+      this(maxMemory, null);
+   }
+
+   /**
+    * Constructor
+    *
+    * @param maxMemory      the maximum number of bytes of decompressed data held in memory.
+    * @param spillDirectory the directory in which to keep data that doesn't fit in memory (created if necessary), or
+    *                       {@code null} to simply discard it.
+    * @throws IllegalArgumentException if {@code maxMemory} is negative, or {@code spillDirectory} can't be created.
+    */
+   public DecompressedCache(long maxMemory, File spillDirectory) {
+      if (maxMemory < 0) {
+         throw new IllegalArgumentException("maxMemory must not be negative.");
+      }
+      if (spillDirectory != null && !spillDirectory.isDirectory() && !spillDirectory.mkdirs()) {
+         throw new IllegalArgumentException("Unable to create spill directory " + spillDirectory + ".");
+      }
+      this.maxMemory = maxMemory;
+      this.maxEntry = (int) Math.min(maxMemory / MAX_ENTRY_FRACTION, Integer.MAX_VALUE - 8);
+      this.spillDirectory = spillDirectory;
+   }
+
+   /**
+    * Opens the file through the cache.  If the file's suffix appears in {@code filterMap} and an entry for the current
+    * version of the file is in memory or in the spill directory, the cached data is returned (without using the
+    * filter).  Otherwise, the file is opened (and filtered) as by {@link InputHelper#openInputStream(java.io.File,
+    * java.util.Map)}, and the decompressed data is added to the cache as it is read.
+    *
+    * @param file      the file to open
+    * @param filterMap a map of file suffixes to filters that will pre-process the file.
+    * @return an {@code InputStream} containing the (decompressed) contents of the file.
+    * @throws FileNotFoundException if the requested file does not exist.
+    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
+    *                               if the specified filter cannot handle the given file.
+    */
+   public InputStream openInputStream(File file, Map<String, InputHelper.FilterFactory> filterMap) throws
+         FileNotFoundException {
+      if (filterMap == null || !filterMap.containsKey(FileHelper.getSuffix(file.getName())) || !file.isFile()) {
+         return InputHelper.openInputStream(file, filterMap);
+      }
+      Key key;
+      try {
+         key = new Key(file.getCanonicalPath(), file.length(), file.lastModified());
+      } catch (IOException e) {
+         return InputHelper.openInputStream(file, filterMap);
+      }
+      byte[] data = get(key);
+      if (data != null) {
+         return new ByteArrayInputStream(data);
+      }
+      InputStream spilled = openSpill(key);
+      if (spilled != null) {
+         return spilled;
+      }
+      synchronized (this) {
+         misses++;
+      }
+      return new CachingInputStream(key, InputHelper.openInputStream(file, filterMap));
+   }
+
+   private synchronized byte[] get(Key key) {
+      byte[] data = entries.get(key);
+      if (data != null) {
+         hits++;
+      }
+      return data;
+   }
+
+   // Adds the data to memory, evicting (and spilling) the least recently used entries to make room.
+   private void put(Key key, byte[] data) {
+      List<Map.Entry<Key, byte[]>> evicted = new ArrayList<Map.Entry<Key, byte[]>>();
+      synchronized (this) {
+         byte[] old = entries.remove(key);
+         if (old != null) {
+            memoryUsed -= old.length;
+         }
+         Iterator<Map.Entry<Key, byte[]>> iterator = entries.entrySet().iterator();
+         while (memoryUsed + data.length > maxMemory && iterator.hasNext()) {
+            Map.Entry<Key, byte[]> eldest = iterator.next();
+            evicted.add(eldest);
+            memoryUsed -= eldest.getValue().length;
+            iterator.remove();
+         }
+         entries.put(key, data);
+         memoryUsed += data.length;
+      }
+      // Spill outside the lock, so other threads can use the cache meanwhile.
+      for (Map.Entry<Key, byte[]> entry : evicted) {
+         spill(entry.getKey(), entry.getValue());
+      }
+   }
+
+   ////////////////////////////////////////////////////////
+   //
+   // Spill files
+   //
+   ///////////////////////////////////////////////////////
+
+   private File spillFileFor(Key key) {
+      return new File(spillDirectory, Integer.toHexString(key.path.hashCode()) + "-" +
+            new File(key.path).getName() + SPILL_SUFFIX);
+   }
+
+   // Returns the uncompressed length of the data (possibly UNKNOWN_LENGTH), or NO_MATCH if the header doesn't
+   // belong to "key".
+   private static long readHeader(DataInputStream in, Key key) throws IOException {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+         return NO_MATCH;
+      }
+      Key found = new Key(in.readUTF(), in.readLong(), in.readLong());
+      long length = in.readLong();
+      return key.equals(found) ? length : NO_MATCH;
+   }
+
+   // Returns a stream of the spilled data (or null if there is no current spill file for "key").  Data small
+   // enough to fit in memory is moved back into memory.
+   private InputStream openSpill(Key key) {
+      if (spillDirectory == null) {
+         return null;
+      }
+      File file = spillFileFor(key);
+      if (!file.isFile()) {
+         return null;
+      }
+      InputStream in = null;
+      try {
+         DataInputStream data = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+         in = data;
+         long length = readHeader(data, key);
+         if (length == NO_MATCH) {
+            data.close();
+            return null;
+         }
+         in = new Lz4FrameInputStream(data);
+         synchronized (this) {
+            spillHits++;
+         }
+         if (length == UNKNOWN_LENGTH || length > maxEntry) {
+            return in;
+         }
+         byte[] bytes = new byte[(int) length];
+         new DataInputStream(in).readFully(bytes);
+         in.close();
+         put(key, bytes);
+         return new ByteArrayInputStream(bytes);
+      } catch (IOException e) {
+         // A damaged (or concurrently replaced) spill file is treated as a miss.
+         if (in != null) {
+            try {
+               in.close();
+            } catch (IOException e1) {
+               // The data will be decompressed again.
+            }
+         }
+         return null;
+      }
+   }
+
+   // Opens a temporary file in the spill directory that will become the spill file for "key" when committed.
+   private OutputStream openSpillWriter(Key key, long length, File temp) throws IOException {
+      DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+      try {
+         out.writeInt(MAGIC);
+         out.writeInt(VERSION);
+         out.writeUTF(key.path);
+         out.writeLong(key.length);
+         out.writeLong(key.lastModified);
+         out.writeLong(length);
+         return new Lz4FrameOutputStream(out);
+      } catch (IOException e) {
+         out.close();
+         throw e;
+      }
+   }
+
+   private boolean commitSpill(Key key, File temp) {
+      File target = spillFileFor(key);
+      if (temp.renameTo(target)) {
+         return true;
+      }
+      // Some platforms won't rename over an existing file.
+      target.delete();
+      if (temp.renameTo(target)) {
+         return true;
+      }
+      temp.delete();
+      return false;
+   }
+
+   // Writes an entry evicted from memory to the spill directory (unless it is already there).
+   private void spill(Key key, byte[] data) {
+      if (spillDirectory == null) {
+         return;
+      }
+      File existing = spillFileFor(key);
+      if (existing.isFile()) {
+         try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(existing), 1024));
+            try {
+               if (readHeader(in, key) == data.length) {
+                  return;
+               }
+            } finally {
+               in.close();
+            }
+         } catch (IOException e) {
+            // Replace the damaged file.
+         }
+      }
+      File temp = null;
+      try {
+         temp = File.createTempFile("spill", ".tmp", spillDirectory);
+         OutputStream out = openSpillWriter(key, data.length, temp);
+         try {
+            out.write(data);
+         } finally {
+            out.close();
+         }
+         commitSpill(key, temp);
+      } catch (IOException e) {
+         // Spilling is an optimization; the data will simply be decompressed again.
+         if (temp != null) {
+            temp.delete();
+         }
+      }
+   }
+
+   ////////////////////////////////////////////////////////
+   //
+   // Statistics
+   //
+   ///////////////////////////////////////////////////////
+
+   /**
+    * Returns the number of opens satisfied from memory.
+    *
+    * @return the number of opens satisfied from memory.
+    */
+   public synchronized long getHits() {
+      return hits;
+   }
+
+   /**
+    * Returns the number of opens satisfied from the spill directory.
+    *
+    * @return the number of opens satisfied from the spill directory.
+    */
+   public synchronized long getSpillHits() {
+      return spillHits;
+   }
+
+   /**
+    * Returns the number of opens that had to decompress the file.
+    *
+    * @return the number of opens that had to decompress the file.
+    */
+   public synchronized long getMisses() {
+      return misses;
+   }
+
+   /**
+    * Returns the number of bytes of decompressed data held in memory.
+    *
+    * @return the number of bytes of decompressed data held in memory.
+    */
+   public synchronized long getMemoryUsed() {
+      return memoryUsed;
+   }
+
+   /**
+    * Removes all entries from memory.  (The spill directory is not changed.)
+    */
+   public synchronized void clear() {
+      entries.clear();
+      memoryUsed = 0;
+   }
+
+   @Override
+   public synchronized String toString() {
+      return String.format("DecompressedCache[%d entries, %d bytes; hits=%d, spillHits=%d, misses=%d]",
+            entries.size(), memoryUsed, hits, spillHits, misses);
+   }
+
+   ////////////////////////////////////////////////////////
+   //
+   // Populating the cache
+   //
+   ///////////////////////////////////////////////////////
+
+   // Copies the data read into memory (or, once it is too large for memory, into a spill file).  Adds the data to
+   // the cache when the end of the stream is reached.
+   private class CachingInputStream extends InputStream {
+      private final Key key;
+      private final InputStream in;
+
+      private byte[] buffer = new byte[8192];
+      private int count = 0;
+      private File spillTemp = null;
+      private OutputStream spillOut = null;
+      private boolean caching = true;
+      private boolean closed = false;
+      private final byte[] one = new byte[1];
+
+      CachingInputStream(Key key, InputStream in) {
+         this.key = key;
+         this.in = in;
+      }
+
+      private void record(byte[] b, int off, int len) throws IOException {
+         if (!caching) {
+            return;
+         }
+         if (spillOut == null && (long) count + len <= maxEntry) {
+            if (count + len > buffer.length) {
+               buffer = Arrays.copyOf(buffer, (int) Math.min(maxEntry, Math.max(count + len, 2L * buffer.length)));
+            }
+            System.arraycopy(b, off, buffer, count, len);
+            count += len;
+            return;
+         }
+         try {
+            if (spillOut == null) {
+               if (spillDirectory == null) {
+                  abandon();
+                  return;
+               }
+               // Data this large won't be moved back into memory; so, its length isn't needed.
+               spillTemp = File.createTempFile("spill", ".tmp", spillDirectory);
+               spillOut = openSpillWriter(key, UNKNOWN_LENGTH, spillTemp);
+               spillOut.write(buffer, 0, count);
+               buffer = null;
+            }
+            spillOut.write(b, off, len);
+         } catch (IOException e) {
+            abandon();
+         }
+      }
+
+      private void abandon() {
+         caching = false;
+         buffer = null;
+         if (spillOut != null) {
+            try {
+               spillOut.close();
+            } catch (IOException e) {
+               // The file is deleted anyway.
+            }
+            spillOut = null;
+         }
+         if (spillTemp != null) {
+            spillTemp.delete();
+            spillTemp = null;
+         }
+      }
+
+      // Called at the end of the stream.
+      private void finish() {
+         if (!caching) {
+            return;
+         }
+         caching = false;
+         if (spillOut == null) {
+            put(key, buffer.length == count ? buffer : Arrays.copyOf(buffer, count));
+            buffer = null;
+            return;
+         }
+         try {
+            spillOut.close();
+            spillOut = null;
+            if (commitSpill(key, spillTemp)) {
+               spillTemp = null;
+            }
+         } catch (IOException e) {
+            // abandon() removes the temporary file.
+         }
+         abandon();
+      }
+
+      @Override
+      public int read() throws IOException {
+         int n = read(one, 0, 1);
+         return n < 0 ? -1 : one[0] & 0xff;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+         if (closed) {
+            throw new IOException("Stream closed.");
+         }
+         int n = in.read(b, off, len);
+         if (n > 0) {
+            record(b, off, n);
+         } else if (n < 0) {
+            finish();
+         }
+         return n;
+      }
+
+      @Override
+      public int available() throws IOException {
+         if (closed) {
+            throw new IOException("Stream closed.");
+         }
+         return in.available();
+      }
+
+      @Override
+      public void close() throws IOException {
+         if (!closed) {
+            closed = true;
+            abandon();
+            in.close();
+         }
+      }
+   }
+}
@@ -0,0 +1,285 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Splits delimited text (e.g., tab- or comma-separated values) into records and fields without creating a {@code
+ * String} for each line or field.  Each call to {@link #next()} reads one line (using a {@link LineReader}) and finds
+ * the delimiters in it; fields are then available as {@link ByteSlice}s or as offsets into {@link #array()}, and can
+ * be parsed directly from the bytes using {@link #getLong(int)}, {@link #getInt(int)}, and {@link #getDouble(int)}.
+ *
+ * <p>A line containing {@code n} delimiters has {@code n + 1} fields (so an empty line has one empty field).
+ * Quoting is not supported:  Every delimiter ends a field.  As with {@code LineReader}, the bytes are treated as
+ * ASCII / ISO-8859-1; use {@link ByteSlice#toString(java.nio.charset.Charset)} to decode other encodings.</p>
+ *
+ * <p>Fields are views into the reader's buffer; they are valid only until the next call to {@code next()}.</p>
+ *
+ * <pre>
+ *    DelimitedTokenizer tokens = InputHelper.openDelimitedTokenizer("data.tsv.bz2", '\t');
+ *    while (tokens.next()) {
+ *       long id = tokens.getLong(0);
+ *       double value = tokens.getDouble(2);
+ *    }
+ * </pre>
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class DelimitedTokenizer implements Closeable {
+
+   private final LineReader reader;
+   private final byte delimiter;
+
+   private ByteSlice line;
+   private int[] starts = new int[16];    // starts[i] is the index in the line's array of field i
+   private int[] ends = new int[16];      // ends[i] is the index just past the end of field i
+   private ByteSlice[] slices = new ByteSlice[16];
+   private int fieldCount = 0;
+
+   /**
+    * Constructor
+    *
+    * @param reader    the source of lines
+    * @param delimiter the character that separates fields.  Must be in the range 0 to 255, and not {@code '\n'}.
+    */
+   public DelimitedTokenizer(LineReader reader, char delimiter) {
+      if (reader == null) {
+         throw new NullPointerException("parameter \"reader\" cannot be null.");
+      }
+      if (delimiter > 0xff || delimiter == '\n') {
+         throw new IllegalArgumentException("Invalid delimiter: " + (int) delimiter);
+      }
+      this.reader = reader;
+      this.delimiter = (byte) delimiter;
+   }
+
+   /**
+    * Constructor
+    *
+    * @param in        the underlying stream
+    * @param delimiter the character that separates fields.  Must be in the range 0 to 255, and not {@code '\n'}.
+    */
+   public DelimitedTokenizer(InputStream in, char delimiter) {
+      this(new LineReader(in), delimiter);
+   }
+
+   /**
+    * Constructor
+    *
+    * @param channel   the underlying channel
+    * @param delimiter the character that separates fields.  Must be in the range 0 to 255, and not {@code '\n'}.
+    */
+   public DelimitedTokenizer(ReadableByteChannel channel, char delimiter) {
+      this(Channels.newInputStream(channel), delimiter);
+   }
+
+   /**
+    * Moves to the next record.
+    *
+    * @return {@code false} at the end of the input.
+    * @throws IOException if the underlying stream throws an exception.
+    */
+   public boolean next() throws IOException {
+      line = reader.nextLine();
+      if (line == null) {
+         fieldCount = 0;
+         return false;
+      }
+      byte[] array = line.array();
+      int end = line.offset() + line.length();
+      int fieldStart = line.offset();
+      fieldCount = 0;
+      for (int i = fieldStart; i < end; i++) {
+         if (array[i] == delimiter) {
+            addField(fieldStart, i);
+            fieldStart = i + 1;
+         }
+      }
+      addField(fieldStart, end);
+      return true;
+   }
+
+   private void addField(int start, int end) {
+      if (fieldCount == starts.length) {
+         starts = Arrays.copyOf(starts, fieldCount * 2);
+         ends = Arrays.copyOf(ends, fieldCount * 2);
+         slices = Arrays.copyOf(slices, fieldCount * 2);
+      }
+      starts[fieldCount] = start;
+      ends[fieldCount] = end;
+      fieldCount++;
+   }
+
+   private void checkField(int field) {
+      if (field < 0 || field >= fieldCount) {
+         throw new IndexOutOfBoundsException("Field " + field + " does not exist.  Line " + getLineNumber() +
+               " has " + fieldCount + " fields.");
+      }
+   }
+
+   /**
+    * Returns the number of fields in the current record (0 before the first call to {@link #next()} and after the
+    * end of the input).
+    *
+    * @return the number of fields in the current record.
+    */
+   public int getFieldCount() {
+      return fieldCount;
+   }
+
+   /**
+    * Returns the current record's line number (counting from 1).
+    *
+    * @return the current record's line number.
+    */
+   public long getLineNumber() {
+      return reader.getLineNumber();
+   }
+
+   /**
+    * Returns the current record (without the line terminator).
+    *
+    * @return the current record.
+    * @throws IllegalStateException if there is no current record.
+    */
+   public ByteSlice getLine() {
+      if (line == null) {
+         throw new IllegalStateException("There is no current record.");
+      }
+      return line;
+   }
+
+   /**
+    * Returns the array containing the current record.  Use {@link #getFieldOffset(int)} and {@link
+    * #getFieldLength(int)} to locate fields.
+    *
+    * @return the array containing the current record.
+    * @throws IllegalStateException if there is no current record.
+    */
+   public byte[] array() {
+      return getLine().array();
+   }
+
+   /**
+    * Returns the index in {@link #array()} of the first byte of the specified field.
+    *
+    * @param field the field number (counting from 0)
+    * @return the index in {@link #array()} of the first byte of the field.
+    * @throws IndexOutOfBoundsException if the current record does not have the specified field.
+    */
+   public int getFieldOffset(int field) {
+      checkField(field);
+      return starts[field];
+   }
+
+   /**
+    * Returns the length (in bytes) of the specified field.
+    *
+    * @param field the field number (counting from 0)
+    * @return the length of the field.
+    * @throws IndexOutOfBoundsException if the current record does not have the specified field.
+    */
+   public int getFieldLength(int field) {
+      checkField(field);
+      return ends[field] - starts[field];
+   }
+
+   /**
+    * Returns the specified field.  The {@code ByteSlice} is re-used by later records; use {@link ByteSlice#copy()}
+    * to keep it.
+    *
+    * @param field the field number (counting from 0)
+    * @return the field.
+    * @throws IndexOutOfBoundsException if the current record does not have the specified field.
+    */
+   public ByteSlice getField(int field) {
+      checkField(field);
+      if (slices[field] == null) {
+         slices[field] = new ByteSlice(line.array(), starts[field], ends[field] - starts[field]);
+      } else {
+         slices[field].set(line.array(), starts[field], ends[field] - starts[field]);
+      }
+      return slices[field];
+   }
+
+   /**
+    * Returns the specified field as a {@code String}.
+    *
+    * @param field the field number (counting from 0)
+    * @return the field.
+    * @throws IndexOutOfBoundsException if the current record does not have the specified field.
+    */
+   public String getString(int field) {
+      return getField(field).toString();
+   }
+
+   /**
+    * Parses the specified field as a {@code long} (see {@link ByteSlice#parseLong()}).
+    *
+    * @param field the field number (counting from 0)
+    * @return the value of the field.
+    * @throws IndexOutOfBoundsException if the current record does not have the specified field.
+    * @throws NumberFormatException     if the field is not a valid {@code long}.
+    */
+   public long getLong(int field) {
+      checkField(field);
+      return ByteSlice.parseLong(line.array(), starts[field], ends[field] - starts[field]);
+   }
+
+   /**
+    * Parses the specified field as an {@code int} (see {@link ByteSlice#parseInt()}).
+    *
+    * @param field the field number (counting from 0)
+    * @return the value of the field.
+    * @throws IndexOutOfBoundsException if the current record does not have the specified field.
+    * @throws NumberFormatException     if the field is not a valid {@code int}.
+    */
+   public int getInt(int field) {
+      checkField(field);
+      return ByteSlice.parseInt(line.array(), starts[field], ends[field] - starts[field]);
+   }
+
+   /**
+    * Parses the specified field as a {@code double} (see {@link ByteSlice#parseDouble()}).
+    *
+    * @param field the field number (counting from 0)
+    * @return the value of the field.
+    * @throws IndexOutOfBoundsException if the current record does not have the specified field.
+    * @throws NumberFormatException     if the field is not a valid {@code double}.
+    */
+   public double getDouble(int field) {
+      checkField(field);
+      return ByteSlice.parseDouble(line.array(), starts[field], ends[field] - starts[field]);
+   }
+
+   /**
+    * Closes the underlying stream.
+    *
+    * @throws IOException if the underlying stream throws an exception.
+    */
+   public void close() throws IOException {
+      reader.close();
+   }
+}
@@ -0,0 +1,442 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Sorts lines of text that don't fit in memory.  The input is read in chunks no larger than the memory budget.
+ * Each chunk (a "run") is sorted on a background thread and written to a temporary file (compressed, by default,
+ * using LZ4) while the next chunk is read.  Finally, the runs are merged using a heap.  If there are too many runs to
+ * merge at once, groups of runs are first merged into larger runs.
+ *
+ * <p>The sort is stable:  Lines that compare as equal appear in the output in the same order as in the input.
+ * Lines are read using {@code BufferedReader.readLine} (so "\n", "\r", and "\r\n" all end a line) and are written
+ * followed by "\n".  If the input fits in a single run, it is sorted in memory and no temporary files are
+ * written.</p>
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class ExternalSorter {
+
+   /**
+    * The default memory budget (64MB).
+    */
+   public static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+
+   /**
+    * The default compression for run files ("lz4").
+    */
+   public static final String DEFAULT_RUN_SUFFIX = "lz4";
+
+   /**
+    * The largest number of runs merged at once.
+    */
+   public static final int MAX_MERGE_WIDTH = 64;
+
+   // The filters available for compressing run files.  (The matching decompressors are in
+   // InputHelper.DEFAULT_FILTER_FACTORY_MAP.)
+   private static final Map<String, OutputHelper.FilterFactory> RUN_FILTER_MAP;
+
+   static {
+      Map<String, OutputHelper.FilterFactory> map = new HashMap<String, OutputHelper.FilterFactory>();
+      map.put("lz4", OutputHelper.LZ4_FACTORY);
+      map.put("bz2", OutputHelper.BZIP2_FACTORY);
+      RUN_FILTER_MAP = Collections.unmodifiableMap(map);
+   }
+
+   // An estimate of the memory used by each line (beyond its characters):  The String and its array headers, plus
+   // the reference in the list.
+   private static final int LINE_OVERHEAD = 48;
+
+   // The size (in chars) of the buffers used to read and write runs.
+   private static final int RUN_BUFFER_SIZE = 32 * 1024;
+
+   // Estimates of the memory needed to decompress one run while merging
+   private static final int LZ4_READER_MEMORY = 256 * 1024;
+   private static final int BZIP2_READER_MEMORY = 5 * 1024 * 1024;
+
+   private static final Comparator<String> NATURAL_ORDER = new Comparator<String>() {
+      public int compare(String a, String b) {
+         return a.compareTo(b);
+      }
+   };
+
+   private static int threadCount = 0;
+
+   private final Comparator<? super String> comparator;
+   private final long memoryBudget;
+   private final String runSuffix;
+   private final int threads;
+   private final File tempDirectory;
+   private final Charset charset;
+
+   private int runCount = 0;
+
+   /**
+    * Constructor.  Sorts lines in their natural ({@code String.compareTo}) order using the defaults described in
+    * {@link #ExternalSorter(java.util.Comparator)}.
+    */
+   public ExternalSorter() {
+      this(NATURAL_ORDER);
+   }
+
+   /**
+    * Constructor.  Uses {@link #DEFAULT_MEMORY_BUDGET}, LZ4-compressed run files in the default temporary
+    * directory, one thread per processor, and the platform's default character set.
+    *
+    * @param comparator determines the order of the lines
+    */
+   public ExternalSorter(Comparator<? super String> comparator) {
+      this(comparator, DEFAULT_MEMORY_BUDGET, DEFAULT_RUN_SUFFIX, Runtime.getRuntime().availableProcessors(), null,
+            Charset.defaultCharset());
+   }
+
+   /**
+    * Constructor
+    *
+    * @param comparator    determines the order of the lines
+    * @param memoryBudget  the approximate number of bytes of lines (and merge buffers) to hold in memory at once.
+    * @param runSuffix     the suffix ("lz4" or "bz2") naming the compression used for run files, or {@code null} to
+    *                      write run files uncompressed.
+    * @param threads       the number of runs that may be sorted and written concurrently.
+    * @param tempDirectory the directory in which to write run files, or {@code null} for the default temporary
+    *                      directory.
+    * @param charset       the character set of the input and output
+    * @throws IllegalArgumentException if {@code runSuffix} is not supported, or {@code memoryBudget} or {@code
+    *                                  threads} is not positive.
+    */
+   public ExternalSorter(Comparator<? super String> comparator, long memoryBudget, String runSuffix, int threads,
+                         File tempDirectory, Charset charset) {
+      if (comparator == null) {
+         throw new NullPointerException("parameter \"comparator\" cannot be null.");
+      }
+      if (charset == null) {
+         throw new NullPointerException("parameter \"charset\" cannot be null.");
+      }
+      if (memoryBudget < 1) {
+         throw new IllegalArgumentException("memoryBudget must be positive.");
+      }
+      if (threads < 1) {
+         throw new IllegalArgumentException("threads must be positive.");
+      }
+      if (runSuffix != null && !RUN_FILTER_MAP.containsKey(runSuffix)) {
+         throw new IllegalArgumentException("Run files can't be compressed using \"" + runSuffix + "\".");
+      }
+      this.comparator = comparator;
+      this.memoryBudget = memoryBudget;
+      this.runSuffix = runSuffix;
+      this.threads = threads;
+      this.tempDirectory = tempDirectory;
+      this.charset = charset;
+   }
+
+   /**
+    * Returns the number of run files written by the most recent sort (including those written by intermediate
+    * merges).  This is 0 if the input fit in memory.
+    *
+    * @return the number of run files written by the most recent sort.
+    */
+   public int getRunCount() {
+      return runCount;
+   }
+
+   /**
+    * Sorts the lines of the named file (or stream) and writes them to the named output.  The input is opened using
+    * {@link InputHelper#openMappedAndFilteredInputStream(String)} (so "-" is the standard input and compressed files
+    * are decompressed).  The output is opened using {@link OutputHelper#getOutputStream(String, java.util.Map,
+    * java.util.Map)} with {@link OutputHelper#DEFAULT_OUTPUT_STREAM_MAP} and {@link
+    * OutputHelper#DEFAULT_FILTER_FACTORY_MAP} (so "-" is the standard output, and outputs ending in ".lz4" or ".bz2"
+    * are compressed).
+    *
+    * @param inputName  the name of the file to sort
+    * @param outputName the name of the file to write
+    * @throws FileNotFoundException if the input does not exist or the output can't be opened.
+    * @throws IOException           if reading, writing, or a run file fails.
+    */
+   public void sort(String inputName, String outputName) throws IOException {
+      InputStream in = InputHelper.openMappedAndFilteredInputStream(inputName);
+      try {
+         OutputStream out = OutputHelper.getOutputStream(outputName, OutputHelper.DEFAULT_OUTPUT_STREAM_MAP,
+               OutputHelper.DEFAULT_FILTER_FACTORY_MAP);
+         try {
+            sort(in, out);
+         } finally {
+            if (OutputHelper.DEFAULT_OUTPUT_STREAM_MAP.containsKey(outputName)) {
+               out.flush();
+            } else {
+               out.close();
+            }
+         }
+      } finally {
+         if (!InputHelper.DEFAULT_INPUT_STREAM_MAP.containsKey(inputName)) {
+            in.close();
+         }
+      }
+   }
+
+   /**
+    * Sorts the lines of {@code in} and writes them to {@code out}.  Neither stream is closed; but, {@code out} is
+    * flushed.
+    *
+    * @param in  the lines to sort
+    * @param out the stream to which the sorted lines are written
+    * @throws IOException if reading, writing, or a run file fails.
+    */
+   public void sort(InputStream in, OutputStream out) throws IOException {
+      runCount = 0;
+      final List<File> temporaries = Collections.synchronizedList(new ArrayList<File>());
+      ExecutorService pool = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+         public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, nextThreadName());
+            thread.setDaemon(true);
+            return thread;
+         }
+      });
+      boolean finished = false;
+      try {
+         List<File> runs = makeRuns(new BufferedReader(new InputStreamReader(in, charset), RUN_BUFFER_SIZE), out,
+               pool, temporaries);
+         if (runs != null) {
+            runs = mergeUntilNarrow(runs, pool, temporaries);
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, charset), RUN_BUFFER_SIZE);
+            merge(runs, writer);
+            writer.flush();
+         }
+         finished = true;
+      } finally {
+         if (finished) {
+            pool.shutdown();
+         } else {
+            pool.shutdownNow();
+            try {
+               // Give the tasks a chance to stop writing before their files are removed.
+               pool.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+            }
+         }
+         synchronized (temporaries) {
+            for (File file : temporaries) {
+               if (file.exists() && !file.delete()) {
+                  file.deleteOnExit();
+               }
+            }
+         }
+      }
+   }
+
+   private static synchronized String nextThreadName() {
+      return "ExternalSorter-" + (threadCount++);
+   }
+
+   // Reads the input, and sorts and writes runs on the pool.  Returns the run files; or, if the entire input fit in
+   // one chunk, sorts it, writes it to "out", and returns null.
+   private List<File> makeRuns(BufferedReader reader, OutputStream out, ExecutorService pool,
+                               List<File> temporaries) throws IOException {
+      // One chunk is being filled while up to "threads" chunks are being sorted and written.
+      long chunkBudget = Math.max(1, memoryBudget / (threads + 1));
+      List<Future<File>> runs = new ArrayList<Future<File>>();
+      List<String> chunk = new ArrayList<String>();
+      long used = 0;
+      for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+         chunk.add(line);
+         used += LINE_OVERHEAD + 2L * line.length();
+         if (used >= chunkBudget) {
+            if (runs.size() >= threads) {
+               // Wait for a thread to finish, so no more than "threads" chunks are waiting to be written.
+               get(runs.get(runs.size() - threads));
+            }
+            runs.add(pool.submit(makeRun(chunk, temporaries)));
+            chunk = new ArrayList<String>();
+            used = 0;
+         }
+      }
+      if (runs.isEmpty()) {
+         Collections.sort(chunk, comparator);
+         Writer writer = new BufferedWriter(new OutputStreamWriter(out, charset), RUN_BUFFER_SIZE);
+         for (String line : chunk) {
+            writer.write(line);
+            writer.write('\n');
+         }
+         writer.flush();
+         return null;
+      }
+      if (!chunk.isEmpty()) {
+         runs.add(pool.submit(makeRun(chunk, temporaries)));
+      }
+      List<File> files = new ArrayList<File>();
+      for (Future<File> run : runs) {
+         files.add(get(run));
+      }
+      return files;
+   }
+
+   private Callable<File> makeRun(final List<String> chunk, final List<File> temporaries) {
+      return new Callable<File>() {
+         public File call() throws IOException {
+            Collections.sort(chunk, comparator);
+            File file = newRunFile(temporaries);
+            Writer writer = openRun(file);
+            try {
+               for (String line : chunk) {
+                  writer.write(line);
+                  writer.write('\n');
+               }
+            } finally {
+               writer.close();
+            }
+            return file;
+         }
+      };
+   }
+
+   // Merges groups of runs (concurrently) until there are few enough to merge at once.
+   private List<File> mergeUntilNarrow(List<File> runs, ExecutorService pool,
+                                       final List<File> temporaries) throws IOException {
+      // The groups are merged concurrently; so, they share the memory budget.
+      int groupWidth = getMergeWidth(memoryBudget / threads);
+      while (runs.size() > getMergeWidth(memoryBudget)) {
+         List<Future<File>> merged = new ArrayList<Future<File>>();
+         for (int start = 0; start < runs.size(); start += groupWidth) {
+            final List<File> group = runs.subList(start, Math.min(runs.size(), start + groupWidth));
+            merged.add(pool.submit(new Callable<File>() {
+               public File call() throws IOException {
+                  File file = newRunFile(temporaries);
+                  Writer writer = openRun(file);
+                  try {
+                     merge(group, writer);
+                  } finally {
+                     writer.close();
+                  }
+                  for (File run : group) {
+                     run.delete();
+                  }
+                  return file;
+               }
+            }));
+         }
+         List<File> next = new ArrayList<File>();
+         for (Future<File> future : merged) {
+            next.add(get(future));
+         }
+         runs = next;
+      }
+      return runs;
+   }
+
+   // The number of runs that can be merged at once without exceeding "budget".
+   private int getMergeWidth(long budget) {
+      long perRun = 2L * RUN_BUFFER_SIZE + 8192;
+      if ("lz4".equals(runSuffix)) {
+         perRun += LZ4_READER_MEMORY;
+      } else if ("bz2".equals(runSuffix)) {
+         perRun += BZIP2_READER_MEMORY;
+      }
+      return (int) Math.max(2, Math.min(MAX_MERGE_WIDTH, budget / perRun));
+   }
+
+   private File newRunFile(List<File> temporaries) throws IOException {
+      File file = File.createTempFile("warszawaSort", runSuffix == null ? ".txt" : "." + runSuffix, tempDirectory);
+      temporaries.add(file);
+      synchronized (this) {
+         runCount++;
+      }
+      return file;
+   }
+
+   private Writer openRun(File file) throws IOException {
+      return new BufferedWriter(new OutputStreamWriter(
+            OutputHelper.getOutputStream(file.getPath(), null, RUN_FILTER_MAP), charset), RUN_BUFFER_SIZE);
+   }
+
+   // The next line of a run, and where to find the rest.
+   private static class Run {
+      final BufferedReader reader;
+      final int index;
+      String line;
+
+      Run(BufferedReader reader, int index) {
+         this.reader = reader;
+         this.index = index;
+      }
+
+      boolean advance() throws IOException {
+         line = reader.readLine();
+         return line != null;
+      }
+   }
+
+   // Merges the runs (which are in input order) into "out".
+   private void merge(List<File> files, Writer out) throws IOException {
+      PriorityQueue<Run> heap = new PriorityQueue<Run>(files.size(), new Comparator<Run>() {
+         public int compare(Run a, Run b) {
+            int answer = comparator.compare(a.line, b.line);
+            // Ties go to the earlier run, which keeps the sort stable.
+            return answer != 0 ? answer : a.index - b.index;
+         }
+      });
+      List<Run> open = new ArrayList<Run>();
+      try {
+         for (File file : files) {
+            Run run = new Run(new BufferedReader(new InputStreamReader(
+                  InputHelper.openInputStream(file, InputHelper.DEFAULT_FILTER_FACTORY_MAP), charset),
+                  RUN_BUFFER_SIZE), open.size());
+            open.add(run);
+            if (run.advance()) {
+               heap.add(run);
+            }
+         }
+         while (!heap.isEmpty()) {
+            Run run = heap.poll();
+            out.write(run.line);
+            out.write('\n');
+            if (run.advance()) {
+               heap.add(run);
+            }
+         }
+      } finally {
+         for (Run run : open) {
+            run.reader.close();
+         }
+      }
+   }
+
+   private static <T> T get(Future<T> future) throws IOException {
+      try {
+         return future.get();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new InterruptedIOException("Interrupted while waiting for a run to be written.");
+      } catch (ExecutionException e) {
+         Throwable cause = e.getCause();
+         if (cause instanceof IOException) {
+            throw (IOException) cause;
+         } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+         } else if (cause instanceof Error) {
+            throw (Error) cause;
+         }
+         throw new IOException(cause);
+      }
+   }
+}
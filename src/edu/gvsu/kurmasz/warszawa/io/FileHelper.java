@@ -17,6 +17,8 @@
 package edu.gvsu.kurmasz.warszawa.io;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @author Zachary Kurmas
@@ -67,4 +69,30 @@ public class FileHelper {
 
    }
 
+   /**
+    * Return all of the filename's suffixes, in the order they appear.  For example, the suffixes of
+    * "data.tsv.bz2.lz4" are "tsv", "bz2", and "lz4".  The last suffix is the one returned by {@link
+    * #getSuffix(String)}, and the same rules apply:  Leading dots do not count, and {@code filename} must be a base
+    * file name, not a full path.
+    *
+    * @param filename the files <em>base</em> name (i.e., directory separators are not currently allowed.)
+    * @return the filename's suffixes (empty if the filename has no suffix).
+    * @throws IllegalArgumentException if {@code filename} contains any slashes.
+    */
+   public static List<String> getSuffixes(String filename) throws IllegalArgumentException {
+      List<String> answer = new ArrayList<String>();
+      if (getSuffix(filename) == null) {
+         return answer;
+      }
+      int start = 0;
+      while (filename.charAt(start) == '.') {
+         start++;
+      }
+      for (int dot = filename.indexOf('.', start); dot >= 0; dot = filename.indexOf('.', dot + 1)) {
+         int next = filename.indexOf('.', dot + 1);
+         answer.add(filename.substring(dot + 1, next < 0 ? filename.length() : next));
+      }
+      return answer;
+   }
+
 }
@@ -0,0 +1,244 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A range of bytes in a file that begins at the start of a line and ends just after a newline (or at the end of
+ * the file).  Because no line crosses a split boundary, the splits returned by {@link #split(java.io.File, int,
+ * long)} can be processed independently (e.g., by submitting one task per split to an {@code ExecutorService}).
+ *
+ * <p>Splits are only meaningful for uncompressed files:  Compressed data can't be entered at an arbitrary byte
+ * offset.</p>
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class FileSplit {
+
+   /**
+    * The default minimum size of a split (1MB).  Splitting a small file more finely than this costs more in
+    * overhead than it saves.
+    */
+   public static final long DEFAULT_MIN_SPLIT_SIZE = 1024 * 1024;
+
+   private static final int SCAN_BUFFER_SIZE = 8 * 1024;
+
+   private final File file;
+   private final long start;
+   private final long end;
+
+   /**
+    * Constructor.  (Normally, splits are created by {@link #split(java.io.File, int, long)}.)
+    *
+    * @param file  the file
+    * @param start the position of the first byte in the split
+    * @param end   the position just past the last byte in the split
+    */
+   public FileSplit(File file, long start, long end) {
+      if (start < 0 || end < start) {
+         throw new IllegalArgumentException("Invalid range [" + start + ", " + end + ")");
+      }
+      this.file = file;
+      this.start = start;
+      this.end = end;
+   }
+
+   public File getFile() {
+      return file;
+   }
+
+   /**
+    * Returns the position of the first byte in the split.
+    *
+    * @return the position of the first byte in the split.
+    */
+   public long getStart() {
+      return start;
+   }
+
+   /**
+    * Returns the position just past the last byte in the split.
+    *
+    * @return the position just past the last byte in the split.
+    */
+   public long getEnd() {
+      return end;
+   }
+
+   /**
+    * Returns the number of bytes in the split.
+    *
+    * @return the number of bytes in the split.
+    */
+   public long length() {
+      return end - start;
+   }
+
+   /**
+    * Opens an {@code InputStream} that reads only the bytes in this split.
+    *
+    * @return a new {@code InputStream}
+    * @throws IOException if the file can't be opened
+    */
+   public InputStream openInputStream() throws IOException {
+      FileInputStream in = new FileInputStream(file);
+      try {
+         in.getChannel().position(start);
+      } catch (IOException e) {
+         in.close();
+         throw e;
+      }
+      return new RangeInputStream(in, length());
+   }
+
+   /**
+    * Opens a {@link LineReader} that reads only the lines in this split.
+    *
+    * @return a new {@code LineReader}
+    * @throws IOException if the file can't be opened
+    */
+   public LineReader openLineReader() throws IOException {
+      return new LineReader(openInputStream());
+   }
+
+   @Override
+   public String toString() {
+      return file + "[" + start + ", " + end + ")";
+   }
+
+   /**
+    * Divides {@code file} into about {@code numSplits} splits, each of which begins at the start of a line.  Each
+    * split is at least {@code minSplitSize} bytes long (except possibly the last), so small files produce fewer
+    * splits.  A split may also be longer than requested if the nominal boundary falls inside a long line.  An empty
+    * file has no splits.
+    *
+    * @param file         the file to split
+    * @param numSplits    the desired number of splits (typically the number of processors)
+    * @param minSplitSize the minimum size of a split
+    * @return a list of contiguous splits covering the entire file, in order.
+    * @throws IOException if the file can't be read.
+    */
+   public static List<FileSplit> split(File file, int numSplits, long minSplitSize) throws IOException {
+      if (numSplits < 1) {
+         throw new IllegalArgumentException("numSplits must be positive.");
+      }
+      List<FileSplit> answer = new ArrayList<FileSplit>();
+      RandomAccessFile raf = new RandomAccessFile(file, "r");
+      try {
+         long size = raf.length();
+         long splitSize = Math.max(1, Math.max(minSplitSize, (size + numSplits - 1) / numSplits));
+         byte[] buffer = new byte[SCAN_BUFFER_SIZE];
+         long start = 0;
+         while (start < size) {
+            long end = start + splitSize >= size ? size : nextLineStart(raf, start + splitSize - 1, buffer);
+            answer.add(new FileSplit(file, start, end));
+            start = end;
+         }
+      } finally {
+         raf.close();
+      }
+      return answer;
+   }
+
+   // Returns the position just after the first newline at or after position (or the end of the file).
+   private static long nextLineStart(RandomAccessFile raf, long position, byte[] buffer) throws IOException {
+      raf.seek(position);
+      for (int n = raf.read(buffer); n > 0; n = raf.read(buffer)) {
+         for (int i = 0; i < n; i++) {
+            if (buffer[i] == '\n') {
+               return position + i + 1;
+            }
+         }
+         position += n;
+      }
+      return raf.length();
+   }
+
+   // Reads at most "remaining" bytes from the underlying stream.
+   private static class RangeInputStream extends FilterInputStream {
+      private long remaining;
+
+      RangeInputStream(InputStream in, long length) {
+         super(in);
+         this.remaining = length;
+      }
+
+      @Override
+      public int read() throws IOException {
+         if (remaining <= 0) {
+            return -1;
+         }
+         int answer = in.read();
+         if (answer >= 0) {
+            remaining--;
+         }
+         return answer;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+         if (len == 0) {
+            return 0;
+         }
+         if (remaining <= 0) {
+            return -1;
+         }
+         int answer = in.read(b, off, (int) Math.min(len, remaining));
+         if (answer > 0) {
+            remaining -= answer;
+         }
+         return answer;
+      }
+
+      @Override
+      public long skip(long n) throws IOException {
+         long answer = in.skip(Math.min(n, remaining));
+         remaining -= answer;
+         return answer;
+      }
+
+      @Override
+      public int available() throws IOException {
+         return (int) Math.min(in.available(), remaining);
+      }
+
+      @Override
+      public boolean markSupported() {
+         return false;
+      }
+
+      @Override
+      public synchronized void mark(int readLimit) {
+         // not supported
+      }
+
+      @Override
+      public synchronized void reset() throws IOException {
+         throw new IOException("mark/reset not supported");
+      }
+   }
+}
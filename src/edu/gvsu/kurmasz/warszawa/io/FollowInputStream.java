@@ -0,0 +1,315 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An {@code InputStream} that follows a growing file, like {@code tail -F}.  When a read reaches the end of the
+ * file, it blocks until more data is appended instead of returning -1.  The stream remembers its position, so each
+ * wake-up reads only the new data.
+ *
+ * <p>The stream waits on a {@code WatchService} registered on the file's directory.  It also re-checks the file
+ * every {@code pollMillis} milliseconds, in case the platform's {@code WatchService} is slow, unavailable, or
+ * misses an event.</p>
+ *
+ * <p>The stream handles the two common ways logs are rolled:</p>
+ * <ul>
+ * <li><em>Truncation</em> (e.g., {@code logrotate copytruncate}):  If the file becomes shorter than the current
+ * position, reading resumes at the beginning of the file.</li>
+ * <li><em>Rotation</em> (the file is renamed and a new file is created with the original name):  The stream reads
+ * the remainder of the old file, then opens the new file and reads it from the beginning.  If no file has the
+ * original name, the stream waits for one to appear.</li>
+ * </ul>
+ *
+ * <p>The stream never reaches its end on its own.  {@link #close()} (which may be called from another thread)
+ * causes a blocked read to return -1.</p>
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class FollowInputStream extends InputStream {
+
+   /**
+    * The default maximum time between checks of the file (1 second).
+    */
+   public static final long DEFAULT_POLL_MILLIS = 1000;
+
+   private final Path path;
+   private final long pollMillis;
+   private final WatchService watcher;   // null if the platform doesn't provide one
+   private final byte[] single = new byte[1];
+
+   private volatile FileChannel channel;   // null after a rotation, until the new file appears
+   private Object fileKey;
+   private volatile long position;
+   private volatile boolean closed = false;
+
+   /**
+    * Constructor.  Begins reading at the beginning of the file and checks for new data at least every {@link
+    * #DEFAULT_POLL_MILLIS} milliseconds.
+    *
+    * @param file the file to follow
+    * @throws FileNotFoundException if the file does not exist.
+    */
+   public FollowInputStream(File file) throws FileNotFoundException {
+      this(file, 0, DEFAULT_POLL_MILLIS);
+   }
+
+   /**
+    * Constructor
+    *
+    * @param file       the file to follow
+    * @param position   the position at which to begin reading (e.g., {@code file.length()} to read only new data).
+    * @param pollMillis the maximum time (in milliseconds) between checks of the file.
+    * @throws FileNotFoundException if the file does not exist.
+    */
+   public FollowInputStream(File file, long position, long pollMillis) throws FileNotFoundException {
+      if (position < 0) {
+         throw new IllegalArgumentException("position must not be negative.");
+      }
+      if (pollMillis < 1) {
+         throw new IllegalArgumentException("pollMillis must be positive.");
+      }
+      this.path = file.getAbsoluteFile().toPath();
+      this.pollMillis = pollMillis;
+      this.position = position;
+      try {
+         if (!openFile()) {
+            throw new FileNotFoundException(file.getPath() + " (No such file or directory)");
+         }
+      } catch (FileNotFoundException e) {
+         throw e;
+      } catch (IOException e) {
+         FileNotFoundException fnfe = new FileNotFoundException(file.getPath() + " (" + e.getMessage() + ")");
+         fnfe.initCause(e);
+         throw fnfe;
+      }
+      this.watcher = makeWatcher(path.getParent());
+   }
+
+   private static WatchService makeWatcher(Path directory) {
+      WatchService answer = null;
+      try {
+         answer = directory.getFileSystem().newWatchService();
+         directory.register(answer, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+               StandardWatchEventKinds.ENTRY_DELETE);
+         return answer;
+      } catch (IOException e) {
+         // Fall back to polling.
+      } catch (UnsupportedOperationException e) {
+         // Fall back to polling.
+      }
+      if (answer != null) {
+         try {
+            answer.close();
+         } catch (IOException e) {
+            // We're falling back to polling anyway.
+         }
+      }
+      return null;
+   }
+
+   // Opens the file currently named "path".  Returns false if there is no such file (or the stream was closed).
+   private boolean openFile() throws IOException {
+      FileChannel c;
+      try {
+         c = FileChannel.open(path, StandardOpenOption.READ);
+      } catch (NoSuchFileException e) {
+         return false;
+      }
+      // close() doesn't take the lock held by readOrWait, so it may run while a rotation is opening the new file.
+      // Publish the channel before re-checking closed:  Either close() sees (and closes) the new channel, or we see
+      // that the stream was closed and close the channel ourselves.
+      channel = c;
+      if (closed) {
+         c.close();
+         return false;
+      }
+      fileKey = currentFileKey();
+      return true;
+   }
+
+   // Returns the key of the file currently named "path", or null if there is no such file (or the platform doesn't
+   // provide keys).
+   private Object currentFileKey() throws IOException {
+      try {
+         return Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+      } catch (NoSuchFileException e) {
+         return null;
+      }
+   }
+
+   // Called at the end of the file.  Returns true if the file was truncated or rotated (in which case reading
+   // should be attempted again right away).
+   private boolean checkForRollover() throws IOException {
+      if (channel == null) {
+         return openFile();
+      }
+      if (channel.size() < position) {
+         position = 0;
+         return true;
+      }
+      Object key = currentFileKey();
+      if (key != null && !key.equals(fileKey)) {
+         if (channel.size() > position) {
+            // Data was appended to the old file before it was renamed.  Read it before switching.
+            return true;
+         }
+         channel.close();
+         channel = null;
+         position = 0;
+         return openFile();
+      }
+      return false;
+   }
+
+   // Waits for something to change in the file's directory, or until pollMillis passes.  Returns false if the stream
+   // was closed while waiting.
+   private boolean await() throws IOException {
+      try {
+         if (watcher == null) {
+            Thread.sleep(pollMillis);
+         } else {
+            WatchKey key = watcher.poll(pollMillis, TimeUnit.MILLISECONDS);
+            while (key != null) {
+               key.pollEvents();
+               key.reset();
+               key = watcher.poll();
+            }
+         }
+      } catch (ClosedWatchServiceException e) {
+         return false;
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new InterruptedIOException("Interrupted while waiting for data.");
+      }
+      return !closed;
+   }
+
+   /**
+    * Returns the position (in the current file) of the next byte to be read.
+    *
+    * @return the position of the next byte to be read.
+    */
+   public long position() {
+      return position;
+   }
+
+   @Override
+   public int read() throws IOException {
+      return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+   }
+
+   @Override
+   public int read(byte[] b, int off, int len) throws IOException {
+      if (off < 0 || len < 0 || len > b.length - off) {
+         throw new IndexOutOfBoundsException();
+      }
+      if (closed) {
+         throw new IOException("Stream closed.");
+      }
+      if (len == 0) {
+         return 0;
+      }
+      try {
+         return readOrWait(ByteBuffer.wrap(b, off, len));
+      } catch (ClosedChannelException e) {
+         // close() was called by another thread
+         if (closed) {
+            return -1;
+         }
+         throw e;
+      }
+   }
+
+   private synchronized int readOrWait(ByteBuffer buffer) throws IOException {
+      while (!closed) {
+         if (channel != null) {
+            int n = channel.read(buffer, position);
+            if (n > 0) {
+               position += n;
+               return n;
+            }
+         }
+         if (!checkForRollover() && !await()) {
+            break;
+         }
+      }
+      return -1;
+   }
+
+   /**
+    * Returns the number of bytes that have been appended to the file but not yet read.
+    *
+    * @return the number of bytes that can be read without blocking.
+    * @throws IOException if the stream is closed.
+    */
+   @Override
+   public int available() throws IOException {
+      if (closed) {
+         throw new IOException("Stream closed.");
+      }
+      FileChannel c = channel;
+      if (c == null) {
+         return 0;
+      }
+      long remaining = c.size() - position;
+      return (int) Math.max(0, Math.min(Integer.MAX_VALUE, remaining));
+   }
+
+   /**
+    * Closes the file.  If another thread is blocked in {@code read}, that read returns -1.
+    *
+    * @throws IOException if closing the file throws an exception.
+    */
+   @Override
+   public void close() throws IOException {
+      if (closed) {
+         return;
+      }
+      closed = true;
+      try {
+         if (watcher != null) {
+            watcher.close();
+         }
+      } finally {
+         FileChannel c = channel;
+         if (c != null) {
+            c.close();
+         }
+      }
+   }
+}
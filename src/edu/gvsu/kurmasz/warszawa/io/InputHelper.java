@@ -16,11 +16,26 @@
  */
 package edu.gvsu.kurmasz.warszawa.io;
 
-import org.apache.tools.bzip2.CBZip2InputStream;
 
 import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.GZIPInputStream;
 
 import static edu.gvsu.kurmasz.warszawa.Warszawa.DEFAULT_ERROR_STREAM;
 import static edu.gvsu.kurmasz.warszawa.Warszawa.DEFAULT_EXIT_VALUE;
@@ -47,7 +62,7 @@ import static edu.gvsu.kurmasz.warszawa.Warszawa.DEFAULT_EXIT_VALUE;
  *
  * <dt>Filter Maps</dt> <dd><em>Filter maps</em> map file suffixes onto filter-like {@code InputStream}s that
  * pre-process
- * the file being opened.  (For example, the default filter map maps the suffix 'bz2' onto {@code CBZip2InputStream}.)  Filters are
+ * the file being opened.  (For example, the default filter map maps the suffix 'bz2' onto {@link Bzip2InputStream}.)  Filters are
  * designed  primarily to automate the process of opening and decompressing compressed files (bzip2, gzip,
  * etc.). However, they can be used to automate the pre-processing of any {@code InputStream} based on
  * file suffix.</dd>
@@ -113,7 +128,7 @@ public class InputHelper {
       /**
        * Surrounds the {@code InputStream} with another filter-like {@code InputStream}.  Typically used to surround a
        * {@code
-       * FileInputStream} with an {@code InputStream} (such as {@code CBZip2InputStream}) that can uncompress files.
+       * FileInputStream} with an {@code InputStream} (such as {@link Bzip2InputStream}) that can uncompress files.
        *
        * @param in the base {@code InputStream}
        * @return the new {@code InputStream} surrounding {@code in}
@@ -123,7 +138,7 @@ public class InputHelper {
 
       /**
        * Thrown if there is a problem creating or using the new {@code InputStream} (e.g.,
-       * thrown if the user attempts to use a {@code CBZip2InputStream} on data that is not compressed in bzip2
+       * thrown if the user attempts to use a {@code Bzip2InputStream} on data that is not compressed in bzip2
        * format).
        */
       public class FilterFactoryException extends RuntimeException {
@@ -137,48 +152,257 @@ public class InputHelper {
       }
    }
 
+   /**
+    * A {@link FilterFactory} that can recognize its input by the first few bytes (i.e., the "magic number").
+    * Sniffing filters (see {@link #makeSniffingFilterFactory(java.util.Map)}) use the magic number to choose a
+    * filter based on a stream's contents instead of its name.
+    */
+   public interface MagicNumberFilterFactory extends FilterFactory {
+      /**
+       * Returns the bytes with which every stream this factory can handle begins.
+       *
+       * @return the bytes with which every stream this factory can handle begins.
+       */
+      byte[] getMagicNumber();
+   }
+
+   private static final byte[] BZIP2_MAGIC = {'B', 'Z', 'h'};
+
    // package scope to allow test to have access.
-   static class Bzip2Factory implements FilterFactory {
+   static class Bzip2Factory implements MagicNumberFilterFactory {
+      private final BufferPool pool;
+
+      Bzip2Factory() {
+         this(null);
+      }
+
+      Bzip2Factory(BufferPool pool) {
+         this.pool = pool;
+      }
+
+      public byte[] getMagicNumber() {
+         return BZIP2_MAGIC.clone();
+      }
+
       public InputStream makeFilter(InputStream in) throws FilterFactoryException {
          if (in == null) {
             throw new NullPointerException("parameter \"in\" cannot be null.");
          }
 
          try {
-            // Read the first two characters. Should be 'B' and 'Z'
-            int c1 = in.read();
-            int c2 = in.read();
-            if (c1 != 'B' || c2 != 'Z') {
-               throw new FilterFactoryException("BZip2 stream does not begin with \"BZ\".");
+            if (in instanceof SniffedInputStream && ((SniffedInputStream) in).atStart()) {
+               // The first bytes have already been examined.  Check them, then skip "BZ" (which is still in the
+               // pushback buffer) instead of reading it from the underlying stream.
+               SniffedInputStream sniffed = (SniffedInputStream) in;
+               if (!sniffed.startsWith(BZIP2_MAGIC)) {
+                  throw new FilterFactoryException("BZip2 stream does not begin with \"BZh\".");
+               }
+               sniffed.skip(2);
+            } else {
+               // Read the first two characters. Should be 'B' and 'Z'
+               int c1 = in.read();
+               int c2 = in.read();
+               if (c1 != 'B' || c2 != 'Z') {
+                  throw new FilterFactoryException("BZip2 stream does not begin with \"BZ\".");
+               }
             }
          } catch (IOException e) {
             throw new FilterFactoryException("Problem reading from underlying stream.", e);
          }
 
-         BufferedInputStream buffer = new BufferedInputStream(in);
-
          try {
-            return new CBZip2InputStream(buffer);
-         } catch (NullPointerException e) {
-            throw new FilterFactoryException("InputStream is not a valid bzip2 stream.");
+            return pool == null ? new Bzip2InputStream(in, true) : new Bzip2InputStream(in, true, pool);
+         } catch (IOException e) {
+            throw new FilterFactoryException("InputStream is not a valid bzip2 stream.", e);
          }
       }
    }
 
    /**
-    * Wraps an {@code InputStream} in a {@code CBZip2InputStream} that uncompresses it.
+    * Wraps an {@code InputStream} in a {@link Bzip2InputStream} that uncompresses it.
     */
    public static final FilterFactory BZIP2_FACTORY = new Bzip2Factory();
 
+   /**
+    * Returns a {@code FilterFactory} like {@link #BZIP2_FACTORY} whose streams take their buffers from {@code pool}
+    * and return them when closed.
+    *
+    * @param pool the pool from which to take buffers.
+    * @return the new {@code FilterFactory}
+    */
+   public static FilterFactory makePooledBzip2Factory(BufferPool pool) {
+      if (pool == null) {
+         throw new NullPointerException("parameter \"pool\" cannot be null.");
+      }
+      return new Bzip2Factory(pool);
+   }
+
+   // package scope to allow test to have access.
+   static class ParallelBzip2Factory implements MagicNumberFilterFactory {
+      private final int numThreads;
+
+      ParallelBzip2Factory(int numThreads) {
+         this.numThreads = numThreads;
+      }
+
+      public byte[] getMagicNumber() {
+         return BZIP2_MAGIC.clone();
+      }
+
+      public InputStream makeFilter(InputStream in) throws FilterFactoryException {
+         if (in == null) {
+            throw new NullPointerException("parameter \"in\" cannot be null.");
+         }
+         try {
+            return new ParallelBzip2InputStream(in, numThreads);
+         } catch (IOException e) {
+            throw new FilterFactoryException("InputStream is not a valid bzip2 stream.", e);
+         }
+      }
+   }
+
+   /**
+    * Wraps an {@code InputStream} in a {@link ParallelBzip2InputStream} that uncompresses it using one thread per
+    * available processor.  This factory is not part of the default filter map because it starts threads.  To
+    * use it, put it in a filter map under "bz2":
+    * <pre>
+    *    Map&lt;String, FilterFactory&gt; filterMap = InputHelper.makeDefaultFilterFactoryMap();
+    *    filterMap.put("bz2", InputHelper.PARALLEL_BZIP2_FACTORY);
+    * </pre>
+    */
+   public static final FilterFactory PARALLEL_BZIP2_FACTORY =
+         new ParallelBzip2Factory(Runtime.getRuntime().availableProcessors());
+
+   /**
+    * Returns a {@code FilterFactory} that wraps an {@code InputStream} in a {@link ParallelBzip2InputStream} using
+    * the specified number of threads.
+    *
+    * @param numThreads the number of threads used to decompress each stream.
+    * @return the new {@code FilterFactory}
+    * @throws IllegalArgumentException if {@code numThreads} is less than 1.
+    */
+   public static FilterFactory makeParallelBzip2Factory(int numThreads) {
+      if (numThreads < 1) {
+         throw new IllegalArgumentException("numThreads must be at least 1.");
+      }
+      return new ParallelBzip2Factory(numThreads);
+   }
+
+   private static final byte[] GZIP_MAGIC = {(byte) 0x1f, (byte) 0x8b};
+
+   // GZIPInputStream's default (512 bytes) means one call into the native inflater for every 512 bytes of input.
+   private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+   // package scope to allow test to have access.
+   static class GzipFactory implements MagicNumberFilterFactory {
+      public byte[] getMagicNumber() {
+         return GZIP_MAGIC.clone();
+      }
+
+      public InputStream makeFilter(InputStream in) throws FilterFactoryException {
+         if (in == null) {
+            throw new NullPointerException("parameter \"in\" cannot be null.");
+         }
+         try {
+            return new GZIPInputStream(in, GZIP_BUFFER_SIZE);
+         } catch (IOException e) {
+            throw new FilterFactoryException("InputStream is not a valid gzip stream.", e);
+         }
+      }
+   }
+
+   /**
+    * Wraps an {@code InputStream} in a {@code java.util.zip.GZIPInputStream} that uncompresses it.  Files
+    * containing several concatenated gzip members are decompressed in their entirety.
+    */
+   public static final FilterFactory GZIP_FACTORY = new GzipFactory();
+
+   // package scope to allow test to have access.
+   static class ParallelGzipFactory implements MagicNumberFilterFactory {
+      private final int numThreads;
+
+      ParallelGzipFactory(int numThreads) {
+         this.numThreads = numThreads;
+      }
+
+      public byte[] getMagicNumber() {
+         return GZIP_MAGIC.clone();
+      }
+
+      public InputStream makeFilter(InputStream in) throws FilterFactoryException {
+         if (in == null) {
+            throw new NullPointerException("parameter \"in\" cannot be null.");
+         }
+         try {
+            return new ParallelGzipInputStream(in, numThreads);
+         } catch (IOException e) {
+            throw new FilterFactoryException("InputStream is not a valid gzip stream.", e);
+         }
+      }
+   }
+
+   /**
+    * Wraps an {@code InputStream} in a {@link ParallelGzipInputStream} that inflates the members of
+    * multi-member (e.g., {@code bgzip}) files using one thread per available processor.  Like {@link
+    * #PARALLEL_BZIP2_FACTORY}, this factory is not part of the default filter map because it starts threads.  To use
+    * it, put it in a filter map under "gz".
+    */
+   public static final FilterFactory PARALLEL_GZIP_FACTORY =
+         new ParallelGzipFactory(Runtime.getRuntime().availableProcessors());
+
+   /**
+    * Returns a {@code FilterFactory} that wraps an {@code InputStream} in a {@link ParallelGzipInputStream} using
+    * the specified number of threads.
+    *
+    * @param numThreads the number of threads used to decompress each stream.
+    * @return the new {@code FilterFactory}
+    * @throws IllegalArgumentException if {@code numThreads} is less than 1.
+    */
+   public static FilterFactory makeParallelGzipFactory(int numThreads) {
+      if (numThreads < 1) {
+         throw new IllegalArgumentException("numThreads must be at least 1.");
+      }
+      return new ParallelGzipFactory(numThreads);
+   }
+
+   private static final byte[] LZ4_MAGIC = {0x04, 0x22, 0x4d, 0x18};
+
+   // package scope to allow test to have access.
+   static class Lz4Factory implements MagicNumberFilterFactory {
+      public byte[] getMagicNumber() {
+         return LZ4_MAGIC.clone();
+      }
+
+      public InputStream makeFilter(InputStream in) throws FilterFactoryException {
+         if (in == null) {
+            throw new NullPointerException("parameter \"in\" cannot be null.");
+         }
+         try {
+            return new Lz4FrameInputStream(in);
+         } catch (IOException e) {
+            throw new FilterFactoryException("InputStream is not a valid LZ4 stream.", e);
+         }
+      }
+   }
+
+   /**
+    * Wraps an {@code InputStream} in a {@link Lz4FrameInputStream} that uncompresses it.  (See {@link
+    * OutputHelper#LZ4_FACTORY} for the matching compressor.)
+    */
+   public static final FilterFactory LZ4_FACTORY = new Lz4Factory();
+
    /**
     * Generates a map of common file suffixes to appropriate {@link FilterFactory} objects.  For example,
-    * the default map maps "bz2" to a {@code FilterFactory} that builds a {@code CBZip2InputStream}.
+    * the default map maps "bz2" to a {@code FilterFactory} that builds a {@link Bzip2InputStream}, "gz" to one
+    * that builds a {@code GZIPInputStream}, and "lz4" to one that builds a {@link Lz4FrameInputStream}.
     *
     * @return a map of common suffixes to appropriate {@link FilterFactory} objects.
     */
    public static Map<String, FilterFactory> makeDefaultFilterFactoryMap() {
       HashMap<String, FilterFactory> map = new HashMap<String, FilterFactory>();
       map.put("bz2", BZIP2_FACTORY);
+      map.put("gz", GZIP_FACTORY);
+      map.put("lz4", LZ4_FACTORY);
       return map;
    }
 
@@ -188,221 +412,1167 @@ public class InputHelper {
    public static final Map<String, FilterFactory> DEFAULT_FILTER_FACTORY_MAP =
          java.util.Collections.unmodifiableMap(makeDefaultFilterFactoryMap());
 
+   /**
+    * Returns a map like the one returned by {@link #makeDefaultFilterFactoryMap()}, except that the bzip2 filter
+    * takes its buffers from {@code pool} (see {@link #makePooledBzip2Factory(BufferPool)}).
+    *
+    * @param pool the pool from which to take buffers.
+    * @return a new map of suffixes to filters.
+    */
+   public static Map<String, FilterFactory> makePooledFilterFactoryMap(BufferPool pool) {
+      Map<String, FilterFactory> map = makeDefaultFilterFactoryMap();
+      map.put("bz2", makePooledBzip2Factory(pool));
+      return map;
+   }
+
+   /**
+    * An immutable copy of the map returned by {@link #makePooledFilterFactoryMap(BufferPool)} for {@link
+    * BufferPool#SHARED}.
+    */
+   public static final Map<String, FilterFactory> POOLED_FILTER_FACTORY_MAP =
+         java.util.Collections.unmodifiableMap(makePooledFilterFactoryMap(BufferPool.SHARED));
+
+   // package scope to allow test to have access.
+   static class SniffingFactory implements FilterFactory {
+      private final List<MagicNumberFilterFactory> candidates = new ArrayList<MagicNumberFilterFactory>();
+      private int sniffLength = 1;
+
+      SniffingFactory(Collection<FilterFactory> factories) {
+         for (FilterFactory factory : factories) {
+            if (factory instanceof MagicNumberFilterFactory && !candidates.contains(factory)) {
+               MagicNumberFilterFactory mnff = (MagicNumberFilterFactory) factory;
+               candidates.add(mnff);
+               sniffLength = Math.max(sniffLength, mnff.getMagicNumber().length);
+            }
+         }
+      }
+
+      public InputStream makeFilter(InputStream in) throws FilterFactoryException {
+         if (in == null) {
+            throw new NullPointerException("parameter \"in\" cannot be null.");
+         }
+         SniffedInputStream sniffed;
+         try {
+            sniffed = new SniffedInputStream(in, sniffLength);
+         } catch (IOException e) {
+            throw new FilterFactoryException("Problem reading from underlying stream.", e);
+         }
+         for (MagicNumberFilterFactory factory : candidates) {
+            if (sniffed.startsWith(factory.getMagicNumber())) {
+               return factory.makeFilter(sniffed);
+            }
+         }
+         return sniffed;
+      }
+   }
+
+   /**
+    * Returns a {@code FilterFactory} that chooses a filter based on the first few bytes of the stream instead of
+    * the file's name.  The candidate filters are those values in {@code filterMap} that implement {@link
+    * MagicNumberFilterFactory}.  If the stream does not begin with any candidate's magic number, the stream is
+    * returned unfiltered.  (The bytes examined are pushed back, so they are never read twice from the underlying
+    * stream.)
+    *
+    * @param filterMap a map of file suffixes to filters (typically {@link #DEFAULT_FILTER_FACTORY_MAP}).  Only the
+    *                  values are used.  May be {@code null}.
+    * @return the new {@code FilterFactory}
+    */
+   public static FilterFactory makeSniffingFilterFactory(Map<String, FilterFactory> filterMap) {
+      return new SniffingFactory(filterMap == null ? java.util.Collections.<FilterFactory>emptyList() :
+            filterMap.values());
+   }
+
+
+   ////////////////////////////////////////////////////////
+   //
+   // Open input or throw an exception
+   //
+   ///////////////////////////////////////////////////////
+
+   /**
+    * Opens an {@code InputStream} attached to the specified file, using {@code streamMap} and {@code filterMap}.
+    * Specifically,
+    * <ul>
+    * <li>If {@code filename} appears in {@code streamMap}, then return that {@code InputSteam}.</li>
+    * <li>If {@code filename}'s suffix appears in {@code filterMap}, then apply that {@code FilterFactory}.</li>
+    * <li>If neither condition above applies, then return a new {@code InputStream} attached to the specified file
+    * .</li>
+    * </ul>
+    *
+    * <p>Note:  {@code InputStreams} found in {@code streamMap} are not affected by the {@code filterMap} &mdash; even
+    * if
+    * there is an entry in {@code filterMap} for {@code filename}'s suffix.  It is assumed that the {@code InputStream}s in
+    * the {@code streamMap} will already
+    * be configured with any desired filtering/pre-processing.
+    *
+    * @param filename  the name of the file to open (or one of the keys in {@code streamMap}).
+    * @param streamMap a map of file names to existing {@code InputStream}s
+    * @param filterMap a map of file suffixes to filters that will pre-process the file.
+    * @return either the {@code InputStream} in {@code streamMap}, or a new, possibly filtered, {@code InputStream}.
+    * @throws java.io.FileNotFoundException if the requested file does not exist.
+    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
+    *                                       if the specified filter cannot
+    *                                       handle the given file.
+    */
+   public static InputStream openInputStream(String filename,
+                                             Map<String, InputStream> streamMap,
+                                             Map<String, FilterFactory> filterMap
+   ) throws FileNotFoundException {
+      if (streamMap != null && streamMap.containsKey(filename)) {
+         return streamMap.get(filename);
+      } else {
+         return openInputStream(new File(filename), filterMap);
+      }
+   }
+
+
+   /**
+    * Calls {@link #openInputStream(String, java.util.Map, java.util.Map)} with {@link #DEFAULT_INPUT_STREAM_MAP}
+    * and {@link #DEFAULT_FILTER_FACTORY_MAP}.
+    *
+    * @param filename the name of the file to open (or one of the keys in {@code streamMap}).
+    * @return either the {@code InputStream} in {@code streamMap}, or a new, possibly filtered, {@code InputStream}.
+    * @throws java.io.FileNotFoundException if the requested file does not exist.
+    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
+    *                                       if the specified filter cannot
+    *                                       handle the given file.
+    */
+   public static InputStream openMappedAndFilteredInputStream(String filename) throws FileNotFoundException {
+      return openInputStream(filename, DEFAULT_INPUT_STREAM_MAP, DEFAULT_FILTER_FACTORY_MAP);
+   }
+
+   /**
+    * Calls {@link #openInputStream(String, java.util.Map, java.util.Map)} with {@link
+    * #DEFAULT_FILTER_FACTORY_MAP}.
+    *
+    * @param filename  the name of the file to open (or one of the keys in {@code streamMap}).
+    * @param streamMap a map of file names to existing {@code InputStream}s
+    * @return either the {@code InputStream} in {@code streamMap}, or a new, possibly filtered, {@code InputStream}.
+    * @throws java.io.FileNotFoundException if the requested file does not exist.
+    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
+    *                                       if the specified filter cannot
+    *                                       handle the given file.
+    */
+   public static InputStream openFilteredInputStream(String filename,
+                                                     Map<String, InputStream> streamMap) throws FileNotFoundException {
+      return openInputStream(filename, streamMap, DEFAULT_FILTER_FACTORY_MAP);
+   }
+
+   /**
+    * Calls {@link #openInputStream(String, java.util.Map, java.util.Map)} with {@code null} and {@link
+    * #DEFAULT_FILTER_FACTORY_MAP}.
+    *
+    * @param filename the name of the file to open (or one of the keys in {@code streamMap}).
+    * @return either the {@code InputStream} in {@code streamMap}, or a new, possibly filtered, {@code InputStream}.
+    * @throws java.io.FileNotFoundException if the requested file does not exist.
+    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
+    *                                       if the specified filter cannot
+    *                                       handle the given file.
+    */
+   public static InputStream openFilteredInputStream(String filename) throws FileNotFoundException {
+      return openInputStream(filename, null, DEFAULT_FILTER_FACTORY_MAP);
+   }
+
+   /**
+    * Calls {@link #openInputStream(String, java.util.Map, java.util.Map)} with {@code null}.
+    *
+    * @param filename  the name of the file to open (or one of the keys in {@code streamMap}).
+    * @param streamMap a map of file names to existing {@code InputStream}s
+    * @return either the {@code InputStream} in {@code streamMap}, or a new {@code InputStream}.
+    * @throws java.io.FileNotFoundException if the requested file does not exist.
+    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
+    *                                       if the specified filter cannot
+    *                                       handle the given file.
+    */
+   public static InputStream openUnfilteredInputStream(String filename,
+                                                       Map<String, InputStream> streamMap) throws
+         FileNotFoundException {
+      return openInputStream(filename, streamMap, null);
+   }
+
+
+   /**
+    * Calls {@link #openInputStream(String, java.util.Map, java.util.Map)} with {@link
+    * #DEFAULT_INPUT_STREAM_MAP}.
+    *
+    * @param filename  the name of the file to open (or one of the keys in {@code streamMap}).
+    * @param filterMap a map of file suffixes to filters that will pre-process the file.
+    * @return either the {@code InputStream} in {@code streamMap}, or a new, possibly filtered, {@code InputStream}.
+    * @throws java.io.FileNotFoundException if the requested file does not exist.
+    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
+    *                                       if the specified filter cannot
+    *                                       handle the given file.
+    */
+   public static InputStream openMappedInputStream(String filename,
+                                                   Map<String, FilterFactory> filterMap) throws FileNotFoundException {
+      return openInputStream(filename, DEFAULT_INPUT_STREAM_MAP, filterMap);
+   }
+
+
+   /**
+    * Calls {@link #openInputStream(String, java.util.Map, java.util.Map)} with {@link
+    * #DEFAULT_INPUT_STREAM_MAP} and {@code null}.
+    *
+    * @param filename the name of the file to open (or one of the keys in {@code streamMap}).
+    * @return either the {@code InputStream} in {@code streamMap}, or a new, possibly filtered, {@code InputStream}.
+    * @throws java.io.FileNotFoundException if the requested file does not exist.
+    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
+    *                                       if the specified filter cannot
+    *                                       handle the given file.
+    */
+   public static InputStream openMappedInputStream(String filename) throws FileNotFoundException {
+      return openInputStream(filename, DEFAULT_INPUT_STREAM_MAP, null);
+   }
+
+
+   /**
+    * Calls {@link #openInputStream(String, java.util.Map, java.util.Map)} with {@code null}.
+    *
+    * @param filename  the name of the file to open (or one of the keys in {@code streamMap}).
+    * @param filterMap a map of file suffixes to filters that will pre-process the file.
+    * @return a new, possibly filtered, {@code InputStream}.
+    * @throws java.io.FileNotFoundException if the requested file does not exist.
+    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
+    *                                       if the specified filter cannot
+    *                                       handle the given file.
+    */
+   public static InputStream openUnmappedInputStream(String filename,
+                                                     Map<String, FilterFactory> filterMap) throws FileNotFoundException {
+      return openInputStream(filename, null, filterMap);
+   }
+
+
+   /**
+    * Opens an {@code InputStream} attached to the specified file using the {@code filterMap}.
+    * Specifically, if the {@code file}'s suffix appears in {@code filterMap}, then apply that {@code FilterFactory},
+    * otherwise, return a new {@code InputStream} attached to the specified file
+    *
+    * @param file      the name of the file to open
+    * @param filterMap a map of file suffixes to filters that will pre-process the file.
+    * @return a new, possibly filtered, {@code InputStream}.
+    * @throws FileNotFoundException if the file cannot be opened.
+    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
+    *                               if the specified filter cannot
+    *                               handle the given file.
+    */
+   public static InputStream openInputStream(File file, Map<String, FilterFactory> filterMap) throws
+         FileNotFoundException {
+      String fileSuffix = FileHelper.getSuffix(file.getName());
+      FileInputStream base = new FileInputStream(file);
+      return applyFilter(base, fileSuffix, filterMap);
+   }
+
+   // Wraps base in the filter for fileSuffix (if any).  If the filter fails, base is closed.
+   private static InputStream applyFilter(InputStream base, String fileSuffix, Map<String, FilterFactory> filterMap) {
+      if (filterMap == null || !filterMap.containsKey(fileSuffix)) {
+         return base;
+      } else {
+         try {
+            return filterMap.get(fileSuffix).makeFilter(base);
+         } catch (FilterFactory.FilterFactoryException e) {
+            try {
+               base.close();
+            } catch (IOException e1) {
+               String message = "Here's what probably happened: " +
+                     "The program attempted to use a bzip2 filter to open a file not in bzip2 format " +
+                     "then attempted to close the file handle before passing up the FilterFactoryException. " +
+                     "For some reason, the close() method threw and IO exception.  Since I can't imagine how this " +
+                     "could happen, I'm recasting this IOException as an unchecked exception";
+               throw new RuntimeException(message, e1);
+            }
+            throw e;
+         }
+      }
+   }
+
+   /**
+    * Calls {@link #openInputStream(java.io.File, java.util.Map)} with {@link #DEFAULT_FILTER_FACTORY_MAP}
+    *
+    * @param file the file to open
+    * @return a new, possibly filtered, {@code InputStream}.
+    * @throws FileNotFoundException if the file cannot be opened.
+    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
+    *                               if the specified filter cannot
+    *                               handle the given file.
+    */
+   public static InputStream openFilteredInputStream(File file) throws FileNotFoundException {
+      return openInputStream(file, DEFAULT_FILTER_FACTORY_MAP);
+   }
+
+   // Note:  There is no openInputStream(File file) or openUnfilteredInputStram(File file) because calling this method
+   // would  have no benefits over just typing "new FileInputStream(file)"
+
+   ////////////////////////////////////////////////////////
+   //
+   // Open input and choose the filter by content
+   //
+   ///////////////////////////////////////////////////////
+
+   /**
+    * Opens an {@code InputStream} attached to the specified file and chooses a filter by examining the first few
+    * bytes of the stream (see {@link #makeSniffingFilterFactory(java.util.Map)}).  The file's name is ignored.  In
+    * particular, unlike {@link #openInputStream(String, java.util.Map, java.util.Map)}, the streams found in {@code
+    * streamMap} <em>are</em> filtered.  Thus, compressed data piped into the standard input will be decompressed.
+    *
+    * @param filename  the name of the file to open (or one of the keys in {@code streamMap}).
+    * @param streamMap a map of file names to existing {@code InputStream}s
+    * @param filterMap a map of file suffixes to filters.  Only those filters that implement {@link
+    *                  MagicNumberFilterFactory} are considered.
+    * @return a new, possibly filtered, {@code InputStream}.
+    * @throws java.io.FileNotFoundException if the requested file does not exist.
+    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
+    *                                       if the chosen filter cannot
+    *                                       handle the given file.
+    */
+   public static InputStream openSniffedInputStream(String filename,
+                                                    Map<String, InputStream> streamMap,
+                                                    Map<String, FilterFactory> filterMap) throws FileNotFoundException {
+      FilterFactory sniffer = makeSniffingFilterFactory(filterMap);
+      if (streamMap != null && streamMap.containsKey(filename)) {
+         return sniffer.makeFilter(streamMap.get(filename));
+      }
+      FileInputStream base = new FileInputStream(new File(filename));
+      try {
+         return sniffer.makeFilter(base);
+      } catch (FilterFactory.FilterFactoryException e) {
+         try {
+            base.close();
+         } catch (IOException e1) {
+            // We're already reporting a more important exception.
+         }
+         throw e;
+      }
+   }
+
+   /**
+    * Calls {@link #openSniffedInputStream(String, java.util.Map, java.util.Map)} with {@link
+    * #DEFAULT_INPUT_STREAM_MAP} and {@link #DEFAULT_FILTER_FACTORY_MAP}.
+    *
+    * @param filename the name of the file to open (or one of the keys in {@code streamMap}).
+    * @return a new, possibly filtered, {@code InputStream}.
+    * @throws java.io.FileNotFoundException if the requested file does not exist.
+    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
+    *                                       if the chosen filter cannot
+    *                                       handle the given file.
+    */
+   public static InputStream openSniffedInputStream(String filename) throws FileNotFoundException {
+      return openSniffedInputStream(filename, DEFAULT_INPUT_STREAM_MAP, DEFAULT_FILTER_FACTORY_MAP);
+   }
+
+   ////////////////////////////////////////////////////////
+   //
+   // Open memory-mapped input
+   //
+   ///////////////////////////////////////////////////////
+
+   /**
+    * Behaves like {@link #openInputStream(java.io.File, java.util.Map)}, except that the file is read through a
+    * {@link MemoryMappedInputStream} instead of a {@code FileInputStream}.  Reading a mapped file avoids a
+    * {@code read} system call (and the associated copy from the kernel) for every buffer-full of data,
+    * which is noticeably faster when the file is already in the operating system's cache.  Any filter is applied
+    * on top of the mapped stream.
+    *
+    * @param file      the file to open
+    * @param filterMap a map of file suffixes to filters that will pre-process the file.
+    * @return a new, possibly filtered, {@code InputStream}.
+    * @throws FileNotFoundException if the file cannot be opened.
+    * @throws IOException           if the file cannot be mapped.
+    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
+    *                               if the specified filter cannot
+    *                               handle the given file.
+    */
+   public static InputStream openMemoryMappedInputStream(File file, Map<String, FilterFactory> filterMap) throws
+         IOException {
+      String fileSuffix = FileHelper.getSuffix(file.getName());
+      MemoryMappedInputStream base = new MemoryMappedInputStream(file);
+      return applyFilter(base, fileSuffix, filterMap);
+   }
+
+   /**
+    * Behaves like {@link #openInputStream(String, java.util.Map, java.util.Map)}, except that files (i.e.,
+    * names not found in {@code streamMap}) are read through a {@link MemoryMappedInputStream}.
+    *
+    * @param filename  the name of the file to open (or one of the keys in {@code streamMap}).
+    * @param streamMap a map of file names to existing {@code InputStream}s
+    * @param filterMap a map of file suffixes to filters that will pre-process the file.
+    * @return either the {@code InputStream} in {@code streamMap}, or a new, possibly filtered, {@code InputStream}.
+    * @throws FileNotFoundException if the requested file does not exist.
+    * @throws IOException           if the file cannot be mapped.
+    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
+    *                               if the specified filter cannot
+    *                               handle the given file.
+    */
+   public static InputStream openMemoryMappedInputStream(String filename,
+                                                         Map<String, InputStream> streamMap,
+                                                         Map<String, FilterFactory> filterMap) throws IOException {
+      if (streamMap != null && streamMap.containsKey(filename)) {
+         return streamMap.get(filename);
+      } else {
+         return openMemoryMappedInputStream(new File(filename), filterMap);
+      }
+   }
+
+   /**
+    * Maps an entire (unfiltered) file into memory.  The returned buffer remains valid after the file is closed.
+    *
+    * @param file the file to map
+    * @return a read-only {@code MappedByteBuffer} containing the entire file
+    * @throws FileNotFoundException    if the file cannot be opened.
+    * @throws IOException              if the file cannot be mapped.
+    * @throws IllegalArgumentException if the file is larger than 2GB (the largest size a single {@code ByteBuffer}
+    *                                  can describe).  Use a {@link MemoryMappedInputStream} to read larger files.
+    */
+   public static MappedByteBuffer mapFile(File file) throws IOException {
+      RandomAccessFile raf = new RandomAccessFile(file, "r");
+      try {
+         FileChannel channel = raf.getChannel();
+         if (channel.size() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(file.getPath() + " is too large to map into a single buffer.");
+         }
+         return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      } finally {
+         raf.close();
+      }
+   }
+
+
+   ////////////////////////////////////////////////////////
+   //
+   // Open channels
+   //
+   ///////////////////////////////////////////////////////
+
+   /**
+    * Opens a {@code ReadableByteChannel} attached to the specified file, using {@code streamMap} and {@code
+    * filterMap} as described in {@link #openInputStream(String, java.util.Map, java.util.Map)}.  Plain files (i.e.,
+    * names not found in {@code streamMap} whose suffix is not in {@code filterMap}) are opened as a {@code
+    * FileChannel}, which supports scatter reads and efficient reads into direct buffers.  Other inputs are adapted
+    * using {@code Channels.newChannel}.
+    *
+    * @param filename  the name of the file to open (or one of the keys in {@code streamMap}).
+    * @param streamMap a map of file names to existing {@code InputStream}s
+    * @param filterMap a map of file suffixes to filters that will pre-process the file.
+    * @return a channel attached to either the {@code InputStream} in {@code streamMap}, or a new, possibly filtered,
+    *         input.
+    * @throws FileNotFoundException if the requested file does not exist.
+    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
+    *                               if the specified filter cannot
+    *                               handle the given file.
+    */
+   public static ReadableByteChannel openChannel(String filename, Map<String, InputStream> streamMap,
+                                                 Map<String, FilterFactory> filterMap) throws FileNotFoundException {
+      if (streamMap != null && streamMap.containsKey(filename)) {
+         return Channels.newChannel(streamMap.get(filename));
+      } else {
+         return openChannel(new File(filename), filterMap);
+      }
+   }
+
+   /**
+    * Opens a {@code ReadableByteChannel} attached to the specified file.  If {@code file}'s suffix appears in {@code
+    * filterMap}, the filtered input is adapted using {@code Channels.newChannel}; otherwise, the file is opened as
+    * a {@code FileChannel}.
+    *
+    * @param file      the file to open
+    * @param filterMap a map of file suffixes to filters that will pre-process the file.
+    * @return a channel attached to the new, possibly filtered, input.
+    * @throws FileNotFoundException if the requested file does not exist.
+    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
+    *                               if the specified filter cannot
+    *                               handle the given file.
+    */
+   public static ReadableByteChannel openChannel(File file, Map<String, FilterFactory> filterMap) throws
+         FileNotFoundException {
+      String fileSuffix = FileHelper.getSuffix(file.getName());
+      FileInputStream base = new FileInputStream(file);
+      if (filterMap == null || !filterMap.containsKey(fileSuffix)) {
+         return base.getChannel();
+      }
+      return Channels.newChannel(applyFilter(base, fileSuffix, filterMap));
+   }
+
+   /**
+    * Calls {@link #openChannel(String, java.util.Map, java.util.Map)} with {@link #DEFAULT_INPUT_STREAM_MAP} and
+    * {@link #DEFAULT_FILTER_FACTORY_MAP}.
+    *
+    * @param filename the name of the file to open (or one of the keys in {@link #DEFAULT_INPUT_STREAM_MAP}).
+    * @return a channel attached to either the standard input, or a new, possibly filtered, input.
+    * @throws FileNotFoundException if the requested file does not exist.
+    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
+    *                               if the specified filter cannot
+    *                               handle the given file.
+    */
+   public static ReadableByteChannel openChannel(String filename) throws FileNotFoundException {
+      return openChannel(filename, DEFAULT_INPUT_STREAM_MAP, DEFAULT_FILTER_FACTORY_MAP);
+   }
+
+   /**
+    * Opens an {@link AsyncReader} attached to the specified file, using {@code streamMap} and {@code filterMap} as
+    * described in {@link #openInputStream(String, java.util.Map, java.util.Map)}.  Plain files are read using an
+    * {@code AsynchronousFileChannel}.  Other inputs are adapted by performing blocking reads on {@code executor}.
+    *
+    * @param filename  the name of the file to open (or one of the keys in {@code streamMap}).
+    * @param streamMap a map of file names to existing {@code InputStream}s
+    * @param filterMap a map of file suffixes to filters that will pre-process the file.
+    * @param executor  the threads on which reads are performed and completion handlers are called.  If {@code
+    *                  null}, a shared pool with one thread per processor (and the {@code AsynchronousFileChannel}
+    *                  default) are used.  The executor is not shut down when the reader is closed.
+    * @return the new {@code AsyncReader}
+    * @throws FileNotFoundException if the requested file does not exist.
+    * @throws IOException           if the file cannot be opened.
+    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
+    *                               if the specified filter cannot
+    *                               handle the given file.
+    */
+   public static AsyncReader openAsyncReader(String filename, Map<String, InputStream> streamMap,
+                                             Map<String, FilterFactory> filterMap, ExecutorService executor)
+         throws IOException {
+      if (streamMap != null && streamMap.containsKey(filename)) {
+         return new AsyncReader.ChannelReader(Channels.newChannel(streamMap.get(filename)),
+               executor == null ? AsyncReader.getDefaultExecutor() : executor);
+      } else {
+         return openAsyncReader(new File(filename), filterMap, executor);
+      }
+   }
+
+   /**
+    * Opens an {@link AsyncReader} attached to the specified file.  If {@code file}'s suffix appears in {@code
+    * filterMap}, the filtered input is read on {@code executor}; otherwise, the file is read using an {@code
+    * AsynchronousFileChannel}.
+    *
+    * @param file      the file to open
+    * @param filterMap a map of file suffixes to filters that will pre-process the file.
+    * @param executor  the threads on which reads are performed and completion handlers are called (may be {@code
+    *                  null}).  See {@link #openAsyncReader(String, java.util.Map, java.util.Map,
+    *                  java.util.concurrent.ExecutorService)}.
+    * @return the new {@code AsyncReader}
+    * @throws FileNotFoundException if the requested file does not exist.
+    * @throws IOException           if the file cannot be opened.
+    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
+    *                               if the specified filter cannot
+    *                               handle the given file.
+    */
+   public static AsyncReader openAsyncReader(File file, Map<String, FilterFactory> filterMap,
+                                             ExecutorService executor) throws IOException {
+      String fileSuffix = FileHelper.getSuffix(file.getName());
+      if (filterMap != null && filterMap.containsKey(fileSuffix)) {
+         return new AsyncReader.ChannelReader(openChannel(file, filterMap),
+               executor == null ? AsyncReader.getDefaultExecutor() : executor);
+      }
+      try {
+         return new AsyncReader.FileReader(AsynchronousFileChannel.open(file.toPath(),
+               java.util.Collections.singleton(StandardOpenOption.READ), executor));
+      } catch (NoSuchFileException e) {
+         FileNotFoundException e2 = new FileNotFoundException(file.getPath() + " (No such file or directory)");
+         e2.initCause(e);
+         throw e2;
+      }
+   }
+
+   /**
+    * Calls {@link #openAsyncReader(String, java.util.Map, java.util.Map, java.util.concurrent.ExecutorService)}
+    * with {@link #DEFAULT_INPUT_STREAM_MAP}, {@link #DEFAULT_FILTER_FACTORY_MAP}, and the default threads.
+    *
+    * @param filename the name of the file to open (or one of the keys in {@link #DEFAULT_INPUT_STREAM_MAP}).
+    * @return the new {@code AsyncReader}
+    * @throws FileNotFoundException if the requested file does not exist.
+    * @throws IOException           if the file cannot be opened.
+    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
+    *                               if the specified filter cannot
+    *                               handle the given file.
+    */
+   public static AsyncReader openAsyncReader(String filename) throws IOException {
+      return openAsyncReader(filename, DEFAULT_INPUT_STREAM_MAP, DEFAULT_FILTER_FACTORY_MAP, null);
+   }
+
+
+   ////////////////////////////////////////////////////////
+   //
+   // Open input and read ahead on a background thread
+   //
+   ///////////////////////////////////////////////////////
+
+   /**
+    * Opens an {@code InputStream} as described in {@link #openInputStream(String, java.util.Map, java.util.Map)},
+    * then reads from it on a background thread (see {@link ReadAheadInputStream}).  This allows the filter (e.g.,
+    * bzip2 decompression) to run concurrently with the code that parses the data.
+    *
+    * @param filename   the name of the file to open (or one of the keys in {@code streamMap}).
+    * @param streamMap  a map of file names to existing {@code InputStream}s
+    * @param filterMap  a map of file suffixes to filters that will pre-process the file.
+    * @param depth      the number of buffers the background thread may fill ahead of the caller.
+    * @param bufferSize the size of each buffer.
+    * @return a {@code ReadAheadInputStream} wrapping either the {@code InputStream} in {@code streamMap}, or a new,
+    *         possibly filtered, {@code InputStream}.
+    * @throws java.io.FileNotFoundException if the requested file does not exist.
+    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
+    *                                       if the specified filter cannot
+    *                                       handle the given file.
+    * @throws IllegalArgumentException      if {@code depth} or {@code bufferSize} is not positive.
+    */
+   public static InputStream openReadAheadInputStream(String filename,
+                                                      Map<String, InputStream> streamMap,
+                                                      Map<String, FilterFactory> filterMap,
+                                                      int depth, int bufferSize) throws FileNotFoundException {
+      // Check before opening the file so a bad argument doesn't leak the file (and any decompressor).
+      if (depth < 1) {
+         throw new IllegalArgumentException("depth must be positive.");
+      }
+      if (bufferSize < 1) {
+         throw new IllegalArgumentException("bufferSize must be positive.");
+      }
+      return new ReadAheadInputStream(openInputStream(filename, streamMap, filterMap), depth, bufferSize);
+   }
+
+   /**
+    * Calls {@link #openReadAheadInputStream(String, java.util.Map, java.util.Map, int, int)} with {@link
+    * #DEFAULT_INPUT_STREAM_MAP}, {@link #DEFAULT_FILTER_FACTORY_MAP}, {@link ReadAheadInputStream#DEFAULT_DEPTH}, and
+    * {@link ReadAheadInputStream#DEFAULT_BUFFER_SIZE}.
+    *
+    * @param filename the name of the file to open (or one of the keys in {@code streamMap}).
+    * @return a {@code ReadAheadInputStream} wrapping either the {@code InputStream} in {@code streamMap}, or a new,
+    *         possibly filtered, {@code InputStream}.
+    * @throws java.io.FileNotFoundException if the requested file does not exist.
+    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
+    *                                       if the specified filter cannot
+    *                                       handle the given file.
+    */
+   public static InputStream openReadAheadInputStream(String filename) throws FileNotFoundException {
+      return openReadAheadInputStream(filename, DEFAULT_INPUT_STREAM_MAP, DEFAULT_FILTER_FACTORY_MAP,
+            ReadAheadInputStream.DEFAULT_DEPTH, ReadAheadInputStream.DEFAULT_BUFFER_SIZE);
+   }
+
+   /**
+    * Opens an {@code InputStream} as described in {@link #openInputStream(java.io.File, java.util.Map)}, then reads
+    * from it on a background thread (see {@link ReadAheadInputStream}).
+    *
+    * @param file      the file to open
+    * @param filterMap a map of file suffixes to filters that will pre-process the file.
+    * @return a {@code ReadAheadInputStream} wrapping a new, possibly filtered, {@code InputStream}.
+    * @throws java.io.FileNotFoundException if the requested file does not exist.
+    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
+    *                                       if the specified filter cannot
+    *                                       handle the given file.
+    */
+   public static InputStream openReadAheadInputStream(File file, Map<String, FilterFactory> filterMap) throws
+         FileNotFoundException {
+      return new ReadAheadInputStream(openInputStream(file, filterMap));
+   }
+
+   ////////////////////////////////////////////////////////
+   //
+   // Open input using pooled buffers
+   //
+   ///////////////////////////////////////////////////////
+
+   /**
+    * Opens an {@code InputStream} as described in {@link #openInputStream(String, java.util.Map, java.util.Map)},
+    * then buffers it with a {@link PooledInputStream}.  Closing the stream returns the buffer to {@code pool}.  (To
+    * also pool the buffers used by the bzip2 filter, use {@link #makePooledFilterFactoryMap(BufferPool)} as the
+    * {@code filterMap}.)
+    *
+    * @param filename  the name of the file to open (or one of the keys in {@code streamMap}).
+    * @param streamMap a map of file names to existing {@code InputStream}s
+    * @param filterMap a map of file suffixes to filters that will pre-process the file.
+    * @param pool      the pool from which to take buffers.
+    * @return a {@code PooledInputStream} wrapping either the {@code InputStream} in {@code streamMap}, or a new,
+    *         possibly filtered, {@code InputStream}.
+    * @throws java.io.FileNotFoundException if the requested file does not exist.
+    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
+    *                                       if the specified filter cannot
+    *                                       handle the given file.
+    */
+   public static InputStream openPooledInputStream(String filename,
+                                                   Map<String, InputStream> streamMap,
+                                                   Map<String, FilterFactory> filterMap,
+                                                   BufferPool pool) throws FileNotFoundException {
+      if (pool == null) {
+         throw new NullPointerException("parameter \"pool\" cannot be null.");
+      }
+      return new PooledInputStream(openInputStream(filename, streamMap, filterMap), pool);
+   }
+
+   /**
+    * Calls {@link #openPooledInputStream(String, java.util.Map, java.util.Map, BufferPool)} with {@link
+    * #DEFAULT_INPUT_STREAM_MAP}, {@link #POOLED_FILTER_FACTORY_MAP}, and {@link BufferPool#SHARED}.
+    *
+    * @param filename the name of the file to open (or one of the keys in {@code streamMap}).
+    * @return a {@code PooledInputStream} wrapping either the {@code InputStream} in {@code streamMap}, or a new,
+    *         possibly filtered, {@code InputStream}.
+    * @throws java.io.FileNotFoundException if the requested file does not exist.
+    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
+    *                                       if the specified filter cannot
+    *                                       handle the given file.
+    */
+   public static InputStream openPooledInputStream(String filename) throws FileNotFoundException {
+      return openPooledInputStream(filename, DEFAULT_INPUT_STREAM_MAP, POOLED_FILTER_FACTORY_MAP, BufferPool.SHARED);
+   }
+
+   ////////////////////////////////////////////////////////
+   //
+   // Open input through a cache of decompressed data
+   //
+   ///////////////////////////////////////////////////////
+
+   /**
+    * Opens an {@code InputStream} like {@link #openInputStream(String, java.util.Map, java.util.Map)}, except that
+    * the filtered (e.g., decompressed) data is read through {@code cache}.  If the current version of the file is
+    * in the cache, the filter is not used at all.  (See {@link DecompressedCache}.)
+    *
+    * @param filename  the name of the file to open (or one of the keys in {@code streamMap}).
+    * @param streamMap a map of file names to existing {@code InputStream}s
+    * @param filterMap a map of file suffixes to filters that will pre-process the file.
+    * @param cache     the cache of filtered data
+    * @return either the {@code InputStream} in {@code streamMap}, or a new, possibly filtered (or cached), {@code
+    *         InputStream}.
+    * @throws java.io.FileNotFoundException if the requested file does not exist.
+    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
+    *                                       if the specified filter cannot
+    *                                       handle the given file.
+    */
+   public static InputStream openCachedInputStream(String filename,
+                                                   Map<String, InputStream> streamMap,
+                                                   Map<String, FilterFactory> filterMap,
+                                                   DecompressedCache cache) throws FileNotFoundException {
+      if (cache == null) {
+         throw new NullPointerException("parameter \"cache\" cannot be null.");
+      }
+      if (streamMap != null && streamMap.containsKey(filename)) {
+         return streamMap.get(filename);
+      }
+      return cache.openInputStream(new File(filename), filterMap);
+   }
+
+   /**
+    * Calls {@link #openCachedInputStream(String, java.util.Map, java.util.Map, DecompressedCache)} with {@link
+    * #DEFAULT_INPUT_STREAM_MAP}, {@link #DEFAULT_FILTER_FACTORY_MAP}, and {@link DecompressedCache#SHARED}.
+    *
+    * @param filename the name of the file to open (or one of the keys in {@code streamMap}).
+    * @return either the {@code InputStream} in {@code streamMap}, or a new, possibly filtered (or cached), {@code
+    *         InputStream}.
+    * @throws java.io.FileNotFoundException if the requested file does not exist.
+    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
+    *                                       if the specified filter cannot
+    *                                       handle the given file.
+    */
+   public static InputStream openCachedInputStream(String filename) throws FileNotFoundException {
+      return openCachedInputStream(filename, DEFAULT_INPUT_STREAM_MAP, DEFAULT_FILTER_FACTORY_MAP,
+            DecompressedCache.SHARED);
+   }
 
    ////////////////////////////////////////////////////////
    //
-   // Open input or throw an exception
+   // Open input through a chain of filters
    //
    ///////////////////////////////////////////////////////
 
    /**
-    * Opens an {@code InputStream} attached to the specified file, using {@code streamMap} and {@code filterMap}.
-    * Specifically,
-    * <ul>
-    * <li>If {@code filename} appears in {@code streamMap}, then return that {@code InputSteam}.</li>
-    * <li>If {@code filename}'s suffix appears in {@code filterMap}, then apply that {@code FilterFactory}.</li>
-    * <li>If neither condition above applies, then return a new {@code InputStream} attached to the specified file
-    * .</li>
-    * </ul>
+    * Opens an {@code InputStream} like {@link #openInputStream(String, java.util.Map, java.util.Map)}, except that
+    * the filters for <em>all</em> of the file's suffixes are applied, not just the filter for the last one.  For
+    * example, "data.tsv.bz2.lz4" is first passed through the "lz4" filter, then the "bz2" filter.  Filters are
+    * applied from the last suffix toward the first, stopping at the first suffix that does not appear in {@code
+    * filterMap} (so "tsv" ends the chain above).
     *
-    * <p>Note:  {@code InputStreams} found in {@code streamMap} are not affected by the {@code filterMap} &mdash; even
-    * if
-    * there is an entry in {@code filterMap} for {@code filename}'s suffix.  It is assumed that the {@code InputStream}s in
-    * the {@code streamMap} will already
-    * be configured with any desired filtering/pre-processing.
+    * <p>If {@code threadPerStage} is {@code true}, each filter's output is read on its own background thread (see
+    * {@link ReadAheadInputStream}), so the stages of the chain run concurrently with each other and with the
+    * caller.  Otherwise, every stage runs on the caller's thread.</p>
     *
-    * @param filename  the name of the file to open (or one of the keys in {@code streamMap}).
-    * @param streamMap a map of file names to existing {@code InputStream}s
-    * @param filterMap a map of file suffixes to filters that will pre-process the file.
+    * @param filename       the name of the file to open (or one of the keys in {@code streamMap}).
+    * @param streamMap      a map of file names to existing {@code InputStream}s
+    * @param filterMap      a map of file suffixes to filters that will pre-process the file.
+    * @param threadPerStage whether to run each filter on its own thread.
     * @return either the {@code InputStream} in {@code streamMap}, or a new, possibly filtered, {@code InputStream}.
     * @throws java.io.FileNotFoundException if the requested file does not exist.
     * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
-    *                                       if the specified filter cannot
+    *                                       if one of the filters cannot
     *                                       handle the given file.
     */
-   public static InputStream openInputStream(String filename,
-                                             Map<String, InputStream> streamMap,
-                                             Map<String, FilterFactory> filterMap
-   ) throws FileNotFoundException {
+   public static InputStream openChainedInputStream(String filename,
+                                                    Map<String, InputStream> streamMap,
+                                                    Map<String, FilterFactory> filterMap,
+                                                    boolean threadPerStage) throws FileNotFoundException {
       if (streamMap != null && streamMap.containsKey(filename)) {
          return streamMap.get(filename);
       } else {
-         return openInputStream(new File(filename), filterMap);
+         return openChainedInputStream(new File(filename), filterMap, threadPerStage);
       }
    }
 
-
    /**
-    * Calls {@link #openInputStream(String, java.util.Map, java.util.Map)} with {@link #DEFAULT_INPUT_STREAM_MAP}
-    * and {@link #DEFAULT_FILTER_FACTORY_MAP}.
+    * Calls {@link #openChainedInputStream(String, java.util.Map, java.util.Map, boolean)} with {@link
+    * #DEFAULT_INPUT_STREAM_MAP}, {@link #DEFAULT_FILTER_FACTORY_MAP}, and one thread per stage.
     *
     * @param filename the name of the file to open (or one of the keys in {@code streamMap}).
     * @return either the {@code InputStream} in {@code streamMap}, or a new, possibly filtered, {@code InputStream}.
     * @throws java.io.FileNotFoundException if the requested file does not exist.
     * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
-    *                                       if the specified filter cannot
+    *                                       if one of the filters cannot
     *                                       handle the given file.
     */
-   public static InputStream openMappedAndFilteredInputStream(String filename) throws FileNotFoundException {
-      return openInputStream(filename, DEFAULT_INPUT_STREAM_MAP, DEFAULT_FILTER_FACTORY_MAP);
+   public static InputStream openChainedInputStream(String filename) throws FileNotFoundException {
+      return openChainedInputStream(filename, DEFAULT_INPUT_STREAM_MAP, DEFAULT_FILTER_FACTORY_MAP, true);
    }
 
    /**
-    * Calls {@link #openInputStream(String, java.util.Map, java.util.Map)} with {@link
-    * #DEFAULT_FILTER_FACTORY_MAP}.
+    * Opens an {@code InputStream} attached to the specified file and applies the filters for all of its suffixes,
+    * as described in {@link #openChainedInputStream(String, java.util.Map, java.util.Map, boolean)}.
+    *
+    * @param file           the file to open
+    * @param filterMap      a map of file suffixes to filters that will pre-process the file.
+    * @param threadPerStage whether to run each filter on its own thread.
+    * @return a new, possibly filtered, {@code InputStream}.
+    * @throws FileNotFoundException if the file cannot be opened.
+    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
+    *                               if one of the filters cannot
+    *                               handle the given file.
+    */
+   public static InputStream openChainedInputStream(File file, Map<String, FilterFactory> filterMap,
+                                                    boolean threadPerStage) throws FileNotFoundException {
+      List<String> suffixes = FileHelper.getSuffixes(file.getName());
+      InputStream answer = new FileInputStream(file);
+      for (int i = suffixes.size() - 1; i >= 0; i--) {
+         String suffix = suffixes.get(i);
+         if (filterMap == null || !filterMap.containsKey(suffix)) {
+            break;
+         }
+         // applyFilter closes the entire chain built so far if this stage's filter fails.
+         answer = applyFilter(answer, suffix, filterMap);
+         if (threadPerStage) {
+            answer = new ReadAheadInputStream(answer);
+         }
+      }
+      return answer;
+   }
+
+   ////////////////////////////////////////////////////////
+   //
+   // Open input as lines
+   //
+   ///////////////////////////////////////////////////////
+
+   /**
+    * Opens an {@code InputStream} as described in {@link #openInputStream(String, java.util.Map, java.util.Map)} and
+    * returns a {@link LineReader} that splits it into lines without allocating a {@code String} for each line.
     *
     * @param filename  the name of the file to open (or one of the keys in {@code streamMap}).
     * @param streamMap a map of file names to existing {@code InputStream}s
-    * @return either the {@code InputStream} in {@code streamMap}, or a new, possibly filtered, {@code InputStream}.
+    * @param filterMap a map of file suffixes to filters that will pre-process the file.
+    * @return a new {@code LineReader}
     * @throws java.io.FileNotFoundException if the requested file does not exist.
     * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
     *                                       if the specified filter cannot
     *                                       handle the given file.
     */
-   public static InputStream openFilteredInputStream(String filename,
-                                                     Map<String, InputStream> streamMap) throws FileNotFoundException {
-      return openInputStream(filename, streamMap, DEFAULT_FILTER_FACTORY_MAP);
+   public static LineReader openLineReader(String filename,
+                                           Map<String, InputStream> streamMap,
+                                           Map<String, FilterFactory> filterMap) throws FileNotFoundException {
+      return new LineReader(openInputStream(filename, streamMap, filterMap));
    }
 
    /**
-    * Calls {@link #openInputStream(String, java.util.Map, java.util.Map)} with {@code null} and {@link
-    * #DEFAULT_FILTER_FACTORY_MAP}.
+    * Calls {@link #openLineReader(String, java.util.Map, java.util.Map)} with {@link #DEFAULT_INPUT_STREAM_MAP}
+    * and {@link #DEFAULT_FILTER_FACTORY_MAP}.
     *
     * @param filename the name of the file to open (or one of the keys in {@code streamMap}).
-    * @return either the {@code InputStream} in {@code streamMap}, or a new, possibly filtered, {@code InputStream}.
+    * @return a new {@code LineReader}
     * @throws java.io.FileNotFoundException if the requested file does not exist.
     * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
     *                                       if the specified filter cannot
     *                                       handle the given file.
     */
-   public static InputStream openFilteredInputStream(String filename) throws FileNotFoundException {
-      return openInputStream(filename, null, DEFAULT_FILTER_FACTORY_MAP);
+   public static LineReader openLineReader(String filename) throws FileNotFoundException {
+      return openLineReader(filename, DEFAULT_INPUT_STREAM_MAP, DEFAULT_FILTER_FACTORY_MAP);
    }
 
    /**
-    * Calls {@link #openInputStream(String, java.util.Map, java.util.Map)} with {@code null}.
+    * Opens an {@code InputStream} as described in {@link #openInputStream(String, java.util.Map, java.util.Map)},
+    * then wraps it in a {@link DelimitedTokenizer}.
     *
     * @param filename  the name of the file to open (or one of the keys in {@code streamMap}).
     * @param streamMap a map of file names to existing {@code InputStream}s
-    * @return either the {@code InputStream} in {@code streamMap}, or a new {@code InputStream}.
+    * @param filterMap a map of file suffixes to filters that will pre-process the file.
+    * @param delimiter the character that separates fields (e.g., {@code '\t'} or {@code ','}).
+    * @return a new {@code DelimitedTokenizer}
     * @throws java.io.FileNotFoundException if the requested file does not exist.
     * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
     *                                       if the specified filter cannot
     *                                       handle the given file.
     */
-   public static InputStream openUnfilteredInputStream(String filename,
-                                                       Map<String, InputStream> streamMap) throws
-         FileNotFoundException {
-      return openInputStream(filename, streamMap, null);
+   public static DelimitedTokenizer openDelimitedTokenizer(String filename, Map<String, InputStream> streamMap,
+                                                           Map<String, FilterFactory> filterMap, char delimiter)
+         throws FileNotFoundException {
+      return new DelimitedTokenizer(openInputStream(filename, streamMap, filterMap), delimiter);
    }
 
-
    /**
-    * Calls {@link #openInputStream(String, java.util.Map, java.util.Map)} with {@link
-    * #DEFAULT_INPUT_STREAM_MAP}.
+    * Calls {@link #openDelimitedTokenizer(String, java.util.Map, java.util.Map, char)} with {@link
+    * #DEFAULT_INPUT_STREAM_MAP} and {@link #DEFAULT_FILTER_FACTORY_MAP}.
     *
     * @param filename  the name of the file to open (or one of the keys in {@code streamMap}).
-    * @param filterMap a map of file suffixes to filters that will pre-process the file.
-    * @return either the {@code InputStream} in {@code streamMap}, or a new, possibly filtered, {@code InputStream}.
+    * @param delimiter the character that separates fields (e.g., {@code '\t'} or {@code ','}).
+    * @return a new {@code DelimitedTokenizer}
     * @throws java.io.FileNotFoundException if the requested file does not exist.
     * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
     *                                       if the specified filter cannot
     *                                       handle the given file.
     */
-   public static InputStream openMappedInputStream(String filename,
-                                                   Map<String, FilterFactory> filterMap) throws FileNotFoundException {
-      return openInputStream(filename, DEFAULT_INPUT_STREAM_MAP, filterMap);
+   public static DelimitedTokenizer openDelimitedTokenizer(String filename, char delimiter)
+         throws FileNotFoundException {
+      return openDelimitedTokenizer(filename, DEFAULT_INPUT_STREAM_MAP, DEFAULT_FILTER_FACTORY_MAP, delimiter);
    }
 
+   ////////////////////////////////////////////////////////
+   //
+   // Follow a growing file
+   //
+   ///////////////////////////////////////////////////////
 
    /**
-    * Calls {@link #openInputStream(String, java.util.Map, java.util.Map)} with {@link
-    * #DEFAULT_INPUT_STREAM_MAP} and {@code null}.
+    * Opens a {@link FollowInputStream} that reads the specified file, then waits for (and reads) data appended to
+    * it, like {@code tail -F}.  No filters are applied.
     *
-    * @param filename the name of the file to open (or one of the keys in {@code streamMap}).
-    * @return either the {@code InputStream} in {@code streamMap}, or a new, possibly filtered, {@code InputStream}.
+    * @param file       the file to follow
+    * @param position   the position at which to begin reading (e.g., {@code file.length()} to read only new data).
+    * @param pollMillis the maximum time (in milliseconds) between checks of the file.
+    * @return a new {@code FollowInputStream}
     * @throws java.io.FileNotFoundException if the requested file does not exist.
-    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
-    *                                       if the specified filter cannot
-    *                                       handle the given file.
     */
-   public static InputStream openMappedInputStream(String filename) throws FileNotFoundException {
-      return openInputStream(filename, DEFAULT_INPUT_STREAM_MAP, null);
+   public static InputStream openFollowInputStream(File file, long position, long pollMillis) throws
+         FileNotFoundException {
+      return new FollowInputStream(file, position, pollMillis);
    }
 
+   /**
+    * Opens a {@link FollowInputStream} that reads the named file from the beginning, then waits for (and reads) data
+    * appended to it.
+    *
+    * @param filename the name of the file to follow
+    * @return a new {@code FollowInputStream}
+    * @throws java.io.FileNotFoundException if the requested file does not exist.
+    */
+   public static InputStream openFollowInputStream(String filename) throws FileNotFoundException {
+      return new FollowInputStream(new File(filename));
+   }
 
    /**
-    * Calls {@link #openInputStream(String, java.util.Map, java.util.Map)} with {@code null}.
+    * Opens a {@link LineReader} that reads the named file from the beginning, then waits for (and reads) lines
+    * appended to it.  A line is not returned until its newline has been written.
     *
-    * @param filename  the name of the file to open (or one of the keys in {@code streamMap}).
-    * @param filterMap a map of file suffixes to filters that will pre-process the file.
-    * @return a new, possibly filtered, {@code InputStream}.
+    * @param filename the name of the file to follow
+    * @return a new {@code LineReader}
     * @throws java.io.FileNotFoundException if the requested file does not exist.
-    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
-    *                                       if the specified filter cannot
-    *                                       handle the given file.
     */
-   public static InputStream openUnmappedInputStream(String filename,
-                                                     Map<String, FilterFactory> filterMap) throws FileNotFoundException {
-      return openInputStream(filename, null, filterMap);
+   public static LineReader openFollowLineReader(String filename) throws FileNotFoundException {
+      return new LineReader(openFollowInputStream(filename));
    }
 
+   ////////////////////////////////////////////////////////
+   //
+   // Open several files as one
+   //
+   ///////////////////////////////////////////////////////
 
    /**
-    * Opens an {@code InputStream} attached to the specified file using the {@code filterMap}.
-    * Specifically, if the {@code file}'s suffix appears in {@code filterMap}, then apply that {@code FilterFactory},
-    * otherwise, return a new {@code InputStream} attached to the specified file
+    * Returns the names of the files that match a glob pattern (e.g., {@code "shards/part-*.bz2"}), in sorted order.
+    * Wildcards ({@code *}, {@code ?}, {@code [...]}, and <code>{a,b}</code>; see {@code
+    * java.nio.file.FileSystem.getPathMatcher}) may appear only in the last component of the pattern.
     *
-    * @param file      the name of the file to open
-    * @param filterMap a map of file suffixes to filters that will pre-process the file.
-    * @return a new, possibly filtered, {@code InputStream}.
-    * @throws FileNotFoundException if the file cannot be opened.
-    * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
-    *                               if the specified filter cannot
-    *                               handle the given file.
+    * @param pattern the pattern to match
+    * @return the names of the matching files (which include the directory given in {@code pattern}, if any).  The
+    *         list is empty if no files match or the directory does not exist.
+    * @throws IOException if the directory cannot be read.
     */
-   public static InputStream openInputStream(File file, Map<String, FilterFactory> filterMap) throws
-         FileNotFoundException {
-      String fileSuffix = FileHelper.getSuffix(file.getName());
-      FileInputStream base = new FileInputStream(file);
-      if (filterMap == null || !filterMap.containsKey(fileSuffix)) {
-         return base;
-      } else {
-         try {
-            return filterMap.get(fileSuffix).makeFilter(base);
-         } catch (FilterFactory.FilterFactoryException e) {
-            try {
-               base.close();
-            } catch (IOException e1) {
-               String message = "Here's what probably happened: " +
-                     "The program attempted to use a bzip2 filter to open a file not in bzip2 format " +
-                     "then attempted to close the file handle before passing up the FilterFactoryException. " +
-                     "For some reason, the close() method threw and IO exception.  Since I can't imagine how this " +
-                     "could happen, I'm recasting this IOException as an unchecked exception";
-               throw new RuntimeException(message, e1);
+   public static List<String> glob(String pattern) throws IOException {
+      File parent = new File(pattern).getParentFile();
+      Path dir = parent == null ? Paths.get(".") : parent.toPath();
+      List<String> answer = new ArrayList<String>();
+      if (!Files.isDirectory(dir)) {
+         return answer;
+      }
+      DirectoryStream<Path> stream = Files.newDirectoryStream(dir, new File(pattern).getName());
+      try {
+         for (Path path : stream) {
+            if (Files.isRegularFile(path)) {
+               answer.add(parent == null ? path.getFileName().toString() : path.toString());
             }
-            throw e;
          }
+      } finally {
+         stream.close();
       }
+      java.util.Collections.sort(answer);
+      return answer;
    }
 
    /**
-    * Calls {@link #openInputStream(java.io.File, java.util.Map)} with {@link #DEFAULT_FILTER_FACTORY_MAP}
+    * Returns a single {@code InputStream} that reads each of the named files in turn (see {@link
+    * ConcatenatedInputStream}).  Each name is opened as described in {@link #openInputStream(String, java.util.Map,
+    * java.util.Map)}; but, the next {@code prefetch} files are opened and decompressed on background threads while
+    * the current file is read.
     *
-    * @param file the file to open
-    * @return a new, possibly filtered, {@code InputStream}.
-    * @throws FileNotFoundException if the file cannot be opened.
+    * @param filenames the files to read (or keys in {@code streamMap})
+    * @param streamMap a map of file names to existing {@code InputStream}s
+    * @param filterMap a map of file suffixes to filters that will pre-process the files.
+    * @param prefetch  the number of files to open ahead of the one being read.  Must be at least 1.
+    * @param ordered   {@code true} if the files must appear in the order given.  If {@code false}, each file
+    *                  appears as soon as it is open.
+    * @return the new {@code InputStream}
+    * @throws java.io.FileNotFoundException if any of the files does not exist.
     * @throws edu.gvsu.kurmasz.warszawa.io.InputHelper.FilterFactory.FilterFactoryException
-    *                               if the specified filter cannot
-    *                               handle the given file.
+    *                                       (when reading) if a filter cannot handle its file.
     */
-   public static InputStream openFilteredInputStream(File file) throws FileNotFoundException {
-      return openInputStream(file, DEFAULT_FILTER_FACTORY_MAP);
+   public static InputStream openConcatenatedInputStream(List<String> filenames,
+                                                         Map<String, InputStream> streamMap,
+                                                         Map<String, FilterFactory> filterMap,
+                                                         int prefetch, boolean ordered) throws FileNotFoundException {
+      return new ConcatenatedInputStream(filenames, streamMap, filterMap, prefetch, ordered);
    }
 
-   // Note:  There is no openInputStream(File file) or openUnfilteredInputStram(File file) because calling this method
-   // would  have no benefits over just typing "new FileInputStream(file)"
+   /**
+    * Calls {@link #openConcatenatedInputStream(java.util.List, java.util.Map, java.util.Map, int, boolean)} with
+    * {@link #DEFAULT_INPUT_STREAM_MAP}, {@link #DEFAULT_FILTER_FACTORY_MAP}, {@link
+    * ConcatenatedInputStream#DEFAULT_PREFETCH}, and ordered set to {@code true}.
+    *
+    * @param filenames the files to read
+    * @return the new {@code InputStream}
+    * @throws java.io.FileNotFoundException if any of the files does not exist.
+    */
+   public static InputStream openConcatenatedInputStream(List<String> filenames) throws FileNotFoundException {
+      return openConcatenatedInputStream(filenames, DEFAULT_INPUT_STREAM_MAP, DEFAULT_FILTER_FACTORY_MAP,
+            ConcatenatedInputStream.DEFAULT_PREFETCH, true);
+   }
+
+   /**
+    * Returns a {@link LineReader} that reads the lines of each of the named files in turn.  This method behaves like
+    * {@link #openConcatenatedInputStream(java.util.List, java.util.Map, java.util.Map, int, boolean)}, except that
+    * the last line of one file is never joined to the first line of the next, even if the first file does not end
+    * with a newline.
+    *
+    * @param filenames the files to read (or keys in {@code streamMap})
+    * @param streamMap a map of file names to existing {@code InputStream}s
+    * @param filterMap a map of file suffixes to filters that will pre-process the files.
+    * @param prefetch  the number of files to open ahead of the one being read.  Must be at least 1.
+    * @param ordered   {@code true} if the files must appear in the order given.
+    * @return the new {@code LineReader}
+    * @throws java.io.FileNotFoundException if any of the files does not exist.
+    */
+   public static LineReader openConcatenatedLineReader(List<String> filenames, Map<String, InputStream> streamMap,
+                                                       Map<String, FilterFactory> filterMap, int prefetch,
+                                                       boolean ordered) throws FileNotFoundException {
+      return new LineReader(new ConcatenatedInputStream(filenames, streamMap, filterMap, prefetch, ordered, true));
+   }
+
+   /**
+    * Calls {@link #openConcatenatedLineReader(java.util.List, java.util.Map, java.util.Map, int, boolean)} with
+    * {@link #DEFAULT_INPUT_STREAM_MAP}, {@link #DEFAULT_FILTER_FACTORY_MAP}, {@link
+    * ConcatenatedInputStream#DEFAULT_PREFETCH}, and ordered set to {@code true}.
+    *
+    * @param filenames the files to read
+    * @return the new {@code LineReader}
+    * @throws java.io.FileNotFoundException if any of the files does not exist.
+    */
+   public static LineReader openConcatenatedLineReader(List<String> filenames) throws FileNotFoundException {
+      return openConcatenatedLineReader(filenames, DEFAULT_INPUT_STREAM_MAP, DEFAULT_FILTER_FACTORY_MAP,
+            ConcatenatedInputStream.DEFAULT_PREFETCH, true);
+   }
+
+   ////////////////////////////////////////////////////////
+   //
+   // Open bzip2 input at an arbitrary offset
+   //
+   ///////////////////////////////////////////////////////
+
+   /**
+    * Opens a bzip2 file and returns the uncompressed data beginning at {@code uncompressedOffset}.  Decompression
+    * begins at the block containing {@code uncompressedOffset}, as recorded in the file's sidecar {@link
+    * Bzip2BlockIndex}.  If the sidecar is missing or out of date, it is rebuilt (which requires decompressing the
+    * entire file once).
+    *
+    * @param file               the bzip2 file
+    * @param uncompressedOffset the position in the uncompressed data of the first byte to return
+    * @return a stream of the uncompressed data beginning at {@code uncompressedOffset}
+    * @throws IOException if the file can't be read or is not a valid bzip2 file.
+    */
+   public static InputStream openBzip2InputStreamAt(File file, long uncompressedOffset) throws IOException {
+      return Bzip2BlockIndex.loadOrBuild(file).open(file, uncompressedOffset);
+   }
+
+   /**
+    * Calls {@link #openBzip2InputStreamAt(java.io.File, long)}.
+    *
+    * @param filename           the name of the bzip2 file
+    * @param uncompressedOffset the position in the uncompressed data of the first byte to return
+    * @return a stream of the uncompressed data beginning at {@code uncompressedOffset}
+    * @throws IOException if the file can't be read or is not a valid bzip2 file.
+    */
+   public static InputStream openBzip2InputStreamAt(String filename, long uncompressedOffset) throws IOException {
+      return openBzip2InputStreamAt(new File(filename), uncompressedOffset);
+   }
+
+   ////////////////////////////////////////////////////////
+   //
+   // Open text input at an arbitrary line
+   //
+   ///////////////////////////////////////////////////////
+
+   /**
+    * Opens an uncompressed text file and returns a {@code LineReader} whose first line is line {@code line} of the
+    * file.  The reader begins at the line's offset, as recorded in the file's sidecar {@link LineOffsetIndex}.  If
+    * the sidecar is missing or out of date, it is rebuilt (which requires reading the entire file once).
+    *
+    * @param file the text file
+    * @param line the number of the first line to read (counting from 1)
+    * @return a {@code LineReader} beginning at {@code line}
+    * @throws IOException if the file can't be read.
+    * @throws IndexOutOfBoundsException if the file has fewer than {@code line - 1} lines.
+    */
+   public static LineReader openLineReaderAt(File file, long line) throws IOException {
+      return LineOffsetIndex.loadOrBuild(file).open(file, line);
+   }
+
+   /**
+    * Calls {@link #openLineReaderAt(java.io.File, long)}.
+    *
+    * @param filename the name of the text file
+    * @param line     the number of the first line to read (counting from 1)
+    * @return a {@code LineReader} beginning at {@code line}
+    * @throws IOException if the file can't be read.
+    * @throws IndexOutOfBoundsException if the file has fewer than {@code line - 1} lines.
+    */
+   public static LineReader openLineReaderAt(String filename, long line) throws IOException {
+      return openLineReaderAt(new File(filename), line);
+   }
+
+   ////////////////////////////////////////////////////////
+   //
+   // Split input for parallel processing
+   //
+   ///////////////////////////////////////////////////////
+
+   /**
+    * Divides an uncompressed file into newline-aligned {@link FileSplit}s that can be processed in parallel.  (See
+    * {@link FileSplit#split(java.io.File, int, long)}.)
+    *
+    * @param file         the file to split
+    * @param numSplits    the desired number of splits
+    * @param minSplitSize the minimum size of a split
+    * @return a list of contiguous splits covering the entire file, in order.
+    * @throws IOException if the file can't be read.
+    */
+   public static List<FileSplit> split(File file, int numSplits, long minSplitSize) throws IOException {
+      return FileSplit.split(file, numSplits, minSplitSize);
+   }
 
+   /**
+    * Calls {@link #split(java.io.File, int, long)} with one split per available processor and {@link
+    * FileSplit#DEFAULT_MIN_SPLIT_SIZE}.
+    *
+    * @param filename the name of the file to split
+    * @return a list of contiguous splits covering the entire file, in order.
+    * @throws IOException if the file can't be read.
+    */
+   public static List<FileSplit> split(String filename) throws IOException {
+      return split(new File(filename), Runtime.getRuntime().availableProcessors(), FileSplit.DEFAULT_MIN_SPLIT_SIZE);
+   }
 
    ////////////////////////////////////////////////////////
    //
@@ -636,6 +1806,71 @@ public class InputHelper {
    }
 
 
+   //
+   // Read ahead
+   //
+
+
+   /**
+    * Calls {@link #openReadAheadInputStream(String)} and exits if the file can't be opened.
+    *
+    * @param filename  the name of the file to open (or one of the keys in {@link #DEFAULT_INPUT_STREAM_MAP}).
+    * @param error     the {@code PrintStream} to which to write any errors.
+    * @param exitValue the value to pass to {@code System.exit} in the event of an error
+    * @return a {@code ReadAheadInputStream} wrapping a new, possibly filtered, {@code InputStream}.
+    */
+   public static InputStream openReadAheadInputStreamOrQuit(final String filename, PrintStream error,
+                                                            int exitValue) {
+      return openOrQuit(new Opener() {
+         public InputStream open() throws FileNotFoundException {
+            return InputHelper.openReadAheadInputStream(filename);
+         }
+      }, filename, error, exitValue);
+   }
+
+   /**
+    * Calls {@link #openReadAheadInputStream(String)} and exits if the file can't be opened.
+    *
+    * @param filename the name of the file to open (or one of the keys in {@link #DEFAULT_INPUT_STREAM_MAP}).
+    * @return a {@code ReadAheadInputStream} wrapping a new, possibly filtered, {@code InputStream}.
+    */
+   public static InputStream openReadAheadInputStreamOrQuit(String filename) {
+      return openReadAheadInputStreamOrQuit(filename, DEFAULT_ERROR_STREAM, DEFAULT_EXIT_VALUE);
+   }
+
+
+   //
+   // Sniffed
+   //
+
+
+   /**
+    * Calls {@link #openSniffedInputStream(String)} and exits if the file can't be opened.
+    *
+    * @param filename  the name of the file to open (or one of the keys in {@link #DEFAULT_INPUT_STREAM_MAP}).
+    * @param error     the {@code PrintStream} to which to write any errors.
+    * @param exitValue the value to pass to {@code System.exit} in the event of an error
+    * @return a new, possibly filtered, {@code InputStream}.
+    */
+   public static InputStream openSniffedInputStreamOrQuit(final String filename, PrintStream error, int exitValue) {
+      return openOrQuit(new Opener() {
+         public InputStream open() throws FileNotFoundException {
+            return InputHelper.openSniffedInputStream(filename);
+         }
+      }, filename, error, exitValue);
+   }
+
+   /**
+    * Calls {@link #openSniffedInputStream(String)} and exits if the file can't be opened.
+    *
+    * @param filename the name of the file to open (or one of the keys in {@link #DEFAULT_INPUT_STREAM_MAP}).
+    * @return a new, possibly filtered, {@code InputStream}.
+    */
+   public static InputStream openSniffedInputStreamOrQuit(String filename) {
+      return openSniffedInputStreamOrQuit(filename, DEFAULT_ERROR_STREAM, DEFAULT_EXIT_VALUE);
+   }
+
+
    //
    // File
    //
@@ -0,0 +1,408 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An index of the lines in a text file that allows any line (or range of lines) to be read without scanning the
+ * lines before it.  Lines are numbered from 1 (like {@link LineReader#getLineNumber()}), and end with {@code '\n'}
+ * (a {@code '\r'} before the {@code '\n'} is not part of the line).  A final line without a {@code '\n'} counts as a
+ * line.
+ *
+ * <p>The index stores the length of each line as a variable-length integer (one byte for lines shorter than 128
+ * bytes, two for lines shorter than 16K, etc.), plus the absolute offset of every {@value #CHECKPOINT_INTERVAL}th
+ * line.  Thus, finding a line's offset requires decoding at most {@value #CHECKPOINT_INTERVAL} lengths, and a typical
+ * index is a little more than one byte per line.</p>
+ *
+ * <p>Building an index requires reading the entire file once, so indexes are typically saved in a "sidecar" file
+ * next to the text file (see {@link #loadOrBuild(java.io.File)}).  The sidecar records the text file's length and
+ * modification time so that stale indexes are detected and rebuilt.</p>
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class LineOffsetIndex {
+
+   /**
+    * The suffix appended to the name of a text file to form the name of its sidecar index.
+    */
+   public static final String SIDECAR_SUFFIX = ".lineidx";
+
+   /**
+    * The number of lines between absolute offsets stored in memory.
+    */
+   public static final int CHECKPOINT_INTERVAL = 64;
+
+   private static final int MAGIC = 0x574c4e49;   // "WLNI"
+   private static final int VERSION = 1;
+   private static final int BUFFER_SIZE = 256 * 1024;
+
+   private final long fileLength;
+   private final long lastModified;
+   private final long lineCount;
+   private final byte[] lengths;           // varint-encoded line lengths (including terminators)
+   private final long[] checkpointOffsets; // checkpointOffsets[k] is the offset of line k * CHECKPOINT_INTERVAL + 1
+   private final int[] checkpointIndexes;  // checkpointIndexes[k] is where that line's length begins in lengths
+
+   private LineOffsetIndex(long fileLength, long lastModified, long lineCount, byte[] lengths) throws IOException {
+      this.fileLength = fileLength;
+      this.lastModified = lastModified;
+      this.lineCount = lineCount;
+      this.lengths = lengths;
+      int numCheckpoints = (int) ((lineCount + CHECKPOINT_INTERVAL - 1) / CHECKPOINT_INTERVAL);
+      this.checkpointOffsets = new long[numCheckpoints];
+      this.checkpointIndexes = new int[numCheckpoints];
+
+      long offset = 0;
+      int pos = 0;
+      for (long line = 0; line < lineCount; line++) {
+         if (line % CHECKPOINT_INTERVAL == 0) {
+            checkpointOffsets[(int) (line / CHECKPOINT_INTERVAL)] = offset;
+            checkpointIndexes[(int) (line / CHECKPOINT_INTERVAL)] = pos;
+         }
+         long length = 0;
+         int shift = 0;
+         byte b;
+         do {
+            if (pos >= lengths.length || shift > 56) {
+               throw new IOException("Line index is corrupt.");
+            }
+            b = lengths[pos++];
+            length |= (long) (b & 0x7f) << shift;
+            shift += 7;
+         } while (b < 0);
+         offset += length;
+      }
+      if (offset != fileLength || pos != lengths.length) {
+         throw new IOException("Line index is corrupt.");
+      }
+   }
+
+   // A growable array of varint-encoded lengths.
+   private static class LengthEncoder {
+      byte[] bytes = new byte[1024];
+      int size = 0;
+      long count = 0;
+
+      void add(long length) {
+         if (size + 10 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, bytes.length * 2);
+         }
+         while (length >= 0x80) {
+            bytes[size++] = (byte) (length | 0x80);
+            length >>>= 7;
+         }
+         bytes[size++] = (byte) length;
+         count++;
+      }
+   }
+
+   /**
+    * Builds an index by reading the given file.
+    *
+    * @param file the text file
+    * @return the new index
+    * @throws IOException if the file can't be read.
+    */
+   public static LineOffsetIndex build(File file) throws IOException {
+      long lastModified = file.lastModified();
+      InputStream in = new FileInputStream(file);
+      try {
+         return build(in, lastModified);
+      } finally {
+         in.close();
+      }
+   }
+
+   /**
+    * Builds an index of the lines in the given stream.  The resulting index can't be validated against a file;
+    * so, {@link #isValidFor(java.io.File)} will return {@code true} for any file with the same length.
+    *
+    * @param in the text
+    * @return the new index
+    * @throws IOException if the stream can't be read.
+    */
+   public static LineOffsetIndex build(InputStream in) throws IOException {
+      return build(in, 0);
+   }
+
+   private static LineOffsetIndex build(InputStream in, long lastModified) throws IOException {
+      LengthEncoder encoder = new LengthEncoder();
+      byte[] buffer = new byte[BUFFER_SIZE];
+      long lineStart = 0;
+      long position = 0;
+      for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+         for (int i = 0; i < n; i++) {
+            if (buffer[i] == '\n') {
+               long next = position + i + 1;
+               encoder.add(next - lineStart);
+               lineStart = next;
+            }
+         }
+         position += n;
+      }
+      if (lineStart < position) {
+         encoder.add(position - lineStart);
+      }
+      return new LineOffsetIndex(position, lastModified, encoder.count, Arrays.copyOf(encoder.bytes, encoder.size));
+   }
+
+   /**
+    * Returns the name of the sidecar index for the given text file.
+    *
+    * @param file the text file
+    * @return the sidecar file (which may not exist).
+    */
+   public static File sidecarFor(File file) {
+      return new File(file.getPath() + SIDECAR_SUFFIX);
+   }
+
+   /**
+    * Loads the sidecar index for {@code file} if it exists and is up to date; otherwise, builds a new index and
+    * attempts to save it.  (Failure to save the sidecar, e.g. because the directory is read-only, is not an error.)
+    *
+    * @param file the text file
+    * @return an index for {@code file}
+    * @throws IOException if the file can't be read.
+    */
+   public static LineOffsetIndex loadOrBuild(File file) throws IOException {
+      File sidecar = sidecarFor(file);
+      if (sidecar.exists()) {
+         try {
+            LineOffsetIndex index = read(sidecar);
+            if (index.isValidFor(file)) {
+               return index;
+            }
+         } catch (IOException e) {
+            // The sidecar is unreadable.  Rebuild it.
+         }
+      }
+      LineOffsetIndex index = build(file);
+      try {
+         index.write(sidecar);
+      } catch (IOException e) {
+         // Saving the index is just an optimization.
+      }
+      return index;
+   }
+
+   /**
+    * Reads an index previously saved with {@link #write(java.io.File)}.
+    *
+    * @param indexFile the saved index
+    * @return the index
+    * @throws IOException if the file can't be read or is not an index.
+    */
+   public static LineOffsetIndex read(File indexFile) throws IOException {
+      DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+      try {
+         if (in.readInt() != MAGIC) {
+            throw new IOException(indexFile + " is not a line offset index.");
+         }
+         int version = in.readInt();
+         if (version != VERSION) {
+            throw new IOException(indexFile + " has unsupported version " + version);
+         }
+         long fileLength = in.readLong();
+         long lastModified = in.readLong();
+         long lineCount = in.readLong();
+         int size = in.readInt();
+         if (lineCount < 0 || size < 0 || lineCount > size) {
+            throw new IOException(indexFile + " is corrupt.");
+         }
+         byte[] lengths = new byte[size];
+         in.readFully(lengths);
+         return new LineOffsetIndex(fileLength, lastModified, lineCount, lengths);
+      } finally {
+         in.close();
+      }
+   }
+
+   /**
+    * Saves this index.
+    *
+    * @param indexFile the file to which to write the index
+    * @throws IOException if the file can't be written.
+    */
+   public void write(File indexFile) throws IOException {
+      DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile)));
+      try {
+         out.writeInt(MAGIC);
+         out.writeInt(VERSION);
+         out.writeLong(fileLength);
+         out.writeLong(lastModified);
+         out.writeLong(lineCount);
+         out.writeInt(lengths.length);
+         out.write(lengths);
+      } finally {
+         out.close();
+      }
+   }
+
+   /**
+    * Returns {@code true} if this index appears to describe {@code file} (i.e., the length and modification time
+    * match).
+    *
+    * @param file the text file
+    * @return {@code true} if this index appears to describe {@code file}
+    */
+   public boolean isValidFor(File file) {
+      return file.length() == fileLength && (lastModified == 0 || file.lastModified() == lastModified);
+   }
+
+   /**
+    * Returns the number of lines in the file.
+    *
+    * @return the number of lines in the file.
+    */
+   public long getLineCount() {
+      return lineCount;
+   }
+
+   /**
+    * Returns the length of the file.
+    *
+    * @return the length of the file.
+    */
+   public long getFileLength() {
+      return fileLength;
+   }
+
+   /**
+    * Returns the position in the file of the first byte of the given line.  Line {@code getLineCount() + 1} is the
+    * end of the file.
+    *
+    * @param line the line number (counting from 1)
+    * @return the position in the file of the first byte of the line.
+    * @throws IndexOutOfBoundsException if {@code line} is not in {@code [1, getLineCount() + 1]}
+    */
+   public long getOffset(long line) {
+      if (line < 1 || line > lineCount + 1) {
+         throw new IndexOutOfBoundsException("Line " + line + " is not in [1, " + (lineCount + 1) + "]");
+      }
+      if (line == lineCount + 1) {
+         return fileLength;
+      }
+      long index = line - 1;
+      int checkpoint = (int) (index / CHECKPOINT_INTERVAL);
+      long offset = checkpointOffsets[checkpoint];
+      int pos = checkpointIndexes[checkpoint];
+      for (int skip = (int) (index % CHECKPOINT_INTERVAL); skip > 0; skip--) {
+         long length = 0;
+         int shift = 0;
+         byte b;
+         do {
+            b = lengths[pos++];
+            length |= (long) (b & 0x7f) << shift;
+            shift += 7;
+         } while (b < 0);
+         offset += length;
+      }
+      return offset;
+   }
+
+   /**
+    * Reads the given lines using positional reads (which do not change {@code channel}'s position).  The returned
+    * {@code ByteSlice}s do not include line terminators and share one newly allocated array.
+    *
+    * @param channel   a channel open on the file described by this index
+    * @param firstLine the number of the first line to read (counting from 1)
+    * @param count     the number of lines to read
+    * @return the lines
+    * @throws IOException if the channel can't be read.
+    * @throws IndexOutOfBoundsException if the lines are not all in the file.
+    */
+   public List<ByteSlice> readLines(FileChannel channel, long firstLine, int count) throws IOException {
+      if (count < 0 || firstLine < 1 || firstLine + count > lineCount + 1) {
+         throw new IndexOutOfBoundsException("Lines [" + firstLine + ", " + (firstLine + count) + ") are not in [1, " +
+               (lineCount + 1) + ")");
+      }
+      long start = getOffset(firstLine);
+      long end = getOffset(firstLine + count);
+      if (end - start > Integer.MAX_VALUE) {
+         throw new IllegalArgumentException("Lines [" + firstLine + ", " + (firstLine + count) + ") are longer " +
+               "than 2GB.");
+      }
+      byte[] bytes = new byte[(int) (end - start)];
+      ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      while (buffer.hasRemaining()) {
+         if (channel.read(buffer, start + buffer.position()) < 0) {
+            throw new EOFException("File is shorter than the index says.  (Is the index stale?)");
+         }
+      }
+
+      List<ByteSlice> answer = new ArrayList<ByteSlice>(count);
+      int lineStart = 0;
+      for (int i = 0; i < count; i++) {
+         int lineEnd = lineStart;
+         while (lineEnd < bytes.length && bytes[lineEnd] != '\n') {
+            lineEnd++;
+         }
+         int next = lineEnd + 1;
+         if (lineEnd > lineStart && bytes[lineEnd - 1] == '\r') {
+            lineEnd--;
+         }
+         answer.add(new ByteSlice(bytes, lineStart, lineEnd - lineStart));
+         lineStart = next;
+      }
+      return answer;
+   }
+
+   /**
+    * Reads the given line.  (See {@link #readLines(java.nio.channels.FileChannel, long, int)}.)
+    *
+    * @param channel a channel open on the file described by this index
+    * @param line    the line number (counting from 1)
+    * @return the line, without its terminator.
+    * @throws IOException if the channel can't be read.
+    * @throws IndexOutOfBoundsException if the line is not in the file.
+    */
+   public ByteSlice readLine(FileChannel channel, long line) throws IOException {
+      return readLines(channel, line, 1).get(0);
+   }
+
+   /**
+    * Opens {@code file} and returns a {@code LineReader} whose first line is {@code line}.  (The {@code
+    * LineReader}'s line numbers count from 1 at {@code line}.)
+    *
+    * @param file the text file described by this index
+    * @param line the number of the first line to read (counting from 1).  May be {@code getLineCount() + 1}, in
+    *             which case the reader is at the end of the file.
+    * @return a {@code LineReader} positioned at {@code line}.
+    * @throws IOException if the file can't be opened.
+    * @throws IndexOutOfBoundsException if the line is not in the file.
+    */
+   public LineReader open(File file, long line) throws IOException {
+      long offset = getOffset(line);
+      FileChannel channel = new FileInputStream(file).getChannel();
+      try {
+         channel.position(offset);
+      } catch (IOException e) {
+         channel.close();
+         throw e;
+      }
+      return new LineReader(Channels.newInputStream(channel));
+   }
+}
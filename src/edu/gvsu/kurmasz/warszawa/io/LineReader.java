@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Splits an {@code InputStream} into lines without allocating any objects per line.  {@link #nextLine()} returns
+ * a {@link ByteSlice} that views the line inside this reader's buffer.  The slice is re-used:  Its contents change
+ * with each call to {@code nextLine}.  Use {@link #iterator()} for code that needs a {@code String} for each line.
+ *
+ * <p>Lines end with {@code '\n'} or {@code "\r\n"}; the terminator is not part of the line.  The last line need not
+ * be terminated.  Because lines are split at the byte level, the input must use an encoding in which {@code '\n'}
+ * is never part of a multi-byte character (e.g., ASCII, ISO-8859-1, or UTF-8, but not UTF-16).</p>
+ *
+ * <p>Use {@link InputHelper#openLineReader(String, java.util.Map, java.util.Map)} to open files.</p>
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class LineReader implements Closeable, Iterable<String> {
+
+   /**
+    * The default initial size of the buffer (64KB).  The buffer grows if a line is longer than the buffer.
+    */
+   public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+   /**
+    * Thrown by the {@code Iterator} returned by {@link LineReader#iterator()} when the underlying stream throws an
+    * {@code IOException}.  (Iterator methods can't throw checked exceptions.)
+    */
+   public static class LineReaderException extends RuntimeException {
+      public LineReaderException(String message, IOException cause) {
+         super(message, cause);
+      }
+   }
+
+   private final InputStream in;
+   private final ByteSlice line = new ByteSlice(new byte[0]);
+   private byte[] buffer;
+   private int start = 0;     // beginning of the first unreturned line
+   private int end = 0;       // end of the valid data in buffer
+   private boolean eof = false;
+   private long lineNumber = 0;
+
+   /**
+    * Constructor
+    *
+    * @param in the underlying stream
+    */
+   public LineReader(InputStream in) {
+      this(in, DEFAULT_BUFFER_SIZE);
+   }
+
+   /**
+    * Constructor
+    *
+    * @param in         the underlying stream
+    * @param bufferSize the initial size of the buffer.
+    */
+   public LineReader(InputStream in, int bufferSize) {
+      if (in == null) {
+         throw new NullPointerException("parameter \"in\" cannot be null.");
+      }
+      if (bufferSize < 1) {
+         throw new IllegalArgumentException("bufferSize must be positive.");
+      }
+      this.in = in;
+      this.buffer = new byte[bufferSize];
+   }
+
+   /**
+    * Returns the next line, or {@code null} at the end of the stream.  The returned {@code ByteSlice} is valid
+    * only until the next call to {@code nextLine}.
+    *
+    * @return the next line (without the terminator), or {@code null} at the end of the stream.
+    * @throws IOException if the underlying stream throws an exception.
+    */
+   public ByteSlice nextLine() throws IOException {
+      int searchFrom = start;
+      while (true) {
+         for (int i = searchFrom; i < end; i++) {
+            if (buffer[i] == '\n') {
+               setLine(i);
+               start = i + 1;
+               return line;
+            }
+         }
+         searchFrom = end;
+
+         if (eof) {
+            if (start == end) {
+               return null;
+            }
+            setLine(end);
+            start = end;
+            return line;
+         }
+
+         if (end == buffer.length) {
+            if (start > 0) {
+               // Move the partial line to the front of the buffer
+               System.arraycopy(buffer, start, buffer, 0, end - start);
+               searchFrom -= start;
+               end -= start;
+               start = 0;
+            } else {
+               buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+         }
+         int n = in.read(buffer, end, buffer.length - end);
+         if (n < 0) {
+            eof = true;
+         } else {
+            end += n;
+         }
+      }
+   }
+
+   // Points line at [start, terminator), ignoring any '\r' before the terminator.
+   private void setLine(int terminator) {
+      int lineEnd = terminator;
+      if (lineEnd > start && buffer[lineEnd - 1] == '\r') {
+         lineEnd--;
+      }
+      line.set(buffer, start, lineEnd - start);
+      lineNumber++;
+   }
+
+   /**
+    * Returns the number of lines returned so far (i.e., the line number of the line most recently returned by
+    * {@link #nextLine()}, counting from 1).
+    *
+    * @return the number of lines returned so far.
+    */
+   public long getLineNumber() {
+      return lineNumber;
+   }
+
+   /**
+    * Returns an {@code Iterator} that decodes each remaining line into a {@code String} using the platform's default
+    * {@code Charset} (as {@code BufferedReader.readLine} would).  The iterator throws {@link LineReaderException} if
+    * the underlying stream throws an {@code IOException}.
+    *
+    * @return an {@code Iterator} over the remaining lines.
+    */
+   public Iterator<String> iterator() {
+      return iterator(Charset.defaultCharset());
+   }
+
+   /**
+    * Returns an {@code Iterator} that decodes each remaining line into a {@code String} using the given {@code
+    * Charset}.  The iterator throws {@link LineReaderException} if the underlying stream throws an {@code
+    * IOException}.
+    *
+    * @param charset the encoding of the input
+    * @return an {@code Iterator} over the remaining lines.
+    */
+   public Iterator<String> iterator(final Charset charset) {
+      return new Iterator<String>() {
+         private String next = null;
+
+         public boolean hasNext() {
+            if (next == null) {
+               try {
+                  ByteSlice slice = nextLine();
+                  next = (slice == null) ? null : slice.toString(charset);
+               } catch (IOException e) {
+                  throw new LineReaderException("Problem reading line " + (lineNumber + 1), e);
+               }
+            }
+            return next != null;
+         }
+
+         public String next() {
+            if (!hasNext()) {
+               throw new NoSuchElementException();
+            }
+            String answer = next;
+            next = null;
+            return answer;
+         }
+
+         public void remove() {
+            throw new UnsupportedOperationException("Lines can't be removed.");
+         }
+      };
+   }
+
+   /**
+    * Closes the underlying stream.
+    *
+    * @throws IOException if the underlying stream throws an exception.
+    */
+   public void close() throws IOException {
+      in.close();
+   }
+}
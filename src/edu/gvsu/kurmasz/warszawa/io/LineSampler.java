@@ -0,0 +1,322 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Chooses lines uniformly at random (without replacement) from a text file, without reading the entire file.
+ *
+ * <p>For files, the sampler reads from random offsets.  Choosing a random byte and returning the line containing it
+ * would favor long lines; so, the line is kept only with probability {@code 1 / length} (where the length includes
+ * the newline), which makes every line equally likely.  Because the decision can be made as soon as the line is
+ * known to be too long, most attempts read only a few bytes around the chosen offset.  On average, the sampler makes
+ * about (average line length) attempts per line sampled.  If the attempts would read more than half the file (e.g.,
+ * because {@code k} is close to the number of lines), the sampler reads the rest of the file sequentially instead.</p>
+ *
+ * <p>Streams that can't seek (e.g., the standard input or a compressed file) are sampled by reading every line and
+ * keeping a "reservoir" of {@code k} lines.</p>
+ *
+ * <p>Lines are returned in no particular order, without their terminators, as {@code ByteSlice}s that belong to
+ * the caller.</p>
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class LineSampler {
+
+   // Each attempt is charged at least this many bytes toward the "half the file" limit, because reading even one
+   // byte at a random offset typically costs a page of I/O.
+   private static final int ATTEMPT_COST = 4096;
+   private static final int FIRST_READ = 128;
+
+   protected java.util.Random r;
+
+   // Whether to read the file sequentially once the random attempts become too expensive.
+   // package scope to allow test to have access.
+   boolean allowSequentialFallback = true;
+
+   private ByteBuffer buffer = ByteBuffer.allocate(FIRST_READ);
+
+   /**
+    * Constructor allowing user to specify which {@code java.util.Random} object to use.
+    *
+    * @param rin the desired {@code java.util.Random} object.
+    */
+   public LineSampler(java.util.Random rin) {
+      if (rin == null) {
+         throw new NullPointerException("parameter \"rin\" cannot be null.");
+      }
+      r = rin;
+   }
+
+   /**
+    * Default constructor. Generates a new {@link java.util.Random} object.
+    */
+   public LineSampler() {
+      r = new java.util.Random();
+   }
+
+   // Returns a uniformly distributed value in [0, bound).
+   private long nextLong(long bound) {
+      if (bound <= Integer.MAX_VALUE) {
+         return r.nextInt((int) bound);
+      }
+      long bits;
+      long value;
+      do {
+         bits = r.nextLong() >>> 1;
+         value = bits % bound;
+      } while (bits - value + (bound - 1) < 0);
+      return value;
+   }
+
+   /**
+    * Chooses {@code k} lines from the open file.  (Fewer than {@code k} lines are returned if the file has fewer
+    * than {@code k} lines.)  The channel's position may be changed.
+    *
+    * @param channel the file to sample
+    * @param k       the number of lines to choose
+    * @return the lines chosen
+    * @throws IOException if the file can't be read.
+    */
+   public List<ByteSlice> sample(FileChannel channel, int k) throws IOException {
+      if (k < 0) {
+         throw new IllegalArgumentException("k must not be negative.");
+      }
+      long size = channel.size();
+      List<ByteSlice> answer = new ArrayList<ByteSlice>(k);
+      Set<Long> chosen = new HashSet<Long>();
+      long budget = size / 2;
+      while (answer.size() < k && size > 0) {
+         if (budget < 0 && allowSequentialFallback) {
+            channel.position(0);
+            return sample(Channels.newInputStream(channel), k);
+         }
+         // Keep the line containing "offset" iff its length < 1 / v (i.e., with probability 1 / length).
+         long offset = nextLong(size);
+         double maxLength = 1.0 / r.nextDouble();
+         long[] bounds = findLine(channel, size, offset, maxLength);
+         budget -= Math.max(ATTEMPT_COST, bounds[2]);
+         if (bounds[0] >= 0 && chosen.add(bounds[0])) {
+            answer.add(readLine(channel, bounds[0], bounds[1]));
+         }
+      }
+      return answer;
+   }
+
+   // Finds the line containing "offset".  Returns {start, end, bytesRead}, where [start, end) is the line (including
+   // its newline); or {-1, -1, bytesRead} if the line is at least maxLength long.
+   private long[] findLine(FileChannel channel, long size, long offset, double maxLength) throws IOException {
+      long bytesRead = 0;
+      // Search forward for the end of the line.
+      long end = -1;
+      int chunk = FIRST_READ;
+      for (long pos = offset; end < 0; pos += chunk, chunk *= 2) {
+         if (pos >= size) {
+            end = size;
+            break;
+         }
+         if (pos - offset >= maxLength) {
+            return new long[]{-1, -1, bytesRead};
+         }
+         int n = read(channel, pos, (int) Math.min(chunk, size - pos));
+         bytesRead += n;
+         for (int i = 0; i < n; i++) {
+            if (buffer.get(i) == '\n') {
+               end = pos + i + 1;
+               break;
+            }
+         }
+      }
+      if (end - offset >= maxLength) {
+         return new long[]{-1, -1, bytesRead};
+      }
+      // Search backward for the beginning of the line.
+      long start = -1;
+      chunk = FIRST_READ;
+      for (long pos = offset; start < 0; pos -= chunk, chunk *= 2) {
+         if (pos <= 0) {
+            start = 0;
+            break;
+         }
+         if (end - pos >= maxLength) {
+            return new long[]{-1, -1, bytesRead};
+         }
+         int length = (int) Math.min(chunk, pos);
+         int n = read(channel, pos - length, length);
+         bytesRead += n;
+         for (int i = n - 1; i >= 0; i--) {
+            if (buffer.get(i) == '\n') {
+               start = pos - length + i + 1;
+               break;
+            }
+         }
+         if (start < 0) {
+            chunk = length;   // so that "pos -= chunk" moves to the beginning of what was just read
+         }
+      }
+      if (end - start >= maxLength) {
+         return new long[]{-1, -1, bytesRead};
+      }
+      return new long[]{start, end, bytesRead};
+   }
+
+   // Reads "length" bytes at "position" into the beginning of "buffer".  Returns the number of bytes read.
+   private int read(FileChannel channel, long position, int length) throws IOException {
+      if (buffer.capacity() < length) {
+         buffer = ByteBuffer.allocate(length);
+      }
+      ((Buffer) buffer).clear();   // (cast so the class also runs on Java 8)
+      ((Buffer) buffer).limit(length);
+      while (buffer.hasRemaining()) {
+         if (channel.read(buffer, position + buffer.position()) < 0) {
+            break;
+         }
+      }
+      return buffer.position();
+   }
+
+   private ByteSlice readLine(FileChannel channel, long start, long end) throws IOException {
+      if (end - start > Integer.MAX_VALUE) {
+         throw new IOException("Line at offset " + start + " is longer than 2GB.");
+      }
+      byte[] bytes = new byte[(int) (end - start)];
+      ByteBuffer line = ByteBuffer.wrap(bytes);
+      while (line.hasRemaining()) {
+         if (channel.read(line, start + line.position()) < 0) {
+            throw new IOException("File was truncated while it was being sampled.");
+         }
+      }
+      int length = bytes.length;
+      if (length > 0 && bytes[length - 1] == '\n') {
+         length--;
+         if (length > 0 && bytes[length - 1] == '\r') {
+            length--;
+         }
+      }
+      return new ByteSlice(bytes, 0, length);
+   }
+
+   /**
+    * Chooses {@code k} lines from the given file.  (See {@link #sample(java.nio.channels.FileChannel, int)}.)
+    *
+    * @param file the file to sample
+    * @param k    the number of lines to choose
+    * @return the lines chosen
+    * @throws FileNotFoundException if the file does not exist.
+    * @throws IOException           if the file can't be read.
+    */
+   public List<ByteSlice> sample(File file, int k) throws IOException {
+      FileInputStream in = new FileInputStream(file);
+      try {
+         return sample(in.getChannel(), k);
+      } finally {
+         in.close();
+      }
+   }
+
+   /**
+    * Chooses {@code k} lines from the stream by reading every line and keeping a reservoir of {@code k} lines.  The
+    * stream is not closed.
+    *
+    * @param in the stream to sample
+    * @param k  the number of lines to choose
+    * @return the lines chosen
+    * @throws IOException if the stream can't be read.
+    */
+   public List<ByteSlice> sample(InputStream in, int k) throws IOException {
+      if (k < 0) {
+         throw new IllegalArgumentException("k must not be negative.");
+      }
+      List<ByteSlice> answer = new ArrayList<ByteSlice>(k);
+      LineReader reader = new LineReader(in);
+      long count = 0;
+      for (ByteSlice line = reader.nextLine(); line != null; line = reader.nextLine()) {
+         count++;
+         if (answer.size() < k) {
+            answer.add(line.copy());
+         } else if (k > 0) {
+            long j = nextLong(count);
+            if (j < k) {
+               answer.set((int) j, line.copy());
+            }
+         }
+      }
+      return answer;
+   }
+
+   /**
+    * Chooses {@code k} lines from the named file (or stream).  Streams in {@code streamMap} and files with a suffix
+    * in {@code filterMap} (e.g., compressed files) can't seek; so, they are sampled by reading every line.  Other
+    * files are sampled by reading from random offsets.
+    *
+    * @param filename  the name of the file to sample (or one of the keys in {@code streamMap}).
+    * @param streamMap a map of file names to existing {@code InputStream}s
+    * @param filterMap a map of file suffixes to filters that will pre-process the file.
+    * @param k         the number of lines to choose
+    * @return the lines chosen
+    * @throws FileNotFoundException if the file does not exist.
+    * @throws IOException           if the file can't be read.
+    */
+   public List<ByteSlice> sample(String filename, Map<String, InputStream> streamMap,
+                                 Map<String, InputHelper.FilterFactory> filterMap, int k) throws IOException {
+      File file = new File(filename);
+      boolean seekable = (streamMap == null || !streamMap.containsKey(filename)) &&
+            (filterMap == null || !filterMap.containsKey(FileHelper.getSuffix(file.getName())));
+      if (seekable) {
+         return sample(file, k);
+      }
+      InputStream in = InputHelper.openInputStream(filename, streamMap, filterMap);
+      try {
+         return sample(in, k);
+      } finally {
+         // Don't close the standard input (or other mapped streams).
+         if (streamMap == null || !streamMap.containsKey(filename)) {
+            in.close();
+         }
+      }
+   }
+
+   /**
+    * Calls {@link #sample(String, java.util.Map, java.util.Map, int)} with {@link
+    * InputHelper#DEFAULT_INPUT_STREAM_MAP} and {@link InputHelper#DEFAULT_FILTER_FACTORY_MAP}.
+    *
+    * @param filename the name of the file to sample (or "-" for the standard input).
+    * @param k        the number of lines to choose
+    * @return the lines chosen
+    * @throws FileNotFoundException if the file does not exist.
+    * @throws IOException           if the file can't be read.
+    */
+   public List<ByteSlice> sample(String filename, int k) throws IOException {
+      return sample(filename, InputHelper.DEFAULT_INPUT_STREAM_MAP, InputHelper.DEFAULT_FILTER_FACTORY_MAP, k);
+   }
+}
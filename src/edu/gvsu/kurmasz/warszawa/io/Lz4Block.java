@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Compresses and decompresses single LZ4 blocks.  (See {@link Lz4FrameOutputStream} and {@link
+ * Lz4FrameInputStream} for the frame format that surrounds the blocks.)  The compressor is the greedy,
+ * single-probe hash-table matcher used by the reference implementation's "fast" mode.
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+final class Lz4Block {
+
+   static final int MIN_MATCH = 4;
+   static final int MAX_DISTANCE = 65535;
+   private static final int LAST_LITERALS = 5;    // the last 5 bytes of a block are always literals
+   private static final int MF_LIMIT = 12;        // the last match must begin at least 12 bytes before the end
+   static final int HASH_LOG = 14;
+   private static final int SKIP_STRENGTH = 6;    // how quickly the search speeds up through incompressible data
+
+   private Lz4Block() {
+   }
+
+   /**
+    * Returns the largest possible compressed size of {@code length} bytes.
+    */
+   static int maxCompressedLength(int length) {
+      return length + length / 255 + 16;
+   }
+
+   private static int readInt(byte[] b, int i) {
+      return (b[i] & 0xff) | ((b[i + 1] & 0xff) << 8) | ((b[i + 2] & 0xff) << 16) | ((b[i + 3] & 0xff) << 24);
+   }
+
+   private static int hash(int sequence) {
+      return (sequence * -1640531535) >>> (32 - HASH_LOG);
+   }
+
+   // Writes "length" in the 255-per-byte format used for literal and match lengths longer than 14.
+   private static int writeLength(int length, byte[] dst, int dp) {
+      for (; length >= 255; length -= 255) {
+         dst[dp++] = (byte) 255;
+      }
+      dst[dp++] = (byte) length;
+      return dp;
+   }
+
+   private static int writeLiterals(byte[] src, int start, int length, int matchBits, byte[] dst, int dp) {
+      if (length >= 15) {
+         dst[dp++] = (byte) (0xf0 | matchBits);
+         dp = writeLength(length - 15, dst, dp);
+      } else {
+         dst[dp++] = (byte) ((length << 4) | matchBits);
+      }
+      System.arraycopy(src, start, dst, dp, length);
+      return dp + length;
+   }
+
+   /**
+    * Compresses {@code src[srcOff, srcOff + srcLen)} into {@code dst}, which must have room for {@link
+    * #maxCompressedLength(int)} bytes.
+    *
+    * @param table a scratch array of {@code 1 << HASH_LOG} entries.  (Passed in so that it can be reused.)
+    * @return the compressed length.
+    */
+   static int compress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff, int[] table) {
+      int end = srcOff + srcLen;
+      int anchor = srcOff;
+      int dp = dstOff;
+      if (srcLen > MF_LIMIT) {
+         Arrays.fill(table, -1);
+         int mfLimit = end - MF_LIMIT;
+         int matchLimit = end - LAST_LITERALS;
+         int ip = srcOff;
+         while (ip <= mfLimit) {
+            int sequence = readInt(src, ip);
+            int h = hash(sequence);
+            int ref = table[h];
+            table[h] = ip;
+            if (ref < 0 || ip - ref > MAX_DISTANCE || readInt(src, ref) != sequence) {
+               ip += 1 + ((ip - anchor) >>> SKIP_STRENGTH);
+               continue;
+            }
+            while (ip > anchor && ref > srcOff && src[ip - 1] == src[ref - 1]) {
+               ip--;
+               ref--;
+            }
+            int matchEnd = ip + MIN_MATCH;
+            for (int r = ref + MIN_MATCH; matchEnd < matchLimit && src[matchEnd] == src[r]; r++) {
+               matchEnd++;
+            }
+            int matchLength = matchEnd - ip - MIN_MATCH;
+
+            dp = writeLiterals(src, anchor, ip - anchor, Math.min(matchLength, 15), dst, dp);
+            int offset = ip - ref;
+            dst[dp++] = (byte) offset;
+            dst[dp++] = (byte) (offset >>> 8);
+            if (matchLength >= 15) {
+               dp = writeLength(matchLength - 15, dst, dp);
+            }
+
+            ip = anchor = matchEnd;
+            if (ip <= mfLimit) {
+               table[hash(readInt(src, ip - 2))] = ip - 2;
+            }
+         }
+      }
+      dp = writeLiterals(src, anchor, end - anchor, 0, dst, dp);
+      return dp - dstOff;
+   }
+
+   /**
+    * Decompresses the block {@code src[srcOff, srcEnd)} into {@code dst}, beginning at {@code dstOff}.  Matches
+    * may refer back as far as {@code dictStart} (i.e., {@code dst[dictStart, dstOff)} holds the end of the
+    * previous block when blocks are linked).
+    *
+    * @return the decompressed length.
+    * @throws IOException if the block is malformed or decompresses to more than {@code dstEnd - dstOff} bytes.
+    */
+   static int decompress(byte[] src, int srcOff, int srcEnd, byte[] dst, int dstOff, int dstEnd, int dictStart)
+         throws IOException {
+      int sp = srcOff;
+      int dp = dstOff;
+      while (true) {
+         if (sp >= srcEnd) {
+            throw new IOException("Truncated LZ4 block.");
+         }
+         int token = src[sp++] & 0xff;
+         int literalLength = token >>> 4;
+         if (literalLength == 15) {
+            int b;
+            do {
+               if (sp >= srcEnd) {
+                  throw new IOException("Truncated LZ4 block.");
+               }
+               b = src[sp++] & 0xff;
+               literalLength += b;
+            } while (b == 255);
+         }
+         if (literalLength > srcEnd - sp || literalLength > dstEnd - dp) {
+            throw new IOException("Malformed LZ4 block.");
+         }
+         System.arraycopy(src, sp, dst, dp, literalLength);
+         sp += literalLength;
+         dp += literalLength;
+         if (sp == srcEnd) {
+            return dp - dstOff;      // The last sequence has no match.
+         }
+
+         if (srcEnd - sp < 2) {
+            throw new IOException("Truncated LZ4 block.");
+         }
+         int offset = (src[sp] & 0xff) | ((src[sp + 1] & 0xff) << 8);
+         sp += 2;
+         int matchLength = token & 0x0f;
+         if (matchLength == 15) {
+            int b;
+            do {
+               if (sp >= srcEnd) {
+                  throw new IOException("Truncated LZ4 block.");
+               }
+               b = src[sp++] & 0xff;
+               matchLength += b;
+            } while (b == 255);
+         }
+         matchLength += MIN_MATCH;
+         int ref = dp - offset;
+         if (offset == 0 || ref < dictStart || matchLength > dstEnd - dp) {
+            throw new IOException("Malformed LZ4 block.");
+         }
+         if (offset >= matchLength) {
+            System.arraycopy(dst, ref, dst, dp, matchLength);
+            dp += matchLength;
+         } else {
+            // The match overlaps the bytes it produces (e.g., a run of one repeated byte).  dst[ref, dp) repeats
+            // with period "offset"; so, each copy can be as long as everything copied so far.
+            int matchEnd = dp + matchLength;
+            while (dp < matchEnd) {
+               int n = Math.min(dp - ref, matchEnd - dp);
+               System.arraycopy(dst, ref, dst, dp, n);
+               dp += n;
+            }
+         }
+      }
+   }
+}
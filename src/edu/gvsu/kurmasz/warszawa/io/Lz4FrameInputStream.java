@@ -0,0 +1,291 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An {@code InputStream} that decompresses data in the LZ4 frame format (the format written by the {@code lz4}
+ * command-line tool and by {@link Lz4FrameOutputStream}).  Both independent and linked blocks are supported, as
+ * are block and content checksums, skippable frames, and files containing several concatenated frames.  Frames
+ * that require a preset dictionary are not supported.  Like {@code GZIPInputStream}, this stream ignores any data
+ * following the last frame.
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class Lz4FrameInputStream extends InputStream {
+
+   private static final int SKIPPABLE_MAGIC = 0x184D2A50;    // the low four bits may be anything
+   private static final int WINDOW_SIZE = 64 * 1024;         // how far back a match in a linked block may reach
+   private static final int[] BLOCK_SIZES = {64 * 1024, 256 * 1024, 1024 * 1024, 4 * 1024 * 1024};
+
+   private final InputStream in;
+   private boolean closed = false;
+   private boolean finished = false;
+
+   // The current frame's descriptor
+   private boolean independent;
+   private boolean blockChecksum;
+   private int maxBlockSize;
+   private long contentSize;      // -1 if not recorded
+   private XXHash32 contentHash;  // null if the frame has no content checksum
+   private long frameLength;      // bytes of the current frame decompressed so far
+
+   private byte[] compressed = new byte[0];
+   private byte[] window = new byte[0];    // (for linked blocks) up to WINDOW_SIZE bytes of history, then the block
+   private int windowPos = 0;              // the next byte to return
+   private int windowEnd = 0;
+
+   private final byte[] intBuffer = new byte[4];
+
+   /**
+    * Constructor.  Reads the first frame header.
+    *
+    * @param in the compressed data
+    * @throws IOException if {@code in} does not contain LZ4 frame data.
+    */
+   public Lz4FrameInputStream(InputStream in) throws IOException {
+      if (in == null) {
+         throw new NullPointerException("parameter \"in\" cannot be null.");
+      }
+      this.in = in;
+      if (!nextFrame(true)) {
+         throw new IOException("Not in LZ4 frame format.");
+      }
+   }
+
+   // Returns the code used in the frame descriptor for the given maximum block size, or -1 if the size is invalid.
+   static int blockSizeId(int blockSize) {
+      for (int i = 0; i < BLOCK_SIZES.length; i++) {
+         if (BLOCK_SIZES[i] == blockSize) {
+            return i + 4;
+         }
+      }
+      return -1;
+   }
+
+   private static int readInt(byte[] b, int off) {
+      return (b[off] & 0xff) | ((b[off + 1] & 0xff) << 8) | ((b[off + 2] & 0xff) << 16) | ((b[off + 3] & 0xff) << 24);
+   }
+
+   // Returns the number of bytes read (less than len only at the end of the stream).
+   private int readFully(byte[] b, int off, int len) throws IOException {
+      int numRead = 0;
+      while (numRead < len) {
+         int n = in.read(b, off + numRead, len - numRead);
+         if (n < 0) {
+            break;
+         }
+         numRead += n;
+      }
+      return numRead;
+   }
+
+   private void readExactly(byte[] b, int off, int len) throws IOException {
+      if (readFully(b, off, len) < len) {
+         throw new EOFException("Unexpected end of LZ4 data.");
+      }
+   }
+
+   private int readInt() throws IOException {
+      readExactly(intBuffer, 0, 4);
+      return readInt(intBuffer, 0);
+   }
+
+   // Reads the header of the next frame, skipping any skippable frames.  Returns false at the end of the data (or
+   // if the data that follows is not an LZ4 frame).
+   private boolean nextFrame(boolean first) throws IOException {
+      while (true) {
+         if (readFully(intBuffer, 0, 4) < 4) {
+            return false;
+         }
+         int magic = readInt(intBuffer, 0);
+         if ((magic & 0xfffffff0) == SKIPPABLE_MAGIC) {
+            long size = readInt() & 0xffffffffL;
+            while (size > 0) {
+               long n = in.skip(size);
+               if (n <= 0) {
+                  if (in.read() < 0) {
+                     throw new EOFException("Unexpected end of LZ4 data.");
+                  }
+                  n = 1;
+               }
+               size -= n;
+            }
+         } else if (magic == Lz4FrameOutputStream.MAGIC) {
+            readFrameDescriptor();
+            return true;
+         } else if (first) {
+            throw new IOException("Not in LZ4 frame format.");
+         } else {
+            return false;
+         }
+      }
+   }
+
+   private void readFrameDescriptor() throws IOException {
+      byte[] descriptor = new byte[15];
+      readExactly(descriptor, 0, 2);
+      int flags = descriptor[0] & 0xff;
+      int bd = descriptor[1] & 0xff;
+      if ((flags >>> 6) != 1) {
+         throw new IOException("Unsupported LZ4 frame version " + (flags >>> 6) + ".");
+      }
+      if ((flags & 0x02) != 0 || (bd & 0x8f) != 0) {
+         throw new IOException("Malformed LZ4 frame descriptor.");
+      }
+      if ((flags & 0x01) != 0) {
+         throw new IOException("LZ4 frames with preset dictionaries are not supported.");
+      }
+      int sizeId = (bd >>> 4) & 0x07;
+      if (sizeId < 4) {
+         throw new IOException("Invalid LZ4 block size " + sizeId + ".");
+      }
+      int length = 2;
+      contentSize = -1;
+      if ((flags & 0x08) != 0) {
+         readExactly(descriptor, length, 8);
+         contentSize = (readInt(descriptor, length) & 0xffffffffL) | ((long) readInt(descriptor, length + 4) << 32);
+         length += 8;
+      }
+      readExactly(descriptor, length, 1);
+      if ((descriptor[length] & 0xff) != ((XXHash32.hash(descriptor, 0, length, 0) >>> 8) & 0xff)) {
+         throw new IOException("LZ4 frame descriptor failed checksum.");
+      }
+
+      independent = (flags & 0x20) != 0;
+      blockChecksum = (flags & 0x10) != 0;
+      contentHash = (flags & 0x04) != 0 ? new XXHash32(0) : null;
+      frameLength = 0;
+      maxBlockSize = BLOCK_SIZES[sizeId - 4];
+      if (compressed.length < maxBlockSize) {
+         compressed = new byte[maxBlockSize];
+      }
+      int windowSize = independent ? maxBlockSize : WINDOW_SIZE + maxBlockSize;
+      if (window.length < windowSize) {
+         window = new byte[windowSize];
+      }
+      windowPos = windowEnd = 0;
+   }
+
+   // Reads blocks until there is data to return.  Returns false at the end of the data.
+   private boolean nextBlock() throws IOException {
+      while (windowPos >= windowEnd) {
+         if (finished) {
+            return false;
+         }
+         int header = readInt();
+         if (header == 0) {
+            endFrame();
+            continue;
+         }
+         boolean uncompressed = (header & 0x80000000) != 0;
+         int length = header & 0x7fffffff;
+         if (length > maxBlockSize) {
+            throw new IOException("LZ4 block is larger than the maximum block size.");
+         }
+         readExactly(compressed, 0, length);
+         if (blockChecksum && readInt() != XXHash32.hash(compressed, 0, length, 0)) {
+            throw new IOException("LZ4 block failed checksum.");
+         }
+
+         int start = 0;
+         if (!independent) {
+            // Keep the last WINDOW_SIZE bytes as history for the matches in this block.
+            start = Math.min(windowEnd, WINDOW_SIZE);
+            System.arraycopy(window, windowEnd - start, window, 0, start);
+         }
+         int n;
+         if (uncompressed) {
+            System.arraycopy(compressed, 0, window, start, length);
+            n = length;
+         } else {
+            n = Lz4Block.decompress(compressed, 0, length, window, start, start + maxBlockSize, 0);
+         }
+         if (contentHash != null) {
+            contentHash.update(window, start, n);
+         }
+         frameLength += n;
+         windowPos = start;
+         windowEnd = start + n;
+      }
+      return true;
+   }
+
+   private void endFrame() throws IOException {
+      if (contentHash != null && readInt() != contentHash.getValue()) {
+         throw new IOException("LZ4 frame failed content checksum.");
+      }
+      if (contentSize >= 0 && contentSize != frameLength) {
+         throw new IOException("LZ4 frame should contain " + contentSize + " bytes, not " + frameLength + ".");
+      }
+      if (!nextFrame(false)) {
+         finished = true;
+      }
+   }
+
+   @Override
+   public int read() throws IOException {
+      ensureOpen();
+      if (!nextBlock()) {
+         return -1;
+      }
+      return window[windowPos++] & 0xff;
+   }
+
+   @Override
+   public int read(byte[] b, int off, int len) throws IOException {
+      ensureOpen();
+      if (off < 0 || len < 0 || len > b.length - off) {
+         throw new IndexOutOfBoundsException();
+      }
+      if (len == 0) {
+         return 0;
+      }
+      if (!nextBlock()) {
+         return -1;
+      }
+      int amount = Math.min(len, windowEnd - windowPos);
+      System.arraycopy(window, windowPos, b, off, amount);
+      windowPos += amount;
+      return amount;
+   }
+
+   @Override
+   public int available() throws IOException {
+      ensureOpen();
+      return windowEnd - windowPos;
+   }
+
+   @Override
+   public void close() throws IOException {
+      if (!closed) {
+         closed = true;
+         in.close();
+      }
+   }
+
+   private void ensureOpen() throws IOException {
+      if (closed) {
+         throw new IOException("Stream closed.");
+      }
+   }
+}
@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An {@code OutputStream} that compresses data in the LZ4 frame format (the format written by the {@code lz4}
+ * command-line tool).  LZ4 compresses far less than bzip2 or gzip; but, it is fast enough (hundreds of MB/s per
+ * core, even in pure Java) that it is suitable for scratch files that are written and read back by the same job.
+ *
+ * <p>Blocks are compressed independently, and the frame ends with a checksum of the uncompressed content (unless
+ * disabled).  The frame is completed by {@link #close()} or {@link #finish()}.</p>
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class Lz4FrameOutputStream extends FilterOutputStream {
+
+   static final int MAGIC = 0x184D2204;
+
+   /**
+    * The default maximum block size (64KB).  Larger blocks compress slightly better, but need more memory to
+    * compress and decompress.
+    */
+   public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+   private final byte[] buffer;
+   private int bufferLength = 0;
+   private final byte[] compressed;
+   private final int[] table = new int[1 << Lz4Block.HASH_LOG];
+   private final XXHash32 contentHash;
+   private boolean finished = false;
+
+   /**
+    * Constructor that uses {@link #DEFAULT_BLOCK_SIZE} and writes a content checksum.
+    *
+    * @param out the stream to which to write the compressed data.
+    * @throws IOException if the frame header can't be written.
+    */
+   public Lz4FrameOutputStream(OutputStream out) throws IOException {
+      this(out, DEFAULT_BLOCK_SIZE, true);
+   }
+
+   /**
+    * Constructor
+    *
+    * @param out             the stream to which to write the compressed data.
+    * @param blockSize       the maximum block size:  64KB, 256KB, 1MB, or 4MB.
+    * @param contentChecksum whether to write a checksum of the uncompressed data at the end of the frame.
+    * @throws IOException              if the frame header can't be written.
+    * @throws IllegalArgumentException if {@code blockSize} is not one of the sizes allowed by the frame format.
+    */
+   public Lz4FrameOutputStream(OutputStream out, int blockSize, boolean contentChecksum) throws IOException {
+      super(out);
+      if (out == null) {
+         throw new NullPointerException("parameter \"out\" cannot be null.");
+      }
+      int blockSizeId = Lz4FrameInputStream.blockSizeId(blockSize);
+      if (blockSizeId < 0) {
+         throw new IllegalArgumentException("blockSize must be 64KB, 256KB, 1MB, or 4MB.");
+      }
+      this.buffer = new byte[blockSize];
+      this.compressed = new byte[Lz4Block.maxCompressedLength(blockSize)];
+      this.contentHash = contentChecksum ? new XXHash32(0) : null;
+
+      byte[] header = new byte[7];
+      writeInt(header, 0, MAGIC);
+      header[4] = (byte) (0x40 | 0x20 | (contentChecksum ? 0x04 : 0));   // version 01, independent blocks
+      header[5] = (byte) (blockSizeId << 4);
+      header[6] = (byte) (XXHash32.hash(header, 4, 2, 0) >>> 8);
+      out.write(header);
+   }
+
+   static void writeInt(byte[] b, int off, int value) {
+      b[off] = (byte) value;
+      b[off + 1] = (byte) (value >>> 8);
+      b[off + 2] = (byte) (value >>> 16);
+      b[off + 3] = (byte) (value >>> 24);
+   }
+
+   private void writeInt(int value) throws IOException {
+      byte[] b = new byte[4];
+      writeInt(b, 0, value);
+      out.write(b);
+   }
+
+   // Compresses and writes one block (stored uncompressed if it doesn't shrink).
+   private void writeBlock(byte[] data, int off, int len) throws IOException {
+      if (contentHash != null) {
+         contentHash.update(data, off, len);
+      }
+      int compressedLength = Lz4Block.compress(data, off, len, compressed, 4, table);
+      if (compressedLength < len) {
+         writeInt(compressed, 0, compressedLength);
+         out.write(compressed, 0, compressedLength + 4);
+      } else {
+         writeInt(0x80000000 | len);
+         out.write(data, off, len);
+      }
+   }
+
+   private void ensureOpen() throws IOException {
+      if (finished) {
+         throw new IOException("Stream finished.");
+      }
+   }
+
+   @Override
+   public void write(int b) throws IOException {
+      ensureOpen();
+      if (bufferLength == buffer.length) {
+         writeBlock(buffer, 0, bufferLength);
+         bufferLength = 0;
+      }
+      buffer[bufferLength++] = (byte) b;
+   }
+
+   @Override
+   public void write(byte[] b, int off, int len) throws IOException {
+      if (off < 0 || len < 0 || len > b.length - off) {
+         throw new IndexOutOfBoundsException();
+      }
+      ensureOpen();
+      while (len > 0) {
+         if (bufferLength == 0 && len >= buffer.length) {
+            // Compress directly from the caller's array.
+            writeBlock(b, off, buffer.length);
+            off += buffer.length;
+            len -= buffer.length;
+         } else {
+            int amount = Math.min(len, buffer.length - bufferLength);
+            System.arraycopy(b, off, buffer, bufferLength, amount);
+            bufferLength += amount;
+            off += amount;
+            len -= amount;
+            if (bufferLength == buffer.length) {
+               writeBlock(buffer, 0, bufferLength);
+               bufferLength = 0;
+            }
+         }
+      }
+   }
+
+   /**
+    * Compresses and writes any buffered data as a (possibly short) block, then flushes the underlying stream.
+    *
+    * @throws IOException if the underlying stream throws an exception.
+    */
+   @Override
+   public void flush() throws IOException {
+      if (!finished && bufferLength > 0) {
+         writeBlock(buffer, 0, bufferLength);
+         bufferLength = 0;
+      }
+      out.flush();
+   }
+
+   /**
+    * Writes any buffered data and the end of the frame without closing the underlying stream.  No more data may
+    * be written to this stream.
+    *
+    * @throws IOException if the underlying stream throws an exception.
+    */
+   public void finish() throws IOException {
+      if (finished) {
+         return;
+      }
+      if (bufferLength > 0) {
+         writeBlock(buffer, 0, bufferLength);
+         bufferLength = 0;
+      }
+      finished = true;
+      writeInt(0);    // end mark
+      if (contentHash != null) {
+         writeInt(contentHash.getValue());
+      }
+   }
+
+   @Override
+   public void close() throws IOException {
+      try {
+         finish();
+      } finally {
+         out.close();
+      }
+   }
+}
@@ -0,0 +1,223 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * An {@code InputStream} that reads a file through memory-mapped {@code ByteBuffer}s instead of {@code read}
+ * system calls.  A single {@code MappedByteBuffer} can cover at most 2GB, so larger files are read through a
+ * sequence of mapped "windows".  Only one window is mapped at a time.
+ *
+ * <p>Because the file is mapped, {@link #skip(long)}, {@link #mark(int)}, and {@link #reset()} are cheap and
+ * {@link #available()} reports the number of bytes remaining in the file.</p>
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class MemoryMappedInputStream extends InputStream {
+
+   /**
+    * The default size of each mapped window (1GB).
+    */
+   public static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+
+   private final RandomAccessFile file;
+   private final FileChannel channel;
+   private final long size;
+   private final int windowSize;
+
+   private MappedByteBuffer window;
+   private long windowStart;    // position in the file of window[0]
+   private long mark = 0;
+   private boolean closed = false;
+
+   /**
+    * Constructor
+    *
+    * @param file the file to read
+    * @throws IOException if the file cannot be opened or mapped
+    */
+   public MemoryMappedInputStream(File file) throws IOException {
+      this(file, DEFAULT_WINDOW_SIZE);
+   }
+
+   /**
+    * Constructor
+    *
+    * @param file       the file to read
+    * @param windowSize the maximum number of bytes mapped at once.
+    * @throws IOException if the file cannot be opened or mapped
+    */
+   public MemoryMappedInputStream(File file, int windowSize) throws IOException {
+      if (windowSize < 1) {
+         throw new IllegalArgumentException("windowSize must be positive.");
+      }
+      this.file = new RandomAccessFile(file, "r");
+      this.channel = this.file.getChannel();
+      this.windowSize = windowSize;
+      try {
+         this.size = channel.size();
+         mapWindow(0);
+      } catch (IOException e) {
+         this.file.close();
+         throw e;
+      }
+   }
+
+   private void mapWindow(long start) throws IOException {
+      windowStart = start;
+      window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowSize, size - start));
+   }
+
+   // Returns false at the end of the file.
+   private boolean ensureData() throws IOException {
+      if (closed) {
+         throw new IOException("Stream closed.");
+      }
+      if (window.hasRemaining()) {
+         return true;
+      }
+      long next = windowStart + window.limit();
+      if (next >= size) {
+         return false;
+      }
+      mapWindow(next);
+      return true;
+   }
+
+   /**
+    * Returns the total length of the file.
+    *
+    * @return the total length of the file
+    */
+   public long length() {
+      return size;
+   }
+
+   /**
+    * Returns the position of the next byte to be read.
+    *
+    * @return the position of the next byte to be read.
+    */
+   public long position() {
+      return windowStart + window.position();
+   }
+
+   /**
+    * Moves to the specified position in the file.
+    *
+    * @param position the position of the next byte to read.  Must be between 0 and {@link #length()}
+    * @throws IOException if the file can't be mapped
+    */
+   public void position(long position) throws IOException {
+      if (position < 0 || position > size) {
+         throw new IllegalArgumentException("Position " + position + " is outside the file (size " + size + ")");
+      }
+      if (position >= windowStart && position <= windowStart + window.limit()) {
+         window.position((int) (position - windowStart));
+      } else {
+         mapWindow(position);
+      }
+   }
+
+   /**
+    * Returns the bytes remaining in the current window, without copying them.  The returned buffer is a read-only
+    * view that begins at the current position; reading from it does not advance this stream.  For files no larger
+    * than the window size, this is the rest of the file.
+    *
+    * @return the bytes remaining in the current window.
+    * @throws IOException if the stream is closed
+    */
+   public ByteBuffer getByteBuffer() throws IOException {
+      ensureData();
+      return window.slice().asReadOnlyBuffer();
+   }
+
+   @Override
+   public int read() throws IOException {
+      if (!ensureData()) {
+         return -1;
+      }
+      return window.get() & 0xff;
+   }
+
+   @Override
+   public int read(byte[] b, int off, int len) throws IOException {
+      if (off < 0 || len < 0 || len > b.length - off) {
+         throw new IndexOutOfBoundsException();
+      }
+      if (len == 0) {
+         return 0;
+      }
+      if (!ensureData()) {
+         return -1;
+      }
+      int amount = Math.min(len, window.remaining());
+      window.get(b, off, amount);
+      return amount;
+   }
+
+   @Override
+   public long skip(long n) throws IOException {
+      if (n <= 0) {
+         return 0;
+      }
+      long current = position();
+      long target = Math.min(size, current + n);
+      position(target);
+      return target - current;
+   }
+
+   @Override
+   public int available() throws IOException {
+      if (closed) {
+         throw new IOException("Stream closed.");
+      }
+      return (int) Math.min(Integer.MAX_VALUE, size - position());
+   }
+
+   @Override
+   public boolean markSupported() {
+      return true;
+   }
+
+   @Override
+   public synchronized void mark(int readLimit) {
+      mark = position();
+   }
+
+   @Override
+   public synchronized void reset() throws IOException {
+      position(mark);
+   }
+
+   @Override
+   public void close() throws IOException {
+      if (!closed) {
+         closed = true;
+         file.close();
+      }
+   }
+}
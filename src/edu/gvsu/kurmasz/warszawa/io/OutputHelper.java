@@ -16,6 +16,8 @@
  */
 package edu.gvsu.kurmasz.warszawa.io;
 
+import org.apache.tools.bzip2.CBZip2OutputStream;
+
 import java.io.*;
 import java.nio.charset.Charset;
 import java.util.HashMap;
@@ -65,6 +67,148 @@ public class OutputHelper {
       map.put("STDERR", System.err);
       return map;
    }
+
+   /**
+    * Generates a map of the same names as {@link #makeDefaultOutputStreamMap()}; but, maps them to the unsynchronized,
+    * buffered {@link RawStandardOutputStream}s attached directly to the standard output and standard error file
+    * descriptors instead of {@code System.out} and {@code System.err}.  Use this map when writing large amounts of
+    * output to a pipe.  Buffered data is flushed when the buffer fills, when the stream (or a writer using it) is
+    * flushed, and when the JVM shuts down normally.  Writers attached to these streams must still be flushed or
+    * closed (closing does not close the standard output).  (See {@link RawStandardOutputStream} for details.)
+    *
+    * @return the map
+    */
+   public static Map<String, OutputStream> makeRawOutputStreamMap() {
+      HashMap<String, OutputStream> map = new HashMap<String, OutputStream>();
+      map.put("-", RawStandardOutputStream.getStandardOutput());
+      map.put("stdout", RawStandardOutputStream.getStandardOutput());
+      map.put("STDOUT", RawStandardOutputStream.getStandardOutput());
+      map.put("stderr", RawStandardOutputStream.getStandardError());
+      map.put("STDERR", RawStandardOutputStream.getStandardError());
+      return map;
+   }
+
+   /**
+    * Used to wrap {@code OutputStreams} with the desired filter.  (This is the output counterpart of {@link
+    * InputHelper.FilterFactory}.)
+    */
+   public interface FilterFactory {
+      /**
+       * Surrounds the {@code OutputStream} with another filter-like {@code OutputStream}.  Typically used to
+       * surround a {@code FileOutputStream} with an {@code OutputStream} (such as {@link Lz4FrameOutputStream}) that
+       * compresses the data.
+       *
+       * @param out the base {@code OutputStream}
+       * @return the new {@code OutputStream} surrounding {@code out}
+       * @throws FilterFactoryException if there is a problem creating the new {@code OutputStream}
+       */
+      OutputStream makeFilter(OutputStream out) throws FilterFactoryException;
+
+      /**
+       * Thrown if there is a problem creating the new {@code OutputStream} (e.g., if writing a header to the base
+       * {@code OutputStream} fails).
+       */
+      public class FilterFactoryException extends RuntimeException {
+         public FilterFactoryException(String message, Throwable t) {
+            super(message, t);
+         }
+
+         public FilterFactoryException(String message) {
+            super(message);
+         }
+      }
+   }
+
+   // package scope to allow test to have access.
+   static class Lz4Factory implements FilterFactory {
+      public OutputStream makeFilter(OutputStream out) throws FilterFactoryException {
+         if (out == null) {
+            throw new NullPointerException("parameter \"out\" cannot be null.");
+         }
+         try {
+            return new Lz4FrameOutputStream(out);
+         } catch (IOException e) {
+            throw new FilterFactoryException("Unable to write LZ4 frame header.", e);
+         }
+      }
+   }
+
+   /**
+    * Wraps an {@code OutputStream} in a {@link Lz4FrameOutputStream} that compresses it.  LZ4 is much faster (and
+    * compresses much less) than bzip2, which makes it a good choice for scratch files.  (See {@link
+    * InputHelper#LZ4_FACTORY} for the matching decompressor.)
+    */
+   public static final FilterFactory LZ4_FACTORY = new Lz4Factory();
+
+   // package scope to allow test to have access.
+   static class Bzip2Factory implements FilterFactory {
+      public OutputStream makeFilter(OutputStream out) throws FilterFactoryException {
+         if (out == null) {
+            throw new NullPointerException("parameter \"out\" cannot be null.");
+         }
+         try {
+            // CBZip2OutputStream expects the caller to write the "BZ" (just as CBZip2InputStream expected the
+            // caller to read it).
+            out.write('B');
+            out.write('Z');
+            return new CBZip2OutputStream(out);
+         } catch (IOException e) {
+            throw new FilterFactoryException("Unable to write bzip2 header.", e);
+         }
+      }
+   }
+
+   /**
+    * Wraps an {@code OutputStream} in a {@code CBZip2OutputStream} (from the bundled Apache bzip2 package) that
+    * compresses it using 900k blocks.  (See {@link InputHelper#BZIP2_FACTORY} for the matching decompressor.)
+    */
+   public static final FilterFactory BZIP2_FACTORY = new Bzip2Factory();
+
+   // package scope to allow test to have access.
+   static class ParallelBzip2Factory implements FilterFactory {
+      private final int threads;
+
+      ParallelBzip2Factory(int threads) {
+         this.threads = threads;
+      }
+
+      public OutputStream makeFilter(OutputStream out) throws FilterFactoryException {
+         if (out == null) {
+            throw new NullPointerException("parameter \"out\" cannot be null.");
+         }
+         return new ParallelBzip2OutputStream(out, ParallelBzip2OutputStream.DEFAULT_BLOCK_SIZE, threads);
+      }
+   }
+
+   /**
+    * Wraps an {@code OutputStream} in a {@link ParallelBzip2OutputStream} that compresses 900k chunks on one thread
+    * per processor.  Unlike {@link InputHelper#PARALLEL_BZIP2_FACTORY}, this factory is part of the default filter
+    * map:  Compressing bzip2 is several times slower than decompressing it, so a single thread is usually the
+    * bottleneck of a program that writes compressed output.  (The threads exist only while the stream is open.)
+    */
+   public static final FilterFactory PARALLEL_BZIP2_FACTORY =
+         new ParallelBzip2Factory(Runtime.getRuntime().availableProcessors());
+
+   /**
+    * Generates a map of the file suffixes "bz2" and "lz4" to {@link #PARALLEL_BZIP2_FACTORY} and {@link
+    * #LZ4_FACTORY} respectively.  (This is the output counterpart of {@link
+    * InputHelper#makeDefaultFilterFactoryMap()}.)
+    *
+    * @return the map
+    */
+   public static Map<String, FilterFactory> makeDefaultFilterFactoryMap() {
+      HashMap<String, FilterFactory> map = new HashMap<String, FilterFactory>();
+      map.put("bz2", PARALLEL_BZIP2_FACTORY);
+      map.put("lz4", LZ4_FACTORY);
+      return map;
+   }
+
+   /**
+    * An immutable copy of the map returned by {@link #makeDefaultFilterFactoryMap()}
+    */
+   public static final Map<String, FilterFactory> DEFAULT_FILTER_FACTORY_MAP =
+         java.util.Collections.unmodifiableMap(makeDefaultFilterFactoryMap());
+
    ////////////////////////////////////////////////////////
    //
    // Open output or throw an exception
@@ -91,6 +235,42 @@ public class OutputHelper {
       }
    }
 
+   /**
+    * Returns the {@code OutputStream} contained in {@code map}, if present, or creates a new {@code OutputStream}
+    * attached to the specified file.  If {@code filename}'s suffix appears in {@code filterMap},
+    * then the new {@code OutputStream} is wrapped with that filter.  (Streams found in {@code map} are not
+    * filtered.)
+    *
+    * @param filename  the name of the file to open, or one of the keys in {@code map}.
+    * @param map       a map of names to existing {@code OutputStreams}
+    * @param filterMap a map of file suffixes to filters that will post-process the data written.
+    * @return either the {@code OutputStream} in the map, or a new, possibly filtered, {@code OutputStream}.
+    * @throws FileNotFoundException if the requested file cannot be opened for writing.
+    * @throws FilterFactory.FilterFactoryException
+    *                               if the filter cannot be created.
+    */
+   public static OutputStream getOutputStream(String filename, Map<String, OutputStream> map,
+                                              Map<String, FilterFactory> filterMap) throws FileNotFoundException {
+      if (map != null && map.containsKey(filename)) {
+         return map.get(filename);
+      }
+      String suffix = FileHelper.getSuffix(new File(filename).getName());
+      OutputStream base = new FileOutputStream(filename);
+      if (filterMap == null || !filterMap.containsKey(suffix)) {
+         return base;
+      }
+      try {
+         return filterMap.get(suffix).makeFilter(base);
+      } catch (FilterFactory.FilterFactoryException e) {
+         try {
+            base.close();
+         } catch (IOException e1) {
+            // The FilterFactoryException is more informative.
+         }
+         throw e;
+      }
+   }
+
    /**
     * Returns a {@code PrintWriter} attached to the {@code stream} with the the specified character set and autoflush.
     *
@@ -280,6 +460,66 @@ public class OutputHelper {
       return openWriter(filename, map, Charset.forName(charset), autoflush);
    }
 
+   /**
+    * Returns a {@code PrintWriter} attached to either the {@code OutputStream} specified in {@code map}, or the named
+    * file, with the specified character set and autoflush.  If {@code filename}'s suffix appears in {@code
+    * filterMap}, the data written to the file is post-processed (e.g., compressed) by that filter.  (See {@link
+    * #getOutputStream(String, java.util.Map, java.util.Map)}.)
+    *
+    * @param filename  the {@code File} to which to write
+    * @param map       a map of filenames to exisiting {@code OutputStreams}.  One use of this feature is to map filenames
+    *                  like "-" and "stderr" onto the standard output.
+    * @param filterMap a map of file suffixes to filters that will post-process the data written.
+    * @param charset   the desired character set
+    * @param autoflush if {@code true}, the {@code println}, {@code printf}, or {@code format} methods will flush the
+    *                  output buffer.
+    * @return the new {@code PrintWriter}
+    * @throws FileNotFoundException if {@code file} cannot be opened for writing.
+    * @throws FilterFactory.FilterFactoryException
+    *                               if the filter cannot be created.
+    */
+   public static PrintWriter openWriter(String filename, Map<String, OutputStream> map,
+                                        Map<String, FilterFactory> filterMap, Charset charset,
+                                        boolean autoflush) throws FileNotFoundException {
+      return openWriter(getOutputStream(filename, map, filterMap), charset, autoflush);
+   }
+
+   /**
+    * calls {@link #openWriter(String, java.util.Map, java.util.Map, java.nio.charset.Charset, boolean)} using {@link
+    * #DEFAULT_OUTPUT_STREAM_MAP} and {@link #DEFAULT_FILTER_FACTORY_MAP}.  Thus, "out.bz2" is compressed using
+    * bzip2, and "-" is the standard output.
+    *
+    * @param filename  the {@code File} to which to write
+    * @param charset   the desired character set
+    * @param autoflush if {@code true}, the {@code println}, {@code printf}, or {@code format} methods will flush the
+    *                  output buffer.
+    * @return the new {@code PrintWriter}
+    * @throws FileNotFoundException if {@code file} cannot be opened for writing.
+    * @throws FilterFactory.FilterFactoryException
+    *                               if the filter cannot be created.
+    */
+   public static PrintWriter openMappedAndFilteredWriter(String filename, Charset charset,
+                                                         boolean autoflush) throws FileNotFoundException {
+      return openWriter(filename, DEFAULT_OUTPUT_STREAM_MAP, DEFAULT_FILTER_FACTORY_MAP, charset, autoflush);
+   }
+
+   /**
+    * calls {@link #openMappedAndFilteredWriter(String, java.nio.charset.Charset, boolean)} using the default
+    * character set.
+    *
+    * @param filename  the {@code File} to which to write
+    * @param autoflush if {@code true}, the {@code println}, {@code printf}, or {@code format} methods will flush the
+    *                  output buffer.
+    * @return the new {@code PrintWriter}
+    * @throws FileNotFoundException if {@code file} cannot be opened for writing.
+    * @throws FilterFactory.FilterFactoryException
+    *                               if the filter cannot be created.
+    */
+   public static PrintWriter openMappedAndFilteredWriter(String filename,
+                                                         boolean autoflush) throws FileNotFoundException {
+      return openMappedAndFilteredWriter(filename, Charset.defaultCharset(), autoflush);
+   }
+
    /**
     * calls {@link #openWriter(String, java.util.Map, java.nio.charset.Charset, boolean)}  using {@link #DEFAULT_OUTPUT_STREAM_MAP}
     *
@@ -311,6 +551,158 @@ public class OutputHelper {
       return openWriter(filename, OutputHelper.DEFAULT_OUTPUT_STREAM_MAP, charset, autoflush);
    }
 
+   //
+   // Open using pooled buffers
+   //
+
+   /**
+    * Returns a {@code PrintWriter} attached to the {@code stream} with the the specified character set and
+    * autoflush.  The writer's buffers come from {@code pool} and are returned when the writer is closed (see {@link
+    * PooledWriter}).
+    *
+    * @param stream    the {@code OutputStream} to which to write
+    * @param charset   the desired character set
+    * @param autoflush if {@code true}, the {@code println}, {@code printf}, or {@code format} methods will flush the
+    *                  output buffer.
+    * @param pool      the pool from which to take buffers
+    * @return the new {@code PrintWriter}
+    */
+   public static PrintWriter openWriter(OutputStream stream, Charset charset, boolean autoflush, BufferPool pool) {
+      return new PrintWriter(new PooledWriter(stream, charset, pool), autoflush);
+   }
+
+   /**
+    * Returns a {@code PrintWriter} attached to either the named file, or the {@code OutputStream} specified in
+    * {@code map} with the the specified character set and autoflush.  The writer's buffers come from {@code pool}
+    * and are returned when the writer is closed.
+    *
+    * @param filename  the {@code File} to which to write
+    * @param map       a map of filenames to exisiting {@code OutputStreams}.
+    * @param charset   the desired character set
+    * @param autoflush if {@code true}, the {@code println}, {@code printf}, or {@code format} methods will flush the
+    *                  output buffer.
+    * @param pool      the pool from which to take buffers
+    * @return the new {@code PrintWriter}
+    * @throws FileNotFoundException if {@code file} cannot be opened for writing.
+    */
+   public static PrintWriter openWriter(String filename, Map<String, OutputStream> map, Charset charset,
+                                        boolean autoflush, BufferPool pool) throws FileNotFoundException {
+      return openWriter(getOutputStream(filename, map), charset, autoflush, pool);
+   }
+
+   /**
+    * calls {@link #openWriter(String, java.util.Map, java.nio.charset.Charset, boolean, BufferPool)} using {@link
+    * #DEFAULT_OUTPUT_STREAM_MAP} and {@link BufferPool#SHARED}
+    *
+    * @param filename  the {@code File} to which to write
+    * @param charset   the desired character set
+    * @param autoflush if {@code true}, the {@code println}, {@code printf}, or {@code format} methods will flush the
+    *                  output buffer.
+    * @return the new {@code PrintWriter}
+    * @throws FileNotFoundException if {@code file} cannot be opened for writing.
+    */
+   public static PrintWriter openPooledWriter(String filename, Charset charset,
+                                              boolean autoflush) throws FileNotFoundException {
+      return openWriter(filename, DEFAULT_OUTPUT_STREAM_MAP, charset, autoflush, BufferPool.SHARED);
+   }
+
+
+   //
+   // Open with write-behind
+   //
+
+   /**
+    * Returns an {@link AsyncOutputStream} that writes to either the {@code OutputStream} specified in {@code map}, or
+    * the named (and possibly filtered) file on a background thread.  (See {@link #getOutputStream(String,
+    * java.util.Map, java.util.Map)}.)  Because the filter runs on the background thread, compression also moves off
+    * the caller's thread.  Pass the stream to {@link #openWriter(java.io.OutputStream, java.nio.charset.Charset,
+    * boolean)} to write text while keeping access to the stream's queue statistics.
+    *
+    * @param filename   the {@code File} to which to write
+    * @param map        a map of filenames to exisiting {@code OutputStreams}.
+    * @param filterMap  a map of file suffixes to filters that will post-process the data written.
+    * @param depth      the number of buffers
+    * @param bufferSize the size of each buffer
+    * @param policy     what {@code write} does when all buffers are waiting to be written.
+    * @return the new {@code AsyncOutputStream}
+    * @throws FileNotFoundException if {@code file} cannot be opened for writing.
+    * @throws FilterFactory.FilterFactoryException
+    *                               if the filter cannot be created.
+    */
+   public static AsyncOutputStream openAsyncOutputStream(String filename, Map<String, OutputStream> map,
+                                                         Map<String, FilterFactory> filterMap, int depth,
+                                                         int bufferSize, AsyncOutputStream.Backpressure policy)
+         throws FileNotFoundException {
+      return new AsyncOutputStream(getOutputStream(filename, map, filterMap), depth, bufferSize, policy);
+   }
+
+   /**
+    * Returns a {@code PrintWriter} with the specified character set and autoflush that writes to the named file
+    * (or standard stream) on a background thread.  Uses {@link #DEFAULT_OUTPUT_STREAM_MAP}, {@link
+    * #DEFAULT_FILTER_FACTORY_MAP}, and an {@link AsyncOutputStream} with the default depth and buffer size that
+    * blocks when its buffers are full.  {@code flush()} and {@code close()} wait for the background thread.
+    *
+    * @param filename  the {@code File} to which to write
+    * @param charset   the desired character set
+    * @param autoflush if {@code true}, the {@code println}, {@code printf}, or {@code format} methods will flush the
+    *                  output buffer (and wait for the background thread).
+    * @return the new {@code PrintWriter}
+    * @throws FileNotFoundException if {@code file} cannot be opened for writing.
+    * @throws FilterFactory.FilterFactoryException
+    *                               if the filter cannot be created.
+    */
+   public static PrintWriter openAsyncWriter(String filename, Charset charset,
+                                             boolean autoflush) throws FileNotFoundException {
+      return openWriter(openAsyncOutputStream(filename, DEFAULT_OUTPUT_STREAM_MAP, DEFAULT_FILTER_FACTORY_MAP,
+            AsyncOutputStream.DEFAULT_DEPTH, AsyncOutputStream.DEFAULT_BUFFER_SIZE,
+            AsyncOutputStream.Backpressure.BLOCK), charset, autoflush);
+   }
+
+   //
+   // Open with direct formatting of primitives
+   //
+
+   /**
+    * Returns a {@link PrimitivePrintWriter} attached to either the {@code OutputStream} specified in {@code map}, or
+    * the named (and possibly filtered) file, with the specified character set and autoflush.  (See {@link
+    * #getOutputStream(String, java.util.Map, java.util.Map)}.)  The writer formats {@code int}s, {@code long}s, and
+    * {@code double}s without creating {@code String}s.  When the file is not filtered, the writer writes to the
+    * file's {@code FileChannel}.
+    *
+    * @param filename  the {@code File} to which to write
+    * @param map       a map of filenames to exisiting {@code OutputStreams}.
+    * @param filterMap a map of file suffixes to filters that will post-process the data written.
+    * @param charset   the desired character set
+    * @param autoflush if {@code true}, the {@code println}, {@code printf}, or {@code format} methods will flush the
+    *                  output buffer.
+    * @return the new {@code PrimitivePrintWriter}
+    * @throws FileNotFoundException if {@code file} cannot be opened for writing.
+    * @throws FilterFactory.FilterFactoryException
+    *                               if the filter cannot be created.
+    */
+   public static PrimitivePrintWriter openPrimitiveWriter(String filename, Map<String, OutputStream> map,
+                                                          Map<String, FilterFactory> filterMap, Charset charset,
+                                                          boolean autoflush) throws FileNotFoundException {
+      return new PrimitivePrintWriter(getOutputStream(filename, map, filterMap), charset, autoflush);
+   }
+
+   /**
+    * calls {@link #openPrimitiveWriter(String, java.util.Map, java.util.Map, java.nio.charset.Charset, boolean)}
+    * using {@link #DEFAULT_OUTPUT_STREAM_MAP} and {@link #DEFAULT_FILTER_FACTORY_MAP}.
+    *
+    * @param filename  the {@code File} to which to write
+    * @param charset   the desired character set
+    * @param autoflush if {@code true}, the {@code println}, {@code printf}, or {@code format} methods will flush the
+    *                  output buffer.
+    * @return the new {@code PrimitivePrintWriter}
+    * @throws FileNotFoundException if {@code file} cannot be opened for writing.
+    * @throws FilterFactory.FilterFactoryException
+    *                               if the filter cannot be created.
+    */
+   public static PrimitivePrintWriter openPrimitiveWriter(String filename, Charset charset,
+                                                          boolean autoflush) throws FileNotFoundException {
+      return openPrimitiveWriter(filename, DEFAULT_OUTPUT_STREAM_MAP, DEFAULT_FILTER_FACTORY_MAP, charset, autoflush);
+   }
 
    // These methods are ready but untested.
 //   public static PrintWriter openWriter(String filename, Map<String, OutputStream> map,
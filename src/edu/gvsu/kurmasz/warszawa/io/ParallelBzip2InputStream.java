@@ -0,0 +1,237 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.*;
+
+/**
+ * An {@code InputStream} that decompresses bzip2 data using several threads.  bzip2 compresses each block (100k to
+ * 900k of input) independently.  This stream locates the boundaries between blocks (see {@link Bzip2BlockScanner}),
+ * decompresses several blocks at once on a pool of worker threads, then returns the decompressed blocks in their
+ * original order.  Files containing several concatenated bzip2 streams (such as those written by {@code pbzip2})
+ * are decompressed in their entirety.
+ *
+ * <p>This stream expects to see the entire bzip2 stream, including the leading {@code "BZ"}.</p>
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class ParallelBzip2InputStream extends InputStream {
+
+   private final InputStream in;
+   private final Bzip2BlockScanner scanner;
+   private final ExecutorService executor;
+   private final boolean ownsExecutor;
+   private final int maxPending;
+   private final ArrayDeque<Future<byte[]>> pending = new ArrayDeque<Future<byte[]>>();
+   private boolean scannerDone = false;
+   private boolean closed = false;
+
+   private byte[] current = new byte[0];
+   private int currentPos = 0;
+
+   /**
+    * Constructor that uses one worker thread per available processor.
+    *
+    * @param in the compressed data (beginning with {@code "BZh"}).
+    * @throws IOException if {@code in} does not contain bzip2 data.
+    */
+   public ParallelBzip2InputStream(InputStream in) throws IOException {
+      this(in, Runtime.getRuntime().availableProcessors());
+   }
+
+   /**
+    * Constructor that uses the specified number of worker threads.  The threads are daemon threads and are shut
+    * down when this stream reaches the end of the data or is closed.
+    *
+    * @param in         the compressed data (beginning with {@code "BZh"}).
+    * @param numThreads the number of worker threads.  Must be at least 1.
+    * @throws IOException if {@code in} does not contain bzip2 data.
+    */
+   public ParallelBzip2InputStream(InputStream in, int numThreads) throws IOException {
+      this(in, makeExecutor(numThreads), numThreads, true);
+   }
+
+   /**
+    * Constructor that decompresses blocks using an existing {@code ExecutorService}.  This allows several
+    * streams to share one pool of threads.  The {@code executor} is not shut down when this stream is closed.
+    *
+    * @param in         the compressed data (beginning with {@code "BZh"}).
+    * @param executor   the {@code ExecutorService} that will decompress the blocks
+    * @param maxPending the maximum number of blocks that may be awaiting decompression at one time.  (Each block
+    *                   may require up to 900k of memory while pending.)  Must be at least 1.
+    * @throws IOException if {@code in} does not contain bzip2 data.
+    */
+   public ParallelBzip2InputStream(InputStream in, ExecutorService executor, int maxPending) throws IOException {
+      this(in, executor, maxPending, false);
+   }
+
+   /**
+    * Constructor that decompresses the blocks found by an existing scanner (e.g., one that begins in the middle of
+    * a file).
+    *
+    * @param in         the stream read by {@code scanner} (closed when this stream is closed)
+    * @param scanner    the source of the compressed blocks
+    * @param numThreads the number of worker threads.  Must be at least 1.
+    * @throws IOException if {@code in} does not contain bzip2 data.
+    */
+   ParallelBzip2InputStream(InputStream in, Bzip2BlockScanner scanner, int numThreads) throws IOException {
+      this(in, scanner, makeExecutor(numThreads), numThreads, true);
+   }
+
+   private ParallelBzip2InputStream(InputStream in, ExecutorService executor, int numThreads,
+                                    boolean ownsExecutor) throws IOException {
+      this(in, in == null ? null : new Bzip2BlockScanner(in), executor, numThreads, ownsExecutor);
+   }
+
+   private ParallelBzip2InputStream(InputStream in, Bzip2BlockScanner scanner, ExecutorService executor,
+                                    int numThreads, boolean ownsExecutor) throws IOException {
+      if (in == null) {
+         throw new NullPointerException("parameter \"in\" cannot be null.");
+      }
+      if (numThreads < 1) {
+         throw new IllegalArgumentException("Need at least one thread / pending block.");
+      }
+      this.in = in;
+      this.scanner = scanner;
+      this.executor = executor;
+      this.ownsExecutor = ownsExecutor;
+      // Keep enough blocks in flight that workers don't go idle while the consumer works on the current block.
+      this.maxPending = ownsExecutor ? 2 * numThreads : numThreads;
+      try {
+         fill();
+      } catch (IOException e) {
+         shutdown();
+         throw e;
+      }
+   }
+
+   private static ExecutorService makeExecutor(int numThreads) {
+      if (numThreads < 1) {
+         throw new IllegalArgumentException("Need at least one thread.");
+      }
+      return Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+         public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "ParallelBzip2InputStream worker");
+            t.setDaemon(true);
+            return t;
+         }
+      });
+   }
+
+   // Scan ahead and queue blocks for decompression until the pipeline is full.
+   private void fill() throws IOException {
+      while (!scannerDone && pending.size() < maxPending) {
+         final Bzip2Block block = scanner.next();
+         if (block == null) {
+            scannerDone = true;
+         } else {
+            pending.add(executor.submit(new Callable<byte[]>() {
+               public byte[] call() throws IOException {
+                  return block.decompress();
+               }
+            }));
+         }
+      }
+   }
+
+   // Returns false at the end of the data.
+   private boolean nextBlock() throws IOException {
+      while (currentPos >= current.length) {
+         fill();
+         Future<byte[]> next = pending.poll();
+         if (next == null) {
+            shutdown();
+            return false;
+         }
+         try {
+            current = next.get();
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new java.io.InterruptedIOException("Interrupted while waiting for a bzip2 block.");
+         } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() :
+                  new IOException("Unable to decompress bzip2 block.", e.getCause());
+         }
+         currentPos = 0;
+      }
+      return true;
+   }
+
+   @Override
+   public int read() throws IOException {
+      ensureOpen();
+      if (!nextBlock()) {
+         return -1;
+      }
+      return current[currentPos++] & 0xff;
+   }
+
+   @Override
+   public int read(byte[] b, int off, int len) throws IOException {
+      ensureOpen();
+      if (off < 0 || len < 0 || len > b.length - off) {
+         throw new IndexOutOfBoundsException();
+      }
+      if (len == 0) {
+         return 0;
+      }
+      if (!nextBlock()) {
+         return -1;
+      }
+      int amount = Math.min(len, current.length - currentPos);
+      System.arraycopy(current, currentPos, b, off, amount);
+      currentPos += amount;
+      return amount;
+   }
+
+   @Override
+   public int available() throws IOException {
+      ensureOpen();
+      return current.length - currentPos;
+   }
+
+   @Override
+   public void close() throws IOException {
+      if (closed) {
+         return;
+      }
+      closed = true;
+      for (Future<byte[]> f : pending) {
+         f.cancel(true);
+      }
+      pending.clear();
+      shutdown();
+      in.close();
+   }
+
+   private void shutdown() {
+      if (ownsExecutor) {
+         executor.shutdownNow();
+      }
+   }
+
+   private void ensureOpen() throws IOException {
+      if (closed) {
+         throw new IOException("Stream closed.");
+      }
+   }
+}
@@ -0,0 +1,246 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.apache.tools.bzip2.CBZip2OutputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * An {@code OutputStream} that compresses data using bzip2 on several threads (like {@code pbzip2}).  The data is
+ * split into chunks the size of one bzip2 block (900k by default).  Each chunk is compressed on a background thread
+ * as a separate bzip2 stream, and the streams are written in order.  The result is a valid bzip2 file (a
+ * concatenation of bzip2 streams) that {@code bunzip2}, {@link Bzip2InputStream}, and {@link
+ * ParallelBzip2InputStream} can read.  (This stream writes the "BZ" that begins each bzip2 stream.)
+ *
+ * <p>{@link #flush()} compresses the data written so far as a (short) stream of its own; so, frequent flushing
+ * hurts the compression ratio.  If compressing a chunk fails, the exception is thrown by a later call to {@code
+ * write}, {@code flush}, or {@code close}.</p>
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class ParallelBzip2OutputStream extends FilterOutputStream {
+
+   /**
+    * The default block size, in units of 100k (i.e., 900k blocks).
+    */
+   public static final int DEFAULT_BLOCK_SIZE = 9;
+
+   private static int threadCount = 0;
+
+   private final int blockSize;
+   private final int threads;
+   private final ExecutorService pool;
+   // The chunks being compressed, in the order they must be written.
+   private final Queue<Future<byte[]>> pending = new ArrayDeque<Future<byte[]>>();
+
+   private byte[] chunk;
+   private int chunkLength = 0;
+   private boolean wroteStream = false;
+   private boolean closed = false;
+
+   /**
+    * Constructor that uses {@link #DEFAULT_BLOCK_SIZE} and one thread per processor.
+    *
+    * @param out the stream to which to write the compressed data.
+    */
+   public ParallelBzip2OutputStream(OutputStream out) {
+      this(out, DEFAULT_BLOCK_SIZE, Runtime.getRuntime().availableProcessors());
+   }
+
+   /**
+    * Constructor
+    *
+    * @param out       the stream to which to write the compressed data.
+    * @param blockSize the bzip2 block size (in units of 100k), from 1 to 9.
+    * @param threads   the number of chunks to compress concurrently.
+    */
+   public ParallelBzip2OutputStream(OutputStream out, int blockSize, int threads) {
+      super(out);
+      if (out == null) {
+         throw new NullPointerException("parameter \"out\" cannot be null.");
+      }
+      if (blockSize < 1 || blockSize > 9) {
+         throw new IllegalArgumentException("blockSize must be between 1 and 9.");
+      }
+      if (threads < 1) {
+         throw new IllegalArgumentException("threads must be positive.");
+      }
+      this.blockSize = blockSize;
+      this.threads = threads;
+      // Slightly less than a full block, because CBZip2OutputStream reserves a few bytes in each block.
+      this.chunk = new byte[blockSize * 100000 - 20];
+      this.pool = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+         public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, nextThreadName());
+            thread.setDaemon(true);
+            return thread;
+         }
+      });
+   }
+
+   private static synchronized String nextThreadName() {
+      return "ParallelBzip2OutputStream-" + (threadCount++);
+   }
+
+   private void ensureOpen() throws IOException {
+      if (closed) {
+         throw new IOException("Stream closed.");
+      }
+   }
+
+   // Compresses "data" as a complete bzip2 stream (including the "BZ").
+   private static byte[] compress(byte[] data, int length, int blockSize) throws IOException {
+      if (length == 0) {
+         // CBZip2OutputStream can't write an empty stream.  This is the output of "bzip2 < /dev/null":  The header,
+         // the end-of-stream marker, and a CRC of 0.
+         return new byte[]{'B', 'Z', 'h', (byte) ('0' + blockSize), 0x17, 0x72, 0x45, 0x38, 0x50, (byte) 0x90, 0, 0,
+               0, 0};
+      }
+      ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 4 + 64);
+      compressed.write('B');
+      compressed.write('Z');
+      CBZip2OutputStream bz = new CBZip2OutputStream(compressed, blockSize);
+      for (int i = 0; i < length; i++) {
+         bz.write(data[i]);
+      }
+      bz.close();
+      return compressed.toByteArray();
+   }
+
+   // Hands the current chunk to the pool.  Writes the oldest compressed chunks if too many are waiting.
+   private void submitChunk() throws IOException {
+      final byte[] data = chunk;
+      final int length = chunkLength;
+      pending.add(pool.submit(new Callable<byte[]>() {
+         public byte[] call() throws IOException {
+            return compress(data, length, blockSize);
+         }
+      }));
+      wroteStream = true;
+      chunk = new byte[chunk.length];
+      chunkLength = 0;
+      // Allow one chunk per thread, plus one more so a thread is never idle waiting for the caller.
+      while (pending.size() > threads + 1) {
+         writeOldest();
+      }
+   }
+
+   private void writeOldest() throws IOException {
+      Future<byte[]> future = pending.remove();
+      try {
+         out.write(future.get());
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new InterruptedIOException("Interrupted while waiting for compression.");
+      } catch (ExecutionException e) {
+         Throwable cause = e.getCause();
+         if (cause instanceof IOException) {
+            throw (IOException) cause;
+         } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+         } else if (cause instanceof Error) {
+            throw (Error) cause;
+         }
+         throw new IOException(cause);
+      }
+   }
+
+   @Override
+   public void write(int b) throws IOException {
+      ensureOpen();
+      if (chunkLength == chunk.length) {
+         submitChunk();
+      }
+      chunk[chunkLength++] = (byte) b;
+   }
+
+   @Override
+   public void write(byte[] b, int off, int len) throws IOException {
+      if (off < 0 || len < 0 || len > b.length - off) {
+         throw new IndexOutOfBoundsException();
+      }
+      ensureOpen();
+      while (len > 0) {
+         if (chunkLength == chunk.length) {
+            submitChunk();
+         }
+         int amount = Math.min(len, chunk.length - chunkLength);
+         System.arraycopy(b, off, chunk, chunkLength, amount);
+         chunkLength += amount;
+         off += amount;
+         len -= amount;
+      }
+   }
+
+   /**
+    * Compresses the data written so far, waits for all chunks to be written, then flushes the underlying stream.
+    *
+    * @throws IOException if compression or the underlying stream throws an exception.
+    */
+   @Override
+   public void flush() throws IOException {
+      ensureOpen();
+      if (chunkLength > 0) {
+         submitChunk();
+      }
+      while (!pending.isEmpty()) {
+         writeOldest();
+      }
+      out.flush();
+   }
+
+   /**
+    * Writes the remaining data, stops the background threads, and closes the underlying stream.  If no data was
+    * written, an empty bzip2 stream is written, so the output is still a valid bzip2 file.
+    *
+    * @throws IOException if compression or the underlying stream throws an exception.
+    */
+   @Override
+   public void close() throws IOException {
+      if (closed) {
+         return;
+      }
+      try {
+         if (chunkLength > 0 || !wroteStream) {
+            submitChunk();
+         }
+         while (!pending.isEmpty()) {
+            writeOldest();
+         }
+      } finally {
+         closed = true;
+         pool.shutdownNow();
+         chunk = null;
+         out.close();
+      }
+   }
+}
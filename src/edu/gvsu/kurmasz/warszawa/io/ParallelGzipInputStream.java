@@ -0,0 +1,396 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.*;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+/**
+ * An {@code InputStream} that decompresses gzip data made of many members using several threads.  A gzip file may
+ * contain several concatenated members, each compressed independently.  In general, the only way to find where a
+ * member ends is to inflate it; but, files written by {@code bgzip} (the "BGZF" format) record each member's
+ * compressed size in an extra header field.  When the members carry this field, this stream reads them one at a
+ * time, inflates several at once on a pool of worker threads, then returns the results in their original order.
+ *
+ * <p>Members without the size field (e.g., ordinary single-member files written by {@code gzip}) are decompressed
+ * sequentially by a {@code GZIPInputStream}; no threads are started until a sized member is found.  Like {@code
+ * GZIPInputStream}, this stream ignores any data following the last member.</p>
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class ParallelGzipInputStream extends InputStream {
+
+   private static final int ID1 = 0x1f;
+   private static final int ID2 = 0x8b;
+   private static final int DEFLATE = 8;
+   private static final int FHCRC = 0x02;
+   private static final int FEXTRA = 0x04;
+   private static final int FNAME = 0x08;
+   private static final int FCOMMENT = 0x10;
+   private static final int TRAILER_LENGTH = 8;
+   private static final int SEQUENTIAL_BUFFER_SIZE = 64 * 1024;
+   private static final int MAX_INITIAL_CAPACITY = 64 * 1024;   // the largest member BGZF writes
+
+   // The header of a member, as read from the underlying stream.
+   private static class Header {
+      final byte[] bytes;
+      final int blockSize;   // total compressed size of the member, or -1 if not recorded
+
+      Header(byte[] bytes, int blockSize) {
+         this.bytes = bytes;
+         this.blockSize = blockSize;
+      }
+   }
+
+   private final InputStream in;
+   private final int numThreads;
+   private final int maxPending;
+   private final ArrayDeque<Future<byte[]>> pending = new ArrayDeque<Future<byte[]>>();
+   private ExecutorService executor = null;
+   private boolean membersDone = false;
+   private InputStream sequential = null;   // decompresses the members that don't record their size
+   private boolean closed = false;
+
+   private byte[] current = new byte[0];
+   private int currentPos = 0;
+
+   /**
+    * Constructor that uses one worker thread per available processor.
+    *
+    * @param in the compressed data
+    * @throws IOException if {@code in} does not contain gzip data.
+    */
+   public ParallelGzipInputStream(InputStream in) throws IOException {
+      this(in, Runtime.getRuntime().availableProcessors());
+   }
+
+   /**
+    * Constructor that uses the specified number of worker threads.  The threads are daemon threads and are shut
+    * down when this stream reaches the end of the data or is closed.
+    *
+    * @param in         the compressed data
+    * @param numThreads the number of worker threads.  Must be at least 1.
+    * @throws IOException if {@code in} does not contain gzip data.
+    */
+   public ParallelGzipInputStream(InputStream in, int numThreads) throws IOException {
+      if (in == null) {
+         throw new NullPointerException("parameter \"in\" cannot be null.");
+      }
+      if (numThreads < 1) {
+         throw new IllegalArgumentException("Need at least one thread.");
+      }
+      this.in = in;
+      this.numThreads = numThreads;
+      // Keep enough members in flight that workers don't go idle while the consumer works on the current member.
+      this.maxPending = 2 * numThreads;
+      Header first = readHeader();
+      if (first == null) {
+         throw new IOException("Not in GZIP format.");
+      }
+      try {
+         fill(first);
+      } catch (IOException e) {
+         shutdown();
+         throw e;
+      }
+   }
+
+   private static ExecutorService makeExecutor(int numThreads) {
+      return Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+         public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "ParallelGzipInputStream worker");
+            t.setDaemon(true);
+            return t;
+         }
+      });
+   }
+
+   // Reads the header of the next member.  Returns null at the end of the data, or if the data that follows is
+   // not a gzip member.
+   private Header readHeader() throws IOException {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+      int id1 = in.read();
+      if (id1 < 0) {
+         return null;
+      }
+      bytes.write(id1);
+      int id2 = in.read();
+      if (id2 >= 0) {
+         bytes.write(id2);
+      }
+      if (id1 != ID1 || id2 != ID2) {
+         return null;
+      }
+      int method = readByte(bytes);
+      if (method != DEFLATE) {
+         throw new IOException("Unsupported gzip compression method " + method + ".");
+      }
+      int flags = readByte(bytes);
+      skipBytes(bytes, 6);    // MTIME, XFL, OS
+      int blockSize = -1;
+      if ((flags & FEXTRA) != 0) {
+         int extraLength = readShort(bytes);
+         int remaining = extraLength;
+         while (remaining >= 4) {
+            int si1 = readByte(bytes);
+            int si2 = readByte(bytes);
+            int length = readShort(bytes);
+            remaining -= 4;
+            if (length > remaining) {
+               throw new IOException("Malformed gzip extra field.");
+            }
+            if (si1 == 'B' && si2 == 'C' && length == 2) {
+               blockSize = readShort(bytes) + 1;
+            } else {
+               skipBytes(bytes, length);
+            }
+            remaining -= length;
+         }
+         skipBytes(bytes, remaining);
+      }
+      if ((flags & FNAME) != 0) {
+         while (readByte(bytes) != 0) {
+            // skip the file name
+         }
+      }
+      if ((flags & FCOMMENT) != 0) {
+         while (readByte(bytes) != 0) {
+            // skip the comment
+         }
+      }
+      if ((flags & FHCRC) != 0) {
+         skipBytes(bytes, 2);
+      }
+      if (blockSize >= 0 && blockSize < bytes.size() + TRAILER_LENGTH) {
+         throw new IOException("gzip block size " + blockSize + " is too small.");
+      }
+      return new Header(bytes.toByteArray(), blockSize);
+   }
+
+   private int readByte(ByteArrayOutputStream bytes) throws IOException {
+      int b = in.read();
+      if (b < 0) {
+         throw new EOFException("Unexpected end of gzip header.");
+      }
+      bytes.write(b);
+      return b;
+   }
+
+   private int readShort(ByteArrayOutputStream bytes) throws IOException {
+      return readByte(bytes) | (readByte(bytes) << 8);
+   }
+
+   private void skipBytes(ByteArrayOutputStream bytes, int n) throws IOException {
+      for (int i = 0; i < n; i++) {
+         readByte(bytes);
+      }
+   }
+
+   private byte[] readFully(int length) throws IOException {
+      byte[] answer = new byte[length];
+      int numRead = 0;
+      while (numRead < length) {
+         int n = in.read(answer, numRead, length - numRead);
+         if (n < 0) {
+            throw new EOFException("Unexpected end of gzip data.");
+         }
+         numRead += n;
+      }
+      return answer;
+   }
+
+   // Queue members for decompression until the pipeline is full.  "header" is the header of the next member, if it
+   // has already been read.
+   private void fill(Header header) throws IOException {
+      while (!membersDone && pending.size() < maxPending) {
+         if (header == null) {
+            header = readHeader();
+         }
+         if (header == null) {
+            membersDone = true;
+         } else if (header.blockSize < 0) {
+            // We can't find the end of this member without inflating it; so, decompress the rest of the data
+            // sequentially.
+            membersDone = true;
+            sequential = new GZIPInputStream(new SequenceInputStream(new ByteArrayInputStream(header.bytes), in),
+                  SEQUENTIAL_BUFFER_SIZE);
+         } else {
+            final byte[] data = readFully(header.blockSize - header.bytes.length);
+            if (executor == null) {
+               executor = makeExecutor(numThreads);
+            }
+            pending.add(executor.submit(new Callable<byte[]>() {
+               public byte[] call() throws IOException {
+                  return inflate(data);
+               }
+            }));
+         }
+         header = null;
+      }
+   }
+
+   // Inflates the deflate data and trailer of one member (everything but the header).
+   static byte[] inflate(byte[] data) throws IOException {
+      int trailer = data.length - TRAILER_LENGTH;
+      long expectedCrc = readInt(data, trailer);
+      // Don't trust the recorded size with the allocation:  A corrupt value could be negative (as an int) or huge.
+      byte[] answer = new byte[(int) Math.min(readInt(data, trailer + 4), MAX_INITIAL_CAPACITY)];
+      int length = 0;
+      Inflater inflater = new Inflater(true);
+      try {
+         inflater.setInput(data, 0, trailer);
+         while (!inflater.finished()) {
+            if (length == answer.length) {
+               // The recorded size is only a hint (it is stored modulo 2^32, and may be wrong if the data is
+               // corrupt).
+               answer = Arrays.copyOf(answer, Math.max(64, 2 * answer.length));
+            }
+            int n = inflater.inflate(answer, length, answer.length - length);
+            if (n == 0 && !inflater.finished() && (inflater.needsInput() || inflater.needsDictionary())) {
+               throw new EOFException("Unexpected end of gzip member.");
+            }
+            length += n;
+         }
+         if (inflater.getRemaining() != 0) {
+            throw new IOException("gzip member is longer than its recorded size.");
+         }
+      } catch (DataFormatException e) {
+         throw new IOException("Invalid gzip data.", e);
+      } finally {
+         inflater.end();
+      }
+      CRC32 crc = new CRC32();
+      crc.update(answer, 0, length);
+      if (crc.getValue() != expectedCrc || (length & 0xffffffffL) != readInt(data, trailer + 4)) {
+         throw new IOException("gzip member failed CRC check.");
+      }
+      return length == answer.length ? answer : Arrays.copyOf(answer, length);
+   }
+
+   private static long readInt(byte[] data, int offset) {
+      return (data[offset] & 0xffL) | ((data[offset + 1] & 0xffL) << 8) | ((data[offset + 2] & 0xffL) << 16) |
+            ((data[offset + 3] & 0xffL) << 24);
+   }
+
+   // Returns false at the end of the data.
+   private boolean nextMember() throws IOException {
+      while (currentPos >= current.length) {
+         fill(null);
+         Future<byte[]> next = pending.poll();
+         if (next == null) {
+            shutdown();
+            return false;
+         }
+         try {
+            current = next.get();
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new java.io.InterruptedIOException("Interrupted while waiting for a gzip member.");
+         } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() :
+                  new IOException("Unable to decompress gzip member.", e.getCause());
+         }
+         currentPos = 0;
+      }
+      return true;
+   }
+
+   @Override
+   public int read() throws IOException {
+      ensureOpen();
+      if (!nextMember()) {
+         return sequential == null ? -1 : sequential.read();
+      }
+      return current[currentPos++] & 0xff;
+   }
+
+   @Override
+   public int read(byte[] b, int off, int len) throws IOException {
+      ensureOpen();
+      if (off < 0 || len < 0 || len > b.length - off) {
+         throw new IndexOutOfBoundsException();
+      }
+      if (len == 0) {
+         return 0;
+      }
+      if (!nextMember()) {
+         return sequential == null ? -1 : sequential.read(b, off, len);
+      }
+      int amount = Math.min(len, current.length - currentPos);
+      System.arraycopy(current, currentPos, b, off, amount);
+      currentPos += amount;
+      return amount;
+   }
+
+   @Override
+   public int available() throws IOException {
+      ensureOpen();
+      if (currentPos >= current.length && pending.isEmpty() && sequential != null) {
+         return sequential.available();
+      }
+      return current.length - currentPos;
+   }
+
+   @Override
+   public void close() throws IOException {
+      if (closed) {
+         return;
+      }
+      closed = true;
+      for (Future<byte[]> f : pending) {
+         f.cancel(true);
+      }
+      pending.clear();
+      shutdown();
+      if (sequential != null) {
+         // Releases the GZIPInputStream's Inflater (and closes in, through the SequenceInputStream).
+         sequential.close();
+      } else {
+         in.close();
+      }
+   }
+
+   // package scope to allow test to have access.
+   InputStream getSequential() {
+      return sequential;
+   }
+
+   private void shutdown() {
+      if (executor != null) {
+         executor.shutdownNow();
+      }
+   }
+
+   private void ensureOpen() throws IOException {
+      if (closed) {
+         throw new IOException("Stream closed.");
+      }
+   }
+}
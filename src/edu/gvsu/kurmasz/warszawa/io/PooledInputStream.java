@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A buffered {@code InputStream} (like {@code BufferedInputStream}) whose buffer comes from a {@link BufferPool}.
+ * The buffer is returned to the pool when the stream is closed.  (Unlike {@code BufferedInputStream}, this stream
+ * does not support {@code mark} and {@code reset}.)
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class PooledInputStream extends FilterInputStream {
+
+   /**
+    * The default buffer size (8KB, the same as {@code BufferedInputStream}).
+    */
+   public static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+
+   private final BufferPool pool;
+   private byte[] buffer;
+   private int pos = 0;
+   private int limit = 0;
+
+   /**
+    * Constructor.  Uses a buffer of at least {@link #DEFAULT_BUFFER_SIZE} bytes.
+    *
+    * @param in   the underlying stream
+    * @param pool the pool from which to take the buffer
+    */
+   public PooledInputStream(InputStream in, BufferPool pool) {
+      this(in, pool, DEFAULT_BUFFER_SIZE);
+   }
+
+   /**
+    * Constructor
+    *
+    * @param in         the underlying stream
+    * @param pool       the pool from which to take the buffer
+    * @param bufferSize the minimum size of the buffer
+    */
+   public PooledInputStream(InputStream in, BufferPool pool, int bufferSize) {
+      super(in);
+      if (in == null) {
+         throw new NullPointerException("parameter \"in\" cannot be null.");
+      }
+      if (pool == null) {
+         throw new NullPointerException("parameter \"pool\" cannot be null.");
+      }
+      if (bufferSize < 1) {
+         throw new IllegalArgumentException("bufferSize must be positive.");
+      }
+      this.pool = pool;
+      this.buffer = pool.getBytes(bufferSize);
+   }
+
+   // Returns false at the end of the stream.
+   private boolean ensureData() throws IOException {
+      if (buffer == null) {
+         throw new IOException("Stream closed.");
+      }
+      if (pos < limit) {
+         return true;
+      }
+      int n;
+      do {
+         n = in.read(buffer, 0, buffer.length);
+      } while (n == 0);
+      if (n < 0) {
+         return false;
+      }
+      pos = 0;
+      limit = n;
+      return true;
+   }
+
+   @Override
+   public int read() throws IOException {
+      if (!ensureData()) {
+         return -1;
+      }
+      return buffer[pos++] & 0xff;
+   }
+
+   @Override
+   public int read(byte[] b, int off, int len) throws IOException {
+      if (off < 0 || len < 0 || len > b.length - off) {
+         throw new IndexOutOfBoundsException();
+      }
+      if (buffer == null) {
+         throw new IOException("Stream closed.");
+      }
+      if (len == 0) {
+         return 0;
+      }
+      // Large reads bypass the buffer once it is empty.
+      if (pos >= limit && len >= buffer.length) {
+         return in.read(b, off, len);
+      }
+      if (!ensureData()) {
+         return -1;
+      }
+      int amount = Math.min(len, limit - pos);
+      System.arraycopy(buffer, pos, b, off, amount);
+      pos += amount;
+      return amount;
+   }
+
+   @Override
+   public long skip(long n) throws IOException {
+      if (buffer == null) {
+         throw new IOException("Stream closed.");
+      }
+      if (n <= 0) {
+         return 0;
+      }
+      if (pos < limit) {
+         int amount = (int) Math.min(n, limit - pos);
+         pos += amount;
+         return amount;
+      }
+      return in.skip(n);
+   }
+
+   @Override
+   public int available() throws IOException {
+      if (buffer == null) {
+         throw new IOException("Stream closed.");
+      }
+      int buffered = limit - pos;
+      int underlying = in.available();
+      return buffered > Integer.MAX_VALUE - underlying ? Integer.MAX_VALUE : buffered + underlying;
+   }
+
+   @Override
+   public boolean markSupported() {
+      return false;
+   }
+
+   @Override
+   public synchronized void mark(int readLimit) {
+      // not supported
+   }
+
+   @Override
+   public synchronized void reset() throws IOException {
+      throw new IOException("mark/reset not supported");
+   }
+
+   /**
+    * Closes the underlying stream and returns the buffer to the pool.
+    *
+    * @throws IOException if closing the underlying stream throws an exception.
+    */
+   @Override
+   public void close() throws IOException {
+      if (buffer != null) {
+         byte[] b = buffer;
+         buffer = null;
+         pool.release(b);
+         in.close();
+      }
+   }
+}
@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * A buffered {@code Writer} that encodes characters onto an {@code OutputStream}.  It does the work of a {@code
+ * BufferedWriter} wrapped around an {@code OutputStreamWriter}, but takes its character and byte buffers from a
+ * {@link BufferPool} and returns them when it is closed.  Like {@code OutputStreamWriter}, malformed and unmappable
+ * characters are replaced with the character set's default replacement.
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class PooledWriter extends Writer {
+
+   /**
+    * The default buffer size (8K characters, the same as {@code BufferedWriter}).
+    */
+   public static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+
+   private final OutputStream out;
+   private final BufferPool pool;
+   private final CharsetEncoder encoder;
+   private char[] charArray;
+   private byte[] byteArray;
+   private CharBuffer chars;
+   private ByteBuffer bytes;
+
+   /**
+    * Constructor.  Uses buffers of at least {@link #DEFAULT_BUFFER_SIZE} elements.
+    *
+    * @param out     the underlying stream
+    * @param charset the character set used to encode characters
+    * @param pool    the pool from which to take the buffers
+    */
+   public PooledWriter(OutputStream out, Charset charset, BufferPool pool) {
+      this(out, charset, pool, DEFAULT_BUFFER_SIZE);
+   }
+
+   /**
+    * Constructor
+    *
+    * @param out        the underlying stream
+    * @param charset    the character set used to encode characters
+    * @param pool       the pool from which to take the buffers
+    * @param bufferSize the minimum size of the character buffer
+    */
+   public PooledWriter(OutputStream out, Charset charset, BufferPool pool, int bufferSize) {
+      if (out == null) {
+         throw new NullPointerException("parameter \"out\" cannot be null.");
+      }
+      if (pool == null) {
+         throw new NullPointerException("parameter \"pool\" cannot be null.");
+      }
+      if (bufferSize < 1) {
+         throw new IllegalArgumentException("bufferSize must be positive.");
+      }
+      this.out = out;
+      this.pool = pool;
+      this.encoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+      this.charArray = pool.getChars(bufferSize);
+      // Big enough to encode at least one character, no matter the character set.
+      this.byteArray = pool.getBytes(Math.max(bufferSize, (int) Math.ceil(encoder.maxBytesPerChar()) * 2));
+      this.chars = CharBuffer.wrap(charArray);
+      this.bytes = ByteBuffer.wrap(byteArray);
+   }
+
+   private void ensureOpen() throws IOException {
+      if (chars == null) {
+         throw new IOException("Stream closed.");
+      }
+   }
+
+   private void writeBytes() throws IOException {
+      if (bytes.position() > 0) {
+         out.write(byteArray, 0, bytes.position());
+         ((Buffer) bytes).clear();   // (cast so the class also runs on Java 8)
+      }
+   }
+
+   // Encodes the buffered characters.  Any characters that can't yet be encoded (i.e., the first half of a
+   // surrogate pair) remain in the buffer.
+   private void encode(boolean endOfInput) throws IOException {
+      ((Buffer) chars).flip();
+      CoderResult result = encoder.encode(chars, bytes, endOfInput);
+      while (result.isOverflow()) {
+         writeBytes();
+         result = encoder.encode(chars, bytes, endOfInput);
+      }
+      chars.compact();
+      if (endOfInput) {
+         while (encoder.flush(bytes).isOverflow()) {
+            writeBytes();
+         }
+      }
+   }
+
+   @Override
+   public void write(int c) throws IOException {
+      synchronized (lock) {
+         ensureOpen();
+         if (!chars.hasRemaining()) {
+            encode(false);
+         }
+         chars.put((char) c);
+      }
+   }
+
+   @Override
+   public void write(char[] cbuf, int off, int len) throws IOException {
+      if (off < 0 || len < 0 || len > cbuf.length - off) {
+         throw new IndexOutOfBoundsException();
+      }
+      synchronized (lock) {
+         ensureOpen();
+         while (len > 0) {
+            if (!chars.hasRemaining()) {
+               encode(false);
+            }
+            int amount = Math.min(len, chars.remaining());
+            chars.put(cbuf, off, amount);
+            off += amount;
+            len -= amount;
+         }
+      }
+   }
+
+   @Override
+   public void write(String str, int off, int len) throws IOException {
+      if (off < 0 || len < 0 || len > str.length() - off) {
+         throw new IndexOutOfBoundsException();
+      }
+      synchronized (lock) {
+         ensureOpen();
+         while (len > 0) {
+            if (!chars.hasRemaining()) {
+               encode(false);
+            }
+            int amount = Math.min(len, chars.remaining());
+            str.getChars(off, off + amount, charArray, chars.position());
+            ((Buffer) chars).position(chars.position() + amount);
+            off += amount;
+            len -= amount;
+         }
+      }
+   }
+
+   @Override
+   public void flush() throws IOException {
+      synchronized (lock) {
+         ensureOpen();
+         encode(false);
+         writeBytes();
+         out.flush();
+      }
+   }
+
+   /**
+    * Flushes the buffered characters, closes the underlying stream, and returns the buffers to the pool.
+    *
+    * @throws IOException if writing to or closing the underlying stream throws an exception.
+    */
+   @Override
+   public void close() throws IOException {
+      synchronized (lock) {
+         if (chars == null) {
+            return;
+         }
+         try {
+            encode(true);
+            writeBytes();
+            out.close();
+         } finally {
+            chars = null;
+            bytes = null;
+            pool.release(charArray);
+            pool.release(byteArray);
+            charArray = null;
+            byteArray = null;
+         }
+      }
+   }
+}
@@ -0,0 +1,628 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+
+/**
+ * A {@code PrintWriter} that formats {@code int}s, {@code long}s, and {@code double}s directly into a byte buffer,
+ * without creating {@code String}s or running a {@code CharsetEncoder}, and writes the buffer to a channel (e.g., a
+ * {@code FileChannel}) or stream.  Characters are encoded without a {@code CharsetEncoder} when the character set
+ * is UTF-8, US-ASCII, or ISO-8859-1.  (Other character sets work, but use the usual encoder.)  Because it is a
+ * {@code PrintWriter}, it can replace the writers returned by {@link OutputHelper#openWriter(java.io.OutputStream,
+ * java.nio.charset.Charset, boolean)}.
+ *
+ * <p>By default, numbers are printed exactly as {@code String.valueOf} would print them.  Before Java 19, {@code
+ * Double.toString} sometimes printed more digits than necessary for large values (e.g., "1.9999999999999998E23"
+ * for 2e23).  So, on those versions, doubles of magnitude 10<sup>16</sup> or more are printed using {@code
+ * Double.toString}.  Optionally (see {@link #PrimitivePrintWriter(java.io.OutputStream, java.nio.charset.Charset,
+ * boolean, int, boolean)}), this writer instead prints the shortest decimal that reads back as the same {@code
+ * double} (which is what Java 19 and later print) for all values it can format.  In either case, doubles that need
+ * 16 or more significant digits are printed using {@code Double.toString}.</p>
+ *
+ * <p>Like {@code OutputStreamWriter}, malformed and unmappable characters are replaced with "?".  Like any {@code
+ * PrintWriter}, this class never throws {@code IOException}s; use {@link #checkError()}.</p>
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class PrimitivePrintWriter extends PrintWriter {
+
+   /**
+    * The default buffer size (64KB).
+    */
+   public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+   // Exact powers of ten that can be represented exactly as doubles
+   private static final double[] POWERS_OF_TEN = {
+         1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18,
+         1e19, 1e20, 1e21, 1e22
+   };
+
+   private static final double TWO_TO_THE_53 = 9007199254740992.0;
+
+   // Below this magnitude, Double.toString prints the shortest decimal on every Java version.  (Found by comparing
+   // the two on Java 17 for millions of values.)
+   private static final double COMPATIBLE_LIMIT = 1e16;
+
+   // True on Java 19 and later, where Double.toString always prints the shortest decimal.
+   private static final boolean TO_STRING_IS_SHORTEST = Double.toString(2e23).equals("2.0E23");
+
+   private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes();
+
+   private static final int ASCII = 0;
+   private static final int LATIN1 = 1;
+   private static final int UTF8 = 2;
+   private static final int OTHER = 3;
+
+   /**
+    * The {@code Writer} below the {@code PrintWriter}.  All output (including the numbers formatted by {@code
+    * PrimitivePrintWriter}) goes through its byte buffer.
+    */
+   private static class Sink extends Writer {
+      private final OutputStream out;
+      private final WritableByteChannel channel;
+      private final int mode;
+      private final byte[] bytes;
+      private int count = 0;
+      private char highSurrogate = 0;   // the first half of a surrogate pair split across calls
+      private boolean closed = false;
+      // Used only for OTHER character sets
+      private final Writer encoder;
+      private final char[] chars = new char[32];
+
+      Sink(OutputStream out, Charset charset, int bufferSize) {
+         this.out = out;
+         this.channel = out instanceof FileOutputStream ? ((FileOutputStream) out).getChannel() : null;
+         this.bytes = new byte[Math.max(bufferSize, 64)];
+         String name = charset.name();
+         if (name.equals("UTF-8")) {
+            mode = UTF8;
+         } else if (name.equals("US-ASCII")) {
+            mode = ASCII;
+         } else if (name.equals("ISO-8859-1")) {
+            mode = LATIN1;
+         } else {
+            mode = OTHER;
+         }
+         if (mode == OTHER) {
+            encoder = new OutputStreamWriter(new OutputStream() {
+               @Override
+               public void write(int b) throws IOException {
+                  if (count == bytes.length) {
+                     writeBuffer();
+                  }
+                  bytes[count++] = (byte) b;
+               }
+
+               @Override
+               public void write(byte[] b, int off, int len) throws IOException {
+                  writeBytes(b, off, len);
+               }
+            }, charset);
+         } else {
+            encoder = null;
+         }
+      }
+
+      void ensureOpen() throws IOException {
+         if (closed) {
+            throw new IOException("Stream closed.");
+         }
+      }
+
+      void writeBuffer() throws IOException {
+         if (count == 0) {
+            return;
+         }
+         if (channel != null) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, count);
+            while (buffer.hasRemaining()) {
+               channel.write(buffer);
+            }
+         } else {
+            out.write(bytes, 0, count);
+         }
+         count = 0;
+      }
+
+      // Makes room for "length" (no more than bytes.length) bytes.
+      void ensureRoom(int length) throws IOException {
+         if (count + length > bytes.length) {
+            writeBuffer();
+         }
+      }
+
+      void writeBytes(byte[] b, int off, int len) throws IOException {
+         if (len > bytes.length - count) {
+            writeBuffer();
+            if (len > bytes.length) {
+               if (channel != null) {
+                  ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+                  while (buffer.hasRemaining()) {
+                     channel.write(buffer);
+                  }
+               } else {
+                  out.write(b, off, len);
+               }
+               return;
+            }
+         }
+         System.arraycopy(b, off, bytes, count, len);
+         count += len;
+      }
+
+      // Writes characters known to be ASCII (e.g., a formatted number).
+      void writeAscii(byte[] b, int off, int len) throws IOException {
+         if (mode != OTHER) {
+            writeBytes(b, off, len);
+            return;
+         }
+         for (int i = 0; i < len; i++) {
+            chars[i] = (char) b[off + i];
+         }
+         encoder.write(chars, 0, len);
+      }
+
+      private void put(int b) {
+         bytes[count++] = (byte) b;
+      }
+
+      // Encodes one char (in a fast mode).  Assumes there is room for 4 bytes.
+      private void encode(char c) {
+         if (c < 0x80 && highSurrogate == 0) {
+            put(c);
+            return;
+         }
+         if (highSurrogate != 0) {
+            char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+               if (mode == UTF8) {
+                  int code = Character.toCodePoint(high, c);
+                  put(0xf0 | (code >> 18));
+                  put(0x80 | ((code >> 12) & 0x3f));
+                  put(0x80 | ((code >> 6) & 0x3f));
+                  put(0x80 | (code & 0x3f));
+               } else {
+                  put('?');
+               }
+               return;
+            }
+            put('?');   // a lone high surrogate
+            encode(c);
+            return;
+         }
+         if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+         } else if (Character.isLowSurrogate(c)) {
+            put('?');
+         } else if (mode == UTF8) {
+            if (c < 0x800) {
+               put(0xc0 | (c >> 6));
+            } else {
+               put(0xe0 | (c >> 12));
+               put(0x80 | ((c >> 6) & 0x3f));
+            }
+            put(0x80 | (c & 0x3f));
+         } else if (mode == LATIN1 && c < 0x100) {
+            put(c);
+         } else {
+            put('?');
+         }
+      }
+
+      @Override
+      public void write(int c) throws IOException {
+         ensureOpen();
+         if (mode == OTHER) {
+            encoder.write(c);
+            return;
+         }
+         ensureRoom(8);
+         encode((char) c);
+      }
+
+      @Override
+      public void write(char[] cbuf, int off, int len) throws IOException {
+         if (off < 0 || len < 0 || len > cbuf.length - off) {
+            throw new IndexOutOfBoundsException();
+         }
+         ensureOpen();
+         if (mode == OTHER) {
+            encoder.write(cbuf, off, len);
+            return;
+         }
+         for (int end = off + len; off < end; ) {
+            // Each char needs at most 4 bytes (plus 1 for a pending lone surrogate).
+            ensureRoom(8);
+            int stop = Math.min(end, off + (bytes.length - count - 4) / 4);
+            if (mode == ASCII || mode == LATIN1 || highSurrogate == 0) {
+               // Copy the leading ASCII characters without examining them further.
+               while (off < stop && cbuf[off] < 0x80 && highSurrogate == 0) {
+                  bytes[count++] = (byte) cbuf[off++];
+               }
+            }
+            for (; off < stop; off++) {
+               encode(cbuf[off]);
+            }
+         }
+      }
+
+      @Override
+      public void write(String str, int off, int len) throws IOException {
+         if (off < 0 || len < 0 || len > str.length() - off) {
+            throw new IndexOutOfBoundsException();
+         }
+         ensureOpen();
+         if (mode == OTHER) {
+            encoder.write(str, off, len);
+            return;
+         }
+         for (int end = off + len; off < end; ) {
+            ensureRoom(8);
+            int stop = Math.min(end, off + (bytes.length - count - 4) / 4);
+            for (; off < stop; off++) {
+               char c = str.charAt(off);
+               if (c < 0x80 && highSurrogate == 0) {
+                  bytes[count++] = (byte) c;
+               } else {
+                  encode(c);
+               }
+            }
+         }
+      }
+
+      @Override
+      public void flush() throws IOException {
+         ensureOpen();
+         if (encoder != null) {
+            encoder.flush();
+         }
+         writeBuffer();
+         out.flush();
+      }
+
+      @Override
+      public void close() throws IOException {
+         if (closed) {
+            return;
+         }
+         try {
+            if (highSurrogate != 0) {
+               highSurrogate = 0;
+               ensureRoom(1);
+               put('?');
+            }
+            if (encoder != null) {
+               encoder.flush();
+            }
+            writeBuffer();
+         } finally {
+            closed = true;
+            out.close();
+         }
+      }
+   }
+
+   private final Sink sink;
+   private final boolean shortestDoubles;
+   // Holds one formatted number
+   private final byte[] digits = new byte[32];
+
+   /**
+    * Constructor.  Uses a buffer of {@link #DEFAULT_BUFFER_SIZE} bytes.  If {@code out} is a {@code
+    * FileOutputStream}, its {@code FileChannel} is used.
+    *
+    * @param out       the underlying stream
+    * @param charset   the character set used to encode characters
+    * @param autoflush if {@code true}, the {@code println}, {@code printf}, or {@code format} methods will flush the
+    *                  output buffer.
+    */
+   public PrimitivePrintWriter(OutputStream out, Charset charset, boolean autoflush) {
+      this(out, charset, autoflush, DEFAULT_BUFFER_SIZE);
+   }
+
+   /**
+    * Constructor
+    *
+    * @param out        the underlying stream.  If {@code out} is a {@code FileOutputStream}, its {@code FileChannel}
+    *                   is used.
+    * @param charset    the character set used to encode characters
+    * @param autoflush  if {@code true}, the {@code println}, {@code printf}, or {@code format} methods will flush
+    *                   the output buffer.
+    * @param bufferSize the size of the byte buffer
+    */
+   public PrimitivePrintWriter(OutputStream out, Charset charset, boolean autoflush, int bufferSize) {
+      this(out, charset, autoflush, bufferSize, false);
+   }
+
+   /**
+    * Constructor
+    *
+    * @param out             the underlying stream.  If {@code out} is a {@code FileOutputStream}, its {@code
+    *                        FileChannel} is used.
+    * @param charset         the character set used to encode characters
+    * @param autoflush       if {@code true}, the {@code println}, {@code printf}, or {@code format} methods will
+    *                        flush the output buffer.
+    * @param bufferSize      the size of the byte buffer
+    * @param shortestDoubles if {@code true}, {@code double}s are printed as the shortest decimal that reads back as
+    *                        the same value, even when (before Java 19) {@code String.valueOf} would print more
+    *                        digits.
+    */
+   public PrimitivePrintWriter(OutputStream out, Charset charset, boolean autoflush, int bufferSize,
+                               boolean shortestDoubles) {
+      this(makeSink(out, charset, bufferSize), autoflush, shortestDoubles);
+   }
+
+   private PrimitivePrintWriter(Sink sink, boolean autoflush, boolean shortestDoubles) {
+      super(sink, autoflush);
+      this.sink = sink;
+      this.shortestDoubles = shortestDoubles;
+   }
+
+   private static Sink makeSink(OutputStream out, Charset charset, int bufferSize) {
+      if (out == null) {
+         throw new NullPointerException("parameter \"out\" cannot be null.");
+      }
+      if (charset == null) {
+         throw new NullPointerException("parameter \"charset\" cannot be null.");
+      }
+      if (bufferSize < 1) {
+         throw new IllegalArgumentException("bufferSize must be positive.");
+      }
+      return new Sink(out, charset, bufferSize);
+   }
+
+   // Writes "digits[0 .. length)", which contains only ASCII characters.
+   private void writeDigits(int length) {
+      synchronized (lock) {
+         try {
+            sink.ensureOpen();
+            sink.writeAscii(digits, 0, length);
+         } catch (IOException e) {
+            setError();
+         }
+      }
+   }
+
+   @Override
+   public void print(int i) {
+      writeDigits(formatLong(i, digits, 0));
+   }
+
+   @Override
+   public void print(long l) {
+      writeDigits(formatLong(l, digits, 0));
+   }
+
+   @Override
+   public void print(double d) {
+      int length = formatDouble(d, digits, 0, shortestDoubles);
+      if (length < 0) {
+         write(Double.toString(d));
+      } else {
+         writeDigits(length);
+      }
+   }
+
+   ////////////////////////////////////////////////////////
+   //
+   // Formatting
+   //
+   ///////////////////////////////////////////////////////
+
+   // Writes the digits of "value" (which must not be negative) ending just before "end".  Returns the position of
+   // the first digit.
+   private static int writeDigitsBackward(long value, byte[] dst, int end) {
+      do {
+         long quotient = value / 10;
+         dst[--end] = (byte) ('0' + (value - quotient * 10));
+         value = quotient;
+      } while (value != 0);
+      return end;
+   }
+
+   private static int digitCount(long value) {
+      int count = 1;
+      while (value >= 10) {
+         value /= 10;
+         count++;
+      }
+      return count;
+   }
+
+   /**
+    * Formats {@code value} (as {@code Long.toString} would) into {@code dst} beginning at {@code pos}.
+    *
+    * @return the position after the last character written
+    */
+   static int formatLong(long value, byte[] dst, int pos) {
+      if (value == Long.MIN_VALUE) {
+         System.arraycopy(MIN_LONG, 0, dst, pos, MIN_LONG.length);
+         return pos + MIN_LONG.length;
+      }
+      if (value < 0) {
+         dst[pos++] = '-';
+         value = -value;
+      }
+      int end = pos + digitCount(value);
+      writeDigitsBackward(value, dst, end);
+      return end;
+   }
+
+   private static int put(byte[] dst, int pos, String s) {
+      for (int i = 0; i < s.length(); i++) {
+         dst[pos++] = (byte) s.charAt(i);
+      }
+      return pos;
+   }
+
+   // True if decimals spaced 10^-k apart are at least two ulps apart; so, at most one of them reads back as the
+   // double whose ulp is "ulp".
+   private static boolean coarse(double ulp, int k) {
+      return k >= 0 ? ulp * POWERS_OF_TEN[k] <= 0.5 : ulp <= 0.5 * POWERS_OF_TEN[-k];
+   }
+
+   // Returns the c such that c * 10^-k reads back as v, 0 if there is no such c, or -1 if this can't be determined
+   // exactly (because k is too large).
+   private static long findDigits(double v, double ulp, int k) {
+      if (!coarse(ulp, k)) {
+         return -1;
+      }
+      double scale = POWERS_OF_TEN[k >= 0 ? k : -k];
+      double scaled = k >= 0 ? v * scale : v / scale;
+      if (scaled >= TWO_TO_THE_53) {
+         return -1;
+      }
+      // Because the decimals are coarse, c is within 1/4 of v * 10^k, which "scaled" approximates to within one
+      // ulp.  So, c is either the nearest integer to "scaled", or its neighbor on the same side as "scaled".
+      long rounded = Math.round(scaled);
+      long c = rounded;
+      for (int i = 0; i < 2; i++) {
+         if (c > 0 && (k >= 0 ? c / scale : c * scale) == v) {
+            return c;
+         }
+         c = scaled > rounded ? rounded + 1 : rounded - 1;
+      }
+      return 0;
+   }
+
+   /**
+    * Formats {@code value} (as {@code Double.toString} would in Java 19 and later) into {@code dst} beginning at
+    * {@code pos}.  Returns -1 (without writing anything) if {@code value} needs more digits than this method can
+    * handle without extended precision, or if {@code shortest} is {@code false} and this version of {@code
+    * Double.toString} may print {@code value} differently.
+    *
+    * @return the position after the last character written, or -1.
+    */
+   static int formatDouble(double value, byte[] dst, int pos, boolean shortest) {
+      if (value != value) {
+         return put(dst, pos, "NaN");
+      }
+      if (value == Double.POSITIVE_INFINITY) {
+         return put(dst, pos, "Infinity");
+      }
+      if (value == Double.NEGATIVE_INFINITY) {
+         return put(dst, pos, "-Infinity");
+      }
+      if (value == 0) {
+         return put(dst, pos, 1 / value < 0 ? "-0.0" : "0.0");
+      }
+      double v = Math.abs(value);
+      if (!shortest && !TO_STRING_IS_SHORTEST && v >= COMPATIBLE_LIMIT) {
+         return -1;
+      }
+      double ulp = Math.ulp(v);
+
+      // Find the smallest k for which some c * 10^-k reads back as v.  If c * 10^-k reads back as v, so does
+      // (10 * c) * 10^-(k + 1); so, a binary search works.  At "low", v * 10^low < 1.  A double has at most 17
+      // significant digits, so the answer is no larger than low + 18.
+      int low = -(int) Math.floor((Math.getExponent(v) + 1) * 0.30103) - 1;
+      int high = low + 18;
+      if (low < -22) {
+         low = -22;
+      }
+      if (high > 22) {
+         high = 22;
+      }
+      long digits = -1;
+      int k = 0;
+      while (low <= high) {
+         int mid = (low + high) >> 1;
+         long c = findDigits(v, ulp, mid);
+         if (c < 0) {
+            high = mid - 1;
+         } else if (c == 0) {
+            low = mid + 1;
+         } else {
+            digits = c;
+            k = mid;
+            high = mid - 1;
+         }
+      }
+      if (digits < 0) {
+         return -1;
+      }
+      // c can end with zeros only if the smallest k was less than -22.
+      while (digits % 10 == 0) {
+         digits /= 10;
+         k--;
+      }
+      // Java prints at least two digits.  If c has only one, the closest two-digit decimal is 10 * c unless the
+      // two-digit decimals are too fine to distinguish.
+      if (digits < 10 && (k + 1 > 22 || k + 1 < -22 || !coarse(ulp, k + 1))) {
+         return -1;
+      }
+      if (value < 0) {
+         dst[pos++] = '-';
+      }
+      return formatDecimal(digits, k, dst, pos);
+   }
+
+   // Formats c * 10^-k in the style of Double.toString.  c has no trailing zeros.
+   private static int formatDecimal(long c, int k, byte[] dst, int pos) {
+      int length = digitCount(c);
+      int exponent = length - 1 - k;   // the power of ten of the first digit
+      if (exponent >= 0 && exponent < 7) {
+         int end = pos + length;
+         writeDigitsBackward(c, dst, end);
+         if (length <= exponent + 1) {
+            // An integer:  pad with zeros and add ".0"
+            while (end < pos + exponent + 1) {
+               dst[end++] = '0';
+            }
+            dst[end++] = '.';
+            dst[end++] = '0';
+            return end;
+         }
+         // Insert the decimal point.
+         int point = pos + exponent + 1;
+         System.arraycopy(dst, point, dst, point + 1, end - point);
+         dst[point] = '.';
+         return end + 1;
+      }
+      if (exponent < 0 && exponent >= -3) {
+         dst[pos++] = '0';
+         dst[pos++] = '.';
+         for (int i = -1; i > exponent; i--) {
+            dst[pos++] = '0';
+         }
+         writeDigitsBackward(c, dst, pos + length);
+         return pos + length;
+      }
+      // Scientific notation:  d.dddE[-]x
+      writeDigitsBackward(c, dst, pos + 1 + length);
+      dst[pos] = dst[pos + 1];
+      dst[pos + 1] = '.';
+      pos += 1 + length;
+      if (length == 1) {
+         dst[pos++] = '0';
+      }
+      dst[pos++] = 'E';
+      return formatLong(exponent, dst, pos);
+   }
+}
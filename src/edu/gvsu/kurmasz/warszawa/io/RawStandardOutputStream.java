@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An unsynchronized, buffered {@code OutputStream} attached directly to the standard output or standard error file
+ * descriptor.  {@code System.out} is a {@code PrintStream} that locks on every call and (usually) flushes after
+ * every line, and its internal buffer is only 8KB.  When a program writes large amounts of output to a pipe, using
+ * one of these streams instead (see {@link OutputHelper#makeRawOutputStreamMap()}) lets each {@code write} system
+ * call carry a full buffer.
+ *
+ * <p>There is one instance for each file descriptor ({@link #getStandardOutput()} and {@link
+ * #getStandardError()}).  Like {@code BufferedOutputStream}, these streams are not thread-safe.  Layers above them
+ * (such as the {@code PrintWriter}s returned by {@link OutputHelper}) provide the locking.  Use each stream from
+ * only one such layer at a time.</p>
+ *
+ * <p>Flushing follows these rules:</p>
+ * <ul>
+ * <li>Data is written when the buffer fills, and when {@link #flush()} or {@link #close()} is called.  Writing a
+ * newline does not flush.  Use an autoflushing writer for interactive output.</li>
+ * <li>When the JVM shuts down normally (i.e., {@code main} returns or {@code System.exit} is called), a shutdown
+ * hook flushes standard output, then standard error.  The hook can flush only data that has reached this stream:
+ * Writers layered on top (e.g., a {@code PrintWriter}) have their own buffers and must still be flushed or closed
+ * before the program ends.  Data still buffered when the JVM halts abnormally (e.g., {@code Runtime.halt} or a
+ * fatal signal) is lost.</li>
+ * <li>{@link #close()} only flushes.  The file descriptor remains open, because other code (including {@code
+ * System.out}) shares it.  Therefore, closing a writer attached to this stream is always safe.</li>
+ * <li>These streams and {@code System.out}/{@code System.err} are buffered separately.  Flush one before writing
+ * to the other, or their output may appear out of order.</li>
+ * </ul>
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class RawStandardOutputStream extends OutputStream {
+
+   /**
+    * The size of the buffer (64KB).
+    */
+   public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+   private static RawStandardOutputStream standardOutput = null;
+   private static RawStandardOutputStream standardError = null;
+   private static boolean hookInstalled = false;
+
+   private final OutputStream out;
+   private final byte[] buffer;
+   private int count = 0;
+
+   // package scope to allow test to have access.
+   RawStandardOutputStream(OutputStream out, int bufferSize) {
+      if (out == null) {
+         throw new NullPointerException("parameter \"out\" cannot be null.");
+      }
+      if (bufferSize < 1) {
+         throw new IllegalArgumentException("bufferSize must be positive.");
+      }
+      this.out = out;
+      this.buffer = new byte[bufferSize];
+   }
+
+   /**
+    * Returns the stream attached to the standard output's file descriptor.
+    *
+    * @return the stream attached to the standard output's file descriptor.
+    */
+   public static synchronized RawStandardOutputStream getStandardOutput() {
+      if (standardOutput == null) {
+         // We write to a FileOutputStream rather than its FileChannel:  A FileChannel closes when the writing thread
+         // is interrupted, which would close the standard output for the entire program.
+         standardOutput = new RawStandardOutputStream(new FileOutputStream(FileDescriptor.out), DEFAULT_BUFFER_SIZE);
+         installShutdownHook();
+      }
+      return standardOutput;
+   }
+
+   /**
+    * Returns the stream attached to the standard error's file descriptor.
+    *
+    * @return the stream attached to the standard error's file descriptor.
+    */
+   public static synchronized RawStandardOutputStream getStandardError() {
+      if (standardError == null) {
+         standardError = new RawStandardOutputStream(new FileOutputStream(FileDescriptor.err), DEFAULT_BUFFER_SIZE);
+         installShutdownHook();
+      }
+      return standardError;
+   }
+
+   private static void installShutdownHook() {
+      if (!hookInstalled) {
+         Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+            public void run() {
+               flushAll();
+            }
+         }, "RawStandardOutputStream-shutdown"));
+         hookInstalled = true;
+      }
+   }
+
+   // Called by the shutdown hook.  There is no one left to report errors (e.g., a closed pipe) to.
+   // package scope to allow test to have access.
+   static synchronized void flushAll() {
+      for (RawStandardOutputStream stream : new RawStandardOutputStream[]{standardOutput, standardError}) {
+         if (stream != null) {
+            try {
+               stream.flush();
+            } catch (IOException e) {
+               // Ignore
+            }
+         }
+      }
+   }
+
+   private void writeBuffer() throws IOException {
+      if (count > 0) {
+         // Reset count first so that a failed write (e.g., a closed pipe) isn't retried at shutdown.
+         int length = count;
+         count = 0;
+         out.write(buffer, 0, length);
+      }
+   }
+
+   @Override
+   public void write(int b) throws IOException {
+      if (count == buffer.length) {
+         writeBuffer();
+      }
+      buffer[count++] = (byte) b;
+   }
+
+   @Override
+   public void write(byte[] b, int off, int len) throws IOException {
+      if (off < 0 || len < 0 || len > b.length - off) {
+         throw new IndexOutOfBoundsException();
+      }
+      if (len > buffer.length - count) {
+         writeBuffer();
+         if (len >= buffer.length) {
+            out.write(b, off, len);
+            return;
+         }
+      }
+      System.arraycopy(b, off, buffer, count, len);
+      count += len;
+   }
+
+   @Override
+   public void flush() throws IOException {
+      writeBuffer();
+      out.flush();
+   }
+
+   /**
+    * Flushes the stream, but leaves the file descriptor open.
+    *
+    * @throws IOException if writing the buffered data fails
+    */
+   @Override
+   public void close() throws IOException {
+      flush();
+   }
+}
@@ -0,0 +1,320 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * An {@code InputStream} that reads from another {@code InputStream} on a background thread.  The background
+ * thread fills a bounded ring of buffers while the caller drains the other end.  This allows expensive filters
+ * (e.g., bzip2 decompression) to run concurrently with the code parsing the data.
+ *
+ * <p>If reading from the underlying stream throws an exception, the same exception is thrown by this stream's
+ * {@code read} methods once the data read before the failure has been consumed.</p>
+ *
+ * <p>Only the background thread uses the underlying stream (most streams are not thread-safe).  Therefore, if the
+ * background thread is in the middle of a {@code read} when {@link #close()} is called, the background thread (not
+ * the caller) closes the underlying stream when that {@code read} returns.</p>
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class ReadAheadInputStream extends InputStream {
+
+   /**
+    * The default number of buffers the background thread may fill ahead of the caller.
+    */
+   public static final int DEFAULT_DEPTH = 4;
+
+   /**
+    * The default size of each buffer (64KB).
+    */
+   public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+   private static int threadCount = 0;
+
+   // A buffer full of data, the end of the stream, or an exception.
+   private static class Chunk {
+      final byte[] data;
+      final int length;
+      final Throwable error;
+
+      Chunk(byte[] data, int length, Throwable error) {
+         this.data = data;
+         this.length = length;
+         this.error = error;
+      }
+   }
+
+   private static final Chunk END = new Chunk(null, -1, null);
+
+   private final InputStream in;
+   private final BlockingQueue<Chunk> full;
+   private final BlockingQueue<byte[]> empty;
+   private final Thread reader;
+   private volatile boolean closed = false;
+
+   // Guards readerDone and the decision of which thread closes "in".
+   private final Object closeLock = new Object();
+   private boolean readerDone = false;
+
+   // Accessed only by the consumer
+   private Chunk current = null;
+   private int pos = 0;
+   private boolean finished = false;
+   private Throwable error = null;
+
+   /**
+    * Constructor.  Uses {@link #DEFAULT_DEPTH} buffers of {@link #DEFAULT_BUFFER_SIZE} bytes.
+    *
+    * @param in the underlying stream.
+    */
+   public ReadAheadInputStream(InputStream in) {
+      this(in, DEFAULT_DEPTH, DEFAULT_BUFFER_SIZE);
+   }
+
+   /**
+    * Constructor
+    *
+    * @param in         the underlying stream.
+    * @param depth      the number of buffers the background thread may fill ahead of the caller.
+    * @param bufferSize the size of each buffer.
+    */
+   public ReadAheadInputStream(InputStream in, int depth, int bufferSize) {
+      if (in == null) {
+         throw new NullPointerException("parameter \"in\" cannot be null.");
+      }
+      if (depth < 1) {
+         throw new IllegalArgumentException("depth must be positive.");
+      }
+      if (bufferSize < 1) {
+         throw new IllegalArgumentException("bufferSize must be positive.");
+      }
+      this.in = in;
+
+      // The caller holds one buffer while the background thread fills the others.  The extra slot in "full"
+      // guarantees there is always room for END or an exception.
+      this.empty = new ArrayBlockingQueue<byte[]>(depth + 1);
+      this.full = new ArrayBlockingQueue<Chunk>(depth + 2);
+      for (int i = 0; i <= depth; i++) {
+         empty.add(new byte[bufferSize]);
+      }
+
+      reader = new Thread(new Runnable() {
+         public void run() {
+            readAhead();
+         }
+      }, nextThreadName());
+      reader.setDaemon(true);
+      reader.start();
+   }
+
+   private static synchronized String nextThreadName() {
+      return "ReadAheadInputStream-" + (threadCount++);
+   }
+
+   // Runs on the background thread.
+   private void readAhead() {
+      try {
+         while (!closed) {
+            byte[] buffer = empty.take();
+            int length = fill(buffer);
+            if (length < 0) {
+               full.put(END);
+               return;
+            }
+            full.put(new Chunk(buffer, length, null));
+         }
+      } catch (InterruptedException e) {
+         // close() was called.
+      } catch (Throwable t) {
+         if (!closed) {
+            full.offer(new Chunk(null, -1, t));
+         }
+      } finally {
+         synchronized (closeLock) {
+            readerDone = true;
+            if (closed) {
+               closeQuietly();
+            }
+         }
+      }
+   }
+
+   // Runs on the background thread when close() was called while it was still using "in".  There is no caller to
+   // report an exception to.
+   private void closeQuietly() {
+      try {
+         in.close();
+      } catch (Throwable t) {
+         // Ignore
+      }
+   }
+
+   // Reads at least one byte (unless the stream has ended), then keeps reading as long as doing so won't block.
+   private int fill(byte[] buffer) throws IOException {
+      int length = in.read(buffer, 0, buffer.length);
+      if (length < 0) {
+         return -1;
+      }
+      while (length < buffer.length && in.available() > 0) {
+         int n = in.read(buffer, length, buffer.length - length);
+         if (n < 0) {
+            break;
+         }
+         length += n;
+      }
+      return length;
+   }
+
+   private static void rethrow(Throwable t) throws IOException {
+      if (t instanceof IOException) {
+         throw (IOException) t;
+      } else if (t instanceof RuntimeException) {
+         throw (RuntimeException) t;
+      } else if (t instanceof Error) {
+         throw (Error) t;
+      }
+      throw new IOException(t);
+   }
+
+   // Returns false at the end of the stream.
+   private boolean ensureData(boolean block) throws IOException {
+      if (closed) {
+         throw new IOException("Stream closed.");
+      }
+      while (current == null || pos >= current.length) {
+         if (error != null) {
+            rethrow(error);
+         }
+         if (finished) {
+            return false;
+         }
+         if (current != null) {
+            empty.offer(current.data);
+            current = null;
+         }
+         Chunk next;
+         if (block) {
+            try {
+               next = full.take();
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+               throw new InterruptedIOException("Interrupted while waiting for data.");
+            }
+         } else {
+            next = full.poll();
+            if (next == null) {
+               return false;
+            }
+         }
+         if (next.error != null) {
+            error = next.error;
+            if (!block) {
+               // Return the data already copied; the exception will be thrown by the next read.
+               return false;
+            }
+         } else if (next == END) {
+            finished = true;
+         } else {
+            current = next;
+            pos = 0;
+         }
+      }
+      return true;
+   }
+
+   @Override
+   public int read() throws IOException {
+      if (!ensureData(true)) {
+         return -1;
+      }
+      return current.data[pos++] & 0xff;
+   }
+
+   @Override
+   public int read(byte[] b, int off, int len) throws IOException {
+      if (off < 0 || len < 0 || len > b.length - off) {
+         throw new IndexOutOfBoundsException();
+      }
+      if (len == 0) {
+         return 0;
+      }
+      if (!ensureData(true)) {
+         return -1;
+      }
+      // Copy from as many buffers as are ready; but, don't wait for more.
+      int copied = 0;
+      do {
+         int amount = Math.min(len - copied, current.length - pos);
+         System.arraycopy(current.data, pos, b, off + copied, amount);
+         pos += amount;
+         copied += amount;
+      } while (copied < len && ensureData(false));
+      return copied;
+   }
+
+   @Override
+   public int available() throws IOException {
+      if (closed) {
+         throw new IOException("Stream closed.");
+      }
+      return current == null ? 0 : current.length - pos;
+   }
+
+   /**
+    * Stops the background thread and closes the underlying stream.  If the background thread is still running, it
+    * closes the underlying stream once it stops (and any exception thrown when closing is lost); otherwise, the
+    * underlying stream is closed immediately.
+    *
+    * @throws IOException if closing the underlying stream throws an exception.
+    */
+   @Override
+   public void close() throws IOException {
+      if (finished || error != null) {
+         // The background thread has delivered its last chunk and is exiting.  Wait for it, so the underlying stream
+         // is closed here (and any exception reported).
+         try {
+            reader.join();
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+         }
+      }
+      boolean closeNow;
+      synchronized (closeLock) {
+         if (closed) {
+            return;
+         }
+         closed = true;
+         closeNow = readerDone;
+      }
+      if (!closeNow) {
+         reader.interrupt();
+      }
+      current = null;
+      full.clear();
+      empty.clear();
+      if (closeNow) {
+         in.close();
+      }
+   }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+
+/**
+ * A {@code PushbackInputStream} that reads the first few bytes of a stream when it is constructed, then pushes
+ * them back.  {@link InputHelper.FilterFactory}s can examine these bytes using {@link #startsWith(byte[])} to
+ * decide whether they recognize the stream.  Because the bytes are pushed back (and not re-read from the
+ * underlying stream), this works for streams that cannot be reopened or reset, such as the standard input.
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class SniffedInputStream extends PushbackInputStream {
+
+   private final byte[] header;
+
+   /**
+    * Constructor.  Reads up to {@code length} bytes from {@code in}.  (Note:  If {@code in} is attached to an
+    * interactive source, such as a terminal, this constructor blocks until {@code length} bytes are available, or
+    * the input ends.)
+    *
+    * @param in     the underlying stream
+    * @param length the number of bytes to examine
+    * @throws IOException              if reading from {@code in} throws an exception
+    * @throws IllegalArgumentException if {@code length} is negative.
+    */
+   public SniffedInputStream(InputStream in, int length) throws IOException {
+      super(in, Math.max(1, checkLength(length)));
+      byte[] buffer = new byte[length];
+      int numRead = 0;
+      while (numRead < length) {
+         int n = in.read(buffer, numRead, length - numRead);
+         if (n < 0) {
+            break;
+         }
+         numRead += n;
+      }
+      header = new byte[numRead];
+      System.arraycopy(buffer, 0, header, 0, numRead);
+      unread(header);
+   }
+
+   // The length must be checked before the call to super.
+   private static int checkLength(int length) {
+      if (length < 0) {
+         throw new IllegalArgumentException("length must not be negative.");
+      }
+      return length;
+   }
+
+   /**
+    * Returns a copy of the bytes examined when this stream was constructed.  The array may be shorter than the
+    * requested length if the stream was short.
+    *
+    * @return a copy of the first bytes of the stream.
+    */
+   public byte[] getHeader() {
+      return header.clone();
+   }
+
+   /**
+    * Returns {@code true} if the stream begins with the given bytes.
+    *
+    * @param magic the expected first bytes of the stream.  Must not be longer than the length passed to the
+    *              constructor.
+    * @return {@code true} if the stream begins with {@code magic}.
+    * @throws IllegalArgumentException if {@code magic} is longer than the number of bytes examined.
+    */
+   public boolean startsWith(byte[] magic) {
+      if (magic.length > buf.length) {
+         throw new IllegalArgumentException("Only the first " + buf.length + " bytes were examined.");
+      }
+      if (magic.length > header.length) {
+         return false;
+      }
+      for (int i = 0; i < magic.length; i++) {
+         if (magic[i] != header[i]) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Returns {@code true} if none of the examined bytes have been read yet.
+    *
+    * @return {@code true} if none of the examined bytes have been read yet.
+    */
+   public boolean atStart() {
+      return pos == buf.length - header.length;
+   }
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+/**
+ * The 32-bit xxHash checksum used by the LZ4 frame format.  Bytes may be added incrementally with {@link
+ * #update(byte[], int, int)}, or hashed all at once with {@link #hash(byte[], int, int, int)}.
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+final class XXHash32 {
+
+   private static final int PRIME1 = 0x9E3779B1;
+   private static final int PRIME2 = 0x85EBCA77;
+   private static final int PRIME3 = 0xC2B2AE3D;
+   private static final int PRIME4 = 0x27D4EB2F;
+   private static final int PRIME5 = 0x165667B1;
+
+   private final int seed;
+   private int v1, v2, v3, v4;
+   private long totalLength;
+   private final byte[] memory = new byte[16];   // bytes not yet part of a complete 16-byte stripe
+   private int memoryLength;
+
+   XXHash32(int seed) {
+      this.seed = seed;
+      reset();
+   }
+
+   void reset() {
+      v1 = seed + PRIME1 + PRIME2;
+      v2 = seed + PRIME2;
+      v3 = seed;
+      v4 = seed - PRIME1;
+      totalLength = 0;
+      memoryLength = 0;
+   }
+
+   private static int readInt(byte[] b, int i) {
+      return (b[i] & 0xff) | ((b[i + 1] & 0xff) << 8) | ((b[i + 2] & 0xff) << 16) | ((b[i + 3] & 0xff) << 24);
+   }
+
+   private static int round(int acc, int input) {
+      return Integer.rotateLeft(acc + input * PRIME2, 13) * PRIME1;
+   }
+
+   void update(byte[] b, int off, int len) {
+      totalLength += len;
+      int end = off + len;
+      if (memoryLength + len < 16) {
+         System.arraycopy(b, off, memory, memoryLength, len);
+         memoryLength += len;
+         return;
+      }
+      if (memoryLength > 0) {
+         int fill = 16 - memoryLength;
+         System.arraycopy(b, off, memory, memoryLength, fill);
+         v1 = round(v1, readInt(memory, 0));
+         v2 = round(v2, readInt(memory, 4));
+         v3 = round(v3, readInt(memory, 8));
+         v4 = round(v4, readInt(memory, 12));
+         off += fill;
+         memoryLength = 0;
+      }
+      int a1 = v1, a2 = v2, a3 = v3, a4 = v4;
+      for (; off <= end - 16; off += 16) {
+         a1 = round(a1, readInt(b, off));
+         a2 = round(a2, readInt(b, off + 4));
+         a3 = round(a3, readInt(b, off + 8));
+         a4 = round(a4, readInt(b, off + 12));
+      }
+      v1 = a1;
+      v2 = a2;
+      v3 = a3;
+      v4 = a4;
+      memoryLength = end - off;
+      System.arraycopy(b, off, memory, 0, memoryLength);
+   }
+
+   int getValue() {
+      int h;
+      if (totalLength >= 16) {
+         h = Integer.rotateLeft(v1, 1) + Integer.rotateLeft(v2, 7) + Integer.rotateLeft(v3, 12) +
+               Integer.rotateLeft(v4, 18);
+      } else {
+         h = seed + PRIME5;
+      }
+      h += (int) totalLength;
+      int i = 0;
+      for (; i <= memoryLength - 4; i += 4) {
+         h = Integer.rotateLeft(h + readInt(memory, i) * PRIME3, 17) * PRIME4;
+      }
+      for (; i < memoryLength; i++) {
+         h = Integer.rotateLeft(h + (memory[i] & 0xff) * PRIME5, 11) * PRIME1;
+      }
+      h ^= h >>> 15;
+      h *= PRIME2;
+      h ^= h >>> 13;
+      h *= PRIME3;
+      h ^= h >>> 16;
+      return h;
+   }
+
+   static int hash(byte[] b, int off, int len, int seed) {
+      XXHash32 x = new XXHash32(seed);
+      x.update(b, off, len);
+      return x.getValue();
+   }
+}
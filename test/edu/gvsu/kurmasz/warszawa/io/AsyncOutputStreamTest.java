@@ -0,0 +1,261 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class AsyncOutputStreamTest {
+
+   // Waits for "gate" before each write; counts flushes and closes.
+   private static class GatedOutputStream extends ByteArrayOutputStream {
+      final CountDownLatch gate;
+      int flushes = 0;
+      boolean closed = false;
+
+      GatedOutputStream(CountDownLatch gate) {
+         this.gate = gate;
+      }
+
+      @Override
+      public synchronized void write(byte[] b, int off, int len) {
+         try {
+            gate.await();
+         } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+         }
+         super.write(b, off, len);
+      }
+
+      @Override
+      public void flush() {
+         flushes++;
+      }
+
+      @Override
+      public void close() {
+         closed = true;
+      }
+   }
+
+   // Throws the given exception from every write.
+   private static class FailingOutputStream extends OutputStream {
+      final IOException exception;
+
+      FailingOutputStream(IOException exception) {
+         this.exception = exception;
+      }
+
+      @Override
+      public void write(int b) throws IOException {
+         throw exception;
+      }
+   }
+
+   private static GatedOutputStream open() {
+      return new GatedOutputStream(new CountDownLatch(0));
+   }
+
+   @Test(expected = NullPointerException.class)
+   public void throwsExceptionIfStreamNull() throws Throwable {
+      new AsyncOutputStream(null);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void throwsExceptionIfDepthNotPositive() throws Throwable {
+      new AsyncOutputStream(open(), 0, 10, AsyncOutputStream.Backpressure.BLOCK);
+   }
+
+   @Test
+   public void writesAllDataInOrder() throws Throwable {
+      byte[] data = new byte[1000000];
+      new Random(3).nextBytes(data);
+      GatedOutputStream underlying = open();
+      AsyncOutputStream out = new AsyncOutputStream(underlying, 3, 1000, AsyncOutputStream.Backpressure.BLOCK);
+      Random sizes = new Random(4);
+      int pos = 0;
+      while (pos < data.length) {
+         int length = Math.min(data.length - pos, sizes.nextInt(3000));
+         if (length == 1) {
+            out.write(data[pos]);
+         } else {
+            out.write(data, pos, length);
+         }
+         pos += length;
+      }
+      out.close();
+      assertTrue(underlying.closed);
+      assertArrayEquals(data, underlying.toByteArray());
+      assertEquals(data.length, out.getBytesWritten());
+      assertTrue(out.getMaxQueueDepth() >= 1);
+      assertEquals(0, out.getQueueDepth());
+   }
+
+   @Test
+   public void flushWaitsForData() throws Throwable {
+      GatedOutputStream underlying = open();
+      AsyncOutputStream out = new AsyncOutputStream(underlying);
+      out.write("Hello".getBytes());
+      out.flush();
+      assertEquals("Hello", underlying.toString());
+      assertEquals(1, underlying.flushes);
+      assertFalse(underlying.closed);
+      out.close();
+   }
+
+   @Test
+   public void failPolicyRejectsWritesWhenFull() throws Throwable {
+      CountDownLatch gate = new CountDownLatch(1);
+      GatedOutputStream underlying = new GatedOutputStream(gate);
+      AsyncOutputStream out = new AsyncOutputStream(underlying, 2, 4, AsyncOutputStream.Backpressure.FAIL);
+      // Fills both buffers.  The first is stuck in the gated write.
+      out.write("abcdefgh".getBytes());
+      try {
+         out.write('i');
+         fail("Should have thrown an exception");
+      } catch (AsyncOutputStream.BufferFullException e) {
+         // expected
+      }
+      assertEquals(1, out.getRejectedCount());
+      gate.countDown();
+      out.flush();   // frees the buffers
+      out.write('j');
+      out.close();
+      assertEquals("abcdefghj", underlying.toString());
+      assertEquals(0, out.getBlockedCount());
+   }
+
+   @Test
+   public void failPolicyRejectsWholeWrite() throws Throwable {
+      CountDownLatch gate = new CountDownLatch(1);
+      GatedOutputStream underlying = new GatedOutputStream(gate);
+      AsyncOutputStream out = new AsyncOutputStream(underlying, 2, 4, AsyncOutputStream.Backpressure.FAIL);
+      out.write("abc".getBytes());
+      try {
+         out.write("defghi".getBytes());
+         fail("Should have thrown an exception");
+      } catch (AsyncOutputStream.BufferFullException e) {
+         // expected
+      }
+      gate.countDown();
+      out.close();
+      assertEquals("abc", underlying.toString());
+   }
+
+   @Test
+   public void blockPolicyWaitsWhenFull() throws Throwable {
+      CountDownLatch gate = new CountDownLatch(1);
+      GatedOutputStream underlying = new GatedOutputStream(gate);
+      final AsyncOutputStream out = new AsyncOutputStream(underlying, 2, 4, AsyncOutputStream.Backpressure.BLOCK);
+      out.write("abcdefgh".getBytes());
+      Thread writer = new Thread(new Runnable() {
+         public void run() {
+            try {
+               out.write('i');
+            } catch (IOException e) {
+               throw new RuntimeException(e);
+            }
+         }
+      });
+      writer.start();
+      writer.join(200);
+      assertTrue("Write should block", writer.isAlive());
+      gate.countDown();
+      writer.join(5000);
+      assertFalse(writer.isAlive());
+      out.close();
+      assertEquals("abcdefghi", underlying.toString());
+      assertEquals(1, out.getBlockedCount());
+      assertTrue(out.getBlockedNanos() > 0);
+   }
+
+   @Test
+   public void rethrowsUnderlyingException() throws Throwable {
+      IOException exception = new IOException("Disk full");
+      AsyncOutputStream out = new AsyncOutputStream(new FailingOutputStream(exception), 2, 4,
+            AsyncOutputStream.Backpressure.BLOCK);
+      out.write("abcdefgh".getBytes());
+      try {
+         out.flush();
+         fail("Should have thrown an exception");
+      } catch (IOException e) {
+         assertSame(exception, e);
+      }
+      try {
+         out.write('x');
+         fail("Should have thrown an exception");
+      } catch (IOException e) {
+         assertSame(exception, e);
+      }
+      try {
+         out.close();
+         fail("Should have thrown an exception");
+      } catch (IOException e) {
+         assertSame(exception, e);
+      }
+   }
+
+   @Test(expected = IOException.class)
+   public void throwsExceptionIfWriteAfterClose() throws Throwable {
+      AsyncOutputStream out = new AsyncOutputStream(open());
+      out.close();
+      out.write(1);
+   }
+
+   @Test
+   public void openAsyncWriterWritesFilteredFile() throws Throwable {
+      File temp = File.createTempFile("warszawaTest", ".lz4");
+      try {
+         PrintWriter writer = OutputHelper.openAsyncWriter(temp.getAbsolutePath(), Charset.forName("UTF-8"), false);
+         for (int i = 0; i < 10000; i++) {
+            writer.println(i);
+         }
+         writer.close();
+         assertFalse(writer.checkError());
+         LineReader reader = InputHelper.openLineReader(temp.getAbsolutePath());
+         for (int i = 0; i < 10000; i++) {
+            assertEquals(i, reader.nextLine().parseInt());
+         }
+         assertNull(reader.nextLine());
+         reader.close();
+      } finally {
+         OutputHelperTest.deleteTempFile(temp);
+      }
+   }
+
+   @Test
+   public void openAsyncOutputStreamUsesMap() throws Throwable {
+      GatedOutputStream underlying = open();
+      AsyncOutputStream out = OutputHelper.openAsyncOutputStream("fred", java.util.Collections.<String,
+            OutputStream>singletonMap("fred", underlying), null, 2, 16, AsyncOutputStream.Backpressure.BLOCK);
+      out.write(Arrays.copyOf("x".getBytes(), 1));
+      out.close();
+      assertEquals("x", underlying.toString());
+   }
+}
@@ -0,0 +1,245 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import edu.gvsu.kurmasz.warszawa.listgen.RandomWithoutDuplicates;
+import edu.gvsu.kurmasz.warszawa.listgen.Range;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class BinaryArrayHelperTest {
+
+   private static long[] randomLongs(int length, long seed) {
+      Random random = new Random(seed);
+      long[] answer = new long[length];
+      for (int i = 0; i < length; i++) {
+         answer[i] = random.nextLong();
+      }
+      return answer;
+   }
+
+   private static byte[] toBytes(long[] data, ByteOrder order) throws IOException {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      BinaryArrayHelper.write(bytes, data, order);
+      return bytes.toByteArray();
+   }
+
+   private static File tempFile(String suffix) throws IOException {
+      File file = File.createTempFile("warszawaTest", suffix);
+      file.deleteOnExit();
+      return file;
+   }
+
+   @Test
+   public void writesHeader() throws Throwable {
+      byte[] bytes = toBytes(new long[]{1, 2, 3}, ByteOrder.BIG_ENDIAN);
+      assertEquals(BinaryArrayHelper.HEADER_SIZE + 24, bytes.length);
+      ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      assertEquals('W', buffer.get());
+      assertEquals('Z', buffer.get());
+      assertEquals('A', buffer.get());
+      assertEquals('R', buffer.get());
+      assertEquals(BinaryArrayHelper.VERSION, buffer.get());
+      assertEquals('J', buffer.get());
+      assertEquals('B', buffer.get());
+      assertEquals(0, buffer.get());
+      assertEquals(3L, buffer.getLong());
+      assertEquals(1L, buffer.getLong());
+      assertEquals(2L, buffer.getLong());
+      assertEquals(3L, buffer.getLong());
+   }
+
+   @Test
+   public void writesLittleEndian() throws Throwable {
+      byte[] bytes = toBytes(new long[]{0x0102030405060708L}, ByteOrder.LITTLE_ENDIAN);
+      assertEquals('L', bytes[6]);
+      assertEquals(8, bytes[BinaryArrayHelper.HEADER_SIZE]);
+      assertEquals(1, bytes[BinaryArrayHelper.HEADER_SIZE + 7]);
+   }
+
+   @Test
+   public void streamRoundTripsLongs() throws Throwable {
+      for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+         for (int length : new int[]{0, 1, 8191, 8192, 8193, 100000}) {
+            long[] data = randomLongs(length, length);
+            long[] observed = BinaryArrayHelper.readLongArray(new ByteArrayInputStream(toBytes(data, order)));
+            assertArrayEquals(data, observed);
+         }
+      }
+   }
+
+   @Test
+   public void streamRoundTripsInts() throws Throwable {
+      int[] data = new Range().generateIntArray(-50000, 50000, 3);
+      for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+         ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+         BinaryArrayHelper.write(bytes, data, order);
+         assertEquals(BinaryArrayHelper.HEADER_SIZE + 4 * data.length, bytes.size());
+         assertArrayEquals(data, BinaryArrayHelper.readIntArray(new ByteArrayInputStream(bytes.toByteArray())));
+      }
+   }
+
+   @Test
+   public void readsOnlyTheArrayFromStream() throws Throwable {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      BinaryArrayHelper.write(bytes, new long[]{5, 6}, ByteOrder.BIG_ENDIAN);
+      BinaryArrayHelper.write(bytes, new int[]{7}, ByteOrder.LITTLE_ENDIAN);
+      InputStream in = new ByteArrayInputStream(bytes.toByteArray());
+      assertArrayEquals(new long[]{5, 6}, BinaryArrayHelper.readLongArray(in));
+      assertArrayEquals(new int[]{7}, BinaryArrayHelper.readIntArray(in));
+      assertEquals(-1, in.read());
+   }
+
+   @Test(expected = IOException.class)
+   public void rejectsBadMagic() throws Throwable {
+      byte[] bytes = toBytes(new long[]{1}, ByteOrder.BIG_ENDIAN);
+      bytes[0] = 'X';
+      BinaryArrayHelper.readLongArray(new ByteArrayInputStream(bytes));
+   }
+
+   @Test(expected = IOException.class)
+   public void rejectsWrongType() throws Throwable {
+      BinaryArrayHelper.readIntArray(new ByteArrayInputStream(toBytes(new long[]{1}, ByteOrder.BIG_ENDIAN)));
+   }
+
+   @Test(expected = IOException.class)
+   public void rejectsBadVersion() throws Throwable {
+      byte[] bytes = toBytes(new long[]{1}, ByteOrder.BIG_ENDIAN);
+      bytes[4] = 99;
+      BinaryArrayHelper.readLongArray(new ByteArrayInputStream(bytes));
+   }
+
+   @Test(expected = EOFException.class)
+   public void throwsEOFExceptionIfStreamTruncated() throws Throwable {
+      byte[] bytes = toBytes(randomLongs(100, 1), ByteOrder.BIG_ENDIAN);
+      BinaryArrayHelper.readLongArray(new ByteArrayInputStream(bytes, 0, bytes.length - 1));
+   }
+
+   @Test(expected = EOFException.class)
+   public void throwsEOFExceptionIfFileTruncated() throws Throwable {
+      byte[] bytes = toBytes(randomLongs(100, 1), ByteOrder.BIG_ENDIAN);
+      File file = MemoryMappedInputStreamTest.makeTempFile(".bin", java.util.Arrays.copyOf(bytes, bytes.length - 8));
+      try {
+         BinaryArrayHelper.readLongArray(file);
+      } finally {
+         OutputHelperTest.deleteTempFile(file);
+      }
+   }
+
+   @Test
+   public void fileRoundTripsLongs() throws Throwable {
+      long[] data = new RandomWithoutDuplicates(new Random(4)).generateLongArray(0, 1000000, 50000);
+      File file = tempFile(".bin");
+      try {
+         BinaryArrayHelper.write(file.getPath(), data);
+         assertEquals(BinaryArrayHelper.HEADER_SIZE + 8 * data.length, file.length());
+         assertArrayEquals(data, BinaryArrayHelper.readLongArray(file.getPath()));
+         assertArrayEquals(data, BinaryArrayHelper.readLongArray(file));
+      } finally {
+         OutputHelperTest.deleteTempFile(file);
+      }
+   }
+
+   @Test
+   public void fileRoundTripsInts() throws Throwable {
+      int[] data = new Range().generateIntArray(0, 99999, 1);
+      File file = tempFile(".bin");
+      try {
+         BinaryArrayHelper.write(file.getPath(), data);
+         assertArrayEquals(data, BinaryArrayHelper.readIntArray(file.getPath()));
+      } finally {
+         OutputHelperTest.deleteTempFile(file);
+      }
+   }
+
+   @Test
+   public void compressesBySuffix() throws Throwable {
+      long[] data = new Range().generateLongArray(1, 200000, 1);
+      for (String suffix : new String[]{".bin.lz4", ".bin.bz2"}) {
+         File file = tempFile(suffix);
+         try {
+            BinaryArrayHelper.write(file.getPath(), data);
+            assertTrue(file.length() < BinaryArrayHelper.HEADER_SIZE + 8 * data.length);
+            assertArrayEquals(data, BinaryArrayHelper.readLongArray(file.getPath()));
+         } finally {
+            OutputHelperTest.deleteTempFile(file);
+         }
+      }
+   }
+
+   @Test
+   public void usesStreamMaps() throws Throwable {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      Map<String, OutputStream> outMap = new HashMap<String, OutputStream>();
+      outMap.put("-", bytes);
+      BinaryArrayHelper.write("-", outMap, null, new int[]{4, 5, 6}, ByteOrder.BIG_ENDIAN);
+
+      Map<String, InputStream> inMap = new HashMap<String, InputStream>();
+      inMap.put("-", new ByteArrayInputStream(bytes.toByteArray()));
+      assertArrayEquals(new int[]{4, 5, 6}, BinaryArrayHelper.readIntArray("-", inMap, null));
+   }
+
+   @Test
+   public void mapsLongsWithoutCopying() throws Throwable {
+      long[] data = randomLongs(10000, 9);
+      for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+         File file = MemoryMappedInputStreamTest.makeTempFile(".bin", toBytes(data, order));
+         try {
+            LongBuffer buffer = BinaryArrayHelper.mapLongs(file);
+            assertTrue(buffer.isReadOnly());
+            assertEquals(data.length, buffer.remaining());
+            for (int i = 0; i < data.length; i++) {
+               assertEquals(data[i], buffer.get(i));
+            }
+            assertArrayEquals(data, BinaryArrayHelper.readLongArray(file));
+         } finally {
+            OutputHelperTest.deleteTempFile(file);
+         }
+      }
+   }
+
+   @Test
+   public void mapsInts() throws Throwable {
+      int[] data = {3, -1, Integer.MAX_VALUE, Integer.MIN_VALUE};
+      File file = tempFile(".bin");
+      try {
+         BinaryArrayHelper.write(file.getPath(), OutputHelper.DEFAULT_OUTPUT_STREAM_MAP, null, data,
+               ByteOrder.LITTLE_ENDIAN);
+         IntBuffer buffer = BinaryArrayHelper.mapInts(file);
+         int[] observed = new int[buffer.remaining()];
+         buffer.get(observed);
+         assertArrayEquals(data, observed);
+      } finally {
+         OutputHelperTest.deleteTempFile(file);
+      }
+   }
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class BufferPoolTest {
+
+   @Test
+   public void sizeClassRoundsUpToPowerOfTwo() throws Throwable {
+      assertEquals(0, BufferPool.sizeClass(0));
+      assertEquals(0, BufferPool.sizeClass(BufferPool.MIN_SIZE));
+      assertEquals(1, BufferPool.sizeClass(BufferPool.MIN_SIZE + 1));
+      assertEquals(1, BufferPool.sizeClass(BufferPool.MIN_SIZE * 2));
+      assertEquals(-1, BufferPool.sizeClass(BufferPool.MAX_SIZE + 1));
+   }
+
+   @Test
+   public void returnsArraysAtLeastAsLongAsRequested() throws Throwable {
+      BufferPool pool = new BufferPool();
+      assertEquals(BufferPool.MIN_SIZE, pool.getBytes(1).length);
+      assertEquals(8192, pool.getBytes(5000).length);
+      assertEquals(8192, pool.getChars(8192).length);
+      assertEquals(1 << 20, pool.getInts(900000).length);
+      assertEquals(BufferPool.MAX_SIZE + 1, pool.getBytes(BufferPool.MAX_SIZE + 1).length);
+   }
+
+   @Test
+   public void reusesReleasedArrays() throws Throwable {
+      BufferPool pool = new BufferPool();
+      byte[] b = pool.getBytes(5000);
+      char[] c = pool.getChars(5000);
+      int[] i = pool.getInts(5000);
+      assertEquals(3, pool.getMisses());
+      assertEquals(0, pool.getHits());
+      pool.release(b);
+      pool.release(c);
+      pool.release(i);
+      assertEquals(3, pool.getIdleCount());
+
+      assertSame(b, pool.getBytes(4097));
+      assertSame(c, pool.getChars(8192));
+      assertSame(i, pool.getInts(6000));
+      assertEquals(3, pool.getHits());
+      assertEquals(3, pool.getMisses());
+      assertEquals(0, pool.getIdleCount());
+   }
+
+   @Test
+   public void doesNotMixSizeClasses() throws Throwable {
+      BufferPool pool = new BufferPool();
+      byte[] small = pool.getBytes(1000);
+      pool.release(small);
+      assertNotSame(small, pool.getBytes(2000));
+      assertSame(small, pool.getBytes(1000));
+   }
+
+   @Test
+   public void dropsArraysWhenClassIsFull() throws Throwable {
+      BufferPool pool = new BufferPool(2);
+      List<byte[]> arrays = new ArrayList<byte[]>();
+      for (int i = 0; i < 5; i++) {
+         arrays.add(pool.getBytes(1024));
+      }
+      for (byte[] b : arrays) {
+         pool.release(b);
+      }
+      assertEquals(2, pool.getIdleCount());
+      assertEquals(3, pool.getDiscards());
+   }
+
+   @Test
+   public void dropsArraysThatAreNotAClassSize() throws Throwable {
+      BufferPool pool = new BufferPool();
+      pool.release(new byte[1000]);
+      pool.release(new char[BufferPool.MIN_SIZE / 2]);
+      pool.release(new int[BufferPool.MAX_SIZE * 2]);
+      assertEquals(0, pool.getIdleCount());
+      assertEquals(3, pool.getDiscards());
+   }
+
+   @Test
+   public void clearDropsIdleArrays() throws Throwable {
+      BufferPool pool = new BufferPool();
+      pool.release(pool.getBytes(100));
+      pool.release(pool.getChars(100));
+      pool.clear();
+      assertEquals(0, pool.getIdleCount());
+      assertEquals(2, pool.getMisses());
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void constructorThrowsExceptionIfMaxPerClassNotPositive() throws Throwable {
+      new BufferPool(0);
+   }
+
+   @Test(expected = NullPointerException.class)
+   public void releaseThrowsExceptionIfNull() throws Throwable {
+      new BufferPool().release((byte[]) null);
+   }
+
+   @Test
+   public void isThreadSafe() throws Throwable {
+      final BufferPool pool = new BufferPool(4);
+      final int numThreads = 4;
+      final int numIterations = 5000;
+      final CountDownLatch start = new CountDownLatch(1);
+      final Throwable[] error = new Throwable[1];
+      Thread[] threads = new Thread[numThreads];
+      for (int t = 0; t < numThreads; t++) {
+         final byte marker = (byte) t;
+         threads[t] = new Thread() {
+            public void run() {
+               try {
+                  start.await();
+                  for (int i = 0; i < numIterations; i++) {
+                     byte[] b = pool.getBytes(2048);
+                     b[0] = marker;
+                     b[b.length - 1] = marker;
+                     Thread.yield();
+                     if (b[0] != marker || b[b.length - 1] != marker) {
+                        throw new AssertionError("Array shared by two threads");
+                     }
+                     pool.release(b);
+                  }
+               } catch (Throwable e) {
+                  synchronized (error) {
+                     error[0] = e;
+                  }
+               }
+            }
+         };
+         threads[t].start();
+      }
+      start.countDown();
+      for (Thread t : threads) {
+         t.join();
+      }
+      synchronized (error) {
+         assertNull(error[0]);
+      }
+      assertEquals(numThreads * numIterations, pool.getHits() + pool.getMisses());
+      assertTrue(pool.getIdleCount() <= 4);
+   }
+}
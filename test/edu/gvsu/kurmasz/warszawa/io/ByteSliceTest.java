@@ -0,0 +1,214 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class ByteSliceTest {
+
+   private static final byte[] DATA = "xxHello, World!yy".getBytes();
+
+   @Test
+   public void viewsRange() throws Throwable {
+      ByteSlice slice = new ByteSlice(DATA, 2, 13);
+      assertEquals(13, slice.length());
+      assertEquals('H', slice.charAt(0));
+      assertEquals('!', slice.charAt(12));
+      assertEquals((byte) 'W', slice.byteAt(7));
+      assertEquals("Hello, World!", slice.toString());
+      assertSame(DATA, slice.array());
+      assertEquals(2, slice.offset());
+   }
+
+   @Test
+   public void charAtTreatsBytesAsUnsigned() throws Throwable {
+      ByteSlice slice = new ByteSlice(new byte[]{(byte) 0xe9});
+      assertEquals('\u00e9', slice.charAt(0));
+   }
+
+   @Test(expected = IndexOutOfBoundsException.class)
+   public void byteAtChecksBounds() throws Throwable {
+      new ByteSlice(DATA, 2, 5).byteAt(5);
+   }
+
+   @Test(expected = IndexOutOfBoundsException.class)
+   public void constructorChecksBounds() throws Throwable {
+      new ByteSlice(DATA, 10, 10);
+   }
+
+   @Test
+   public void subSequenceSharesArray() throws Throwable {
+      ByteSlice slice = new ByteSlice(DATA, 2, 13).subSequence(7, 12);
+      assertEquals("World", slice.toString());
+      assertSame(DATA, slice.array());
+      assertEquals(9, slice.offset());
+   }
+
+   @Test
+   public void indexOfSearchesOnlySlice() throws Throwable {
+      ByteSlice slice = new ByteSlice(DATA, 2, 13);
+      assertEquals(4, slice.indexOf((byte) 'o', 0));
+      assertEquals(8, slice.indexOf((byte) 'o', 5));
+      assertEquals(-1, slice.indexOf((byte) 'x', 0));
+      assertEquals(-1, slice.indexOf((byte) 'y', 0));
+   }
+
+   @Test
+   public void contentEqualsComparesBytes() throws Throwable {
+      ByteSlice slice = new ByteSlice(DATA, 2, 5);
+      assertTrue(slice.contentEquals("Hello".getBytes()));
+      assertFalse(slice.contentEquals("Hell".getBytes()));
+      assertFalse(slice.contentEquals("Jello".getBytes()));
+   }
+
+   @Test
+   public void copyIsIndependent() throws Throwable {
+      byte[] data = "abc".getBytes();
+      ByteSlice copy = new ByteSlice(data).copy();
+      data[0] = 'z';
+      assertEquals("abc", copy.toString());
+   }
+
+   @Test
+   public void decodesCharset() throws Throwable {
+      Charset utf8 = Charset.forName("UTF-8");
+      ByteSlice slice = new ByteSlice("\u0141\u00f3d\u017a".getBytes(utf8));
+      assertEquals("\u0141\u00f3d\u017a", slice.toString(utf8));
+   }
+
+   @Test
+   public void worksWithPattern() throws Throwable {
+      assertTrue(Pattern.compile("W.rld").matcher(new ByteSlice(DATA, 2, 13)).find());
+   }
+
+   private static ByteSlice slice(String s) {
+      // Surround the number with other bytes to make sure the offset and length are respected.
+      byte[] bytes = ("9" + s + "9").getBytes();
+      return new ByteSlice(bytes, 1, bytes.length - 2);
+   }
+
+   private static void assertLongFails(String s) {
+      try {
+         slice(s).parseLong();
+         fail("Expected NumberFormatException for \"" + s + "\"");
+      } catch (NumberFormatException e) {
+         // expected
+      }
+   }
+
+   private static void assertDoubleFails(String s) {
+      try {
+         slice(s).parseDouble();
+         fail("Expected NumberFormatException for \"" + s + "\"");
+      } catch (NumberFormatException e) {
+         // expected
+      }
+   }
+
+   @Test
+   public void parseLongMatchesLongParseLong() throws Throwable {
+      String[] values = {"0", "-0", "+17", "42", "-42", "1234567890123", "9223372036854775807",
+            "-9223372036854775808", "000123"};
+      for (String value : values) {
+         assertEquals(value, Long.parseLong(value), slice(value).parseLong());
+      }
+   }
+
+   @Test
+   public void parseLongRejectsInvalidInput() throws Throwable {
+      String[] values = {"", "-", "+", "1a", " 1", "1 ", "9223372036854775808", "-9223372036854775809",
+            "99999999999999999999", "1.0"};
+      for (String value : values) {
+         assertLongFails(value);
+      }
+   }
+
+   @Test
+   public void parseIntAcceptsZeroPaddedInput() throws Throwable {
+      String[] values = {"000000000001", "+00000000042", "-00000000042", "0000000000000000000000000",
+            "000000000002147483647", "-000000000002147483648"};
+      for (String value : values) {
+         assertEquals(value, Integer.parseInt(value), slice(value).parseInt());
+      }
+   }
+
+   @Test
+   public void parseIntChecksRange() throws Throwable {
+      assertEquals(Integer.MAX_VALUE, slice("2147483647").parseInt());
+      assertEquals(Integer.MIN_VALUE, slice("-2147483648").parseInt());
+      assertEquals(-5, slice("-5").parseInt());
+      for (String value : new String[]{"2147483648", "-2147483649", "0000000002147483648", "99999999999999999999",
+            ""}) {
+         try {
+            slice(value).parseInt();
+            fail("Expected NumberFormatException for \"" + value + "\"");
+         } catch (NumberFormatException e) {
+            // expected
+         }
+      }
+   }
+
+   @Test
+   public void parseDoubleMatchesDoubleParseDouble() throws Throwable {
+      String[] values = {"0", "-0", "0.0", "1", "-1.5", "3.14159", ".5", "5.", "1e10", "1E-10", "-2.5e+3",
+            "0.000123", "123456789012345", "1234567890123456789", "0.1", "0.2", "0.3", "1.7976931348623157E308",
+            "4.9E-324", "1e400", "1e-400", "NaN", "-Infinity", "0x1p3", "2.5d", "123.456e-7",
+            "9007199254740993", "0.30000000000000004"};
+      for (String value : values) {
+         assertEquals(value, Double.doubleToLongBits(Double.parseDouble(value)),
+               Double.doubleToLongBits(slice(value).parseDouble()));
+      }
+   }
+
+   @Test
+   public void parseDoubleMatchesDoubleParseDoubleOnRandomValues() throws Throwable {
+      java.util.Random random = new java.util.Random(16);
+      for (int i = 0; i < 100000; i++) {
+         double d;
+         switch (i % 3) {
+            case 0:
+               d = random.nextDouble() * Math.pow(10, random.nextInt(40) - 20);
+               break;
+            case 1:
+               d = random.nextInt(1000000) / 100.0;
+               break;
+            default:
+               d = Double.longBitsToDouble(random.nextLong());
+         }
+         String value = Double.toString(d);
+         assertEquals(value, Double.doubleToLongBits(Double.parseDouble(value)),
+               Double.doubleToLongBits(slice(value).parseDouble()));
+      }
+   }
+
+   @Test
+   public void parseDoubleRejectsInvalidInput() throws Throwable {
+      for (String value : new String[]{"", "-", ".", "e5", "1e", "1e+", "1.2.3", " 1", "1 ", "abc", "1e5x"}) {
+         assertDoubleFails(value);
+      }
+   }
+}
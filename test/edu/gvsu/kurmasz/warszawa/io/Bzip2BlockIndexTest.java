@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class Bzip2BlockIndexTest {
+
+   private byte[] original;
+   private File file;
+
+   @Before
+   public void setUp() throws Throwable {
+      // Two streams, so the index must also handle stream boundaries.
+      byte[] part1 = ParallelBzip2InputStreamTest.makeText(330000, 21);
+      byte[] part2 = ParallelBzip2InputStreamTest.makeText(250000, 22);
+      original = new byte[part1.length + part2.length];
+      System.arraycopy(part1, 0, original, 0, part1.length);
+      System.arraycopy(part2, 0, original, part1.length, part2.length);
+      ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+      compressed.write(ParallelBzip2InputStreamTest.compress(part1, 1));
+      compressed.write(ParallelBzip2InputStreamTest.compress(part2, 2));
+      file = MemoryMappedInputStreamTest.makeTempFile(".bz2", compressed.toByteArray());
+   }
+
+   @After
+   public void tearDown() throws Throwable {
+      OutputHelperTest.deleteTempFile(Bzip2BlockIndex.sidecarFor(file));
+      OutputHelperTest.deleteTempFile(file);
+   }
+
+   private byte[] tail(long offset) {
+      return Arrays.copyOfRange(original, (int) offset, original.length);
+   }
+
+   @Test
+   public void indexDescribesBlocks() throws Throwable {
+      Bzip2BlockIndex index = Bzip2BlockIndex.build(file);
+      assertTrue("Expected several blocks, found " + index.getNumBlocks(), index.getNumBlocks() >= 4);
+      assertEquals(original.length, index.getUncompressedLength());
+      assertEquals(32, index.getBitOffset(0));
+      assertEquals(0, index.getUncompressedOffset(0));
+      for (int i = 1; i < index.getNumBlocks(); i++) {
+         assertTrue(index.getBitOffset(i) > index.getBitOffset(i - 1));
+         assertTrue(index.getUncompressedOffset(i) > index.getUncompressedOffset(i - 1));
+      }
+      assertTrue(index.isValidFor(file));
+   }
+
+   @Test
+   public void findBlockLocatesContainingBlock() throws Throwable {
+      Bzip2BlockIndex index = Bzip2BlockIndex.build(file);
+      assertEquals(0, index.findBlock(0));
+      assertEquals(0, index.findBlock(index.getUncompressedOffset(1) - 1));
+      assertEquals(1, index.findBlock(index.getUncompressedOffset(1)));
+      assertEquals(index.getNumBlocks() - 1, index.findBlock(original.length - 1));
+   }
+
+   @Test
+   public void opensAtArbitraryOffsets() throws Throwable {
+      Bzip2BlockIndex index = Bzip2BlockIndex.build(file);
+      long[] offsets = {0, 1, 99999, index.getUncompressedOffset(1), index.getUncompressedOffset(2) + 17,
+            330000, original.length - 1, original.length};
+      for (long offset : offsets) {
+         assertArrayEquals("Offset " + offset, tail(offset),
+               ParallelBzip2InputStreamTest.readAll(index.open(file, offset)));
+      }
+   }
+
+   @Test
+   public void indexSurvivesWriteAndRead() throws Throwable {
+      Bzip2BlockIndex index = Bzip2BlockIndex.build(file);
+      File saved = Bzip2BlockIndex.sidecarFor(file);
+      index.write(saved);
+      Bzip2BlockIndex loaded = Bzip2BlockIndex.read(saved);
+      assertEquals(index.getNumBlocks(), loaded.getNumBlocks());
+      assertEquals(index.getUncompressedLength(), loaded.getUncompressedLength());
+      for (int i = 0; i < index.getNumBlocks(); i++) {
+         assertEquals(index.getBitOffset(i), loaded.getBitOffset(i));
+         assertEquals(index.getUncompressedOffset(i), loaded.getUncompressedOffset(i));
+      }
+      assertTrue(loaded.isValidFor(file));
+   }
+
+   @Test
+   public void buildFromStreamMatchesBuildFromFile() throws Throwable {
+      Bzip2BlockIndex fromFile = Bzip2BlockIndex.build(file);
+      Bzip2BlockIndex fromStream = Bzip2BlockIndex.build(new FileInputStream(file));
+      assertEquals(fromFile.getNumBlocks(), fromStream.getNumBlocks());
+      assertEquals(fromFile.getUncompressedLength(), fromStream.getUncompressedLength());
+      assertTrue(fromStream.isValidFor(file));
+   }
+
+   @Test
+   public void staleIndexIsRebuilt() throws Throwable {
+      File sidecar = Bzip2BlockIndex.sidecarFor(file);
+      File other = MemoryMappedInputStreamTest.makeTempFile(".bz2", InputHelperTest.COMPRESSED_BZIPPED_MESSAGE);
+      try {
+         Bzip2BlockIndex.build(other).write(sidecar);
+         assertFalse(Bzip2BlockIndex.read(sidecar).isValidFor(file));
+         Bzip2BlockIndex index = Bzip2BlockIndex.loadOrBuild(file);
+         assertEquals(original.length, index.getUncompressedLength());
+         assertEquals("Sidecar should have been replaced", original.length,
+               Bzip2BlockIndex.read(sidecar).getUncompressedLength());
+      } finally {
+         OutputHelperTest.deleteTempFile(other);
+      }
+   }
+
+   @Test(expected = IOException.class)
+   public void readRejectsNonIndexFiles() throws Throwable {
+      Bzip2BlockIndex.read(file);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void openRejectsOffsetPastEnd() throws Throwable {
+      Bzip2BlockIndex.build(file).open(file, original.length + 1);
+   }
+
+   @Test
+   public void emptyFileHasNoBlocks() throws Throwable {
+      Bzip2BlockIndex index = Bzip2BlockIndex.build(
+            new ByteArrayInputStream(ParallelBzip2InputStreamTest.EMPTY_BZIP2_STREAM));
+      assertEquals(0, index.getNumBlocks());
+      assertEquals(-1, index.findBlock(0));
+      assertEquals(-1, index.open(file, 0).read());
+   }
+
+   @Test
+   public void inputHelperCreatesSidecar() throws Throwable {
+      File sidecar = Bzip2BlockIndex.sidecarFor(file);
+      assertFalse(sidecar.exists());
+      assertArrayEquals(tail(400000), ParallelBzip2InputStreamTest.readAll(
+            InputHelper.openBzip2InputStreamAt(file.getAbsolutePath(), 400000)));
+      assertTrue(sidecar.exists());
+      assertArrayEquals(tail(123), ParallelBzip2InputStreamTest.readAll(
+            InputHelper.openBzip2InputStreamAt(file, 123)));
+   }
+}
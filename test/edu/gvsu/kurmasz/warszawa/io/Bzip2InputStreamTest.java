@@ -0,0 +1,207 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.apache.tools.bzip2.CBZip2InputStream;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class Bzip2InputStreamTest {
+
+   private static byte[] decompress(byte[] compressed) throws IOException {
+      return ParallelBzip2InputStreamTest.readAll(new Bzip2InputStream(new ByteArrayInputStream(compressed)));
+   }
+
+   private static void verifyRoundTrip(byte[] original, int level) throws IOException {
+      assertArrayEquals(original, decompress(ParallelBzip2InputStreamTest.compress(original, level)));
+   }
+
+   private static byte[] concat(byte[]... arrays) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      for (byte[] a : arrays) {
+         out.write(a, 0, a.length);
+      }
+      return out.toByteArray();
+   }
+
+   @Test
+   public void decompressesSmallMessage() throws Throwable {
+      assertEquals(InputHelperTest.UNCOMPRESSED_BZIPPED_MESSAGE,
+            new String(decompress(InputHelperTest.COMPRESSED_BZIPPED_MESSAGE)));
+   }
+
+   @Test
+   public void decompressesText() throws Throwable {
+      verifyRoundTrip(ParallelBzip2InputStreamTest.makeText(350000, 31), 1);
+      verifyRoundTrip(ParallelBzip2InputStreamTest.makeText(350000, 32), 9);
+   }
+
+   @Test
+   public void decompressesRandomBytes() throws Throwable {
+      byte[] original = new byte[200000];
+      new Random(33).nextBytes(original);
+      verifyRoundTrip(original, 2);
+   }
+
+   @Test
+   public void decompressesEveryByteValue() throws Throwable {
+      byte[] original = new byte[256 * 3];
+      for (int i = 0; i < original.length; i++) {
+         original[i] = (byte) (i * 7);
+      }
+      verifyRoundTrip(original, 9);
+   }
+
+   @Test
+   public void decompressesRuns() throws Throwable {
+      // Runs of 4 or more bytes are run-length encoded before the BWT.  Check the boundaries.
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      int[] lengths = {1, 2, 3, 4, 5, 6, 250, 254, 255, 256, 259, 260, 261, 1000, 4, 4, 3, 4};
+      for (int i = 0; i < lengths.length; i++) {
+         for (int j = 0; j < lengths[i]; j++) {
+            out.write('a' + (i % 2));
+         }
+      }
+      verifyRoundTrip(out.toByteArray(), 9);
+   }
+
+   // CBZip2OutputStream writes highly repetitive data as "randomized" blocks.
+   @Test
+   public void decompressesSingleRepeatedByte() throws Throwable {
+      byte[] original = new byte[300000];
+      Arrays.fill(original, (byte) 'x');
+      verifyRoundTrip(original, 1);
+      verifyRoundTrip(new byte[]{'x'}, 9);
+   }
+
+   @Test
+   public void matchesBundledDecoder() throws Throwable {
+      byte[] compressed = ParallelBzip2InputStreamTest.compress(ParallelBzip2InputStreamTest.makeText(150000, 34), 1);
+      byte[] expected = ParallelBzip2InputStreamTest.readAll(
+            new CBZip2InputStream(new ByteArrayInputStream(compressed, 2, compressed.length - 2)));
+      assertArrayEquals(expected, decompress(compressed));
+   }
+
+   @Test
+   public void singleByteReadsMatchBulkReads() throws Throwable {
+      byte[] original = ParallelBzip2InputStreamTest.makeText(20000, 35);
+      InputStream in = new Bzip2InputStream(
+            new ByteArrayInputStream(ParallelBzip2InputStreamTest.compress(original, 9)));
+      for (int i = 0; i < original.length; i++) {
+         assertEquals("Byte " + i, original[i] & 0xff, in.read());
+      }
+      assertEquals(-1, in.read());
+      assertEquals(-1, in.read());
+      in.close();
+   }
+
+   @Test
+   public void decompressesConcatenatedStreams() throws Throwable {
+      byte[] part1 = ParallelBzip2InputStreamTest.makeText(1000, 36);
+      byte[] part2 = ParallelBzip2InputStreamTest.makeText(120000, 37);
+      byte[] compressed = concat(ParallelBzip2InputStreamTest.compress(part1, 9),
+            ParallelBzip2InputStreamTest.EMPTY_BZIP2_STREAM, ParallelBzip2InputStreamTest.compress(part2, 1));
+      assertArrayEquals(concat(part1, part2), decompress(compressed));
+   }
+
+   @Test
+   public void handlesEmptyStream() throws Throwable {
+      assertEquals(0, decompress(ParallelBzip2InputStreamTest.EMPTY_BZIP2_STREAM).length);
+   }
+
+   @Test
+   public void ignoresTrailingGarbage() throws Throwable {
+      byte[] original = ParallelBzip2InputStreamTest.makeText(1000, 38);
+      assertArrayEquals(original, decompress(concat(ParallelBzip2InputStreamTest.compress(original, 9),
+            "garbage".getBytes())));
+   }
+
+   @Test
+   public void acceptsConsumedMagic() throws Throwable {
+      byte[] compressed = InputHelperTest.COMPRESSED_BZIPPED_MESSAGE;
+      InputStream in = new Bzip2InputStream(new ByteArrayInputStream(compressed, 2, compressed.length - 2), true);
+      assertEquals(InputHelperTest.UNCOMPRESSED_BZIPPED_MESSAGE, new String(ParallelBzip2InputStreamTest.readAll(in)));
+   }
+
+   @Test(expected = IOException.class)
+   public void rejectsBadHeader() throws Throwable {
+      new Bzip2InputStream(new ByteArrayInputStream("BZx9".getBytes()));
+   }
+
+   @Test(expected = IOException.class)
+   public void rejectsMissingMagic() throws Throwable {
+      new Bzip2InputStream(new ByteArrayInputStream("Hello".getBytes()));
+   }
+
+   @Test(expected = IOException.class)
+   public void detectsTruncation() throws Throwable {
+      byte[] compressed = ParallelBzip2InputStreamTest.compress(ParallelBzip2InputStreamTest.makeText(5000, 39), 9);
+      decompress(Arrays.copyOf(compressed, compressed.length / 2));
+   }
+
+   @Test
+   public void detectsBlockCrcError() throws Throwable {
+      byte[] compressed = ParallelBzip2InputStreamTest.compress(ParallelBzip2InputStreamTest.makeText(5000, 40), 9);
+      compressed[11] ^= 0x10;   // inside the block CRC (bytes 10 through 13)
+      try {
+         decompress(compressed);
+         fail("Expected CRC error");
+      } catch (IOException e) {
+         assertTrue(e.getMessage(), e.getMessage().contains("CRC"));
+      }
+   }
+
+   @Test
+   public void detectsStreamCrcError() throws Throwable {
+      byte[] compressed = InputHelperTest.COMPRESSED_BZIPPED_MESSAGE.clone();
+      // The combined CRC ends 0 to 7 bits before the end of the stream.  Flipping a bit in the second-to-last
+      // byte always hits it.
+      compressed[compressed.length - 2] ^= 0x01;
+      try {
+         decompress(compressed);
+         fail("Expected CRC error");
+      } catch (IOException e) {
+         assertTrue(e.getMessage(), e.getMessage().contains("CRC"));
+      }
+   }
+
+   @Test(expected = IOException.class)
+   public void detectsCorruptData() throws Throwable {
+      byte[] compressed = ParallelBzip2InputStreamTest.compress(ParallelBzip2InputStreamTest.makeText(50000, 41), 9);
+      for (int i = 40; i < compressed.length - 20; i += 97) {
+         compressed[i] ^= 0x5a;
+      }
+      decompress(compressed);
+   }
+
+   @Test(expected = IOException.class)
+   public void readAfterCloseThrowsException() throws Throwable {
+      InputStream in = new Bzip2InputStream(new ByteArrayInputStream(InputHelperTest.COMPRESSED_BZIPPED_MESSAGE));
+      in.close();
+      in.read();
+   }
+}
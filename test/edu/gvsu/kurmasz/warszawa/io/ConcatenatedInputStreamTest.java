@@ -0,0 +1,241 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static edu.gvsu.kurmasz.warszawa.io.ParallelBzip2InputStreamTest.compress;
+import static edu.gvsu.kurmasz.warszawa.io.ParallelBzip2InputStreamTest.makeText;
+import static edu.gvsu.kurmasz.warszawa.io.ParallelBzip2InputStreamTest.readAll;
+import static org.junit.Assert.*;
+
+/**
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class ConcatenatedInputStreamTest {
+
+   private File dir;
+   private List<String> names;
+   private byte[][] contents;
+
+   private String write(String name, byte[] data) throws IOException {
+      File file = new File(dir, name);
+      OutputStream out = new FileOutputStream(file);
+      out.write(data);
+      out.close();
+      return file.getPath();
+   }
+
+   @Before
+   public void setUp() throws Throwable {
+      dir = java.nio.file.Files.createTempDirectory("ConcatenatedInputStreamTest").toFile();
+      names = new ArrayList<String>();
+      contents = new byte[5][];
+      for (int i = 0; i < contents.length; i++) {
+         contents[i] = makeText(20000 + 1000 * i, 100 + i);
+         names.add(i % 2 == 0 ? write("part-" + i + ".bz2", compress(contents[i], 1)) :
+               write("part-" + i + ".txt", contents[i]));
+      }
+   }
+
+   @After
+   public void tearDown() throws Throwable {
+      for (File file : dir.listFiles()) {
+         OutputHelperTest.deleteTempFile(file);
+      }
+      OutputHelperTest.deleteTempFile(dir);
+   }
+
+   private static byte[] concat(byte[]... arrays) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      for (byte[] a : arrays) {
+         out.write(a, 0, a.length);
+      }
+      return out.toByteArray();
+   }
+
+   @Test
+   public void readsFilesInOrder() throws Throwable {
+      assertArrayEquals(concat(contents), readAll(InputHelper.openConcatenatedInputStream(names)));
+   }
+
+   @Test
+   public void readsFilesInOrderWithPrefetchOfOne() throws Throwable {
+      InputStream in = InputHelper.openConcatenatedInputStream(names, null, InputHelper.DEFAULT_FILTER_FACTORY_MAP,
+            1, true);
+      assertArrayEquals(concat(contents), readAll(in));
+   }
+
+   @Test
+   public void singleByteReadsMatchBulkReads() throws Throwable {
+      byte[] expected = concat(contents);
+      InputStream in = InputHelper.openConcatenatedInputStream(names);
+      for (int i = 0; i < expected.length; i++) {
+         assertEquals("Byte " + i, expected[i] & 0xff, in.read());
+      }
+      assertEquals(-1, in.read());
+      in.close();
+   }
+
+   @Test
+   public void handlesEmptyListAndEmptyFiles() throws Throwable {
+      assertEquals(-1, InputHelper.openConcatenatedInputStream(new ArrayList<String>()).read());
+      List<String> withEmpty = Arrays.asList(write("empty1.txt", new byte[0]), names.get(1),
+            write("empty2.txt", new byte[0]));
+      assertArrayEquals(contents[1], readAll(InputHelper.openConcatenatedInputStream(withEmpty)));
+   }
+
+   @Test
+   public void unorderedModeDoesNotWaitForSlowFiles() throws Throwable {
+      Map<String, InputHelper.FilterFactory> filterMap = new HashMap<String, InputHelper.FilterFactory>();
+      filterMap.put("slow", new InputHelper.FilterFactory() {
+         public InputStream makeFilter(InputStream in) {
+            try {
+               Thread.sleep(500);
+            } catch (InterruptedException e) {
+               throw new FilterFactoryException("Interrupted", e);
+            }
+            return in;
+         }
+      });
+      List<String> files = Arrays.asList(write("a.slow", "slow\n".getBytes()), write("b.txt", "fast\n".getBytes()));
+      InputStream in = InputHelper.openConcatenatedInputStream(files, null, filterMap, 2, false);
+      assertEquals("fast\nslow\n", new String(readAll(in)));
+      in = InputHelper.openConcatenatedInputStream(files, null, filterMap, 2, true);
+      assertEquals("slow\nfast\n", new String(readAll(in)));
+   }
+
+   @Test
+   public void unorderedModeReadsEveryFileIntact() throws Throwable {
+      byte[] all = readAll(InputHelper.openConcatenatedInputStream(names, null,
+            InputHelper.DEFAULT_FILTER_FACTORY_MAP, 3, false));
+      assertEquals(concat(contents).length, all.length);
+      String text = new String(all, "ISO-8859-1");
+      for (byte[] c : contents) {
+         assertTrue(text.contains(new String(c, "ISO-8859-1")));
+      }
+   }
+
+   @Test
+   public void usesStreamMap() throws Throwable {
+      Map<String, InputStream> streamMap = new HashMap<String, InputStream>();
+      streamMap.put("fred", new ByteArrayInputStream("Fred".getBytes()));
+      InputStream in = InputHelper.openConcatenatedInputStream(Arrays.asList("fred", names.get(1)), streamMap,
+            null, 2, true);
+      assertArrayEquals(concat("Fred".getBytes(), contents[1]), readAll(in));
+   }
+
+   @Test
+   public void lineReaderDoesNotJoinLinesAcrossFiles() throws Throwable {
+      List<String> files = Arrays.asList(write("x.txt", "one\ntwo".getBytes()), write("y.txt", "three\n".getBytes()),
+            write("z.txt", "four".getBytes()));
+      LineReader reader = InputHelper.openConcatenatedLineReader(files);
+      List<String> lines = new ArrayList<String>();
+      for (String line : reader) {
+         lines.add(line);
+      }
+      assertEquals(Arrays.asList("one", "two", "three", "four"), lines);
+   }
+
+   @Test(expected = FileNotFoundException.class)
+   public void throwsExceptionIfAnyFileIsMissing() throws Throwable {
+      List<String> files = new ArrayList<String>(names);
+      files.add(new File(dir, "missing.txt").getPath());
+      InputHelper.openConcatenatedInputStream(files);
+   }
+
+   @Test(expected = IOException.class)
+   public void readAfterCloseThrowsException() throws Throwable {
+      InputStream in = InputHelper.openConcatenatedInputStream(names);
+      in.read();
+      in.close();
+      in.read();
+   }
+
+   @Test
+   public void globReturnsSortedMatches() throws Throwable {
+      assertEquals(Arrays.asList(names.get(0), names.get(2), names.get(4)),
+            InputHelper.glob(new File(dir, "part-*.bz2").getPath()));
+      assertEquals(names, InputHelper.glob(new File(dir, "part-?.{bz2,txt}").getPath()));
+      assertTrue(InputHelper.glob(new File(dir, "nothing*").getPath()).isEmpty());
+      assertTrue(InputHelper.glob(new File(new File(dir, "noSuchDir"), "*").getPath()).isEmpty());
+   }
+
+   // Maps "slow0", "slow1", ... to streams whose reads are slow and that notice when close() overlaps a read.
+   private static List<ReadAheadInputStreamTest.SlowInputStream> makeSlowStreams(int count,
+                                                                               Map<String, InputStream> map) {
+      List<ReadAheadInputStreamTest.SlowInputStream> answer = new ArrayList<ReadAheadInputStreamTest.SlowInputStream>();
+      for (int i = 0; i < count; i++) {
+         ReadAheadInputStreamTest.SlowInputStream stream =
+               new ReadAheadInputStreamTest.SlowInputStream(makeText(200000, 60 + i), 20);
+         map.put("slow" + i, stream);
+         answer.add(stream);
+      }
+      return answer;
+   }
+
+   private static void verifyClosedWithoutOverlap(List<ReadAheadInputStreamTest.SlowInputStream> streams,
+                                                  int numOpened) throws InterruptedException {
+      for (int i = 0; i < numOpened; i++) {
+         ReadAheadInputStreamTest.SlowInputStream stream = streams.get(i);
+         for (int wait = 0; wait < 200 && !stream.closed; wait++) {
+            Thread.sleep(5);
+         }
+         assertTrue("slow" + i + " should be closed", stream.closed);
+         assertFalse("close() overlapped a read of slow" + i, stream.overlapped);
+      }
+   }
+
+   @Test
+   public void closeMidFileDoesNotOverlapReads() throws Throwable {
+      Map<String, InputStream> map = new HashMap<String, InputStream>();
+      List<ReadAheadInputStreamTest.SlowInputStream> streams = makeSlowStreams(4, map);
+      InputStream in = new ConcatenatedInputStream(Arrays.asList("slow0", "slow1", "slow2", "slow3"), map, null, 2,
+            true);
+      assertTrue(in.read(new byte[1000]) > 0);
+      // Wait until the current file and the files opened ahead are being read in the background.
+      while (streams.get(0).reads < 2 || streams.get(1).reads < 1 || streams.get(2).reads < 1) {
+         Thread.sleep(1);
+      }
+      in.close();
+      verifyClosedWithoutOverlap(streams, 3);
+      assertEquals("slow3 should never be opened", 0, streams.get(3).reads);
+   }
+
+   @Test
+   public void closeMidPrefetchDoesNotOverlapReads() throws Throwable {
+      Map<String, InputStream> map = new HashMap<String, InputStream>();
+      List<ReadAheadInputStreamTest.SlowInputStream> streams = makeSlowStreams(3, map);
+      InputStream in = new ConcatenatedInputStream(Arrays.asList("slow0", "slow1", "slow2"), map, null, 2, false);
+      while (streams.get(0).reads < 1 || streams.get(1).reads < 1) {
+         Thread.sleep(1);
+      }
+      in.close();
+      verifyClosedWithoutOverlap(streams, 2);
+   }
+}
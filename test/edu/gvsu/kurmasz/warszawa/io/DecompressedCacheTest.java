@@ -0,0 +1,266 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class DecompressedCacheTest {
+
+   // Counts the number of times the bzip2 filter is used.
+   private static class CountingFactory implements InputHelper.FilterFactory {
+      int count = 0;
+
+      public InputStream makeFilter(InputStream in) {
+         count++;
+         return InputHelper.BZIP2_FACTORY.makeFilter(in);
+      }
+   }
+
+   private CountingFactory factory;
+   private Map<String, InputHelper.FilterFactory> filterMap;
+   private List<File> files;
+   private File spillDirectory;
+
+   @Before
+   public void setUp() throws Throwable {
+      factory = new CountingFactory();
+      filterMap = new HashMap<String, InputHelper.FilterFactory>();
+      filterMap.put("bz2", factory);
+      files = new ArrayList<File>();
+      spillDirectory = File.createTempFile("warszawaTest", "");
+      assertTrue(spillDirectory.delete());
+   }
+
+   @After
+   public void tearDown() throws Throwable {
+      for (File file : files) {
+         OutputHelperTest.deleteTempFile(file);
+      }
+      if (spillDirectory.isDirectory()) {
+         for (File file : spillDirectory.listFiles()) {
+            file.delete();
+         }
+         assertTrue(spillDirectory.delete());
+      }
+   }
+
+   private File makeFile(byte[] data) throws IOException {
+      File file = MemoryMappedInputStreamTest.makeTempFile(".txt.bz2", ParallelBzip2InputStreamTest.compress(data, 1));
+      files.add(file);
+      return file;
+   }
+
+   private static byte[] read(DecompressedCache cache, File file, Map<String, InputHelper.FilterFactory> filterMap)
+         throws IOException {
+      return ParallelBzip2InputStreamTest.readAll(cache.openInputStream(file, filterMap));
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void throwsExceptionIfMaxMemoryNegative() throws Throwable {
+      new DecompressedCache(-1);
+   }
+
+   @Test
+   public void secondOpenSkipsFilter() throws Throwable {
+      byte[] data = ParallelBzip2InputStreamTest.makeText(100000, 1);
+      File file = makeFile(data);
+      DecompressedCache cache = new DecompressedCache(1 << 20);
+      assertArrayEquals(data, read(cache, file, filterMap));
+      assertEquals(1, factory.count);
+      assertEquals(1, cache.getMisses());
+      assertEquals(data.length, cache.getMemoryUsed());
+
+      assertArrayEquals(data, read(cache, file, filterMap));
+      assertArrayEquals(data, read(cache, file, filterMap));
+      assertEquals(1, factory.count);
+      assertEquals(2, cache.getHits());
+   }
+
+   @Test
+   public void doesNotCachePartiallyReadFiles() throws Throwable {
+      File file = makeFile(ParallelBzip2InputStreamTest.makeText(100000, 2));
+      DecompressedCache cache = new DecompressedCache(1 << 20);
+      InputStream in = cache.openInputStream(file, filterMap);
+      assertTrue(in.read(new byte[1000]) > 0);
+      in.close();
+      assertEquals(0, cache.getMemoryUsed());
+      read(cache, file, filterMap);
+      assertEquals(2, factory.count);
+   }
+
+   @Test
+   public void noticesModifiedFiles() throws Throwable {
+      byte[] data = ParallelBzip2InputStreamTest.makeText(50000, 3);
+      File file = makeFile(data);
+      DecompressedCache cache = new DecompressedCache(1 << 20);
+      read(cache, file, filterMap);
+      assertTrue(file.setLastModified(file.lastModified() - 10000));
+      assertArrayEquals(data, read(cache, file, filterMap));
+      assertEquals(2, factory.count);
+   }
+
+   @Test
+   public void doesNotCacheUnfilteredFiles() throws Throwable {
+      byte[] data = ParallelBzip2InputStreamTest.makeText(5000, 4);
+      File file = MemoryMappedInputStreamTest.makeTempFile(".txt", data);
+      files.add(file);
+      DecompressedCache cache = new DecompressedCache(1 << 20);
+      assertArrayEquals(data, read(cache, file, filterMap));
+      assertEquals(0, cache.getMemoryUsed());
+      assertEquals(0, cache.getMisses());
+   }
+
+   @Test(expected = FileNotFoundException.class)
+   public void throwsExceptionIfFileMissing() throws Throwable {
+      new DecompressedCache(1 << 20).openInputStream(new File("IHopeThisFileDoesNotExist.bz2"), filterMap);
+   }
+
+   @Test
+   public void evictsLeastRecentlyUsed() throws Throwable {
+      // Four entries fit (each is exactly the largest entry allowed in memory).
+      File a = makeFile(ParallelBzip2InputStreamTest.makeText(20000, 5));
+      File b = makeFile(ParallelBzip2InputStreamTest.makeText(20000, 6));
+      File c = makeFile(ParallelBzip2InputStreamTest.makeText(20000, 7));
+      File d = makeFile(ParallelBzip2InputStreamTest.makeText(20000, 13));
+      File e = makeFile(ParallelBzip2InputStreamTest.makeText(20000, 14));
+      DecompressedCache cache = new DecompressedCache(80000);
+      read(cache, a, filterMap);
+      read(cache, b, filterMap);
+      read(cache, c, filterMap);
+      read(cache, d, filterMap);
+      read(cache, a, filterMap);   // now b is the least recently used
+      read(cache, e, filterMap);
+      assertEquals(80000, cache.getMemoryUsed());
+      assertEquals(5, factory.count);
+      read(cache, a, filterMap);
+      read(cache, c, filterMap);
+      read(cache, d, filterMap);
+      read(cache, e, filterMap);
+      assertEquals(5, factory.count);
+      read(cache, b, filterMap);
+      assertEquals(6, factory.count);
+   }
+
+   @Test
+   public void evictedEntriesAreReadFromSpillDirectory() throws Throwable {
+      byte[] dataA = ParallelBzip2InputStreamTest.makeText(10000, 8);
+      File a = makeFile(dataA);
+      File b = makeFile(ParallelBzip2InputStreamTest.makeText(10000, 9));
+      File c = makeFile(ParallelBzip2InputStreamTest.makeText(10000, 15));
+      File d = makeFile(ParallelBzip2InputStreamTest.makeText(10000, 16));
+      File e = makeFile(ParallelBzip2InputStreamTest.makeText(10000, 17));
+      DecompressedCache cache = new DecompressedCache(40000, spillDirectory);
+      read(cache, a, filterMap);
+      read(cache, b, filterMap);
+      read(cache, c, filterMap);
+      read(cache, d, filterMap);
+      read(cache, e, filterMap);   // evicts a
+      assertEquals(1, spillDirectory.list().length);
+      assertArrayEquals(dataA, read(cache, a, filterMap));   // evicts b
+      assertEquals(5, factory.count);
+      assertEquals(1, cache.getSpillHits());
+
+      // A new cache (e.g., in the next run of the program) finds both files.
+      DecompressedCache next = new DecompressedCache(40000, spillDirectory);
+      assertArrayEquals(dataA, read(next, a, filterMap));
+      read(next, b, filterMap);
+      assertEquals(5, factory.count);
+      assertEquals(2, next.getSpillHits());
+   }
+
+   @Test
+   public void doesNotKeepEntriesLargerThanQuarterOfMemory() throws Throwable {
+      byte[] data = ParallelBzip2InputStreamTest.makeText(30000, 18);
+      File file = makeFile(data);
+      DecompressedCache cache = new DecompressedCache(100000);
+      assertArrayEquals(data, read(cache, file, filterMap));
+      assertEquals(0, cache.getMemoryUsed());
+      assertArrayEquals(data, read(cache, file, filterMap));
+      assertEquals(2, factory.count);
+   }
+
+   @Test
+   public void spillsEntriesLargerThanQuarterOfMemory() throws Throwable {
+      byte[] data = ParallelBzip2InputStreamTest.makeText(30000, 19);
+      File file = makeFile(data);
+      DecompressedCache cache = new DecompressedCache(100000, spillDirectory);
+      assertArrayEquals(data, read(cache, file, filterMap));
+      assertEquals(0, cache.getMemoryUsed());
+      assertEquals(1, spillDirectory.list().length);
+      // The spilled data stays on disk (it is too large to move back into memory).
+      assertArrayEquals(data, read(cache, file, filterMap));
+      assertEquals(0, cache.getMemoryUsed());
+      assertEquals(1, factory.count);
+      assertEquals(1, cache.getSpillHits());
+   }
+
+   @Test
+   public void largeFilesGoDirectlyToSpillDirectory() throws Throwable {
+      byte[] data = ParallelBzip2InputStreamTest.makeText(300000, 10);
+      File file = makeFile(data);
+      DecompressedCache cache = new DecompressedCache(100000, spillDirectory);
+      assertArrayEquals(data, read(cache, file, filterMap));
+      assertEquals(0, cache.getMemoryUsed());
+      assertEquals(1, spillDirectory.list().length);
+      assertArrayEquals(data, read(cache, file, filterMap));
+      assertEquals(1, factory.count);
+      assertEquals(1, cache.getSpillHits());
+   }
+
+   @Test
+   public void ignoresStaleSpillFiles() throws Throwable {
+      byte[] data = ParallelBzip2InputStreamTest.makeText(300000, 11);
+      File file = makeFile(data);
+      read(new DecompressedCache(0, spillDirectory), file, filterMap);
+      assertTrue(file.setLastModified(file.lastModified() - 10000));
+      DecompressedCache cache = new DecompressedCache(0, spillDirectory);
+      assertArrayEquals(data, read(cache, file, filterMap));
+      assertEquals(2, factory.count);
+      assertEquals(0, cache.getSpillHits());
+      assertEquals(1, spillDirectory.list().length);
+   }
+
+   @Test
+   public void openCachedInputStreamUsesCache() throws Throwable {
+      byte[] data = ParallelBzip2InputStreamTest.makeText(20000, 12);
+      File file = makeFile(data);
+      DecompressedCache cache = new DecompressedCache(1 << 20);
+      assertArrayEquals(data, ParallelBzip2InputStreamTest.readAll(
+            InputHelper.openCachedInputStream(file.getPath(), null, filterMap, cache)));
+      assertArrayEquals(data, ParallelBzip2InputStreamTest.readAll(
+            InputHelper.openCachedInputStream(file.getPath(), null, filterMap, cache)));
+      assertEquals(1, factory.count);
+      assertArrayEquals(data, ParallelBzip2InputStreamTest.readAll(
+            InputHelper.openCachedInputStream(file.getPath())));
+
+      InputStream fred = new ByteArrayInputStream(new byte[0]);
+      assertSame(fred, InputHelper.openCachedInputStream("fred", Collections.singletonMap("fred", fred), filterMap,
+            cache));
+   }
+}
@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.channels.Channels;
+
+import static edu.gvsu.kurmasz.warszawa.io.MemoryMappedInputStreamTest.makeTempFile;
+import static edu.gvsu.kurmasz.warszawa.io.OutputHelperTest.deleteTempFile;
+import static org.junit.Assert.*;
+
+/**
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class DelimitedTokenizerTest {
+
+   private static DelimitedTokenizer tokenize(String text, char delimiter) {
+      return new DelimitedTokenizer(new ByteArrayInputStream(text.getBytes()), delimiter);
+   }
+
+   @Test
+   public void splitsFields() throws Throwable {
+      DelimitedTokenizer tokens = tokenize("a\tbb\tccc\n1\t2\n", '\t');
+      assertTrue(tokens.next());
+      assertEquals(3, tokens.getFieldCount());
+      assertEquals("a", tokens.getString(0));
+      assertEquals("bb", tokens.getField(1).toString());
+      assertEquals("ccc", tokens.getString(2));
+      assertEquals(1, tokens.getLineNumber());
+      assertEquals("a\tbb\tccc", tokens.getLine().toString());
+
+      assertTrue(tokens.next());
+      assertEquals(2, tokens.getFieldCount());
+      assertEquals(1, tokens.getInt(0));
+      assertEquals(2L, tokens.getLong(1));
+      assertEquals(2, tokens.getLineNumber());
+
+      assertFalse(tokens.next());
+      assertEquals(0, tokens.getFieldCount());
+   }
+
+   @Test
+   public void keepsEmptyFields() throws Throwable {
+      DelimitedTokenizer tokens = tokenize(",x,,\n\n", ',');
+      assertTrue(tokens.next());
+      assertEquals(4, tokens.getFieldCount());
+      assertEquals("", tokens.getString(0));
+      assertEquals("x", tokens.getString(1));
+      assertEquals("", tokens.getString(2));
+      assertEquals("", tokens.getString(3));
+      assertTrue(tokens.next());
+      assertEquals(1, tokens.getFieldCount());
+      assertEquals(0, tokens.getFieldLength(0));
+      assertFalse(tokens.next());
+   }
+
+   @Test
+   public void handlesManyFieldsAndCrLf() throws Throwable {
+      StringBuilder line = new StringBuilder();
+      for (int i = 0; i < 100; i++) {
+         line.append(i).append(i < 99 ? "," : "\r\n");
+      }
+      DelimitedTokenizer tokens = tokenize(line.toString() + line, ',');
+      for (int r = 0; r < 2; r++) {
+         assertTrue(tokens.next());
+         assertEquals(100, tokens.getFieldCount());
+         for (int i = 0; i < 100; i++) {
+            assertEquals(i, tokens.getInt(i));
+         }
+      }
+      assertFalse(tokens.next());
+   }
+
+   @Test
+   public void exposesOffsetsIntoArray() throws Throwable {
+      DelimitedTokenizer tokens = tokenize("abc|defg", '|');
+      assertTrue(tokens.next());
+      byte[] array = tokens.array();
+      assertEquals("defg", new String(array, tokens.getFieldOffset(1), tokens.getFieldLength(1)));
+      assertSame(array, tokens.getField(0).array());
+   }
+
+   @Test
+   public void parsesDoubles() throws Throwable {
+      DelimitedTokenizer tokens = tokenize("1.5\t-2e3\t0.1\n", '\t');
+      assertTrue(tokens.next());
+      assertEquals(1.5, tokens.getDouble(0), 0.0);
+      assertEquals(-2000.0, tokens.getDouble(1), 0.0);
+      assertEquals(0.1, tokens.getDouble(2), 0.0);
+   }
+
+   @Test(expected = NumberFormatException.class)
+   public void getLongThrowsExceptionIfNotANumber() throws Throwable {
+      DelimitedTokenizer tokens = tokenize("12\tabc\n", '\t');
+      tokens.next();
+      tokens.getLong(1);
+   }
+
+   @Test(expected = IndexOutOfBoundsException.class)
+   public void getFieldThrowsExceptionIfFieldMissing() throws Throwable {
+      DelimitedTokenizer tokens = tokenize("1\t2\n", '\t');
+      tokens.next();
+      tokens.getField(2);
+   }
+
+   @Test(expected = IllegalStateException.class)
+   public void getLineThrowsExceptionBeforeNext() throws Throwable {
+      tokenize("1\t2\n", '\t').getLine();
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void constructorRejectsNewlineDelimiter() throws Throwable {
+      tokenize("1\n", '\n');
+   }
+
+   @Test
+   public void readsFromChannel() throws Throwable {
+      DelimitedTokenizer tokens = new DelimitedTokenizer(
+            Channels.newChannel(new ByteArrayInputStream("7,8\n".getBytes())), ',');
+      assertTrue(tokens.next());
+      assertEquals(8, tokens.getInt(1));
+      tokens.close();
+   }
+
+   @Test
+   public void openDelimitedTokenizerDecompresses() throws Throwable {
+      StringBuilder text = new StringBuilder();
+      for (int i = 0; i < 10000; i++) {
+         text.append(i).append('\t').append(i * 1000000007L).append('\t').append(i / 8.0).append('\n');
+      }
+      File file = makeTempFile(".tsv.bz2", ParallelBzip2InputStreamTest.compress(text.toString().getBytes(), 1));
+      try {
+         DelimitedTokenizer tokens = InputHelper.openDelimitedTokenizer(file.getAbsolutePath(), '\t');
+         for (int i = 0; i < 10000; i++) {
+            assertTrue(tokens.next());
+            assertEquals(i, tokens.getInt(0));
+            assertEquals(i * 1000000007L, tokens.getLong(1));
+            assertEquals(i / 8.0, tokens.getDouble(2), 0.0);
+         }
+         assertFalse(tokens.next());
+         tokens.close();
+      } finally {
+         deleteTempFile(file);
+      }
+   }
+}
@@ -0,0 +1,209 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class ExternalSorterTest {
+
+   private static final Charset UTF8 = Charset.forName("UTF-8");
+
+   private static final Comparator<String> BY_FIRST_CHAR = new Comparator<String>() {
+      public int compare(String a, String b) {
+         return (a.length() == 0 ? -1 : a.charAt(0)) - (b.length() == 0 ? -1 : b.charAt(0));
+      }
+   };
+
+   private File tempDirectory;
+   private List<String> lines;
+
+   @Before
+   public void setUp() throws Throwable {
+      tempDirectory = File.createTempFile("warszawaTest", "");
+      assertTrue(tempDirectory.delete());
+      assertTrue(tempDirectory.mkdir());
+
+      // Includes duplicates, empty lines, and non-ASCII characters.  Each line ends with its position so that
+      // tests can check stability.
+      Random random = new Random(23);
+      lines = new ArrayList<String>();
+      for (int i = 0; i < 5000; i++) {
+         StringBuilder line = new StringBuilder();
+         for (int j = random.nextInt(30); j > 0; j--) {
+            line.append((char) ('a' + random.nextInt(5)));
+         }
+         if (i % 100 == 0) {
+            line.append('é');
+         }
+         if (i % 50 != 0) {
+            line.append(' ').append(i);
+         }
+         lines.add(line.toString());
+      }
+   }
+
+   @After
+   public void tearDown() throws Throwable {
+      String[] left = tempDirectory.list();
+      for (File file : tempDirectory.listFiles()) {
+         file.delete();
+      }
+      assertTrue(tempDirectory.delete());
+      assertEquals("Run files should be removed", 0, left.length);
+   }
+
+   private static byte[] join(List<String> lines) {
+      StringBuilder text = new StringBuilder();
+      for (String line : lines) {
+         text.append(line).append('\n');
+      }
+      return text.toString().getBytes(UTF8);
+   }
+
+   private List<String> sort(ExternalSorter sorter, List<String> input) throws IOException {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      sorter.sort(new ByteArrayInputStream(join(input)), out);
+      String text = new String(out.toByteArray(), UTF8);
+      List<String> answer = new ArrayList<String>();
+      if (text.length() > 0) {
+         assertTrue(text.endsWith("\n"));
+         answer.addAll(Arrays.asList(text.substring(0, text.length() - 1).split("\n", -1)));
+      }
+      return answer;
+   }
+
+   private ExternalSorter sorter(Comparator<String> comparator, long budget, String suffix, int threads) {
+      return new ExternalSorter(comparator, budget, suffix, threads, tempDirectory, UTF8);
+   }
+
+   private List<String> expected(Comparator<String> comparator) {
+      List<String> answer = new ArrayList<String>(lines);
+      Collections.sort(answer, comparator);
+      return answer;
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void throwsExceptionIfSuffixUnknown() throws Throwable {
+      sorter(BY_FIRST_CHAR, 1000, "zip", 1);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void throwsExceptionIfThreadsNotPositive() throws Throwable {
+      new ExternalSorter(Collections.<String>reverseOrder(), 1000, "lz4", 0, null, UTF8);
+   }
+
+   @Test(expected = NullPointerException.class)
+   public void throwsExceptionIfComparatorNull() throws Throwable {
+      new ExternalSorter(null);
+   }
+
+   @Test
+   public void sortsInMemoryIfInputFits() throws Throwable {
+      ExternalSorter sorter = sorter(Collections.<String>reverseOrder(), 100L * 1024 * 1024, "lz4", 2);
+      assertEquals(expected(Collections.<String>reverseOrder()), sort(sorter, lines));
+      assertEquals(0, sorter.getRunCount());
+   }
+
+   @Test
+   public void sortsEmptyInput() throws Throwable {
+      assertEquals(new ArrayList<String>(), sort(sorter(BY_FIRST_CHAR, 1000, "lz4", 2), new ArrayList<String>()));
+   }
+
+   private void verifyRuns(String suffix, int threads) throws Throwable {
+      ExternalSorter sorter = sorter(BY_FIRST_CHAR, 32 * 1024, suffix, threads);
+      // BY_FIRST_CHAR has many ties; so, this also checks that the sort is stable.
+      assertEquals(expected(BY_FIRST_CHAR), sort(sorter, lines));
+      assertTrue("" + sorter.getRunCount(), sorter.getRunCount() > 2);
+   }
+
+   @Test
+   public void sortsUsingLz4Runs() throws Throwable {
+      verifyRuns("lz4", 3);
+   }
+
+   @Test
+   public void sortsUsingBzip2Runs() throws Throwable {
+      verifyRuns("bz2", 2);
+   }
+
+   @Test
+   public void sortsUsingUncompressedRuns() throws Throwable {
+      verifyRuns(null, 1);
+   }
+
+   @Test
+   public void mergesInSeveralPasses() throws Throwable {
+      // With a tiny budget, only two runs are merged at once.
+      ExternalSorter sorter = sorter(BY_FIRST_CHAR, 4096, "lz4", 2);
+      assertEquals(expected(BY_FIRST_CHAR), sort(sorter, lines));
+      assertTrue("" + sorter.getRunCount(), sorter.getRunCount() > 2 * lines.size() / 100);
+   }
+
+   @Test
+   public void sortsNamedFiles() throws Throwable {
+      File input = MemoryMappedInputStreamTest.makeTempFile(".txt.lz4", Lz4FrameOutputStreamTest.compress(join(lines)));
+      File output = File.createTempFile("warszawaTest", ".bz2");
+      try {
+         sorter(Collections.<String>reverseOrder(), 16 * 1024, "lz4", 2).sort(input.getPath(), output.getPath());
+         LineReader reader = InputHelper.openLineReader(output.getPath());
+         List<String> sorted = new ArrayList<String>();
+         for (Iterator<String> iterator = reader.iterator(UTF8); iterator.hasNext(); ) {
+            sorted.add(iterator.next());
+         }
+         reader.close();
+         assertEquals(expected(Collections.<String>reverseOrder()), sorted);
+      } finally {
+         OutputHelperTest.deleteTempFile(input);
+         OutputHelperTest.deleteTempFile(output);
+      }
+   }
+
+   @Test
+   public void removesRunFilesAfterFailure() throws Throwable {
+      final int[] calls = {0};
+      Comparator<String> failing = new Comparator<String>() {
+         public int compare(String a, String b) {
+            synchronized (calls) {
+               if (++calls[0] > 20000) {
+                  throw new IllegalStateException("Comparator failed");
+               }
+            }
+            return a.compareTo(b);
+         }
+      };
+      try {
+         sort(sorter(failing, 32 * 1024, "lz4", 2), lines);
+         fail("Should have thrown an exception");
+      } catch (IllegalStateException e) {
+         assertEquals("Comparator failed", e.getMessage());
+      }
+      // tearDown checks that the temporary directory is empty.
+   }
+}
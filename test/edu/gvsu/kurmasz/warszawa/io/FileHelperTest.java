@@ -19,6 +19,7 @@ package edu.gvsu.kurmasz.warszawa.io;
 import org.junit.Test;
 
 import java.io.File;
+import java.util.Arrays;
 
 import static junit.framework.Assert.*;
 
@@ -128,4 +129,33 @@ public class FileHelperTest {
       verifyException(".fred\\/barney");
    }
 
+
+   @Test
+   public void getSuffixesReturnsAllSuffixesInOrder() throws Throwable {
+      assertEquals(Arrays.asList("tsv", "bz2", "lz4"), FileHelper.getSuffixes("data.tsv.bz2.lz4"));
+      assertEquals(Arrays.asList("bz2"), FileHelper.getSuffixes("fred.bz2"));
+   }
+
+   @Test
+   public void getSuffixesIgnoresLeadingDots() throws Throwable {
+      assertEquals(Arrays.asList("george", "bz2"), FileHelper.getSuffixes("..fred.george.bz2"));
+      assertTrue(FileHelper.getSuffixes(".bashrc").isEmpty());
+   }
+
+   @Test
+   public void getSuffixesIncludesEmptySuffixes() throws Throwable {
+      assertEquals(Arrays.asList("", "bz2", ""), FileHelper.getSuffixes("bob..bz2."));
+   }
+
+   @Test
+   public void getSuffixesReturnsEmptyListIfNoSuffix() throws Throwable {
+      assertTrue(FileHelper.getSuffixes("theFileWithNoDot").isEmpty());
+      assertTrue(FileHelper.getSuffixes("").isEmpty());
+      assertTrue(FileHelper.getSuffixes(null).isEmpty());
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void getSuffixesThrowsExceptionIfFullPath() throws Throwable {
+      FileHelper.getSuffixes("a" + File.separator + "b.bz2");
+   }
 }
@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class FileSplitTest {
+
+   private byte[] contents;
+   private File file;
+
+   @Before
+   public void setUp() throws Throwable {
+      contents = ParallelBzip2InputStreamTest.makeText(100000, 11);
+      file = MemoryMappedInputStreamTest.makeTempFile(".txt", contents);
+   }
+
+   @After
+   public void tearDown() throws Throwable {
+      OutputHelperTest.deleteTempFile(file);
+   }
+
+   private void verifySplits(List<FileSplit> splits, byte[] expected) throws IOException {
+      ByteArrayOutputStream all = new ByteArrayOutputStream();
+      long previousEnd = 0;
+      for (FileSplit split : splits) {
+         assertEquals("Splits should be contiguous", previousEnd, split.getStart());
+         byte[] data = ParallelBzip2InputStreamTest.readAll(split.openInputStream());
+         assertEquals(split.length(), data.length);
+         if (split.getEnd() != expected.length) {
+            assertEquals("Split " + split + " should end with a newline", '\n', data[data.length - 1]);
+         }
+         all.write(data);
+         previousEnd = split.getEnd();
+      }
+      assertEquals(expected.length, previousEnd);
+      assertArrayEquals(expected, all.toByteArray());
+   }
+
+   @Test
+   public void splitsAreAlignedAndCoverFile() throws Throwable {
+      List<FileSplit> splits = FileSplit.split(file, 7, 0);
+      assertTrue("Expected about 7 splits, found " + splits.size(), splits.size() >= 6 && splits.size() <= 7);
+      verifySplits(splits, contents);
+   }
+
+   @Test
+   public void honorsMinimumSplitSize() throws Throwable {
+      List<FileSplit> splits = FileSplit.split(file, 100, 40000);
+      assertEquals(3, splits.size());
+      verifySplits(splits, contents);
+   }
+
+   @Test
+   public void singleSplitCoversFile() throws Throwable {
+      List<FileSplit> splits = FileSplit.split(file, 1, 0);
+      assertEquals(1, splits.size());
+      verifySplits(splits, contents);
+   }
+
+   @Test
+   public void longLinesProduceFewerSplits() throws Throwable {
+      byte[] data = "a\nbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbb\nc\nd".getBytes();
+      File other = MemoryMappedInputStreamTest.makeTempFile(".txt", data);
+      try {
+         List<FileSplit> splits = FileSplit.split(other, 10, 0);
+         assertTrue(splits.size() < 10);
+         verifySplits(splits, data);
+      } finally {
+         OutputHelperTest.deleteTempFile(other);
+      }
+   }
+
+   @Test
+   public void boundaryOnNewlineStartsNextLine() throws Throwable {
+      byte[] data = "abc\ndef\nghi\n".getBytes();
+      File other = MemoryMappedInputStreamTest.makeTempFile(".txt", data);
+      try {
+         List<FileSplit> splits = FileSplit.split(other, 3, 0);
+         assertEquals(3, splits.size());
+         assertEquals(4, splits.get(1).getStart());
+         assertEquals(8, splits.get(2).getStart());
+         verifySplits(splits, data);
+      } finally {
+         OutputHelperTest.deleteTempFile(other);
+      }
+   }
+
+   @Test
+   public void emptyFileHasNoSplits() throws Throwable {
+      File other = MemoryMappedInputStreamTest.makeTempFile(".txt", new byte[0]);
+      try {
+         assertEquals(0, FileSplit.split(other, 4, 0).size());
+      } finally {
+         OutputHelperTest.deleteTempFile(other);
+      }
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void rejectsZeroSplits() throws Throwable {
+      FileSplit.split(file, 0, 0);
+   }
+
+   @Test(expected = FileNotFoundException.class)
+   public void throwsExceptionIfFileMissing() throws Throwable {
+      InputHelper.split("/no/such/file/anywhere.txt");
+   }
+
+   @Test
+   public void splitsCanBeProcessedInParallel() throws Throwable {
+      int expectedLines = 0;
+      for (byte b : contents) {
+         if (b == '\n') {
+            expectedLines++;
+         }
+      }
+      if (contents[contents.length - 1] != '\n') {
+         expectedLines++;
+      }
+
+      ExecutorService executor = Executors.newFixedThreadPool(3);
+      try {
+         List<Future<Long>> counts = new ArrayList<Future<Long>>();
+         for (final FileSplit split : InputHelper.split(file, 5, 0)) {
+            counts.add(executor.submit(new Callable<Long>() {
+               public Long call() throws IOException {
+                  LineReader reader = split.openLineReader();
+                  try {
+                     while (reader.nextLine() != null) {
+                        // just count
+                     }
+                     return reader.getLineNumber();
+                  } finally {
+                     reader.close();
+                  }
+               }
+            }));
+         }
+         long total = 0;
+         for (Future<Long> count : counts) {
+            total += count.get();
+         }
+         assertEquals(expectedLines, total);
+      } finally {
+         executor.shutdown();
+      }
+   }
+}
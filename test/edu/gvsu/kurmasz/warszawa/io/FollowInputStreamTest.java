@@ -0,0 +1,202 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class FollowInputStreamTest {
+
+   private static final long POLL = 50;
+
+   private File file;
+   private InputStream in;
+
+   @Before
+   public void setUp() throws Throwable {
+      file = File.createTempFile("warszawaTest", ".log");
+   }
+
+   @After
+   public void tearDown() throws Throwable {
+      if (in != null) {
+         in.close();
+      }
+      OutputHelperTest.deleteTempFile(file);
+      OutputHelperTest.deleteTempFile(new File(file.getPath() + ".1"));
+   }
+
+   private static void append(File f, String text) throws IOException {
+      FileOutputStream out = new FileOutputStream(f, true);
+      out.write(text.getBytes());
+      out.close();
+   }
+
+   private static void overwrite(File f, String text) throws IOException {
+      FileOutputStream out = new FileOutputStream(f, false);
+      out.write(text.getBytes());
+      out.close();
+   }
+
+   // Reads exactly "length" bytes.
+   private static String read(InputStream in, int length) throws IOException {
+      byte[] buffer = new byte[length];
+      int pos = 0;
+      while (pos < length) {
+         int n = in.read(buffer, pos, length - pos);
+         assertTrue("Unexpected end of stream", n >= 0);
+         pos += n;
+      }
+      return new String(buffer);
+   }
+
+   // Runs "action" on another thread after a short delay (so the reader is likely blocked).
+   private static Thread later(final Callable action) {
+      Thread thread = new Thread() {
+         public void run() {
+            try {
+               Thread.sleep(3 * POLL);
+               action.call();
+            } catch (Exception e) {
+               throw new RuntimeException(e);
+            }
+         }
+      };
+      thread.start();
+      return thread;
+   }
+
+   private interface Callable {
+      void call() throws Exception;
+   }
+
+   @Test(timeout = 10000)
+   public void readsExistingDataThenWaitsForAppends() throws Throwable {
+      append(file, "first\n");
+      in = new FollowInputStream(file, 0, POLL);
+      assertEquals("first\n", read(in, 6));
+      Thread writer = later(new Callable() {
+         public void call() throws Exception {
+            append(file, "second\n");
+         }
+      });
+      assertEquals("second\n", read(in, 7));
+      writer.join();
+      assertEquals(13, ((FollowInputStream) in).position());
+   }
+
+   @Test(timeout = 10000)
+   public void startsAtGivenPosition() throws Throwable {
+      append(file, "old data\n");
+      in = new FollowInputStream(file, file.length(), POLL);
+      assertEquals(0, in.available());
+      append(file, "new\n");
+      assertEquals(4, in.available());
+      assertEquals("new\n", read(in, 4));
+   }
+
+   @Test(timeout = 10000)
+   public void restartsAfterTruncation() throws Throwable {
+      append(file, "a long line of old data\n");
+      in = new FollowInputStream(file, 0, POLL);
+      assertEquals("a long line of old data\n", read(in, 24));
+      Thread writer = later(new Callable() {
+         public void call() throws Exception {
+            overwrite(file, "new\n");
+         }
+      });
+      assertEquals("new\n", read(in, 4));
+      writer.join();
+   }
+
+   @Test(timeout = 10000)
+   public void followsRotation() throws Throwable {
+      append(file, "one\n");
+      in = new FollowInputStream(file, 0, POLL);
+      assertEquals("one\n", read(in, 4));
+      final File rotated = new File(file.getPath() + ".1");
+      Thread writer = later(new Callable() {
+         public void call() throws Exception {
+            append(file, "two\n");
+            assertTrue(file.renameTo(rotated));
+            Thread.sleep(3 * POLL);
+            append(file, "three\n");
+         }
+      });
+      assertEquals("two\n", read(in, 4));
+      assertEquals("three\n", read(in, 6));
+      writer.join();
+   }
+
+   @Test(timeout = 10000)
+   public void closeUnblocksRead() throws Throwable {
+      in = new FollowInputStream(file, 0, POLL);
+      Thread closer = later(new Callable() {
+         public void call() throws Exception {
+            in.close();
+         }
+      });
+      assertEquals(-1, in.read());
+      closer.join();
+   }
+
+   @Test(timeout = 10000)
+   public void openFollowLineReaderReturnsLinesAsTheyAreCompleted() throws Throwable {
+      append(file, "alpha\nbet");
+      LineReader reader = InputHelper.openFollowLineReader(file.getAbsolutePath());
+      try {
+         assertEquals("alpha", reader.nextLine().toString());
+         Thread writer = later(new Callable() {
+            public void call() throws Exception {
+               append(file, "a\ngamma\n");
+            }
+         });
+         assertEquals("beta", reader.nextLine().toString());
+         assertEquals("gamma", reader.nextLine().toString());
+         writer.join();
+      } finally {
+         reader.close();
+      }
+   }
+
+   @Test(expected = IOException.class)
+   public void readThrowsExceptionAfterClose() throws Throwable {
+      in = new FollowInputStream(file, 0, POLL);
+      in.close();
+      in.read();
+   }
+
+   @Test(expected = FileNotFoundException.class)
+   public void constructorThrowsExceptionIfFileMissing() throws Throwable {
+      InputHelper.openFollowInputStream("/no/such/file/anywhere.log");
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void constructorThrowsExceptionIfPositionNegative() throws Throwable {
+      new FollowInputStream(file, -1, POLL);
+   }
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+
+import static edu.gvsu.kurmasz.warszawa.io.MemoryMappedInputStreamTest.makeTempFile;
+import static edu.gvsu.kurmasz.warszawa.io.OutputHelperTest.deleteTempFile;
+import static edu.gvsu.kurmasz.warszawa.io.ParallelBzip2InputStreamTest.compress;
+import static edu.gvsu.kurmasz.warszawa.io.ParallelBzip2InputStreamTest.makeText;
+import static edu.gvsu.kurmasz.warszawa.io.ParallelBzip2InputStreamTest.readAll;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@code InputHelper.openChainedInputStream}.
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class InputHelperChainTest {
+
+   // "data.txt.bz2.lz4":  bzip2 first, then LZ4
+   private static byte[] bz2ThenLz4(byte[] contents) throws IOException {
+      return Lz4FrameOutputStreamTest.compress(compress(contents, 1));
+   }
+
+   @Test
+   public void appliesAllFiltersWithoutThreads() throws Throwable {
+      byte[] contents = makeText(300000, 11);
+      File file = makeTempFile(".txt.bz2.lz4", bz2ThenLz4(contents));
+      try {
+         InputStream in = InputHelper.openChainedInputStream(file, InputHelper.DEFAULT_FILTER_FACTORY_MAP, false);
+         assertFalse(in instanceof ReadAheadInputStream);
+         assertArrayEquals(contents, readAll(in));
+      } finally {
+         deleteTempFile(file);
+      }
+   }
+
+   @Test
+   public void appliesAllFiltersWithThreadPerStage() throws Throwable {
+      byte[] contents = makeText(300000, 12);
+      File file = makeTempFile(".txt.bz2.lz4", bz2ThenLz4(contents));
+      try {
+         InputStream in = InputHelper.openChainedInputStream(file.getAbsolutePath());
+         assertTrue(in instanceof ReadAheadInputStream);
+         assertArrayEquals(contents, readAll(in));
+      } finally {
+         deleteTempFile(file);
+      }
+   }
+
+   @Test
+   public void singleSuffixBehavesLikeOpenInputStream() throws Throwable {
+      byte[] contents = makeText(50000, 13);
+      File file = makeTempFile(".txt.bz2", compress(contents, 1));
+      try {
+         assertArrayEquals(contents, readAll(InputHelper.openChainedInputStream(file,
+               InputHelper.DEFAULT_FILTER_FACTORY_MAP, false)));
+         assertArrayEquals(contents, readAll(InputHelper.openChainedInputStream(file,
+               InputHelper.DEFAULT_FILTER_FACTORY_MAP, true)));
+      } finally {
+         deleteTempFile(file);
+      }
+   }
+
+   @Test
+   public void stopsAtFirstSuffixNotInMap() throws Throwable {
+      // The inner ".bz2" is never reached, so the data comes back still bzip2-compressed.
+      byte[] compressed = compress(makeText(20000, 14), 1);
+      File file = makeTempFile(".bz2.dat.lz4", Lz4FrameOutputStreamTest.compress(compressed));
+      try {
+         assertArrayEquals(compressed, readAll(InputHelper.openChainedInputStream(file,
+               InputHelper.DEFAULT_FILTER_FACTORY_MAP, true)));
+      } finally {
+         deleteTempFile(file);
+      }
+   }
+
+   @Test
+   public void returnsUnfilteredStreamIfNoSuffixMatches() throws Throwable {
+      byte[] contents = makeText(20000, 15);
+      File file = makeTempFile(".txt", contents);
+      try {
+         InputStream in = InputHelper.openChainedInputStream(file, InputHelper.DEFAULT_FILTER_FACTORY_MAP, true);
+         assertTrue(in instanceof FileInputStream);
+         assertArrayEquals(contents, readAll(in));
+         assertArrayEquals(contents, readAll(InputHelper.openChainedInputStream(file, null, true)));
+      } finally {
+         deleteTempFile(file);
+      }
+   }
+
+   @Test
+   public void usesStreamMap() throws Throwable {
+      InputStream stream = new ByteArrayInputStream(new byte[]{1, 2, 3});
+      Map<String, InputStream> streamMap = new HashMap<String, InputStream>();
+      streamMap.put("-.bz2.lz4", stream);
+      assertSame(stream, InputHelper.openChainedInputStream("-.bz2.lz4", streamMap,
+            InputHelper.DEFAULT_FILTER_FACTORY_MAP, true));
+   }
+
+   @Test(expected = InputHelper.FilterFactory.FilterFactoryException.class)
+   public void throwsExceptionIfInnerStageFails() throws Throwable {
+      // Valid LZ4 wrapped around data that is not bzip2.
+      File file = makeTempFile(".txt.bz2.lz4", Lz4FrameOutputStreamTest.compress(makeText(20000, 16)));
+      try {
+         InputHelper.openChainedInputStream(file, InputHelper.DEFAULT_FILTER_FACTORY_MAP, false);
+      } finally {
+         deleteTempFile(file);
+      }
+   }
+
+   @Test(expected = FileNotFoundException.class)
+   public void throwsExceptionIfFileMissing() throws Throwable {
+      InputHelper.openChainedInputStream("/no/such/file/anywhere.txt.bz2.lz4");
+   }
+}
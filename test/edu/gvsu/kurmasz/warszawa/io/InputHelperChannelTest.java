@@ -0,0 +1,218 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.ReadPendingException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static edu.gvsu.kurmasz.warszawa.io.MemoryMappedInputStreamTest.makeTempFile;
+import static edu.gvsu.kurmasz.warszawa.io.OutputHelperTest.deleteTempFile;
+import static edu.gvsu.kurmasz.warszawa.io.ParallelBzip2InputStreamTest.compress;
+import static edu.gvsu.kurmasz.warszawa.io.ParallelBzip2InputStreamTest.makeText;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@code InputHelper.openChannel} and {@code InputHelper.openAsyncReader}.  (These are separate from
+ * {@code InputHelperTest} because PowerMock cannot instrument the NIO channel classes.)
+ *
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class InputHelperChannelTest {
+
+   ////////////////////////////////////////////////////////////
+   //
+   // Test openChannel
+   //
+   ////////////////////////////////////////////////////////////
+
+   private static byte[] readChannel(ReadableByteChannel channel) throws IOException {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      ByteBuffer buffer = ByteBuffer.allocateDirect(4096);
+      while (channel.read(buffer) >= 0) {
+         buffer.flip();
+         byte[] bytes = new byte[buffer.remaining()];
+         buffer.get(bytes);
+         out.write(bytes, 0, bytes.length);
+         buffer.clear();
+      }
+      channel.close();
+      return out.toByteArray();
+   }
+
+   @Test
+   public void openChannelReturnsFileChannelForPlainFile() throws Throwable {
+      byte[] contents = makeText(20000, 93);
+      File file = makeTempFile(".txt", contents);
+      try {
+         ReadableByteChannel channel = InputHelper.openChannel(file.getAbsolutePath());
+         assertTrue("Expected a FileChannel", channel instanceof FileChannel);
+         assertArrayEquals(contents, readChannel(channel));
+      } finally {
+         deleteTempFile(file);
+      }
+   }
+
+   @Test
+   public void openChannelAppliesFilter() throws Throwable {
+      File file = makeTempFile(".bz2", InputHelperTest.COMPRESSED_BZIPPED_MESSAGE);
+      try {
+         ReadableByteChannel channel = InputHelper.openChannel(file, InputHelper.DEFAULT_FILTER_FACTORY_MAP);
+         assertEquals(InputHelperTest.UNCOMPRESSED_BZIPPED_MESSAGE, new String(readChannel(channel)));
+      } finally {
+         deleteTempFile(file);
+      }
+   }
+
+   @Test
+   public void openChannelUsesStreamMap() throws Throwable {
+      Map<String, InputStream> streamMap = new HashMap<String, InputStream>();
+      streamMap.put("fred", new ByteArrayInputStream("Hello".getBytes()));
+      assertEquals("Hello", new String(readChannel(InputHelper.openChannel("fred", streamMap, null))));
+   }
+
+   @Test(expected = FileNotFoundException.class)
+   public void openChannelThrowsExceptionWhenFileNotFound() throws Throwable {
+      InputHelper.openChannel("ThisFileShouldNotExist_alkadflkajdfad");
+   }
+
+   ////////////////////////////////////////////////////////////
+   //
+   // Test openAsyncReader
+   //
+   ////////////////////////////////////////////////////////////
+
+   // Reads the entire input by chaining reads from the completion handler (the way an event-driven program would).
+   private static byte[] readAll(final AsyncReader reader) throws Throwable {
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      final BlockingQueue<Throwable> done = new ArrayBlockingQueue<Throwable>(1);
+      final ByteBuffer buffer = ByteBuffer.allocateDirect(4099);
+      reader.read(buffer, null, new CompletionHandler<Integer, Object>() {
+         public void completed(Integer result, Object attachment) {
+            if (result < 0) {
+               done.add(new EOFException());
+               return;
+            }
+            buffer.flip();
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            out.write(bytes, 0, bytes.length);
+            buffer.clear();
+            reader.read(buffer, null, this);
+         }
+
+         public void failed(Throwable exc, Object attachment) {
+            done.add(exc);
+         }
+      });
+      Throwable result = done.poll(30, TimeUnit.SECONDS);
+      if (!(result instanceof EOFException)) {
+         throw result == null ? new TimeoutException() : result;
+      }
+      reader.close();
+      return out.toByteArray();
+   }
+
+   @Test
+   public void readsPlainFile() throws Throwable {
+      byte[] contents = makeText(100000, 90);
+      File file = makeTempFile(".txt", contents);
+      try {
+         AsyncReader reader = InputHelper.openAsyncReader(file.getAbsolutePath());
+         assertTrue(reader instanceof AsyncReader.FileReader);
+         assertArrayEquals(contents, readAll(reader));
+         assertFalse(reader.isOpen());
+      } finally {
+         deleteTempFile(file);
+      }
+   }
+
+   @Test
+   public void readsFilteredFileOnExecutor() throws Throwable {
+      byte[] contents = makeText(100000, 91);
+      File file = makeTempFile(".bz2", compress(contents, 1));
+      ExecutorService executor = Executors.newSingleThreadExecutor();
+      try {
+         AsyncReader reader = InputHelper.openAsyncReader(file, InputHelper.DEFAULT_FILTER_FACTORY_MAP, executor);
+         assertTrue(reader instanceof AsyncReader.ChannelReader);
+         assertArrayEquals(contents, readAll(reader));
+      } finally {
+         executor.shutdown();
+         deleteTempFile(file);
+      }
+   }
+
+   @Test
+   public void readsStreamFromStreamMap() throws Throwable {
+      byte[] contents = makeText(10000, 92);
+      Map<String, InputStream> streamMap = new HashMap<String, InputStream>();
+      streamMap.put("fred", new ByteArrayInputStream(contents));
+      AsyncReader reader = InputHelper.openAsyncReader("fred", streamMap, null, null);
+      assertArrayEquals(contents, readAll(reader));
+   }
+
+   @Test(expected = ReadPendingException.class)
+   public void onlyOneReadMayBePending() throws Throwable {
+      final CountDownLatch release = new CountDownLatch(1);
+      InputStream slow = new InputStream() {
+         public int read() throws IOException {
+            try {
+               release.await();
+            } catch (InterruptedException e) {
+               throw new InterruptedIOException();
+            }
+            return -1;
+         }
+      };
+      Map<String, InputStream> streamMap = new HashMap<String, InputStream>();
+      streamMap.put("slow", slow);
+      AsyncReader reader = InputHelper.openAsyncReader("slow", streamMap, null, null);
+      CompletionHandler<Integer, Object> ignore = new CompletionHandler<Integer, Object>() {
+         public void completed(Integer result, Object attachment) {
+         }
+
+         public void failed(Throwable exc, Object attachment) {
+         }
+      };
+      try {
+         reader.read(ByteBuffer.allocate(10), null, ignore);
+         reader.read(ByteBuffer.allocate(10), null, ignore);
+      } finally {
+         release.countDown();
+      }
+   }
+
+   @Test(expected = FileNotFoundException.class)
+   public void throwsExceptionWhenFileNotFound() throws Throwable {
+      InputHelper.openAsyncReader("ThisFileShouldNotExist_alkadflkajdfad");
+   }
+
+   @Test(expected = FileNotFoundException.class)
+   public void throwsExceptionWhenFilteredFileNotFound() throws Throwable {
+      InputHelper.openAsyncReader("ThisFileShouldNotExist_alkadflkajdfad.bz2");
+   }
+}
@@ -132,19 +132,24 @@ public class InputHelperTest {
    }
 
    @Test
-   public void testBZIP2_FactoryUsesBufferedInputStream() throws Throwable {
+   public void testBZIP2_FactoryUsesBzip2InputStream() throws Throwable {
       InputStream in = new ByteArrayInputStream("BZ".getBytes());
-      BufferedInputStream buffer = mock(BufferedInputStream.class);
-      CBZip2InputStream expected = mock(CBZip2InputStream.class);
+      Bzip2InputStream expected = mock(Bzip2InputStream.class);
 
       PowerMockito.spy(InputHelper.BZIP2_FACTORY);
-      whenNew(BufferedInputStream.class).withArguments(in).thenReturn(buffer);
-      whenNew(CBZip2InputStream.class).withArguments(buffer).thenReturn(expected);
+      whenNew(Bzip2InputStream.class).withArguments(in, true).thenReturn(expected);
       InputStream observed = InputHelper.BZIP2_FACTORY.makeFilter(in);
 
       assertEquals(expected, observed);
    }
 
+   @Test
+   public void testBZIP2_FactoryThrowsExceptionGivenBadHeader() throws Throwable {
+      verifyBzip2_makeFilterThrowsException("BZ".getBytes(), "No block size");
+      verifyBzip2_makeFilterThrowsException("BZh0".getBytes(), "Bad block size");
+      verifyBzip2_makeFilterThrowsException("BZx9".getBytes(), "Bad 3rd character");
+   }
+
    ////////////////////////////////////////////////////////////
    //
    // Test beta DefaultFilterFactoryMap
@@ -155,6 +160,8 @@ public class InputHelperTest {
    public void testMakeDefaultFilterFactoryMap() throws Throwable {
       Map<String, InputHelper.FilterFactory> map = InputHelper.makeDefaultFilterFactoryMap();
       assertEquals(InputHelper.BZIP2_FACTORY, map.get("bz2"));
+      assertEquals(InputHelper.GZIP_FACTORY, map.get("gz"));
+      assertEquals(InputHelper.LZ4_FACTORY, map.get("lz4"));
    }
 
    @Test(expected = UnsupportedOperationException.class)
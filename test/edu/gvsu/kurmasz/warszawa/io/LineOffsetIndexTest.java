@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class LineOffsetIndexTest {
+
+   private List<String> lines;
+   private File file;
+
+   @Before
+   public void setUp() throws Throwable {
+      // Lines of varied length (including empty lines, lines ending in \r\n, and lines long enough to need
+      // multi-byte lengths).  The last line has no newline.
+      Random random = new Random(17);
+      lines = new ArrayList<String>();
+      StringBuilder text = new StringBuilder();
+      for (int i = 0; i < 1000; i++) {
+         StringBuilder line = new StringBuilder();
+         int length = i % 100 == 0 ? 20000 : random.nextInt(60);
+         for (int j = 0; j < length; j++) {
+            line.append((char) ('a' + random.nextInt(26)));
+         }
+         lines.add(line.toString());
+         text.append(line);
+         if (i < 999) {
+            text.append(i % 7 == 0 ? "\r\n" : "\n");
+         }
+      }
+      file = MemoryMappedInputStreamTest.makeTempFile(".txt", text.toString().getBytes());
+   }
+
+   @After
+   public void tearDown() throws Throwable {
+      OutputHelperTest.deleteTempFile(LineOffsetIndex.sidecarFor(file));
+      OutputHelperTest.deleteTempFile(file);
+   }
+
+   private static LineOffsetIndex build(String text) throws IOException {
+      return LineOffsetIndex.build(new ByteArrayInputStream(text.getBytes()));
+   }
+
+   @Test
+   public void countsLines() throws Throwable {
+      assertEquals(0, build("").getLineCount());
+      assertEquals(1, build("a").getLineCount());
+      assertEquals(1, build("a\n").getLineCount());
+      assertEquals(2, build("a\nb").getLineCount());
+      assertEquals(3, build("\n\n\n").getLineCount());
+      assertEquals(1000, LineOffsetIndex.build(file).getLineCount());
+   }
+
+   @Test
+   public void findsOffsets() throws Throwable {
+      LineOffsetIndex index = build("ab\n\ncde\nf");
+      assertEquals(0, index.getOffset(1));
+      assertEquals(3, index.getOffset(2));
+      assertEquals(4, index.getOffset(3));
+      assertEquals(8, index.getOffset(4));
+      assertEquals(9, index.getOffset(5));
+   }
+
+   @Test(expected = IndexOutOfBoundsException.class)
+   public void getOffsetRejectsLinePastEnd() throws Throwable {
+      build("a\nb\n").getOffset(4);
+   }
+
+   @Test(expected = IndexOutOfBoundsException.class)
+   public void getOffsetRejectsLineZero() throws Throwable {
+      build("a\nb\n").getOffset(0);
+   }
+
+   @Test
+   public void readsEveryLine() throws Throwable {
+      LineOffsetIndex index = LineOffsetIndex.build(file);
+      FileChannel channel = new FileInputStream(file).getChannel();
+      try {
+         for (int i = lines.size(); i >= 1; i--) {
+            assertEquals("Line " + i, lines.get(i - 1), index.readLine(channel, i).toString());
+         }
+         assertEquals(0, channel.position());
+      } finally {
+         channel.close();
+      }
+   }
+
+   @Test
+   public void readsRangesOfLines() throws Throwable {
+      LineOffsetIndex index = LineOffsetIndex.build(file);
+      FileChannel channel = new FileInputStream(file).getChannel();
+      try {
+         List<ByteSlice> range = index.readLines(channel, 60, 150);
+         assertEquals(150, range.size());
+         for (int i = 0; i < range.size(); i++) {
+            assertEquals(lines.get(59 + i), range.get(i).toString());
+         }
+         assertEquals(lines.get(999), index.readLines(channel, 1000, 1).get(0).toString());
+         assertTrue(index.readLines(channel, 1001, 0).isEmpty());
+      } finally {
+         channel.close();
+      }
+   }
+
+   @Test(expected = IndexOutOfBoundsException.class)
+   public void readLinesRejectsRangePastEnd() throws Throwable {
+      LineOffsetIndex index = LineOffsetIndex.build(file);
+      FileChannel channel = new FileInputStream(file).getChannel();
+      try {
+         index.readLines(channel, 990, 12);
+      } finally {
+         channel.close();
+      }
+   }
+
+   @Test
+   public void opensAtArbitraryLines() throws Throwable {
+      LineOffsetIndex index = LineOffsetIndex.build(file);
+      LineReader reader = index.open(file, 345);
+      for (int i = 345; i <= 1000; i++) {
+         assertEquals(lines.get(i - 1), reader.nextLine().toString());
+      }
+      assertNull(reader.nextLine());
+      reader.close();
+   }
+
+   @Test
+   public void indexSurvivesWriteAndRead() throws Throwable {
+      LineOffsetIndex index = LineOffsetIndex.build(file);
+      File saved = LineOffsetIndex.sidecarFor(file);
+      index.write(saved);
+      LineOffsetIndex loaded = LineOffsetIndex.read(saved);
+      assertEquals(index.getLineCount(), loaded.getLineCount());
+      assertEquals(index.getFileLength(), loaded.getFileLength());
+      for (int i = 1; i <= index.getLineCount() + 1; i++) {
+         assertEquals(index.getOffset(i), loaded.getOffset(i));
+      }
+      assertTrue(loaded.isValidFor(file));
+      // A little more than one byte per line (the long lines need three).
+      assertTrue("Sidecar is " + saved.length() + " bytes", saved.length() < 1100);
+   }
+
+   @Test
+   public void staleIndexIsRebuilt() throws Throwable {
+      File sidecar = LineOffsetIndex.sidecarFor(file);
+      build("one\ntwo\n").write(sidecar);
+      assertFalse(LineOffsetIndex.read(sidecar).isValidFor(file));
+      LineOffsetIndex index = LineOffsetIndex.loadOrBuild(file);
+      assertEquals(1000, index.getLineCount());
+      assertEquals("Sidecar should have been replaced", 1000, LineOffsetIndex.read(sidecar).getLineCount());
+   }
+
+   @Test(expected = IOException.class)
+   public void readRejectsNonIndexFiles() throws Throwable {
+      LineOffsetIndex.read(file);
+   }
+
+   @Test
+   public void inputHelperCreatesSidecar() throws Throwable {
+      File sidecar = LineOffsetIndex.sidecarFor(file);
+      assertFalse(sidecar.exists());
+      LineReader reader = InputHelper.openLineReaderAt(file.getAbsolutePath(), 777);
+      assertEquals(lines.get(776), reader.nextLine().toString());
+      reader.close();
+      assertTrue(sidecar.exists());
+      reader = InputHelper.openLineReaderAt(file, 2);
+      assertEquals(lines.get(1), reader.nextLine().toString());
+      reader.close();
+   }
+}
@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class LineReaderTest {
+
+   private static LineReader reader(String text, int bufferSize) {
+      return new LineReader(new ByteArrayInputStream(text.getBytes()), bufferSize);
+   }
+
+   private static List<String> lines(LineReader reader) throws IOException {
+      List<String> answer = new ArrayList<String>();
+      for (ByteSlice line = reader.nextLine(); line != null; line = reader.nextLine()) {
+         answer.add(line.toString());
+      }
+      return answer;
+   }
+
+   private static List<String> expected(String... lines) {
+      List<String> answer = new ArrayList<String>();
+      java.util.Collections.addAll(answer, lines);
+      return answer;
+   }
+
+   @Test
+   public void splitsLines() throws Throwable {
+      assertEquals(expected("one", "two", "three"), lines(reader("one\ntwo\nthree\n", 100)));
+   }
+
+   @Test
+   public void returnsUnterminatedLastLine() throws Throwable {
+      assertEquals(expected("one", "two"), lines(reader("one\ntwo", 100)));
+   }
+
+   @Test
+   public void returnsEmptyLines() throws Throwable {
+      assertEquals(expected("", "a", "", ""), lines(reader("\na\n\n\n", 100)));
+   }
+
+   @Test
+   public void handlesEmptyInput() throws Throwable {
+      LineReader reader = reader("", 100);
+      assertNull(reader.nextLine());
+      assertNull(reader.nextLine());
+   }
+
+   @Test
+   public void stripsCarriageReturns() throws Throwable {
+      assertEquals(expected("one", "two", "three"), lines(reader("one\r\ntwo\r\nthree\r", 100)));
+   }
+
+   @Test
+   public void handlesLinesLongerThanBuffer() throws Throwable {
+      String longLine = new String(ParallelBzip2InputStreamTest.makeText(1000, 1)).replace('\n', ' ');
+      assertEquals(expected("a", longLine, "b"), lines(reader("a\n" + longLine + "\nb\n", 3)));
+   }
+
+   @Test
+   public void matchesBufferedReader() throws Throwable {
+      byte[] text = ParallelBzip2InputStreamTest.makeText(200000, 2);
+      BufferedReader br = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(text)));
+      LineReader reader = new LineReader(new ByteArrayInputStream(text), 17);
+      for (String expected = br.readLine(); expected != null; expected = br.readLine()) {
+         assertEquals(expected, reader.nextLine().toString());
+      }
+      assertNull(reader.nextLine());
+   }
+
+   @Test
+   public void reusesSlice() throws Throwable {
+      LineReader reader = reader("one\ntwo\n", 100);
+      ByteSlice first = reader.nextLine();
+      assertSame(first, reader.nextLine());
+      assertEquals("two", first.toString());
+   }
+
+   @Test
+   public void countsLines() throws Throwable {
+      LineReader reader = reader("one\ntwo\nthree", 2);
+      assertEquals(0, reader.getLineNumber());
+      reader.nextLine();
+      reader.nextLine();
+      assertEquals(2, reader.getLineNumber());
+      reader.nextLine();
+      assertNull(reader.nextLine());
+      assertEquals(3, reader.getLineNumber());
+   }
+
+   @Test
+   public void iteratorReturnsStrings() throws Throwable {
+      List<String> observed = new ArrayList<String>();
+      for (String line : reader("one\ntwo\n", 100)) {
+         observed.add(line);
+      }
+      assertEquals(expected("one", "two"), observed);
+   }
+
+   @Test
+   public void iteratorDecodesCharset() throws Throwable {
+      Charset utf8 = Charset.forName("UTF-8");
+      LineReader reader = new LineReader(new ByteArrayInputStream("za\u017c\u00f3\u0142\u0107\ngo\u015bl\u0105\n"
+            .getBytes(utf8)));
+      Iterator<String> it = reader.iterator(utf8);
+      assertEquals("za\u017c\u00f3\u0142\u0107", it.next());
+      assertEquals("go\u015bl\u0105", it.next());
+      assertFalse(it.hasNext());
+   }
+
+   @Test(expected = java.util.NoSuchElementException.class)
+   public void iteratorThrowsExceptionAtEnd() throws Throwable {
+      Iterator<String> it = reader("one", 100).iterator();
+      it.next();
+      it.next();
+   }
+
+   @Test
+   public void iteratorWrapsIOException() throws Throwable {
+      final IOException expected = new IOException("broken");
+      LineReader reader = new LineReader(new InputStream() {
+         @Override
+         public int read() throws IOException {
+            throw expected;
+         }
+      });
+      try {
+         reader.iterator().hasNext();
+         fail("Expected exception");
+      } catch (LineReader.LineReaderException e) {
+         assertSame(expected, e.getCause());
+      }
+   }
+
+   @Test
+   public void openLineReaderUsesMaps() throws Throwable {
+      Map<String, InputStream> streamMap = new HashMap<String, InputStream>();
+      streamMap.put("-", new ByteArrayInputStream("a\nb\n".getBytes()));
+      assertEquals(expected("a", "b"), lines(InputHelper.openLineReader("-", streamMap, null)));
+
+      byte[] text = "x\ny\nz".getBytes();
+      File file = MemoryMappedInputStreamTest.makeTempFile(".bz2", ParallelBzip2InputStreamTest.compress(text, 9));
+      try {
+         assertEquals(expected("x", "y", "z"), lines(InputHelper.openLineReader(file.getAbsolutePath())));
+      } finally {
+         OutputHelperTest.deleteTempFile(file);
+      }
+   }
+
+   @Test(expected = FileNotFoundException.class)
+   public void openLineReaderThrowsExceptionIfFileMissing() throws Throwable {
+      InputHelper.openLineReader("/no/such/file/anywhere.txt");
+   }
+}
@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class LineSamplerTest {
+
+   private File file;
+
+   @After
+   public void tearDown() throws Throwable {
+      if (file != null) {
+         OutputHelperTest.deleteTempFile(file);
+      }
+   }
+
+   // Line i is "i:" followed by "x"s.  Every other line is long.  Lines ending in \r\n and a final line with no
+   // newline are included.
+   private static List<String> makeLines(int count, int longLength) {
+      List<String> lines = new ArrayList<String>();
+      for (int i = 0; i < count; i++) {
+         StringBuilder line = new StringBuilder().append(i).append(':');
+         for (int j = (i % 2 == 0 ? longLength : 0); j > 0; j--) {
+            line.append('x');
+         }
+         lines.add(line.toString());
+      }
+      return lines;
+   }
+
+   private File makeFile(List<String> lines) throws IOException {
+      StringBuilder text = new StringBuilder();
+      for (int i = 0; i < lines.size(); i++) {
+         text.append(lines.get(i));
+         if (i < lines.size() - 1) {
+            text.append(i % 5 == 0 ? "\r\n" : "\n");
+         }
+      }
+      file = MemoryMappedInputStreamTest.makeTempFile(".txt", text.toString().getBytes());
+      return file;
+   }
+
+   private static List<String> strings(List<ByteSlice> slices) {
+      List<String> answer = new ArrayList<String>();
+      for (ByteSlice slice : slices) {
+         answer.add(slice.toString());
+      }
+      return answer;
+   }
+
+   private static List<String> sampleChannel(LineSampler sampler, File file, int k) throws IOException {
+      FileChannel channel = new FileInputStream(file).getChannel();
+      try {
+         return strings(sampler.sample(channel, k));
+      } finally {
+         channel.close();
+      }
+   }
+
+   private static LineSampler randomOnly(long seed) {
+      LineSampler sampler = new LineSampler(new Random(seed));
+      sampler.allowSequentialFallback = false;
+      return sampler;
+   }
+
+   @Test(expected = NullPointerException.class)
+   public void throwsExceptionIfRandomNull() throws Throwable {
+      new LineSampler(null);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void throwsExceptionIfKNegative() throws Throwable {
+      new LineSampler().sample(new ByteArrayInputStream(new byte[0]), -1);
+   }
+
+   @Test
+   public void returnsDistinctCompleteLines() throws Throwable {
+      List<String> lines = makeLines(1000, 50);
+      makeFile(lines);
+      List<String> sample = sampleChannel(randomOnly(3), file, 100);
+      assertEquals(100, sample.size());
+      assertEquals(100, new HashSet<String>(sample).size());
+      assertTrue(new HashSet<String>(lines).containsAll(sample));
+   }
+
+   @Test
+   public void sameSeedGivesSameSample() throws Throwable {
+      makeFile(makeLines(1000, 50));
+      assertEquals(sampleChannel(randomOnly(99), file, 20), sampleChannel(randomOnly(99), file, 20));
+      assertFalse(sampleChannel(randomOnly(99), file, 20).equals(sampleChannel(randomOnly(100), file, 20)));
+   }
+
+   @Test
+   public void correctsForLineLength() throws Throwable {
+      // Half the lines are 30 times as long as the others; but, they should be chosen only half the time.
+      makeFile(makeLines(200, 200));
+      LineSampler sampler = randomOnly(7);
+      int longLines = 0;
+      int trials = 2000;
+      int[] counts = new int[200];
+      for (int i = 0; i < trials; i++) {
+         String line = sampleChannel(sampler, file, 1).get(0);
+         int number = Integer.parseInt(line.substring(0, line.indexOf(':')));
+         counts[number]++;
+         if (number % 2 == 0) {
+            longLines++;
+         }
+      }
+      assertTrue("" + longLines, longLines > 880 && longLines < 1120);
+      // The first and last lines are special cases.
+      assertTrue("" + counts[0], counts[0] > 0 && counts[0] < 30);
+      assertTrue("" + counts[199], counts[199] > 0 && counts[199] < 30);
+   }
+
+   @Test
+   public void returnsWholeFileIfKIsLarge() throws Throwable {
+      List<String> lines = makeLines(50, 10);
+      makeFile(lines);
+      List<String> sample = sampleChannel(new LineSampler(new Random(5)), file, 60);
+      Collections.sort(sample);
+      List<String> expected = new ArrayList<String>(lines);
+      Collections.sort(expected);
+      assertEquals(expected, sample);
+   }
+
+   @Test
+   public void handlesEmptyFilesAndLines() throws Throwable {
+      makeFile(new ArrayList<String>());
+      assertEquals(0, sampleChannel(new LineSampler(), file, 5).size());
+      OutputHelperTest.deleteTempFile(file);
+
+      // The file ends with a newline; so, it has three lines.
+      makeFile(Arrays.asList("", "", "a", ""));
+      assertEquals(Arrays.asList("", "", "a"), sorted(sampleChannel(new LineSampler(), file, 4)));
+   }
+
+   private static List<String> sorted(List<String> list) {
+      Collections.sort(list);
+      return list;
+   }
+
+   @Test
+   public void reservoirReturnsDistinctCompleteLines() throws Throwable {
+      List<String> lines = makeLines(1000, 10);
+      makeFile(lines);
+      List<String> sample = strings(new LineSampler(new Random(3)).sample(new FileInputStream(file), 100));
+      assertEquals(100, sample.size());
+      assertEquals(100, new HashSet<String>(sample).size());
+      assertTrue(new HashSet<String>(lines).containsAll(sample));
+
+      assertEquals(0, new LineSampler().sample(new FileInputStream(file), 0).size());
+      assertEquals(sorted(new ArrayList<String>(lines)),
+            sorted(strings(new LineSampler().sample(new FileInputStream(file), 2000))));
+   }
+
+   @Test
+   public void reservoirIsUniform() throws Throwable {
+      makeFile(makeLines(10, 10));
+      LineSampler sampler = new LineSampler(new Random(11));
+      int[] counts = new int[10];
+      for (int i = 0; i < 3000; i++) {
+         for (String line : strings(sampler.sample(new FileInputStream(file), 3))) {
+            counts[Integer.parseInt(line.substring(0, line.indexOf(':')))]++;
+         }
+      }
+      for (int count : counts) {
+         assertTrue("" + count, count > 800 && count < 1000);
+      }
+   }
+
+   @Test
+   public void samplesCompressedFilesByReadingThem() throws Throwable {
+      List<String> lines = makeLines(300, 10);
+      StringBuilder text = new StringBuilder();
+      for (String line : lines) {
+         text.append(line).append('\n');
+      }
+      file = MemoryMappedInputStreamTest.makeTempFile(".txt.lz4",
+            Lz4FrameOutputStreamTest.compress(text.toString().getBytes()));
+      List<String> sample = strings(new LineSampler(new Random(1)).sample(file.getPath(), 30));
+      assertEquals(30, new HashSet<String>(sample).size());
+      assertTrue(new HashSet<String>(lines).containsAll(sample));
+   }
+
+   @Test
+   public void samplesFilesByName() throws Throwable {
+      List<String> lines = makeLines(300, 10);
+      makeFile(lines);
+      List<String> sample = strings(new LineSampler(new Random(1)).sample(file.getPath(), 30));
+      assertEquals(30, new HashSet<String>(sample).size());
+      assertTrue(new HashSet<String>(lines).containsAll(sample));
+   }
+}
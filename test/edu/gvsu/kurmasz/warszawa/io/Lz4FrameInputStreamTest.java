@@ -0,0 +1,207 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.junit.Test;
+
+import java.io.*;
+
+import static edu.gvsu.kurmasz.warszawa.io.Lz4FrameOutputStreamTest.compress;
+import static edu.gvsu.kurmasz.warszawa.io.ParallelBzip2InputStreamTest.makeText;
+import static edu.gvsu.kurmasz.warszawa.io.ParallelBzip2InputStreamTest.readAll;
+import static org.junit.Assert.*;
+
+/**
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class Lz4FrameInputStreamTest {
+
+   private static final int LINKED = 0x40;
+   private static final int INDEPENDENT = 0x60;
+   private static final int BLOCK_CHECKSUM = 0x10;
+   private static final int CONTENT_SIZE = 0x08;
+
+   private static void writeInt(ByteArrayOutputStream out, int value) {
+      for (int i = 0; i < 4; i++) {
+         out.write(value >>> (8 * i));
+      }
+   }
+
+   // Builds a frame (without a content checksum) from the given raw blocks.  Blocks whose first element is null
+   // are stored uncompressed (the second element is the data).
+   private static byte[] frame(int flags, long contentSize, byte[]... blocks) {
+      ByteArrayOutputStream descriptor = new ByteArrayOutputStream();
+      descriptor.write(flags);
+      descriptor.write(0x40);
+      if ((flags & CONTENT_SIZE) != 0) {
+         writeInt(descriptor, (int) contentSize);
+         writeInt(descriptor, (int) (contentSize >>> 32));
+      }
+      byte[] d = descriptor.toByteArray();
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      writeInt(out, Lz4FrameOutputStream.MAGIC);
+      out.write(d, 0, d.length);
+      out.write(XXHash32.hash(d, 0, d.length, 0) >>> 8);
+      for (int i = 0; i < blocks.length; i++) {
+         byte[] block = blocks[i];
+         boolean stored = block == null;
+         if (stored) {
+            block = blocks[++i];
+         }
+         writeInt(out, block.length | (stored ? 0x80000000 : 0));
+         out.write(block, 0, block.length);
+         if ((flags & BLOCK_CHECKSUM) != 0) {
+            writeInt(out, XXHash32.hash(block, 0, block.length, 0));
+         }
+      }
+      writeInt(out, 0);
+      return out.toByteArray();
+   }
+
+   private static byte[] concat(byte[]... arrays) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      for (byte[] a : arrays) {
+         out.write(a, 0, a.length);
+      }
+      return out.toByteArray();
+   }
+
+   private static byte[] decompress(byte[] compressed) throws IOException {
+      return readAll(new Lz4FrameInputStream(new ByteArrayInputStream(compressed)));
+   }
+
+   // Literals "abcab", then a 7-byte match at offset 3 that overlaps itself, then the literal "!".
+   private static final byte[] OVERLAPPING_MATCH_BLOCK = {0x53, 'a', 'b', 'c', 'a', 'b', 0x03, 0x00, 0x10, '!'};
+
+   @Test
+   public void decodesOverlappingMatch() throws Throwable {
+      assertEquals("abcabcabcabc!", new String(decompress(frame(INDEPENDENT, 0, OVERLAPPING_MATCH_BLOCK))));
+   }
+
+   @Test
+   public void decodesMatchesIntoPreviousLinkedBlock() throws Throwable {
+      // The second block copies 8 bytes from the first block (offset 8).
+      byte[] block2 = {0x04, 0x08, 0x00, 0x10, 'x'};
+      byte[] compressed = frame(LINKED, 0, null, "abcdefgh".getBytes(), block2);
+      assertEquals("abcdefghabcdefghx", new String(decompress(compressed)));
+   }
+
+   @Test(expected = IOException.class)
+   public void independentBlocksCannotReferToPreviousBlock() throws Throwable {
+      byte[] block2 = {0x04, 0x08, 0x00, 0x10, 'x'};
+      decompress(frame(INDEPENDENT, 0, null, "abcdefgh".getBytes(), block2));
+   }
+
+   @Test
+   public void verifiesBlockChecksumsAndContentSize() throws Throwable {
+      byte[] compressed = frame(INDEPENDENT | BLOCK_CHECKSUM | CONTENT_SIZE, 13, OVERLAPPING_MATCH_BLOCK);
+      assertEquals("abcabcabcabc!", new String(decompress(compressed)));
+   }
+
+   @Test(expected = IOException.class)
+   public void throwsExceptionOnBadBlockChecksum() throws Throwable {
+      byte[] compressed = frame(INDEPENDENT | BLOCK_CHECKSUM, 0, OVERLAPPING_MATCH_BLOCK);
+      compressed[compressed.length - 5] ^= 1;
+      decompress(compressed);
+   }
+
+   @Test(expected = IOException.class)
+   public void throwsExceptionOnWrongContentSize() throws Throwable {
+      decompress(frame(INDEPENDENT | CONTENT_SIZE, 12, OVERLAPPING_MATCH_BLOCK));
+   }
+
+   @Test(expected = IOException.class)
+   public void throwsExceptionOnBadContentChecksum() throws Throwable {
+      byte[] compressed = compress(makeText(1000, 80));
+      compressed[compressed.length - 1] ^= 1;
+      decompress(compressed);
+   }
+
+   @Test(expected = IOException.class)
+   public void throwsExceptionOnBadHeaderChecksum() throws Throwable {
+      byte[] compressed = compress(makeText(1000, 81));
+      compressed[6] ^= 1;
+      new Lz4FrameInputStream(new ByteArrayInputStream(compressed));
+   }
+
+   @Test(expected = IOException.class)
+   public void throwsExceptionOnMatchBeforeStartOfBlock() throws Throwable {
+      decompress(frame(INDEPENDENT, 0, new byte[]{0x14, 'a', 0x02, 0x00, 0x10, 'b'}));
+   }
+
+   @Test(expected = IOException.class)
+   public void throwsExceptionIfTruncated() throws Throwable {
+      byte[] compressed = compress(makeText(100000, 82));
+      byte[] truncated = new byte[compressed.length / 2];
+      System.arraycopy(compressed, 0, truncated, 0, truncated.length);
+      decompress(truncated);
+   }
+
+   @Test(expected = IOException.class)
+   public void throwsExceptionIfNotLz4() throws Throwable {
+      new Lz4FrameInputStream(new ByteArrayInputStream("Not compressed at all".getBytes()));
+   }
+
+   @Test
+   public void decodesConcatenatedAndSkippableFrames() throws Throwable {
+      byte[] part1 = makeText(100000, 83);
+      byte[] part2 = makeText(20, 84);
+      ByteArrayOutputStream skippable = new ByteArrayOutputStream();
+      writeInt(skippable, 0x184D2A5F);
+      writeInt(skippable, 3);
+      skippable.write(new byte[]{1, 2, 3}, 0, 3);
+      byte[] compressed = concat(skippable.toByteArray(), compress(part1), skippable.toByteArray(), compress(part2),
+            "trailing".getBytes());
+      assertArrayEquals(concat(part1, part2), decompress(compressed));
+   }
+
+   @Test
+   public void singleByteReadsMatchBulkReads() throws Throwable {
+      byte[] original = makeText(100000, 85);
+      InputStream in = new Lz4FrameInputStream(new ByteArrayInputStream(compress(original)));
+      for (int i = 0; i < original.length; i++) {
+         assertEquals("Byte " + i, original[i] & 0xff, in.read());
+      }
+      assertEquals(-1, in.read());
+      in.close();
+   }
+
+   @Test(expected = IOException.class)
+   public void readAfterCloseThrowsException() throws Throwable {
+      InputStream in = new Lz4FrameInputStream(new ByteArrayInputStream(compress(makeText(100, 86))));
+      in.close();
+      in.read();
+   }
+
+   @Test
+   public void defaultFilterMapAndSniffingFactoryRecognizeLz4() throws Throwable {
+      byte[] original = makeText(1000, 87);
+      assertArrayEquals(original, readAll(InputHelper.DEFAULT_FILTER_FACTORY_MAP.get("lz4").makeFilter(
+            new ByteArrayInputStream(compress(original)))));
+      InputHelper.FilterFactory factory = InputHelper.makeSniffingFilterFactory(
+            InputHelper.DEFAULT_FILTER_FACTORY_MAP);
+      assertArrayEquals(original, readAll(factory.makeFilter(new ByteArrayInputStream(compress(original)))));
+   }
+
+   @Test(expected = InputHelper.FilterFactory.FilterFactoryException.class)
+   public void factoryThrowsFilterFactoryExceptionOnBadData() throws Throwable {
+      InputHelper.LZ4_FACTORY.makeFilter(new ByteArrayInputStream(new byte[]{0x04, 0x22, 0x4d, 0x19}));
+   }
+}
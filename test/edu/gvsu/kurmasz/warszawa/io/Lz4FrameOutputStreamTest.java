@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.util.Random;
+
+import static edu.gvsu.kurmasz.warszawa.io.ParallelBzip2InputStreamTest.makeText;
+import static edu.gvsu.kurmasz.warszawa.io.ParallelBzip2InputStreamTest.readAll;
+import static org.junit.Assert.*;
+
+/**
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class Lz4FrameOutputStreamTest {
+
+   public static byte[] compress(byte[] data, int blockSize, boolean contentChecksum) throws IOException {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      Lz4FrameOutputStream lz4 = new Lz4FrameOutputStream(out, blockSize, contentChecksum);
+      lz4.write(data);
+      lz4.close();
+      return out.toByteArray();
+   }
+
+   public static byte[] compress(byte[] data) throws IOException {
+      return compress(data, Lz4FrameOutputStream.DEFAULT_BLOCK_SIZE, true);
+   }
+
+   private static byte[] decompress(byte[] compressed) throws IOException {
+      return readAll(new Lz4FrameInputStream(new ByteArrayInputStream(compressed)));
+   }
+
+   // The output of "lz4 < /dev/null"
+   @Test
+   public void writesSameEmptyFrameAsReferenceImplementation() throws Throwable {
+      byte[] expected = InputHelperTest.makeByteArray(new int[]{
+            0x04, 0x22, 0x4d, 0x18, 0x64, 0x40, 0xa7, 0x00, 0x00, 0x00, 0x00, 0x05, 0x5d, 0xcc, 0x02});
+      assertArrayEquals(expected, compress(new byte[0]));
+   }
+
+   @Test
+   public void roundTripsText() throws Throwable {
+      byte[] original = makeText(1000000, 70);
+      byte[] compressed = compress(original);
+      assertTrue("Text should compress: " + compressed.length, compressed.length < original.length / 2);
+      assertArrayEquals(original, decompress(compressed));
+   }
+
+   @Test
+   public void roundTripsEveryBlockSize() throws Throwable {
+      byte[] original = makeText(600000, 71);
+      int[] sizes = {64 * 1024, 256 * 1024, 1024 * 1024, 4 * 1024 * 1024};
+      for (int size : sizes) {
+         assertArrayEquals("Block size " + size, original, decompress(compress(original, size, false)));
+      }
+   }
+
+   @Test
+   public void roundTripsShortAndRepetitiveInput() throws Throwable {
+      for (int length = 0; length < 40; length++) {
+         byte[] original = makeText(length, length);
+         assertArrayEquals("Length " + length, original, decompress(compress(original)));
+      }
+      byte[] zeros = new byte[300000];
+      byte[] compressed = compress(zeros);
+      assertTrue("Zeros should compress: " + compressed.length, compressed.length < 3000);
+      assertArrayEquals(zeros, decompress(compressed));
+   }
+
+   @Test
+   public void storesIncompressibleBlocksUncompressed() throws Throwable {
+      byte[] original = new byte[200000];
+      new Random(72).nextBytes(original);
+      byte[] compressed = compress(original);
+      assertTrue("Overhead should be small: " + compressed.length, compressed.length < original.length + 40);
+      assertArrayEquals(original, decompress(compressed));
+   }
+
+   @Test
+   public void singleByteWritesMatchBulkWrites() throws Throwable {
+      byte[] original = makeText(150000, 73);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      Lz4FrameOutputStream lz4 = new Lz4FrameOutputStream(out);
+      for (byte b : original) {
+         lz4.write(b);
+      }
+      lz4.close();
+      assertArrayEquals(compress(original), out.toByteArray());
+   }
+
+   @Test
+   public void flushWritesBufferedData() throws Throwable {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      Lz4FrameOutputStream lz4 = new Lz4FrameOutputStream(out);
+      lz4.write("Hello".getBytes());
+      lz4.flush();
+      byte[] flushed = out.toByteArray();
+      lz4.write(" world".getBytes());
+      lz4.close();
+      assertTrue("Data should be written by flush", flushed.length > 7 + 4);
+      assertEquals("Hello world", new String(decompress(out.toByteArray())));
+   }
+
+   @Test
+   public void finishDoesNotCloseUnderlyingStream() throws Throwable {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      Lz4FrameOutputStream lz4 = new Lz4FrameOutputStream(out);
+      lz4.write("first".getBytes());
+      lz4.finish();
+      lz4 = new Lz4FrameOutputStream(out);
+      lz4.write("second".getBytes());
+      lz4.close();
+      assertEquals("firstsecond", new String(decompress(out.toByteArray())));
+   }
+
+   @Test(expected = IOException.class)
+   public void writeAfterFinishThrowsException() throws Throwable {
+      Lz4FrameOutputStream lz4 = new Lz4FrameOutputStream(new ByteArrayOutputStream());
+      lz4.finish();
+      lz4.write(1);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void rejectsInvalidBlockSize() throws Throwable {
+      new Lz4FrameOutputStream(new ByteArrayOutputStream(), 100000, true);
+   }
+
+   @Test
+   public void outputHelperFactoryCompresses() throws Throwable {
+      byte[] original = makeText(50000, 74);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      OutputStream lz4 = OutputHelper.LZ4_FACTORY.makeFilter(out);
+      lz4.write(original);
+      lz4.close();
+      assertArrayEquals(original, readAll(InputHelper.LZ4_FACTORY.makeFilter(
+            new ByteArrayInputStream(out.toByteArray()))));
+   }
+}
@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class MemoryMappedInputStreamTest {
+
+   private File tempFile;
+   private byte[] contents;
+
+   public static File makeTempFile(String suffix, byte[] contents) throws IOException {
+      File file = File.createTempFile("warszawaTest", suffix);
+      FileOutputStream out = new FileOutputStream(file);
+      out.write(contents);
+      out.close();
+      return file;
+   }
+
+   @Before
+   public void setUp() throws Throwable {
+      contents = ParallelBzip2InputStreamTest.makeText(10000, 17);
+      tempFile = makeTempFile(".txt", contents);
+   }
+
+   @After
+   public void tearDown() throws Throwable {
+      OutputHelperTest.deleteTempFile(tempFile);
+   }
+
+   @Test
+   public void readsWholeFile() throws Throwable {
+      assertArrayEquals(contents, ParallelBzip2InputStreamTest.readAll(new MemoryMappedInputStream(tempFile)));
+   }
+
+   @Test
+   public void readsAcrossSeveralWindows() throws Throwable {
+      assertArrayEquals(contents, ParallelBzip2InputStreamTest.readAll(new MemoryMappedInputStream(tempFile, 999)));
+   }
+
+   @Test
+   public void singleByteReadsCrossWindows() throws Throwable {
+      InputStream in = new MemoryMappedInputStream(tempFile, 64);
+      for (int i = 0; i < contents.length; i++) {
+         assertEquals("Byte " + i, contents[i] & 0xff, in.read());
+      }
+      assertEquals(-1, in.read());
+      assertEquals(0, in.available());
+      in.close();
+   }
+
+   @Test
+   public void handlesEmptyFile() throws Throwable {
+      File empty = makeTempFile(".txt", new byte[0]);
+      try {
+         MemoryMappedInputStream in = new MemoryMappedInputStream(empty);
+         assertEquals(-1, in.read());
+         assertEquals(-1, in.read(new byte[10]));
+         assertEquals(0, in.getByteBuffer().remaining());
+         in.close();
+      } finally {
+         OutputHelperTest.deleteTempFile(empty);
+      }
+   }
+
+   @Test
+   public void skipMovesPositionAcrossWindows() throws Throwable {
+      MemoryMappedInputStream in = new MemoryMappedInputStream(tempFile, 100);
+      assertEquals(2500, in.skip(2500));
+      assertEquals(2500, in.position());
+      assertEquals(contents[2500] & 0xff, in.read());
+      assertEquals(contents.length - 2501, in.skip(100000));
+      assertEquals(-1, in.read());
+      in.close();
+   }
+
+   @Test
+   public void markAndResetWork() throws Throwable {
+      MemoryMappedInputStream in = new MemoryMappedInputStream(tempFile, 100);
+      assertTrue(in.markSupported());
+      in.skip(50);
+      in.mark(0);
+      byte[] first = new byte[500];
+      assertEquals(50, in.read(first));   // reads stop at the end of the window
+      in.skip(3000);
+      in.reset();
+      assertEquals(50, in.position());
+      assertEquals(contents[50] & 0xff, in.read());
+      in.close();
+   }
+
+   @Test
+   public void getByteBufferDoesNotAdvanceStream() throws Throwable {
+      MemoryMappedInputStream in = new MemoryMappedInputStream(tempFile);
+      in.skip(10);
+      ByteBuffer buffer = in.getByteBuffer();
+      assertEquals(contents.length - 10, buffer.remaining());
+      assertEquals(contents[10], buffer.get());
+      assertTrue(buffer.isReadOnly());
+      assertEquals(10, in.position());
+      in.close();
+   }
+
+   @Test(expected = IOException.class)
+   public void readAfterCloseThrowsException() throws Throwable {
+      InputStream in = new MemoryMappedInputStream(tempFile);
+      in.close();
+      in.read();
+   }
+
+   @Test(expected = FileNotFoundException.class)
+   public void throwsExceptionIfFileMissing() throws Throwable {
+      new MemoryMappedInputStream(new File("ThisFileShouldNotExist_alkadflkajdfad"));
+   }
+
+   //
+   // InputHelper
+   //
+
+   @Test
+   public void openMemoryMappedInputStreamReadsUnfilteredFile() throws Throwable {
+      InputStream in = InputHelper.openMemoryMappedInputStream(tempFile, InputHelper.DEFAULT_FILTER_FACTORY_MAP);
+      assertTrue(in instanceof MemoryMappedInputStream);
+      assertArrayEquals(contents, ParallelBzip2InputStreamTest.readAll(in));
+   }
+
+   @Test
+   public void openMemoryMappedInputStreamAppliesFilters() throws Throwable {
+      File compressed = makeTempFile(".bz2", ParallelBzip2InputStreamTest.compress(contents, 1));
+      try {
+         InputStream in = InputHelper.openMemoryMappedInputStream(compressed.getAbsolutePath(), null,
+               InputHelper.DEFAULT_FILTER_FACTORY_MAP);
+         assertArrayEquals(contents, ParallelBzip2InputStreamTest.readAll(in));
+      } finally {
+         OutputHelperTest.deleteTempFile(compressed);
+      }
+   }
+
+   @Test
+   public void openMemoryMappedInputStreamUsesStreamMap() throws Throwable {
+      InputStream expected = new ByteArrayInputStream(new byte[0]);
+      Map<String, InputStream> streamMap = new HashMap<String, InputStream>();
+      streamMap.put("fred.bz2", expected);
+      assertSame(expected, InputHelper.openMemoryMappedInputStream("fred.bz2", streamMap,
+            InputHelper.DEFAULT_FILTER_FACTORY_MAP));
+   }
+
+   @Test(expected = InputHelper.FilterFactory.FilterFactoryException.class)
+   public void openMemoryMappedInputStreamThrowsExceptionOnBadFilter() throws Throwable {
+      File bad = makeTempFile(".bz2", new byte[]{0, 1, 2, 3});
+      try {
+         InputHelper.openMemoryMappedInputStream(bad, InputHelper.DEFAULT_FILTER_FACTORY_MAP);
+      } finally {
+         OutputHelperTest.deleteTempFile(bad);
+      }
+   }
+
+   @Test(expected = FileNotFoundException.class)
+   public void openMemoryMappedInputStreamThrowsExceptionWhenFileNotFound() throws Throwable {
+      InputHelper.openMemoryMappedInputStream("ThisFileShouldNotExist_alkadflkajdfad", null, null);
+   }
+
+   @Test
+   public void mapFileMapsEntireFile() throws Throwable {
+      ByteBuffer buffer = InputHelper.mapFile(tempFile);
+      assertEquals(contents.length, buffer.remaining());
+      byte[] observed = new byte[contents.length];
+      buffer.get(observed);
+      assertArrayEquals(contents, observed);
+   }
+}
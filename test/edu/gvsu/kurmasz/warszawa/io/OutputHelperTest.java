@@ -118,6 +118,91 @@ public class OutputHelperTest {
       OutputHelper.getOutputStream("thisDirectoryDoesntExistIHope_alkjfladllj/wow", OutputHelper.DEFAULT_OUTPUT_STREAM_MAP);
    }
 
+   @Test
+   public void testGetOutputStreamAppliesFilterBySuffix() throws Throwable {
+      Map<String, OutputHelper.FilterFactory> filterMap = new HashMap<String, OutputHelper.FilterFactory>();
+      filterMap.put("lz4", OutputHelper.LZ4_FACTORY);
+      File temp = File.createTempFile("OutputHelperTest", ".lz4");
+      try {
+         OutputStream out = OutputHelper.getOutputStream(temp.getAbsolutePath(), null, filterMap);
+         assertTrue("Should be filtered", out instanceof Lz4FrameOutputStream);
+         out.write("Hello, World!".getBytes());
+         out.close();
+         InputStream in = InputHelper.openFilteredInputStream(temp.getAbsolutePath());
+         assertEquals("Hello, World!", new Scanner(in).nextLine());
+         in.close();
+      } finally {
+         deleteTempFile(temp);
+      }
+   }
+
+   @Test
+   public void testBzip2FactoryOutputCanBeReadByInputHelper() throws Throwable {
+      Map<String, OutputHelper.FilterFactory> filterMap = new HashMap<String, OutputHelper.FilterFactory>();
+      filterMap.put("bz2", OutputHelper.BZIP2_FACTORY);
+      File temp = File.createTempFile("OutputHelperTest", ".bz2");
+      try {
+         OutputStream out = OutputHelper.getOutputStream(temp.getAbsolutePath(), null, filterMap);
+         out.write("Hello, World!".getBytes());
+         out.close();
+         InputStream in = InputHelper.openFilteredInputStream(temp.getAbsolutePath());
+         assertEquals("Hello, World!", new Scanner(in).nextLine());
+         in.close();
+      } finally {
+         deleteTempFile(temp);
+      }
+   }
+
+   @Test
+   public void testDefaultFilterFactoryMap() throws Throwable {
+      assertSame(OutputHelper.PARALLEL_BZIP2_FACTORY, OutputHelper.DEFAULT_FILTER_FACTORY_MAP.get("bz2"));
+      assertSame(OutputHelper.LZ4_FACTORY, OutputHelper.DEFAULT_FILTER_FACTORY_MAP.get("lz4"));
+      assertEquals(2, OutputHelper.DEFAULT_FILTER_FACTORY_MAP.size());
+   }
+
+   @Test
+   public void testOpenMappedAndFilteredWriterCompressesBySuffix() throws Throwable {
+      File temp = File.createTempFile("OutputHelperTest", ".bz2");
+      try {
+         PrintWriter writer = OutputHelper.openMappedAndFilteredWriter(temp.getAbsolutePath(), false);
+         writer.println("Hello, World!");
+         writer.close();
+         InputStream raw = new FileInputStream(temp);
+         assertEquals('B', raw.read());
+         assertEquals('Z', raw.read());
+         raw.close();
+         InputStream in = InputHelper.openFilteredInputStream(temp.getAbsolutePath());
+         assertEquals("Hello, World!", new Scanner(in).nextLine());
+         in.close();
+      } finally {
+         deleteTempFile(temp);
+      }
+   }
+
+   @Test
+   public void testGetOutputStreamDoesNotFilterStreamsFromMap() throws Throwable {
+      Map<String, OutputHelper.FilterFactory> filterMap = new HashMap<String, OutputHelper.FilterFactory>();
+      filterMap.put("lz4", OutputHelper.LZ4_FACTORY);
+      OutputStream fredStream = mock(OutputStream.class);
+      Map<String, OutputStream> testMap = new HashMap<String, OutputStream>();
+      testMap.put("fred.lz4", fredStream);
+      assertEquals(fredStream, OutputHelper.getOutputStream("fred.lz4", testMap, filterMap));
+   }
+
+   @Test
+   public void testGetOutputStreamIgnoresUnknownSuffix() throws Throwable {
+      Map<String, OutputHelper.FilterFactory> filterMap = new HashMap<String, OutputHelper.FilterFactory>();
+      filterMap.put("lz4", OutputHelper.LZ4_FACTORY);
+      File temp = File.createTempFile("OutputHelperTest", ".txt");
+      try {
+         OutputStream out = OutputHelper.getOutputStream(temp.getAbsolutePath(), null, filterMap);
+         assertTrue("Should not be filtered", out instanceof FileOutputStream);
+         out.close();
+      } finally {
+         deleteTempFile(temp);
+      }
+   }
+
 
    ////////////////////////////////////////////////////////////
    //
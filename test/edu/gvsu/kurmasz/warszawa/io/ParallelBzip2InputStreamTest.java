@@ -0,0 +1,221 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.apache.tools.bzip2.CBZip2OutputStream;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class ParallelBzip2InputStreamTest {
+
+   private static final String[] WORDS = {"to", "be", "or", "not", "that", "is", "the", "question", "whether",
+         "tis", "nobler", "in", "mind", "suffer", "slings", "arrows", "outrageous", "fortune", "\n"};
+
+   // Generates text that compresses reasonably well, but not so well that each block covers megabytes of input.
+   public static byte[] makeText(int size, long seed) {
+      Random r = new Random(seed);
+      ByteArrayOutputStream out = new ByteArrayOutputStream(size + 20);
+      while (out.size() < size) {
+         byte[] word = WORDS[r.nextInt(WORDS.length)].getBytes();
+         out.write(word, 0, word.length);
+         out.write(r.nextInt(10) == 0 ? '0' + r.nextInt(10) : ' ');
+      }
+      byte[] answer = new byte[size];
+      System.arraycopy(out.toByteArray(), 0, answer, 0, size);
+      return answer;
+   }
+
+   public static byte[] compress(byte[] data, int level) throws IOException {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      out.write('B');
+      out.write('Z');
+      CBZip2OutputStream bz = new CBZip2OutputStream(out, level);
+      bz.write(data);
+      bz.close();
+      return out.toByteArray();
+   }
+
+   public static byte[] readAll(InputStream in) throws IOException {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] buffer = new byte[7919];  // prime, so reads don't line up with block boundaries
+      for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+         out.write(buffer, 0, n);
+      }
+      in.close();
+      return out.toByteArray();
+   }
+
+   private static byte[] concat(byte[]... arrays) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      for (byte[] a : arrays) {
+         out.write(a, 0, a.length);
+      }
+      return out.toByteArray();
+   }
+
+   @Test
+   public void decompressesSingleBlock() throws Throwable {
+      InputStream in = new ParallelBzip2InputStream(
+            new ByteArrayInputStream(InputHelperTest.COMPRESSED_BZIPPED_MESSAGE), 2);
+      assertEquals(InputHelperTest.UNCOMPRESSED_BZIPPED_MESSAGE, new String(readAll(in)));
+   }
+
+   @Test
+   public void decompressesManyBlocks() throws Throwable {
+      byte[] original = makeText(750000, 42);
+      byte[] compressed = compress(original, 1);
+      InputStream in = new ParallelBzip2InputStream(new ByteArrayInputStream(compressed), 3);
+      assertArrayEquals(original, readAll(in));
+   }
+
+   @Test
+   public void decompressesWithSingleThread() throws Throwable {
+      byte[] original = makeText(250000, 43);
+      InputStream in = new ParallelBzip2InputStream(new ByteArrayInputStream(compress(original, 1)), 1);
+      assertArrayEquals(original, readAll(in));
+   }
+
+   @Test
+   public void decompressesConcatenatedStreams() throws Throwable {
+      byte[] part1 = makeText(150000, 1);
+      byte[] part2 = makeText(10, 2);
+      byte[] part3 = makeText(220000, 3);
+      byte[] compressed = concat(compress(part1, 1), compress(part2, 9), compress(part3, 2));
+      InputStream in = new ParallelBzip2InputStream(new ByteArrayInputStream(compressed), 4);
+      assertArrayEquals(concat(part1, part2, part3), readAll(in));
+   }
+
+   @Test
+   public void singleByteReadsMatchBulkReads() throws Throwable {
+      byte[] original = makeText(120000, 44);
+      InputStream in = new ParallelBzip2InputStream(new ByteArrayInputStream(compress(original, 1)), 2);
+      for (int i = 0; i < original.length; i++) {
+         assertEquals("Byte " + i, original[i] & 0xff, in.read());
+      }
+      assertEquals(-1, in.read());
+      in.close();
+   }
+
+   // The output of "bzip2 < /dev/null" (CBZip2OutputStream can't compress empty input.)
+   public static final byte[] EMPTY_BZIP2_STREAM = InputHelperTest.makeByteArray(new int[]{
+         0x42, 0x5a, 0x68, 0x39, 0x17, 0x72, 0x45, 0x38, 0x50, 0x90, 0x00, 0x00, 0x00, 0x00});
+
+   @Test
+   public void handlesEmptyStream() throws Throwable {
+      InputStream in = new ParallelBzip2InputStream(new ByteArrayInputStream(EMPTY_BZIP2_STREAM), 2);
+      assertEquals(-1, in.read());
+      in.close();
+   }
+
+   @Test
+   public void ignoresTrailingGarbage() throws Throwable {
+      byte[] original = makeText(1000, 45);
+      byte[] compressed = concat(compress(original, 9), "trailing".getBytes());
+      InputStream in = new ParallelBzip2InputStream(new ByteArrayInputStream(compressed), 2);
+      assertArrayEquals(original, readAll(in));
+   }
+
+   @Test
+   public void canShareExecutor() throws Throwable {
+      ExecutorService executor = Executors.newFixedThreadPool(2);
+      try {
+         byte[] original1 = makeText(300000, 46);
+         byte[] original2 = makeText(300000, 47);
+         InputStream in1 = new ParallelBzip2InputStream(new ByteArrayInputStream(compress(original1, 1)), executor, 3);
+         InputStream in2 = new ParallelBzip2InputStream(new ByteArrayInputStream(compress(original2, 1)), executor, 3);
+         assertArrayEquals(original1, readAll(in1));
+         assertArrayEquals(original2, readAll(in2));
+         assertFalse("Shared executor should not be shut down", executor.isShutdown());
+      } finally {
+         executor.shutdown();
+      }
+   }
+
+   @Test(expected = IOException.class)
+   public void throwsExceptionIfNotBzip2() throws Throwable {
+      new ParallelBzip2InputStream(new ByteArrayInputStream("Not compressed at all".getBytes()), 2);
+   }
+
+   @Test(expected = IOException.class)
+   public void throwsExceptionIfTruncated() throws Throwable {
+      byte[] compressed = compress(makeText(1000, 48), 9);
+      byte[] truncated = new byte[compressed.length - 8];
+      System.arraycopy(compressed, 0, truncated, 0, truncated.length);
+      readAll(new ParallelBzip2InputStream(new ByteArrayInputStream(truncated), 2));
+   }
+
+   @Test(expected = IOException.class)
+   public void readAfterCloseThrowsException() throws Throwable {
+      InputStream in = new ParallelBzip2InputStream(
+            new ByteArrayInputStream(InputHelperTest.COMPRESSED_BZIPPED_MESSAGE), 2);
+      in.close();
+      in.read();
+   }
+
+   @Test
+   public void scannerReportsBlockOffsetsAndLevels() throws Throwable {
+      byte[] compressed = compress(makeText(350000, 49), 1);
+      Bzip2BlockScanner scanner = new Bzip2BlockScanner(new ByteArrayInputStream(compressed));
+      Bzip2Block first = scanner.next();
+      assertEquals("First block begins right after the 4-byte header", 32, first.getBitOffset());
+      assertEquals(1, first.getLevel());
+      long previousEnd = first.getBitOffset() + first.getBitLength();
+      int count = 1;
+      for (Bzip2Block b = scanner.next(); b != null; b = scanner.next()) {
+         assertEquals("Blocks should be contiguous", previousEnd, b.getBitOffset());
+         previousEnd = b.getBitOffset() + b.getBitLength();
+         count++;
+      }
+      assertTrue("Expected several blocks, found " + count, count >= 3);
+   }
+
+   @Test
+   public void copyBitsShiftsBits() throws Throwable {
+      byte[] src = {(byte) 0x0f, (byte) 0xf0, (byte) 0xaa};
+      assertArrayEquals(new byte[]{(byte) 0xff, (byte) 0x00}, Bzip2BlockScanner.copyBits(src, 4, 12));
+      assertArrayEquals(new byte[]{(byte) 0xfe, (byte) 0x00}, Bzip2BlockScanner.copyBits(src, 5, 9));
+      assertArrayEquals(new byte[]{(byte) 0xf0}, Bzip2BlockScanner.copyBits(src, 8, 4));
+   }
+
+   @Test
+   public void factoryDecompresses() throws Throwable {
+      InputStream in = InputHelper.makeParallelBzip2Factory(2).makeFilter(
+            new ByteArrayInputStream(InputHelperTest.COMPRESSED_BZIPPED_MESSAGE));
+      assertEquals(InputHelperTest.UNCOMPRESSED_BZIPPED_MESSAGE, new String(readAll(in)));
+   }
+
+   @Test(expected = InputHelper.FilterFactory.FilterFactoryException.class)
+   public void factoryThrowsFilterFactoryExceptionOnBadData() throws Throwable {
+      InputHelper.PARALLEL_BZIP2_FACTORY.makeFilter(new ByteArrayInputStream(new byte[]{0x42, 0x5b}));
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void makeParallelBzip2FactoryRejectsZeroThreads() throws Throwable {
+      InputHelper.makeParallelBzip2Factory(0);
+   }
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.junit.Test;
+
+import java.io.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class ParallelBzip2OutputStreamTest {
+
+   private static byte[] compress(byte[] data, int blockSize, int threads) throws IOException {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      OutputStream bz = new ParallelBzip2OutputStream(out, blockSize, threads);
+      bz.write(data);
+      bz.close();
+      return out.toByteArray();
+   }
+
+   private static byte[] decompress(byte[] compressed) throws IOException {
+      return ParallelBzip2InputStreamTest.readAll(
+            InputHelper.BZIP2_FACTORY.makeFilter(new ByteArrayInputStream(compressed)));
+   }
+
+   @Test(expected = NullPointerException.class)
+   public void throwsExceptionIfStreamNull() throws Throwable {
+      new ParallelBzip2OutputStream(null);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void throwsExceptionIfBlockSizeTooLarge() throws Throwable {
+      new ParallelBzip2OutputStream(new ByteArrayOutputStream(), 10, 1);
+   }
+
+   @Test
+   public void writesValidStreamForEmptyInput() throws Throwable {
+      byte[] compressed = compress(new byte[0], 9, 2);
+      assertEquals('B', compressed[0]);
+      assertEquals('Z', compressed[1]);
+      assertEquals('h', compressed[2]);
+      assertEquals(0, decompress(compressed).length);
+   }
+
+   @Test
+   public void roundTripsSmallInput() throws Throwable {
+      byte[] data = "Hello, World!\n".getBytes();
+      assertArrayEquals(data, decompress(compress(data, 9, 1)));
+   }
+
+   @Test
+   public void roundTripsManyChunks() throws Throwable {
+      // 100k chunks, so the data is split into several bzip2 streams.
+      byte[] data = ParallelBzip2InputStreamTest.makeText(1000000, 5);
+      byte[] compressed = compress(data, 1, 3);
+      assertArrayEquals(data, decompress(compressed));
+      assertArrayEquals(data, ParallelBzip2InputStreamTest.readAll(
+            InputHelper.PARALLEL_BZIP2_FACTORY.makeFilter(new ByteArrayInputStream(compressed))));
+   }
+
+   @Test
+   public void outputMatchesSingleThreadedOutput() throws Throwable {
+      byte[] data = ParallelBzip2InputStreamTest.makeText(500000, 6);
+      assertArrayEquals(compress(data, 1, 1), compress(data, 1, 4));
+   }
+
+   @Test
+   public void flushWritesDataWrittenSoFar() throws Throwable {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      OutputStream bz = new ParallelBzip2OutputStream(out, 9, 2);
+      byte[] first = "first part\n".getBytes();
+      bz.write(first);
+      bz.flush();
+      assertArrayEquals(first, decompress(out.toByteArray()));
+      bz.write('x');
+      bz.close();
+      assertEquals("first part\nx", new String(decompress(out.toByteArray())));
+   }
+
+   @Test
+   public void closeIsIdempotent() throws Throwable {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      OutputStream bz = new ParallelBzip2OutputStream(out, 9, 2);
+      bz.write(1);
+      bz.close();
+      int length = out.size();
+      bz.close();
+      assertEquals(length, out.size());
+   }
+
+   @Test(expected = IOException.class)
+   public void throwsExceptionIfWriteAfterClose() throws Throwable {
+      OutputStream bz = new ParallelBzip2OutputStream(new ByteArrayOutputStream(), 9, 2);
+      bz.close();
+      bz.write(1);
+   }
+}
@@ -0,0 +1,291 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import static edu.gvsu.kurmasz.warszawa.io.ParallelBzip2InputStreamTest.makeText;
+import static edu.gvsu.kurmasz.warszawa.io.ParallelBzip2InputStreamTest.readAll;
+import static org.junit.Assert.*;
+
+/**
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class ParallelGzipInputStreamTest {
+
+   public static byte[] gzip(byte[] data) throws IOException {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      GZIPOutputStream gz = new GZIPOutputStream(out);
+      gz.write(data);
+      gz.close();
+      return out.toByteArray();
+   }
+
+   private static void writeShort(ByteArrayOutputStream out, int value) {
+      out.write(value & 0xff);
+      out.write((value >> 8) & 0xff);
+   }
+
+   private static void writeInt(ByteArrayOutputStream out, long value) {
+      writeShort(out, (int) (value & 0xffff));
+      writeShort(out, (int) ((value >> 16) & 0xffff));
+   }
+
+   // Writes one BGZF member (a gzip member with a "BC" extra field giving its size) containing data[off, off+len).
+   // "name" (if not null) is also stored in the header, which bgzip itself never does.
+   private static void writeBgzfMember(ByteArrayOutputStream out, byte[] data, int off, int len, String name) {
+      Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+      deflater.setInput(data, off, len);
+      deflater.finish();
+      byte[] buffer = new byte[len + 1024];
+      int compressedLength = 0;
+      while (!deflater.finished()) {
+         compressedLength += deflater.deflate(buffer, compressedLength, buffer.length - compressedLength);
+      }
+      deflater.end();
+      CRC32 crc = new CRC32();
+      crc.update(data, off, len);
+
+      byte[] nameBytes = name == null ? new byte[0] : (name + "\0").getBytes();
+      int headerLength = 18 + nameBytes.length;
+      out.write(0x1f);
+      out.write(0x8b);
+      out.write(8);
+      out.write(name == null ? 0x04 : 0x0c);
+      writeInt(out, 0);
+      out.write(0);
+      out.write(0xff);
+      writeShort(out, 6);
+      out.write('B');
+      out.write('C');
+      writeShort(out, 2);
+      writeShort(out, headerLength + compressedLength + 8 - 1);
+      out.write(nameBytes, 0, nameBytes.length);
+      out.write(buffer, 0, compressedLength);
+      writeInt(out, crc.getValue());
+      writeInt(out, len);
+   }
+
+   public static byte[] bgzf(byte[] data, int memberSize) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      for (int off = 0; off < data.length; off += memberSize) {
+         writeBgzfMember(out, data, off, Math.min(memberSize, data.length - off), null);
+      }
+      writeBgzfMember(out, new byte[0], 0, 0, null);   // bgzip's end-of-file marker
+      return out.toByteArray();
+   }
+
+   private static byte[] concat(byte[]... arrays) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      for (byte[] a : arrays) {
+         out.write(a, 0, a.length);
+      }
+      return out.toByteArray();
+   }
+
+   @Test
+   public void decompressesSingleMember() throws Throwable {
+      byte[] original = makeText(100000, 50);
+      InputStream in = new ParallelGzipInputStream(new ByteArrayInputStream(gzip(original)), 2);
+      assertArrayEquals(original, readAll(in));
+   }
+
+   @Test
+   public void decompressesConcatenatedUnsizedMembers() throws Throwable {
+      byte[] part1 = makeText(70000, 51);
+      byte[] part2 = makeText(10, 52);
+      InputStream in = new ParallelGzipInputStream(new ByteArrayInputStream(concat(gzip(part1), gzip(part2))), 2);
+      assertArrayEquals(concat(part1, part2), readAll(in));
+   }
+
+   @Test
+   public void decompressesBgzf() throws Throwable {
+      byte[] original = makeText(1000000, 53);
+      InputStream in = new ParallelGzipInputStream(new ByteArrayInputStream(bgzf(original, 65280)), 3);
+      assertArrayEquals(original, readAll(in));
+   }
+
+   @Test
+   public void decompressesBgzfWithSingleThread() throws Throwable {
+      byte[] original = makeText(300000, 54);
+      InputStream in = new ParallelGzipInputStream(new ByteArrayInputStream(bgzf(original, 10000)), 1);
+      assertArrayEquals(original, readAll(in));
+   }
+
+   @Test
+   public void decompressesUnsizedMembersAfterBgzf() throws Throwable {
+      byte[] part1 = makeText(200000, 55);
+      byte[] part2 = makeText(50000, 56);
+      byte[] compressed = concat(bgzf(part1, 30000), gzip(part2));
+      InputStream in = new ParallelGzipInputStream(new ByteArrayInputStream(compressed), 2);
+      assertArrayEquals(concat(part1, part2), readAll(in));
+   }
+
+   @Test
+   public void skipsOtherHeaderFields() throws Throwable {
+      byte[] original = makeText(5000, 57);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      writeBgzfMember(out, original, 0, 3000, "first.txt");
+      writeBgzfMember(out, original, 3000, 2000, "second.txt");
+      InputStream in = new ParallelGzipInputStream(new ByteArrayInputStream(out.toByteArray()), 2);
+      assertArrayEquals(original, readAll(in));
+   }
+
+   @Test
+   public void singleByteReadsMatchBulkReads() throws Throwable {
+      byte[] original = makeText(50000, 58);
+      InputStream in = new ParallelGzipInputStream(new ByteArrayInputStream(bgzf(original, 7000)), 2);
+      for (int i = 0; i < original.length; i++) {
+         assertEquals("Byte " + i, original[i] & 0xff, in.read());
+      }
+      assertEquals(-1, in.read());
+      in.close();
+   }
+
+   @Test
+   public void handlesEmptyBgzf() throws Throwable {
+      InputStream in = new ParallelGzipInputStream(new ByteArrayInputStream(bgzf(new byte[0], 100)), 2);
+      assertEquals(-1, in.read());
+      in.close();
+   }
+
+   @Test
+   public void ignoresTrailingGarbage() throws Throwable {
+      byte[] original = makeText(20000, 59);
+      byte[] compressed = concat(bgzf(original, 5000), "trailing".getBytes());
+      InputStream in = new ParallelGzipInputStream(new ByteArrayInputStream(compressed), 2);
+      assertArrayEquals(original, readAll(in));
+   }
+
+   @Test(expected = IOException.class)
+   public void throwsExceptionIfNotGzip() throws Throwable {
+      new ParallelGzipInputStream(new ByteArrayInputStream("Not compressed at all".getBytes()), 2);
+   }
+
+   @Test(expected = IOException.class)
+   public void throwsExceptionOnCrcError() throws Throwable {
+      byte[] compressed = bgzf(makeText(20000, 60), 5000);
+      compressed[compressed.length - 28 - 8] ^= 1;    // the CRC of the last non-empty member
+      readAll(new ParallelGzipInputStream(new ByteArrayInputStream(compressed), 2));
+   }
+
+   // Returns the deflate data and trailer of a gzip member whose recorded size is "size".
+   private static byte[] memberWithRecordedSize(byte[] original, long size) throws IOException {
+      byte[] compressed = gzip(original);
+      byte[] data = new byte[compressed.length - 10];   // GZIPOutputStream writes a 10-byte header
+      System.arraycopy(compressed, 10, data, 0, data.length);
+      for (int i = 0; i < 4; i++) {
+         data[data.length - 4 + i] = (byte) (size >>> (8 * i));
+      }
+      return data;
+   }
+
+   @Test
+   public void inflateTreatsRecordedSizeAsHint() throws Throwable {
+      byte[] original = makeText(200000, 71);
+      assertArrayEquals(original, ParallelGzipInputStream.inflate(memberWithRecordedSize(original, 200000)));
+   }
+
+   @Test(expected = IOException.class)
+   public void inflateThrowsIOExceptionIfRecordedSizeIsHuge() throws Throwable {
+      ParallelGzipInputStream.inflate(memberWithRecordedSize(makeText(1000, 72), 0xffffffffL));
+   }
+
+   @Test(expected = IOException.class)
+   public void inflateThrowsIOExceptionIfRecordedSizeIsJustUnder2GB() throws Throwable {
+      ParallelGzipInputStream.inflate(memberWithRecordedSize(makeText(1000, 73), 0x7ffffff0L));
+   }
+
+   @Test(expected = IOException.class)
+   public void throwsExceptionIfTruncated() throws Throwable {
+      byte[] compressed = bgzf(makeText(20000, 61), 5000);
+      byte[] truncated = new byte[compressed.length - 40];
+      System.arraycopy(compressed, 0, truncated, 0, truncated.length);
+      readAll(new ParallelGzipInputStream(new ByteArrayInputStream(truncated), 2));
+   }
+
+   @Test(expected = IOException.class)
+   public void readAfterCloseThrowsException() throws Throwable {
+      InputStream in = new ParallelGzipInputStream(new ByteArrayInputStream(bgzf(makeText(100, 62), 50)), 2);
+      in.close();
+      in.read();
+   }
+
+   @Test
+   public void closeMidReadClosesSequentialDecompressor() throws Throwable {
+      final boolean[] closed = {false};
+      InputStream raw = new ByteArrayInputStream(gzip(makeText(100000, 70))) {
+         @Override
+         public void close() throws IOException {
+            closed[0] = true;
+            super.close();
+         }
+      };
+      ParallelGzipInputStream in = new ParallelGzipInputStream(raw, 2);
+      byte[] buffer = new byte[1000];
+      assertTrue(in.read(buffer) > 0);
+      InputStream sequential = in.getSequential();
+      assertNotNull(sequential);
+      in.close();
+      assertTrue(closed[0]);
+      try {
+         sequential.available();
+         fail("GZIPInputStream was not closed.");
+      } catch (IOException e) {
+         // expected
+      }
+   }
+
+   @Test
+   public void factoriesDecompress() throws Throwable {
+      byte[] original = makeText(100000, 63);
+      assertArrayEquals(original, readAll(InputHelper.GZIP_FACTORY.makeFilter(
+            new ByteArrayInputStream(bgzf(original, 20000)))));
+      assertArrayEquals(original, readAll(InputHelper.makeParallelGzipFactory(2).makeFilter(
+            new ByteArrayInputStream(bgzf(original, 20000)))));
+   }
+
+   @Test
+   public void sniffingFactoryRecognizesGzip() throws Throwable {
+      byte[] original = makeText(1000, 64);
+      InputHelper.FilterFactory factory = InputHelper.makeSniffingFilterFactory(
+            InputHelper.DEFAULT_FILTER_FACTORY_MAP);
+      assertArrayEquals(original, readAll(factory.makeFilter(new ByteArrayInputStream(gzip(original)))));
+   }
+
+   @Test(expected = InputHelper.FilterFactory.FilterFactoryException.class)
+   public void gzipFactoryThrowsFilterFactoryExceptionOnBadData() throws Throwable {
+      InputHelper.GZIP_FACTORY.makeFilter(new ByteArrayInputStream(new byte[]{0x1f, (byte) 0x8c}));
+   }
+
+   @Test(expected = InputHelper.FilterFactory.FilterFactoryException.class)
+   public void parallelFactoryThrowsFilterFactoryExceptionOnBadData() throws Throwable {
+      InputHelper.PARALLEL_GZIP_FACTORY.makeFilter(new ByteArrayInputStream(new byte[]{0x1f, (byte) 0x8c}));
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void makeParallelGzipFactoryRejectsZeroThreads() throws Throwable {
+      InputHelper.makeParallelGzipFactory(0);
+   }
+}
@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+
+import static edu.gvsu.kurmasz.warszawa.io.MemoryMappedInputStreamTest.makeTempFile;
+import static edu.gvsu.kurmasz.warszawa.io.OutputHelperTest.deleteTempFile;
+import static edu.gvsu.kurmasz.warszawa.io.ParallelBzip2InputStreamTest.compress;
+import static edu.gvsu.kurmasz.warszawa.io.ParallelBzip2InputStreamTest.makeText;
+import static edu.gvsu.kurmasz.warszawa.io.ParallelBzip2InputStreamTest.readAll;
+import static org.junit.Assert.*;
+
+/**
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class PooledInputStreamTest {
+
+   @Test
+   public void readsEntireStream() throws Throwable {
+      byte[] contents = makeText(100000, 41);
+      BufferPool pool = new BufferPool();
+      assertArrayEquals(contents, readAll(new PooledInputStream(new ByteArrayInputStream(contents), pool, 1000)));
+   }
+
+   @Test
+   public void readsOneByteAtATime() throws Throwable {
+      byte[] contents = makeText(5000, 42);
+      InputStream in = new PooledInputStream(new ByteArrayInputStream(contents), new BufferPool());
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      for (int c = in.read(); c >= 0; c = in.read()) {
+         out.write(c);
+      }
+      in.close();
+      assertArrayEquals(contents, out.toByteArray());
+   }
+
+   @Test
+   public void mixesSmallAndLargeReads() throws Throwable {
+      byte[] contents = makeText(50000, 43);
+      InputStream in = new PooledInputStream(new ByteArrayInputStream(contents), new BufferPool(), 1024);
+      byte[] result = new byte[contents.length];
+      int pos = 0;
+      int size = 1;
+      for (int n = in.read(result, pos, Math.min(size, result.length - pos)); n > 0;
+           n = in.read(result, pos, Math.min(size, result.length - pos))) {
+         pos += n;
+         size = size * 3 % 5000 + 1;
+      }
+      assertEquals(contents.length, pos);
+      assertArrayEquals(contents, result);
+   }
+
+   @Test
+   public void skipsAndReportsAvailable() throws Throwable {
+      byte[] contents = makeText(5000, 44);
+      InputStream in = new PooledInputStream(new ByteArrayInputStream(contents), new BufferPool(), 1024);
+      assertEquals(contents[0], (byte) in.read());
+      assertEquals(contents.length - 1, in.available());
+      assertEquals(100, in.skip(100));
+      assertEquals(contents[101], (byte) in.read());
+      long skipped = 0;
+      while (skipped < 4000) {
+         skipped += in.skip(4000 - skipped);
+      }
+      assertEquals(contents[4102], (byte) in.read());
+      assertFalse(in.markSupported());
+   }
+
+   @Test
+   public void closeReturnsBufferToPool() throws Throwable {
+      BufferPool pool = new BufferPool();
+      InputStream in = new PooledInputStream(new ByteArrayInputStream(new byte[10]), pool);
+      assertEquals(0, pool.getIdleCount());
+      in.close();
+      assertEquals(1, pool.getIdleCount());
+      in.close();
+      assertEquals(1, pool.getIdleCount());
+
+      new PooledInputStream(new ByteArrayInputStream(new byte[10]), pool).close();
+      assertEquals(1, pool.getHits());
+      assertEquals(1, pool.getMisses());
+   }
+
+   @Test(expected = IOException.class)
+   public void readThrowsExceptionAfterClose() throws Throwable {
+      InputStream in = new PooledInputStream(new ByteArrayInputStream(new byte[10]), new BufferPool());
+      in.close();
+      in.read();
+   }
+
+   @Test(expected = NullPointerException.class)
+   public void constructorThrowsExceptionIfPoolNull() throws Throwable {
+      new PooledInputStream(new ByteArrayInputStream(new byte[10]), null);
+   }
+
+   @Test
+   public void openPooledInputStreamPoolsBzip2Buffers() throws Throwable {
+      byte[] contents = makeText(20000, 45);
+      File file = makeTempFile(".txt.bz2", compress(contents, 9));
+      BufferPool pool = new BufferPool();
+      try {
+         for (int i = 0; i < 5; i++) {
+            assertArrayEquals(contents, readAll(InputHelper.openPooledInputStream(file.getAbsolutePath(), null,
+                  InputHelper.makePooledFilterFactoryMap(pool), pool)));
+         }
+         // Each open takes a stream buffer, a bzip2 input buffer, and a bzip2 block buffer.  Only the first open
+         // should allocate them.
+         assertEquals(3, pool.getMisses());
+         assertEquals(12, pool.getHits());
+         assertEquals(3, pool.getIdleCount());
+      } finally {
+         deleteTempFile(file);
+      }
+   }
+
+   @Test
+   public void closingReadAheadEarlyDoesNotCorruptOtherPooledStreams() throws Throwable {
+      // Many small blocks, so the read-ahead thread is still decoding when the stream is closed.
+      byte[] first = makeText(1500000, 46);
+      byte[] second = makeText(300000, 47);
+      File firstFile = makeTempFile(".txt.bz2", compress(first, 1));
+      File secondFile = makeTempFile(".txt.bz2", compress(second, 1));
+      BufferPool pool = new BufferPool();
+      Map<String, InputHelper.FilterFactory> filterMap = InputHelper.makePooledFilterFactoryMap(pool);
+      try {
+         for (int i = 0; i < 20; i++) {
+            InputStream in = InputHelper.openReadAheadInputStream(firstFile.getAbsolutePath(), null, filterMap, 4,
+                  64 * 1024);
+            byte[] start = new byte[5000];
+            int n = in.read(start);
+            assertTrue(n > 0);
+            assertEquals(first[0], start[0]);
+            in.close();
+            assertArrayEquals(second, readAll(InputHelper.openInputStream(secondFile.getAbsolutePath(), null,
+                  filterMap)));
+         }
+      } finally {
+         deleteTempFile(firstFile);
+         deleteTempFile(secondFile);
+      }
+   }
+
+   @Test
+   public void openPooledInputStreamUsesStreamMap() throws Throwable {
+      byte[] contents = {1, 2, 3};
+      Map<String, InputStream> streamMap = new HashMap<String, InputStream>();
+      streamMap.put("-", new ByteArrayInputStream(contents));
+      assertArrayEquals(contents, readAll(InputHelper.openPooledInputStream("-", streamMap, null,
+            new BufferPool())));
+   }
+
+   @Test
+   public void openPooledInputStreamUsesDefaults() throws Throwable {
+      byte[] contents = makeText(20000, 46);
+      File file = makeTempFile(".txt.bz2", compress(contents, 1));
+      try {
+         assertArrayEquals(contents, readAll(InputHelper.openPooledInputStream(file.getAbsolutePath())));
+      } finally {
+         deleteTempFile(file);
+      }
+   }
+
+   @Test
+   public void pooledBzip2FactoryReleasesBuffersIfHeaderInvalid() throws Throwable {
+      BufferPool pool = new BufferPool();
+      try {
+         InputHelper.makePooledBzip2Factory(pool).makeFilter(new ByteArrayInputStream("BZx9abc".getBytes()));
+         fail("Expected FilterFactoryException");
+      } catch (InputHelper.FilterFactory.FilterFactoryException e) {
+         // expected
+      }
+      assertEquals(1, pool.getIdleCount());
+   }
+
+   @Test(expected = FileNotFoundException.class)
+   public void openPooledInputStreamThrowsExceptionIfFileMissing() throws Throwable {
+      InputHelper.openPooledInputStream("/no/such/file/anywhere.txt");
+   }
+}
@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class PooledWriterTest {
+
+   private static final Charset UTF8 = Charset.forName("UTF-8");
+
+   private static String makeString(int length) {
+      StringBuilder builder = new StringBuilder();
+      for (int i = 0; builder.length() < length; i++) {
+         builder.append("line ").append(i).append(" é中😀\n");
+      }
+      return builder.substring(0, length);
+   }
+
+   @Test
+   public void encodesLikeOutputStreamWriter() throws Throwable {
+      String text = makeString(50000);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      Writer writer = new PooledWriter(out, UTF8, new BufferPool(), 1000);
+      writer.write(text);
+      writer.close();
+      assertArrayEquals(text.getBytes(UTF8), out.toByteArray());
+   }
+
+   @Test
+   public void handlesSurrogatePairSplitAcrossWrites() throws Throwable {
+      // The buffer fills between the two halves of each surrogate pair.
+      String text = makeString(20000);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      Writer writer = new PooledWriter(out, UTF8, new BufferPool(), BufferPool.MIN_SIZE);
+      for (int i = 0; i < text.length(); i++) {
+         writer.write(text.charAt(i));
+      }
+      writer.close();
+      assertEquals(text, new String(out.toByteArray(), UTF8));
+   }
+
+   @Test
+   public void writesCharArraysAndSubstrings() throws Throwable {
+      String text = makeString(10000);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      Writer writer = new PooledWriter(out, UTF8, new BufferPool());
+      writer.write(text.toCharArray(), 0, 5000);
+      writer.write(text, 5000, 5000);
+      writer.close();
+      assertEquals(text, new String(out.toByteArray(), UTF8));
+   }
+
+   @Test
+   public void replacesUnmappableCharacters() throws Throwable {
+      Charset ascii = Charset.forName("US-ASCII");
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      Writer writer = new PooledWriter(out, ascii, new BufferPool());
+      writer.write("aéb\ud800");
+      writer.close();
+
+      ByteArrayOutputStream expected = new ByteArrayOutputStream();
+      Writer reference = new OutputStreamWriter(expected, ascii);
+      reference.write("aéb\ud800");
+      reference.close();
+      assertArrayEquals(expected.toByteArray(), out.toByteArray());
+   }
+
+   @Test
+   public void flushWritesBufferedCharacters() throws Throwable {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      Writer writer = new PooledWriter(out, UTF8, new BufferPool());
+      writer.write("hello");
+      assertEquals(0, out.size());
+      writer.flush();
+      assertEquals("hello", out.toString("UTF-8"));
+   }
+
+   @Test
+   public void closeReturnsBuffersToPool() throws Throwable {
+      BufferPool pool = new BufferPool();
+      for (int i = 0; i < 3; i++) {
+         Writer writer = new PooledWriter(new ByteArrayOutputStream(), UTF8, pool);
+         writer.write("x");
+         writer.close();
+         writer.close();
+      }
+      assertEquals(2, pool.getMisses());
+      assertEquals(4, pool.getHits());
+      assertEquals(2, pool.getIdleCount());
+   }
+
+   @Test(expected = IOException.class)
+   public void writeThrowsExceptionAfterClose() throws Throwable {
+      Writer writer = new PooledWriter(new ByteArrayOutputStream(), UTF8, new BufferPool());
+      writer.close();
+      writer.write("x");
+   }
+
+   @Test
+   public void openWriterUsesPool() throws Throwable {
+      BufferPool pool = new BufferPool();
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      PrintWriter writer = OutputHelper.openWriter(out, UTF8, false, pool);
+      writer.println("Hello, é");
+      writer.close();
+      assertEquals("Hello, é" + System.getProperty("line.separator"), out.toString("UTF-8"));
+      assertEquals(2, pool.getIdleCount());
+   }
+
+   @Test
+   public void openWriterUsesMap() throws Throwable {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      Map<String, OutputStream> map = new HashMap<String, OutputStream>();
+      map.put("-", out);
+      PrintWriter writer = OutputHelper.openWriter("-", map, UTF8, true, new BufferPool());
+      writer.println("abc");
+      assertEquals("abc" + System.getProperty("line.separator"), out.toString("UTF-8"));
+      writer.close();
+   }
+
+   @Test
+   public void openPooledWriterWritesFile() throws Throwable {
+      File file = File.createTempFile("warszawaTest", ".txt");
+      try {
+         PrintWriter writer = OutputHelper.openPooledWriter(file.getAbsolutePath(), UTF8, false);
+         writer.print("pooled");
+         writer.close();
+         assertEquals("pooled", new String(ParallelBzip2InputStreamTest.readAll(new FileInputStream(file)),
+               UTF8));
+      } finally {
+         OutputHelperTest.deleteTempFile(file);
+      }
+   }
+}
@@ -0,0 +1,346 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class PrimitivePrintWriterTest {
+
+   private static final Charset UTF8 = Charset.forName("UTF-8");
+
+   // Writes the same output to a PrimitivePrintWriter and a regular PrintWriter and compares the bytes.
+   private static abstract class Script {
+      abstract void run(PrintWriter out);
+
+      void verify(Charset charset, int bufferSize) {
+         ByteArrayOutputStream expected = new ByteArrayOutputStream();
+         PrintWriter regular = new PrintWriter(new OutputStreamWriter(expected, charset));
+         run(regular);
+         regular.close();
+
+         ByteArrayOutputStream observed = new ByteArrayOutputStream();
+         PrimitivePrintWriter primitive = new PrimitivePrintWriter(observed, charset, false, bufferSize);
+         run(primitive);
+         primitive.close();
+         assertFalse(primitive.checkError());
+         assertArrayEquals(expected.toByteArray(), observed.toByteArray());
+      }
+
+      void verify(Charset charset) {
+         verify(charset, PrimitivePrintWriter.DEFAULT_BUFFER_SIZE);
+         verify(charset, 64);
+      }
+   }
+
+   private static String format(double d) {
+      byte[] b = new byte[32];
+      int length = PrimitivePrintWriter.formatDouble(d, b, 0, true);
+      return length < 0 ? null : new String(b, 0, length);
+   }
+
+   // Verifies that the formatted double reads back as d and is no longer than Double.toString.
+   private static void verifyDouble(double d) {
+      String observed = format(d);
+      String expected = Double.toString(d);
+      if (observed == null) {
+         return;
+      }
+      assertEquals(observed, Double.doubleToLongBits(d), Double.doubleToLongBits(Double.parseDouble(observed)));
+      assertTrue(observed + " vs " + expected, observed.length() <= expected.length());
+      assertEquals(observed + " vs " + expected, expected.contains("E"), observed.contains("E"));
+      if (observed.length() == expected.length()) {
+         assertEquals(expected, observed);
+      }
+   }
+
+   @Test(expected = NullPointerException.class)
+   public void throwsExceptionIfStreamNull() throws Throwable {
+      new PrimitivePrintWriter(null, UTF8, false);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void throwsExceptionIfBufferSizeNotPositive() throws Throwable {
+      new PrimitivePrintWriter(new ByteArrayOutputStream(), UTF8, false, 0);
+   }
+
+   @Test
+   public void printsIntsAndLongsLikePrintWriter() throws Throwable {
+      new Script() {
+         void run(PrintWriter out) {
+            int[] ints = {0, 1, -1, 9, 10, 99, 100, 12345, -98765, Integer.MAX_VALUE, Integer.MIN_VALUE};
+            for (int i : ints) {
+               out.print(i);
+               out.print(' ');
+               out.println(i);
+            }
+            long[] longs = {0L, 7L, -10L, 1000000000000L, Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE + 1};
+            for (long l : longs) {
+               out.println(l);
+            }
+            Random random = new Random(42);
+            for (int i = 0; i < 10000; i++) {
+               out.print(random.nextInt());
+               out.print(',');
+               out.println(random.nextLong() >> random.nextInt(64));
+            }
+         }
+      }.verify(UTF8);
+   }
+
+   @Test
+   public void printsStringsLikePrintWriter() throws Throwable {
+      final String text = "plain ASCII, café, €100, 😀 smile, lone \ud83d high, lone \ude00 low, "
+            + "Ā߿ࠀ￿";
+      Script script = new Script() {
+         void run(PrintWriter out) {
+            out.println(text);
+            out.print(text.toCharArray());
+            out.write(text, 3, 20);
+            for (int i = 0; i < text.length(); i++) {
+               out.write(text.charAt(i));
+            }
+            out.println(new StringBuilder(text));
+            out.printf("%d %s %.2f%n", 17, "x", 2.5);
+            out.print(true);
+            out.print('é');
+            out.println((Object) null);
+         }
+      };
+      script.verify(UTF8);
+      script.verify(Charset.forName("US-ASCII"));
+      script.verify(Charset.forName("ISO-8859-1"));
+      script.verify(Charset.forName("UTF-16"));
+   }
+
+   @Test
+   public void splitsSurrogatePairsAcrossCalls() throws Throwable {
+      new Script() {
+         void run(PrintWriter out) {
+            out.write('\ud83d');
+            out.write('\ude00');
+            out.write("\ud83d");
+            out.write("\ude00\ud83d");
+            out.write(new char[]{'\ude01'});
+            out.print(5);
+         }
+      }.verify(UTF8);
+   }
+
+   @Test
+   public void writesLongStringsThroughSmallBuffer() throws Throwable {
+      final StringBuilder text = new StringBuilder();
+      Random random = new Random(7);
+      for (int i = 0; i < 20000; i++) {
+         text.append((char) (random.nextInt(4) == 0 ? 0x80 + random.nextInt(0xd000) : 'a' + random.nextInt(26)));
+      }
+      new Script() {
+         void run(PrintWriter out) {
+            out.println(text.toString());
+            out.print(text.toString().toCharArray());
+         }
+      }.verify(UTF8);
+   }
+
+   @Test
+   public void formatsSpecialDoubles() throws Throwable {
+      assertEquals("NaN", format(Double.NaN));
+      assertEquals("Infinity", format(Double.POSITIVE_INFINITY));
+      assertEquals("-Infinity", format(Double.NEGATIVE_INFINITY));
+      assertEquals("0.0", format(0.0));
+      assertEquals("-0.0", format(-0.0));
+   }
+
+   @Test
+   public void formatsCommonDoubles() throws Throwable {
+      assertEquals("1.0", format(1.0));
+      assertEquals("-2.5", format(-2.5));
+      assertEquals("0.1", format(0.1));
+      assertEquals("100.0", format(100.0));
+      assertEquals("3.14159", format(3.14159));
+      assertEquals("1234567.0", format(1234567.0));
+      assertEquals("1.0E7", format(1e7));
+      assertEquals("1.234E10", format(1.234e10));
+      assertEquals("0.001", format(0.001));
+      assertEquals("0.002", format(0.002));
+      assertEquals("1.0E-4", format(1e-4));
+      assertEquals("-6.02E-12", format(-6.02e-12));
+      assertEquals("0.30000000000000004", Double.toString(0.1 + 0.2));
+   }
+
+   @Test
+   public void formattedDoublesReadBack() throws Throwable {
+      Random random = new Random(11);
+      for (int i = 0; i < 100000; i++) {
+         verifyDouble(random.nextDouble());
+         verifyDouble(random.nextInt(1000000) / 1000.0);
+         verifyDouble(random.nextGaussian() * Math.pow(10, random.nextInt(40) - 20));
+         verifyDouble(Double.longBitsToDouble(random.nextLong()));
+      }
+      for (int i = -330; i <= 310; i++) {
+         verifyDouble(Double.parseDouble("1e" + i));
+         verifyDouble(Double.parseDouble("4.5e" + i));
+      }
+      verifyDouble(Double.MIN_VALUE);
+      verifyDouble(Double.MAX_VALUE);
+      verifyDouble(Double.MIN_NORMAL);
+   }
+
+   private static String print(double d, boolean shortest) {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      PrimitivePrintWriter out = new PrimitivePrintWriter(bytes, UTF8, false, 64, shortest);
+      out.print(d);
+      out.close();
+      return bytes.toString();
+   }
+
+   @Test
+   public void printsDoublesLikeStringValueOfByDefault() throws Throwable {
+      double[] values = {9.68e22, 2.48e23, 2e23, 8.41e21, 1e16, 9.999999999999998e15, 0.002, 1e-5, 123.456,
+            -7.5e-10, 4.9e-324, Double.MAX_VALUE};
+      for (double value : values) {
+         assertEquals(String.valueOf(value), print(value, false));
+      }
+      Random random = new Random(12);
+      for (int i = 0; i < 100000; i++) {
+         double value = Double.parseDouble((random.nextInt(100000) - 50000) + "e" + (random.nextInt(60) - 30));
+         assertEquals(String.valueOf(value), print(value, false));
+      }
+   }
+
+   @Test
+   public void printsShortestDoublesWhenRequested() throws Throwable {
+      assertEquals("2.0E23", print(2e23, true));
+      assertEquals("9.68E22", print(9.68e22, true));
+      assertEquals("0.002", print(0.002, true));
+   }
+
+   @Test
+   public void printsDoublesThatReadBack() throws Throwable {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      PrimitivePrintWriter out = new PrimitivePrintWriter(bytes, UTF8, false);
+      Random random = new Random(3);
+      double[] values = new double[1000];
+      for (int i = 0; i < values.length; i++) {
+         values[i] = random.nextGaussian() * Math.pow(10, random.nextInt(60) - 30);
+         out.println(values[i]);
+      }
+      out.close();
+      BufferedReader in = new BufferedReader(new StringReader(bytes.toString("UTF-8")));
+      for (double value : values) {
+         assertEquals(value, Double.parseDouble(in.readLine()), 0.0);
+      }
+      assertNull(in.readLine());
+   }
+
+   @Test
+   public void autoflushWritesAtEndOfLine() throws Throwable {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      PrimitivePrintWriter out = new PrimitivePrintWriter(bytes, UTF8, true);
+      out.print(12);
+      assertEquals(0, bytes.size());
+      out.println(34L);
+      assertEquals("1234" + System.getProperty("line.separator"), bytes.toString("UTF-8"));
+      out.close();
+   }
+
+   @Test
+   public void flushWritesBuffer() throws Throwable {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      PrimitivePrintWriter out = new PrimitivePrintWriter(bytes, UTF8, false);
+      out.print(-5);
+      out.print(2.5);
+      assertEquals(0, bytes.size());
+      out.flush();
+      assertEquals("-52.5", bytes.toString("UTF-8"));
+      out.close();
+   }
+
+   @Test
+   public void setsErrorAfterClose() throws Throwable {
+      PrimitivePrintWriter out = new PrimitivePrintWriter(new ByteArrayOutputStream(), UTF8, false);
+      out.close();
+      assertFalse(out.checkError());
+      out.print(5);
+      assertTrue(out.checkError());
+   }
+
+   @Test
+   public void setsErrorWhenStreamFails() throws Throwable {
+      PrimitivePrintWriter out = new PrimitivePrintWriter(new OutputStream() {
+         @Override
+         public void write(int b) throws IOException {
+            throw new IOException("broken");
+         }
+      }, UTF8, false, 64);
+      for (int i = 0; i < 100; i++) {
+         out.print(i);
+      }
+      assertTrue(out.checkError());
+   }
+
+   @Test
+   public void writesToFileChannel() throws Throwable {
+      File file = File.createTempFile("primitive", ".txt");
+      try {
+         PrimitivePrintWriter out = OutputHelper.openPrimitiveWriter(file.getPath(), UTF8, false);
+         for (int i = 0; i < 100000; i++) {
+            out.println(i);
+         }
+         out.close();
+         BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+         for (int i = 0; i < 100000; i++) {
+            assertEquals(Integer.toString(i), in.readLine());
+         }
+         assertNull(in.readLine());
+         in.close();
+      } finally {
+         assertTrue(file.delete());
+      }
+   }
+
+   @Test
+   public void writesCompressedFile() throws Throwable {
+      File file = File.createTempFile("primitive", ".txt.lz4");
+      try {
+         PrimitivePrintWriter out = OutputHelper.openPrimitiveWriter(file.getPath(), UTF8, false);
+         for (long i = 0; i < 1000; i++) {
+            out.println(i * i);
+         }
+         out.close();
+         BufferedReader in = new BufferedReader(new InputStreamReader(
+               InputHelper.openFilteredInputStream(file.getPath()), "UTF-8"));
+         for (long i = 0; i < 1000; i++) {
+            assertEquals(Long.toString(i * i), in.readLine());
+         }
+         assertNull(in.readLine());
+         in.close();
+      } finally {
+         assertTrue(file.delete());
+      }
+   }
+}
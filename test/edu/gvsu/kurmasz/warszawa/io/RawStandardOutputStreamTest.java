@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class RawStandardOutputStreamTest {
+
+   // Records the size of each write and whether the stream was flushed or closed.
+   private static class RecordingOutputStream extends ByteArrayOutputStream {
+      int writes = 0;
+      int flushes = 0;
+      boolean closed = false;
+
+      @Override
+      public synchronized void write(byte[] b, int off, int len) {
+         writes++;
+         super.write(b, off, len);
+      }
+
+      @Override
+      public void flush() {
+         flushes++;
+      }
+
+      @Override
+      public void close() {
+         closed = true;
+      }
+   }
+
+   @Test(expected = NullPointerException.class)
+   public void throwsExceptionIfStreamNull() throws Throwable {
+      new RawStandardOutputStream(null, 10);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void throwsExceptionIfBufferSizeNotPositive() throws Throwable {
+      new RawStandardOutputStream(new ByteArrayOutputStream(), 0);
+   }
+
+   @Test
+   public void buffersUntilFull() throws Throwable {
+      RecordingOutputStream out = new RecordingOutputStream();
+      RawStandardOutputStream stream = new RawStandardOutputStream(out, 8);
+      stream.write("abc\n".getBytes());
+      stream.write('d');
+      assertEquals(0, out.size());
+      stream.write("efgh".getBytes());
+      assertEquals("abc\nd", out.toString());
+      assertEquals(1, out.writes);
+      stream.flush();
+      assertEquals("abc\ndefgh", out.toString());
+      assertEquals(1, out.flushes);
+   }
+
+   @Test
+   public void writesSingleBytesWhenFull() throws Throwable {
+      RecordingOutputStream out = new RecordingOutputStream();
+      RawStandardOutputStream stream = new RawStandardOutputStream(out, 4);
+      for (char c : "0123456789".toCharArray()) {
+         stream.write(c);
+      }
+      assertEquals("01234567", out.toString());
+      assertEquals(2, out.writes);
+      stream.flush();
+      assertEquals("0123456789", out.toString());
+   }
+
+   @Test
+   public void writesLargeArraysDirectly() throws Throwable {
+      RecordingOutputStream out = new RecordingOutputStream();
+      RawStandardOutputStream stream = new RawStandardOutputStream(out, 4);
+      stream.write('x');
+      stream.write("0123456789".getBytes(), 1, 8);
+      assertEquals("x12345678", out.toString());
+      assertEquals(2, out.writes);
+   }
+
+   @Test
+   public void closeFlushesButDoesNotClose() throws Throwable {
+      RecordingOutputStream out = new RecordingOutputStream();
+      RawStandardOutputStream stream = new RawStandardOutputStream(out, 100);
+      stream.write("data".getBytes());
+      stream.close();
+      assertEquals("data", out.toString());
+      assertFalse(out.closed);
+      stream.write('!');
+      stream.flush();
+      assertEquals("data!", out.toString());
+   }
+
+   @Test
+   public void failedWriteIsNotRetried() throws Throwable {
+      final int[] attempts = {0};
+      RawStandardOutputStream stream = new RawStandardOutputStream(new OutputStream() {
+         @Override
+         public void write(int b) throws IOException {
+            throw new IOException("Broken pipe");
+         }
+
+         @Override
+         public void write(byte[] b, int off, int len) throws IOException {
+            attempts[0]++;
+            throw new IOException("Broken pipe");
+         }
+      }, 100);
+      stream.write("data".getBytes());
+      try {
+         stream.flush();
+         fail("Expected IOException");
+      } catch (IOException e) {
+         // expected
+      }
+      stream.flush();
+      assertEquals(1, attempts[0]);
+   }
+
+   @Test
+   public void standardStreamsAreSingletons() throws Throwable {
+      assertSame(RawStandardOutputStream.getStandardOutput(), RawStandardOutputStream.getStandardOutput());
+      assertSame(RawStandardOutputStream.getStandardError(), RawStandardOutputStream.getStandardError());
+      assertNotSame(RawStandardOutputStream.getStandardOutput(), RawStandardOutputStream.getStandardError());
+      RawStandardOutputStream.flushAll();
+   }
+
+   @Test
+   public void rawMapHasSameNamesAsDefaultMap() throws Throwable {
+      Map<String, OutputStream> map = OutputHelper.makeRawOutputStreamMap();
+      assertEquals(OutputHelper.DEFAULT_OUTPUT_STREAM_MAP.keySet(), map.keySet());
+      for (String name : new String[]{"-", "stdout", "STDOUT"}) {
+         assertSame(RawStandardOutputStream.getStandardOutput(), map.get(name));
+      }
+      for (String name : new String[]{"stderr", "STDERR"}) {
+         assertSame(RawStandardOutputStream.getStandardError(), map.get(name));
+      }
+   }
+}
@@ -0,0 +1,304 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class ReadAheadInputStreamTest {
+
+   // Returns the data, then throws a RuntimeException caused by the given exception.
+   private static class FailingInputStream extends ByteArrayInputStream {
+      private final IOException exception;
+
+      FailingInputStream(byte[] data, IOException exception) {
+         super(data);
+         this.exception = exception;
+      }
+
+      @Override
+      public synchronized int read(byte[] b, int off, int len) {
+         int answer = super.read(b, off, len);
+         if (answer < 0) {
+            throw new RuntimeException(exception);
+         }
+         return answer;
+      }
+   }
+
+   // Returns the data, then throws the given exception.
+   private static class IOExceptionInputStream extends InputStream {
+      private final InputStream data;
+      private final IOException exception;
+
+      IOExceptionInputStream(byte[] data, IOException exception) {
+         this.data = new ByteArrayInputStream(data);
+         this.exception = exception;
+      }
+
+      @Override
+      public int read() throws IOException {
+         int answer = data.read();
+         if (answer < 0) {
+            throw exception;
+         }
+         return answer;
+      }
+   }
+
+   // Spends "delay" milliseconds in each read, and records whether close() is called while a read is in progress.
+   static class SlowInputStream extends InputStream {
+      private final InputStream data;
+      private final long delay;
+      private volatile boolean reading = false;
+      volatile boolean overlapped = false;
+      volatile boolean closed = false;
+      volatile int reads = 0;
+
+      SlowInputStream(byte[] data, long delay) {
+         this.data = new ByteArrayInputStream(data);
+         this.delay = delay;
+      }
+
+      @Override
+      public int read() throws IOException {
+         byte[] b = new byte[1];
+         return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+         if (closed) {
+            throw new IOException("Stream closed.");
+         }
+         reading = true;
+         try {
+            reads++;
+            long end = System.nanoTime() + delay * 1000000;
+            while (System.nanoTime() < end) {
+               // busy wait (so interrupting the thread has no effect)
+            }
+            return data.read(b, off, len);
+         } finally {
+            reading = false;
+         }
+      }
+
+      @Override
+      public void close() {
+         if (reading) {
+            overlapped = true;
+         }
+         closed = true;
+      }
+   }
+
+   @Test
+   public void readsEverything() throws Throwable {
+      byte[] original = ParallelBzip2InputStreamTest.makeText(100000, 1);
+      InputStream in = new ReadAheadInputStream(new ByteArrayInputStream(original), 3, 1000);
+      assertArrayEquals(original, ParallelBzip2InputStreamTest.readAll(in));
+   }
+
+   @Test
+   public void singleByteReadsMatch() throws Throwable {
+      byte[] original = ParallelBzip2InputStreamTest.makeText(5000, 2);
+      InputStream in = new ReadAheadInputStream(new ByteArrayInputStream(original), 1, 7);
+      for (int i = 0; i < original.length; i++) {
+         assertEquals("Byte " + i, original[i] & 0xff, in.read());
+      }
+      assertEquals(-1, in.read());
+      assertEquals("End of stream should be sticky", -1, in.read());
+      in.close();
+   }
+
+   @Test
+   public void handlesEmptyStream() throws Throwable {
+      InputStream in = new ReadAheadInputStream(new ByteArrayInputStream(new byte[0]));
+      assertEquals(-1, in.read());
+      assertEquals(-1, in.read(new byte[10]));
+      in.close();
+   }
+
+   @Test
+   public void zeroLengthReadReturnsZero() throws Throwable {
+      InputStream in = new ReadAheadInputStream(new ByteArrayInputStream(new byte[]{1, 2, 3}));
+      assertEquals(0, in.read(new byte[10], 0, 0));
+      in.close();
+   }
+
+   @Test
+   public void passesIOExceptionToConsumerAfterData() throws Throwable {
+      byte[] original = ParallelBzip2InputStreamTest.makeText(3000, 3);
+      IOException expected = new IOException("Disk on fire");
+      InputStream in = new ReadAheadInputStream(new IOExceptionInputStream(original, expected), 2, 256);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] buffer = new byte[100];
+      try {
+         for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+            out.write(buffer, 0, n);
+         }
+         fail("Expected an exception");
+      } catch (IOException e) {
+         assertSame(expected, e);
+      }
+      assertArrayEquals("Data read before the exception should be delivered", original, out.toByteArray());
+      try {
+         in.read();
+         fail("Exception should be sticky");
+      } catch (IOException e) {
+         assertSame(expected, e);
+      }
+   }
+
+   @Test
+   public void passesRuntimeExceptionToConsumer() throws Throwable {
+      IOException cause = new IOException("cause");
+      InputStream in = new ReadAheadInputStream(new FailingInputStream(new byte[]{1, 2, 3}, cause));
+      assertEquals(3, in.read(new byte[10]));
+      try {
+         in.read();
+         fail("Expected an exception");
+      } catch (RuntimeException e) {
+         assertSame(cause, e.getCause());
+      }
+   }
+
+   @Test(expected = IOException.class)
+   public void readAfterCloseThrowsException() throws Throwable {
+      InputStream in = new ReadAheadInputStream(new ByteArrayInputStream(new byte[]{1, 2, 3}));
+      in.close();
+      in.read();
+   }
+
+   @Test
+   public void closeStopsBlockedReader() throws Throwable {
+      // The background thread fills both buffers, then waits for the consumer.
+      byte[] original = ParallelBzip2InputStreamTest.makeText(10000, 4);
+      ByteArrayInputStream base = new ByteArrayInputStream(original);
+      InputStream in = new ReadAheadInputStream(base, 1, 10);
+      assertEquals(original[0] & 0xff, in.read());
+      in.close();
+      Thread.sleep(50);
+      int remaining = base.available();
+      Thread.sleep(50);
+      assertEquals("Background thread should stop after close", remaining, base.available());
+      assertTrue(remaining > 0);
+   }
+
+   @Test
+   public void closeDoesNotOverlapBackgroundRead() throws Throwable {
+      for (int i = 0; i < 5; i++) {
+         SlowInputStream base = new SlowInputStream(ParallelBzip2InputStreamTest.makeText(100000, 5), 20);
+         InputStream in = new ReadAheadInputStream(base, 4, 100);
+         assertTrue(in.read() >= 0);
+         // Wait until the background thread is in the middle of another read.
+         while (base.reads < 2) {
+            Thread.sleep(1);
+         }
+         in.close();
+         for (int wait = 0; wait < 200 && !base.closed; wait++) {
+            Thread.sleep(5);
+         }
+         assertTrue("Underlying stream should be closed", base.closed);
+         assertFalse("close() overlapped a read", base.overlapped);
+      }
+   }
+
+   @Test
+   public void closeAfterEndClosesImmediately() throws Throwable {
+      SlowInputStream base = new SlowInputStream(new byte[]{1, 2}, 0);
+      InputStream in = new ReadAheadInputStream(base);
+      assertEquals(2, in.read(new byte[10]));
+      assertEquals(-1, in.read());
+      in.close();
+      assertTrue(base.closed);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void rejectsZeroDepth() throws Throwable {
+      new ReadAheadInputStream(new ByteArrayInputStream(new byte[0]), 0, 10);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void rejectsZeroBufferSize() throws Throwable {
+      new ReadAheadInputStream(new ByteArrayInputStream(new byte[0]), 1, 0);
+   }
+
+   @Test
+   public void openReadAheadInputStreamDecompresses() throws Throwable {
+      byte[] original = ParallelBzip2InputStreamTest.makeText(200000, 5);
+      File file = MemoryMappedInputStreamTest.makeTempFile(".bz2", ParallelBzip2InputStreamTest.compress(original, 1));
+      try {
+         InputStream in = InputHelper.openReadAheadInputStream(file.getAbsolutePath());
+         assertTrue(in instanceof ReadAheadInputStream);
+         assertArrayEquals(original, ParallelBzip2InputStreamTest.readAll(in));
+      } finally {
+         OutputHelperTest.deleteTempFile(file);
+      }
+   }
+
+   @Test
+   public void openReadAheadInputStreamUsesStreamMap() throws Throwable {
+      Map<String, InputStream> streamMap = new HashMap<String, InputStream>();
+      streamMap.put("-", new ByteArrayInputStream("Hello".getBytes()));
+      InputStream in = InputHelper.openReadAheadInputStream("-", streamMap, null, 2, 2);
+      assertEquals("Hello", new String(ParallelBzip2InputStreamTest.readAll(in)));
+   }
+
+   @Test
+   public void openReadAheadInputStreamChecksArgumentsBeforeOpening() throws Throwable {
+      final boolean[] opened = {false};
+      Map<String, InputHelper.FilterFactory> filterMap = new HashMap<String, InputHelper.FilterFactory>();
+      filterMap.put("rec", new InputHelper.FilterFactory() {
+         public InputStream makeFilter(InputStream in) {
+            opened[0] = true;
+            return in;
+         }
+      });
+      File file = MemoryMappedInputStreamTest.makeTempFile(".rec", "Hello".getBytes());
+      try {
+         int[][] bad = {{0, 2}, {2, 0}, {-1, 2}, {2, -1}};
+         for (int[] args : bad) {
+            try {
+               InputHelper.openReadAheadInputStream(file.getAbsolutePath(), null, filterMap, args[0], args[1]);
+               fail("Expected IllegalArgumentException for depth " + args[0] + ", bufferSize " + args[1]);
+            } catch (IllegalArgumentException e) {
+               // expected
+            }
+         }
+         assertFalse(opened[0]);
+      } finally {
+         OutputHelperTest.deleteTempFile(file);
+      }
+   }
+
+   @Test(expected = FileNotFoundException.class)
+   public void openReadAheadInputStreamThrowsExceptionIfFileMissing() throws Throwable {
+      InputHelper.openReadAheadInputStream("/no/such/file/anywhere.txt");
+   }
+}
@@ -0,0 +1,202 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class SniffedInputStreamTest {
+
+   private static final byte[] TEXT = "Hello, World!\nGoodbye\n".getBytes();
+
+   // Counts the bytes read from the underlying stream.
+   private static class CountingInputStream extends ByteArrayInputStream {
+      int count = 0;
+
+      CountingInputStream(byte[] data) {
+         super(data);
+      }
+
+      @Override
+      public synchronized int read() {
+         int answer = super.read();
+         if (answer >= 0) {
+            count++;
+         }
+         return answer;
+      }
+
+      @Override
+      public synchronized int read(byte[] b, int off, int len) {
+         int answer = super.read(b, off, len);
+         if (answer > 0) {
+            count += answer;
+         }
+         return answer;
+      }
+   }
+
+   //
+   // SniffedInputStream
+   //
+
+   @Test
+   public void headerIsPushedBack() throws Throwable {
+      SniffedInputStream in = new SniffedInputStream(new ByteArrayInputStream(TEXT), 4);
+      assertArrayEquals("Hell".getBytes(), in.getHeader());
+      assertTrue(in.atStart());
+      assertArrayEquals(TEXT, ParallelBzip2InputStreamTest.readAll(in));
+   }
+
+   @Test
+   public void handlesShortStreams() throws Throwable {
+      SniffedInputStream in = new SniffedInputStream(new ByteArrayInputStream("ab".getBytes()), 4);
+      assertArrayEquals("ab".getBytes(), in.getHeader());
+      assertTrue(in.startsWith("ab".getBytes()));
+      assertFalse(in.startsWith("abc".getBytes()));
+      assertArrayEquals("ab".getBytes(), ParallelBzip2InputStreamTest.readAll(in));
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void rejectsNegativeLength() throws Throwable {
+      new SniffedInputStream(new ByteArrayInputStream(TEXT), -1);
+   }
+
+   @Test
+   public void handlesEmptyStreams() throws Throwable {
+      SniffedInputStream in = new SniffedInputStream(new ByteArrayInputStream(new byte[0]), 3);
+      assertEquals(0, in.getHeader().length);
+      assertFalse(in.startsWith("B".getBytes()));
+      assertEquals(-1, in.read());
+   }
+
+   @Test
+   public void startsWithComparesHeader() throws Throwable {
+      SniffedInputStream in = new SniffedInputStream(new ByteArrayInputStream(TEXT), 3);
+      assertTrue(in.startsWith("Hel".getBytes()));
+      assertTrue(in.startsWith("H".getBytes()));
+      assertTrue(in.startsWith(new byte[0]));
+      assertFalse(in.startsWith("HeX".getBytes()));
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void startsWithRejectsLongMagicNumbers() throws Throwable {
+      new SniffedInputStream(new ByteArrayInputStream(TEXT), 3).startsWith("Hell".getBytes());
+   }
+
+   @Test
+   public void atStartIsFalseAfterRead() throws Throwable {
+      SniffedInputStream in = new SniffedInputStream(new ByteArrayInputStream(TEXT), 3);
+      in.read();
+      assertFalse(in.atStart());
+   }
+
+   //
+   // Sniffing filters
+   //
+
+   @Test
+   public void bzip2FactoryUsesSniffedHeader() throws Throwable {
+      CountingInputStream base = new CountingInputStream(InputHelperTest.COMPRESSED_BZIPPED_MESSAGE);
+      SniffedInputStream sniffed = new SniffedInputStream(base, 3);
+      assertEquals(3, base.count);
+      InputStream in = InputHelper.BZIP2_FACTORY.makeFilter(sniffed);
+      assertEquals(InputHelperTest.UNCOMPRESSED_BZIPPED_MESSAGE, new String(ParallelBzip2InputStreamTest.readAll(in)));
+      assertEquals("Each byte should be read from the underlying stream exactly once",
+            InputHelperTest.COMPRESSED_BZIPPED_MESSAGE.length, base.count);
+   }
+
+   @Test(expected = InputHelper.FilterFactory.FilterFactoryException.class)
+   public void bzip2FactoryRejectsSniffedNonBzip2() throws Throwable {
+      InputHelper.BZIP2_FACTORY.makeFilter(new SniffedInputStream(new ByteArrayInputStream(TEXT), 3));
+   }
+
+   @Test
+   public void bzip2FactoriesReportMagicNumber() throws Throwable {
+      InputHelper.MagicNumberFilterFactory factory = (InputHelper.MagicNumberFilterFactory) InputHelper.BZIP2_FACTORY;
+      assertArrayEquals("BZh".getBytes(), factory.getMagicNumber());
+      factory = (InputHelper.MagicNumberFilterFactory) InputHelper.PARALLEL_BZIP2_FACTORY;
+      assertArrayEquals("BZh".getBytes(), factory.getMagicNumber());
+   }
+
+   @Test
+   public void sniffingFactoryDecompressesBzip2() throws Throwable {
+      InputStream in = InputHelper.makeSniffingFilterFactory(InputHelper.DEFAULT_FILTER_FACTORY_MAP).makeFilter(
+            new ByteArrayInputStream(InputHelperTest.COMPRESSED_BZIPPED_MESSAGE));
+      assertEquals(InputHelperTest.UNCOMPRESSED_BZIPPED_MESSAGE, new String(ParallelBzip2InputStreamTest.readAll(in)));
+   }
+
+   @Test
+   public void sniffingFactoryPassesUnrecognizedDataThrough() throws Throwable {
+      InputStream in = InputHelper.makeSniffingFilterFactory(InputHelper.DEFAULT_FILTER_FACTORY_MAP).makeFilter(
+            new ByteArrayInputStream(TEXT));
+      assertArrayEquals(TEXT, ParallelBzip2InputStreamTest.readAll(in));
+   }
+
+   @Test
+   public void sniffingFactoryWithNullMapPassesDataThrough() throws Throwable {
+      InputStream in = InputHelper.makeSniffingFilterFactory(null).makeFilter(
+            new ByteArrayInputStream(InputHelperTest.COMPRESSED_BZIPPED_MESSAGE));
+      assertArrayEquals(InputHelperTest.COMPRESSED_BZIPPED_MESSAGE, ParallelBzip2InputStreamTest.readAll(in));
+   }
+
+   @Test
+   public void openSniffedInputStreamIgnoresSuffix() throws Throwable {
+      File file = MemoryMappedInputStreamTest.makeTempFile(".txt", InputHelperTest.COMPRESSED_BZIPPED_MESSAGE);
+      try {
+         InputStream in = InputHelper.openSniffedInputStream(file.getAbsolutePath());
+         assertEquals(InputHelperTest.UNCOMPRESSED_BZIPPED_MESSAGE,
+               new String(ParallelBzip2InputStreamTest.readAll(in)));
+      } finally {
+         OutputHelperTest.deleteTempFile(file);
+      }
+   }
+
+   @Test
+   public void openSniffedInputStreamReadsPlainFiles() throws Throwable {
+      File file = MemoryMappedInputStreamTest.makeTempFile(".bz2", TEXT);
+      try {
+         InputStream in = InputHelper.openSniffedInputStream(file.getAbsolutePath());
+         assertArrayEquals(TEXT, ParallelBzip2InputStreamTest.readAll(in));
+      } finally {
+         OutputHelperTest.deleteTempFile(file);
+      }
+   }
+
+   @Test
+   public void openSniffedInputStreamFiltersStreamMapEntries() throws Throwable {
+      Map<String, InputStream> streamMap = new HashMap<String, InputStream>();
+      streamMap.put("-", new ByteArrayInputStream(InputHelperTest.COMPRESSED_BZIPPED_MESSAGE));
+      InputStream in = InputHelper.openSniffedInputStream("-", streamMap, InputHelper.DEFAULT_FILTER_FACTORY_MAP);
+      assertEquals(InputHelperTest.UNCOMPRESSED_BZIPPED_MESSAGE, new String(ParallelBzip2InputStreamTest.readAll(in)));
+   }
+
+   @Test(expected = FileNotFoundException.class)
+   public void openSniffedInputStreamThrowsExceptionIfFileMissing() throws Throwable {
+      InputHelper.openSniffedInputStream("/no/such/file/anywhere.bz2");
+   }
+}
@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) Zachary Kurmas 2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package edu.gvsu.kurmasz.warszawa.io;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Zachary Kurmas
+ */
+// (C) Zachary Kurmas 2026
+
+public class XXHash32Test {
+
+   @Test
+   public void matchesReferenceValues() throws Throwable {
+      assertEquals(0x02CC5D05, XXHash32.hash(new byte[0], 0, 0, 0));
+      assertEquals(0x550D7456, XXHash32.hash("a".getBytes(), 0, 1, 0));
+      assertEquals(0x32D153FF, XXHash32.hash("abc".getBytes(), 0, 3, 0));
+      byte[] spam = "Nobody inspects the spammish repetition".getBytes();
+      assertEquals(0xE2293B2F, XXHash32.hash(spam, 0, spam.length, 0));
+   }
+
+   @Test
+   public void incrementalUpdatesMatchSingleUpdate() throws Throwable {
+      byte[] data = new byte[1000];
+      new Random(5).nextBytes(data);
+      int expected = XXHash32.hash(data, 0, data.length, 17);
+      int[] chunkSizes = {1, 3, 15, 16, 17, 100};
+      for (int chunk : chunkSizes) {
+         XXHash32 x = new XXHash32(17);
+         for (int off = 0; off < data.length; off += chunk) {
+            x.update(data, off, Math.min(chunk, data.length - off));
+         }
+         assertEquals("Chunk size " + chunk, expected, x.getValue());
+      }
+   }
+}